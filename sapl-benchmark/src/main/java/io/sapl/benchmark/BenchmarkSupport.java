@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.SAPLInterpreter;
+import io.sapl.interpreter.combinators.PolicyDocumentCombiningAlgorithm;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.pip.AttributeContext;
+import io.sapl.pdp.config.PDPConfiguration;
+import io.sapl.prp.Document;
+import io.sapl.prp.PolicyRetrievalPoint;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.PrpUpdateEvent.Type;
+import io.sapl.prp.index.naive.NaiveImmutableParsedDocumentIndex;
+import lombok.experimental.UtilityClass;
+import reactor.util.context.Context;
+
+/**
+ * Fixtures shared by the benchmarks.
+ */
+@UtilityClass
+class BenchmarkSupport {
+
+    private static final SAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
+    static List<Document> parse(List<String> policies) {
+        return policies.stream().map(INTERPRETER::parseDocument).toList();
+    }
+
+    static PrpUpdateEvent publish(List<Document> documents) {
+        return new PrpUpdateEvent(documents.stream().map(document -> new PrpUpdateEvent.Update(Type.PUBLISH, document))
+                .toList());
+    }
+
+    static PolicyRetrievalPoint naiveIndex(List<String> policies) {
+        return new NaiveImmutableParsedDocumentIndex().apply(publish(parse(policies)));
+    }
+
+    static PDPConfiguration configuration(AttributeContext attributeContext, FunctionContext functionContext,
+            PolicyRetrievalPoint policyRetrievalPoint) {
+        return new PDPConfiguration("benchmark", attributeContext, functionContext, Map.of(),
+                PolicyDocumentCombiningAlgorithm.DENY_OVERRIDES, UnaryOperator.identity(), UnaryOperator.identity(),
+                policyRetrievalPoint);
+    }
+
+    static Context authorizationContext(AttributeContext attributeContext, FunctionContext functionContext,
+            AuthorizationSubscription authorizationSubscription) {
+        var ctx = AuthorizationContext.setAttributeContext(Context.empty(), attributeContext);
+        ctx = AuthorizationContext.setFunctionContext(ctx, functionContext);
+        ctx = AuthorizationContext.setVariables(ctx, Map.of());
+        return AuthorizationContext.setSubscriptionVariables(ctx, authorizationSubscription);
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.Policy;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler.CompiledExpression;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import reactor.util.context.Context;
+
+/**
+ * Measures the evaluation of an attribute-free target expression by its
+ * compiled closure and by the reactive evaluation of its AST.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompiledExpressionBenchmark {
+
+    private static final AuthorizationSubscription SUBSCRIPTION = AuthorizationSubscription.of(
+            Map.of("role", "user"), Map.of("verb", "read"),
+            Map.of("depth", 3, "tags", List.of("public", "archived")));
+
+    private Expression         target;
+    private CompiledExpression compiled;
+    private Context            ctx;
+
+    @Setup
+    public void setUp() {
+        final var document = BenchmarkSupport.parse(List.of("""
+                policy "compiled"
+                permit subject.role == "admin" | action.verb == "read" & resource.depth > 2
+                    & resource.tags[0] == "public"
+                """)).get(0);
+        target   = ((Policy) document.sapl().getPolicyElement()).getTargetExpression();
+        compiled = ExpressionCompiler.compiled(target);
+        ctx      = BenchmarkSupport.authorizationContext(new AnnotationAttributeContext(),
+                new AnnotationFunctionContext(), SUBSCRIPTION);
+    }
+
+    @Benchmark
+    public Val compiledClosure() {
+        return compiled.evaluate(ctx);
+    }
+
+    @Benchmark
+    public Val reactivePipeline() {
+        return target.evaluate().contextWrite(ctx).blockFirst();
+    }
+
+}
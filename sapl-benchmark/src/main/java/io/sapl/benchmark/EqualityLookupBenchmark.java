@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.index.UpdateEventDrivenPolicyRetrievalPoint;
+import io.sapl.prp.index.canonical.CanonicalImmutableParsedDocumentIndex;
+import io.sapl.prp.index.canonical.ordering.DefaultPredicateOrderStrategy;
+import reactor.util.context.Context;
+
+/**
+ * Measures lookups in the canonical index with and without equality
+ * partitions. The targets of the documents compare a few attributes of the
+ * subscription with different literals. With partitions, each attribute is
+ * evaluated once and the true predicate is found by a single hash lookup.
+ * Without partitions, every distinct equality predicate is evaluated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EqualityLookupBenchmark {
+
+    private static final int ROLES = 10;
+    private static final int VERBS = 20;
+    private static final int TYPES = 50;
+
+    private static final AuthorizationSubscription SUBSCRIPTION = AuthorizationSubscription.of(
+            Map.of("role", "role_3"), Map.of("verb", "verb_7"),
+            Map.of("type", "type_17", "id", "resource_4711"));
+
+    @Param({ "PARTITIONED", "UNPARTITIONED" })
+    public String index;
+
+    @Param({ "10000", "100000" })
+    public int documents;
+
+    private UpdateEventDrivenPolicyRetrievalPoint policyRetrievalPoint;
+    private Context                               ctx;
+
+    @Setup
+    public void setUp() {
+        final var attributeContext = new AnnotationAttributeContext();
+        final var functionContext  = new AnnotationFunctionContext();
+        final var emptyIndex       = new CanonicalImmutableParsedDocumentIndex(new DefaultPredicateOrderStrategy(),
+                "PARTITIONED".equals(index), attributeContext, functionContext);
+        final var policies         = IntStream.range(0, documents).mapToObj(i -> """
+                policy "policy_%d"
+                permit subject.role == "role_%d" & action.verb == "verb_%d" & resource.type == "type_%d"
+                       & resource.id == "resource_%d"
+                """.formatted(i, i % ROLES, i % VERBS, i % TYPES, i)).toList();
+        policyRetrievalPoint = emptyIndex.apply(BenchmarkSupport.publish(BenchmarkSupport.parse(policies)));
+        ctx                  = BenchmarkSupport.authorizationContext(attributeContext, functionContext,
+                SUBSCRIPTION);
+    }
+
+    @Benchmark
+    public PolicyRetrievalResult retrievePolicies() {
+        return policyRetrievalPoint.retrievePolicies().contextWrite(ctx).block();
+    }
+
+}
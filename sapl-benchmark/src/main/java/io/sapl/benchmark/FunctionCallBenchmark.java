@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.functions.StandardFunctionLibrary;
+import io.sapl.functions.TemporalFunctionLibrary;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.Policy;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.functions.FunctionContext.ResolvedFunction;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import reactor.util.context.Context;
+
+/**
+ * Measures calls of functions of the standard and the temporal library. A call
+ * looking up the function by its fully qualified name is compared to a call of
+ * the function resolved once, as done for the function identifiers of a parsed
+ * document. A target expression calling both functions shows the cost within a
+ * reactive evaluation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FunctionCallBenchmark {
+
+    private static final String LENGTH = StandardFunctionLibrary.NAME + ".length";
+    private static final String BEFORE = TemporalFunctionLibrary.NAME + ".before";
+    private static final Val    TAGS   = Val.of(Val.JSON.arrayNode().add("public").add("archived").add("internal"));
+    private static final Val    START  = Val.of("2024-01-01T08:00:00Z");
+    private static final Val    END    = Val.of("2024-12-31T18:00:00Z");
+
+    private static final AuthorizationSubscription SUBSCRIPTION = AuthorizationSubscription.of(
+            Map.of("role", "user"), Map.of("verb", "read"),
+            Map.of("tags", List.of("public", "archived"), "created", "2024-03-01T12:00:00Z"));
+
+    private AnnotationFunctionContext functionContext;
+    private ResolvedFunction          length;
+    private ResolvedFunction          before;
+    private Expression                target;
+    private Context                   ctx;
+
+    @Setup
+    public void setUp() throws InitializationException {
+        functionContext = new AnnotationFunctionContext();
+        functionContext.loadLibrary(StandardFunctionLibrary.class);
+        functionContext.loadLibrary(TemporalFunctionLibrary.class);
+        length = functionContext.resolveFunction(LENGTH);
+        before = functionContext.resolveFunction(BEFORE);
+
+        final var document = BenchmarkSupport.parse(List.of("""
+                policy "functions"
+                permit standard.length(resource.tags) > 1 & time.before(resource.created, "2024-12-31T18:00:00Z")
+                """)).get(0);
+        target = ((Policy) document.sapl().getPolicyElement()).getTargetExpression();
+        ctx    = BenchmarkSupport.authorizationContext(new AnnotationAttributeContext(), functionContext,
+                SUBSCRIPTION);
+    }
+
+    @Benchmark
+    public Val standardLookupByName() {
+        return functionContext.evaluateWithoutTrace(null, LENGTH, TAGS);
+    }
+
+    @Benchmark
+    public Val standardResolvedOnce() {
+        return length.evaluateWithoutTrace(null, TAGS);
+    }
+
+    @Benchmark
+    public Val temporalLookupByName() {
+        return functionContext.evaluateWithoutTrace(null, BEFORE, START, END);
+    }
+
+    @Benchmark
+    public Val temporalResolvedOnce() {
+        return before.evaluateWithoutTrace(null, START, END);
+    }
+
+    @Benchmark
+    public Val targetExpression() {
+        return target.evaluate().contextWrite(ctx).blockFirst();
+    }
+
+}
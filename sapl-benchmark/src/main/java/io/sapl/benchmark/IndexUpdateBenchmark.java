@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.PrpUpdateEvent.Type;
+import io.sapl.prp.index.UpdateEventDrivenPolicyRetrievalPoint;
+import io.sapl.prp.index.canonical.CanonicalImmutableParsedDocumentIndex;
+
+/**
+ * Measures updates of the canonical index. Publishing a single document only
+ * transforms the target of that document and updates the mappings of the
+ * previous index data for it, and an update leaving the document set unchanged
+ * keeps the index data of the previous index. Rebuilding the index from all
+ * documents is the baseline both are compared to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexUpdateBenchmark {
+
+    @Param({ "100", "1000", "20000" })
+    public int documents;
+
+    private CanonicalImmutableParsedDocumentIndex emptyIndex;
+    private UpdateEventDrivenPolicyRetrievalPoint index;
+    private PrpUpdateEvent                        publishOne;
+    private PrpUpdateEvent                        publishAll;
+    private PrpUpdateEvent                        consistent;
+
+    @Setup
+    public void setUp() {
+        final var parsed = BenchmarkSupport.parse(IntStream.rangeClosed(0, documents).mapToObj(i -> """
+                policy "policy_%d"
+                permit subject.role == "role_%d" & action.verb == "read" | resource.type == "type_%d"
+                """.formatted(i, i, i % 10)).toList());
+        emptyIndex = new CanonicalImmutableParsedDocumentIndex(new AnnotationAttributeContext(),
+                new AnnotationFunctionContext());
+        index      = emptyIndex.apply(BenchmarkSupport.publish(parsed.subList(0, documents)));
+        publishOne = BenchmarkSupport.publish(List.of(parsed.get(documents)));
+        publishAll = BenchmarkSupport.publish(parsed);
+        consistent = new PrpUpdateEvent(new PrpUpdateEvent.Update(Type.CONSISTENT, null));
+    }
+
+    @Benchmark
+    public UpdateEventDrivenPolicyRetrievalPoint publishOneDocument() {
+        return index.apply(publishOne);
+    }
+
+    @Benchmark
+    public UpdateEventDrivenPolicyRetrievalPoint rebuildFromAllDocuments() {
+        return emptyIndex.apply(publishAll);
+    }
+
+    @Benchmark
+    public UpdateEventDrivenPolicyRetrievalPoint keepUnchangedDocumentSet() {
+        return index.apply(consistent);
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pip.EnvironmentAttribute;
+import io.sapl.api.pip.PolicyInformationPoint;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.pdp.EmbeddedPolicyDecisionPoint;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Measures decisions with deny-overrides for a cheap deny policy and permit
+ * policies which each query a policy information point with the latency of a
+ * remote service. Combining eagerly, the decision waits for all attributes.
+ * Combining lazily, the permit policies are deferred and never subscribed to,
+ * as the deny policy already decides.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LazyCombiningBenchmark {
+
+    private static final Duration PIP_LATENCY = Duration.ofMillis(1L);
+
+    private static final AuthorizationSubscription SUBSCRIPTION = AuthorizationSubscription
+            .of(Map.of("role", "user"), Map.of("verb", "read"), Map.of("type", "invoice"));
+
+    @Param({ "true", "false" })
+    public boolean lazyDocumentCombining;
+
+    @Param({ "1", "10", "100" })
+    public int attributePolicies;
+
+    private EmbeddedPolicyDecisionPoint pdp;
+
+    @Setup
+    public void setUp() throws InitializationException {
+        final var attributeContext = new AnnotationAttributeContext();
+        attributeContext.loadPolicyInformationPoint(new RemotePolicyInformationPoint());
+        final var policies = new ArrayList<String>();
+        policies.add("""
+                policy "cheap_deny"
+                deny resource.type == "invoice"
+                """);
+        IntStream.range(0, attributePolicies).mapToObj(i -> """
+                policy "attribute_permit_%d"
+                permit action.verb == "read"
+                where
+                  <remote.clearance> > %d;
+                """.formatted(i, i)).forEach(policies::add);
+        final var configuration = BenchmarkSupport.configuration(attributeContext, new AnnotationFunctionContext(),
+                BenchmarkSupport.naiveIndex(policies));
+        pdp = EmbeddedPolicyDecisionPoint.builder(() -> Flux.just(configuration))
+                .lazyDocumentCombining(lazyDocumentCombining).build();
+    }
+
+    @Benchmark
+    public AuthorizationDecision decideOnce() {
+        return pdp.decideOnce(SUBSCRIPTION).block();
+    }
+
+    @PolicyInformationPoint(name = "remote")
+    public static class RemotePolicyInformationPoint {
+
+        @EnvironmentAttribute
+        public Flux<Val> clearance() {
+            return Mono.just(Val.of(1000)).delayElement(PIP_LATENCY).flux();
+        }
+
+    }
+
+}
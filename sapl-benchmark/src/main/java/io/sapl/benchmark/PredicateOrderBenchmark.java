@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.index.UpdateEventDrivenPolicyRetrievalPoint;
+import io.sapl.prp.index.canonical.CanonicalImmutableParsedDocumentIndex;
+import io.sapl.prp.index.canonical.ordering.AdaptivePredicateOrderStrategy;
+import io.sapl.prp.index.canonical.ordering.DefaultPredicateOrderStrategy;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+/**
+ * Measures lookups in the canonical index with the structural predicate order
+ * and with the order adapted to measured costs and selectivity. All documents
+ * share an expensive regular expression which never eliminates a candidate,
+ * while the cheap comparison unique to each document eliminates it. The
+ * adaptive order learns to evaluate the comparisons first during warm-up.
+ * <p>
+ * The lookups cycle through a pool of subscriptions whose depths follow a
+ * Zipf distribution drawn from a fixed seed, so that few depths dominate the
+ * traffic as in production while every run sees the same sequence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PredicateOrderBenchmark {
+
+    private static final int    POOL_SIZE     = 4096;
+    private static final long   SEED          = 4711L;
+    private static final double ZIPF_EXPONENT = 1.1D;
+
+    @Param({ "DEFAULT", "ADAPTIVE" })
+    public String predicateOrder;
+
+    @Param({ "100", "1000" })
+    public int documents;
+
+    private UpdateEventDrivenPolicyRetrievalPoint index;
+    private List<Context>                         contexts;
+    private int                                   next;
+
+    @Setup
+    public void setUp() {
+        final var attributeContext = new AnnotationAttributeContext();
+        final var functionContext  = new AnnotationFunctionContext();
+        final var strategy         = "ADAPTIVE".equals(predicateOrder)
+                ? new AdaptivePredicateOrderStrategy(Duration.ofMillis(100L),
+                        AdaptivePredicateOrderStrategy.DEFAULT_MINIMUM_SAMPLES, Schedulers.single())
+                : new DefaultPredicateOrderStrategy();
+        final var policies         = IntStream.range(0, documents).mapToObj(i -> """
+                policy "policy_%d"
+                permit subject.name =~ "^user_[0-9]+@(example|test)[.](org|com)$" & resource.depth > %d
+                """.formatted(i, i)).toList();
+        index = new CanonicalImmutableParsedDocumentIndex(strategy, attributeContext, functionContext)
+                .apply(BenchmarkSupport.publish(BenchmarkSupport.parse(policies)));
+        final var random           = new Random(SEED);
+        final var distribution     = zipfDistribution(documents);
+        contexts = IntStream.range(0, POOL_SIZE).mapToObj(i -> {
+            final var rank         = sampleRank(distribution, random);
+            final var subscription = AuthorizationSubscription.of(Map.of("name", "user_%d@example.org".formatted(rank)),
+                    Map.of("verb", "read"), Map.of("depth", rank));
+            return BenchmarkSupport.authorizationContext(attributeContext, functionContext, subscription);
+        }).toList();
+    }
+
+    @Benchmark
+    public PolicyRetrievalResult retrievePolicies() {
+        final var ctx = contexts.get(next);
+        next = (next + 1) % POOL_SIZE;
+        return index.retrievePolicies().contextWrite(ctx).block();
+    }
+
+    private static double[] zipfDistribution(int ranks) {
+        final var cumulative = new double[ranks];
+        var       sum        = 0.0D;
+        for (var rank = 0; rank < ranks; rank++) {
+            sum              += 1.0D / Math.pow(rank + 1.0D, ZIPF_EXPONENT);
+            cumulative[rank]  = sum;
+        }
+        for (var rank = 0; rank < ranks; rank++) {
+            cumulative[rank] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sampleRank(double[] cumulative, Random random) {
+        final var position = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(position < 0 ? -position - 1 : position, cumulative.length - 1);
+    }
+
+}
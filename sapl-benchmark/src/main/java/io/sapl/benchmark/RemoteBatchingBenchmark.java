@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationSubscription;
+import io.sapl.api.pdp.PolicyDecisionPoint;
+import io.sapl.pdp.remote.RemotePolicyDecisionPoint;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Measures concurrent decideOnce calls of the remote HTTP PDP with and without
+ * batching. A PDP server stub in the same JVM answers every subscription with
+ * a permit decision, so the measurement is dominated by the requests and their
+ * encoding. Batching trades latency for throughput, thus both the decisions per
+ * millisecond and the sampled duration of a round of concurrent calls,
+ * including the batching delay, are reported. JMH divides both by the number
+ * of calls per round.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RemoteBatchingBenchmark {
+
+    private static final int CONCURRENT_CALLS = 100;
+
+    private static final String DECIDE_ONCE       = "/api/pdp/decide-once";
+    private static final String DECIDE_ONCE_BATCH = "/api/pdp/decide-once-batch";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new Jdk8Module());
+
+    private static final AuthorizationSubscription SUBSCRIPTION = AuthorizationSubscription.of("subject", "read",
+            "resource");
+
+    @Param({ "true", "false" })
+    public boolean batching;
+
+    private DisposableServer    server;
+    private PolicyDecisionPoint pdp;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        final var permit = MAPPER.writeValueAsString(AuthorizationDecision.PERMIT);
+        server = HttpServer.create().host("localhost").port(0)
+                .route(routes -> routes
+                        .post(DECIDE_ONCE,
+                                (request, response) -> response
+                                        .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                                        .sendString(request.receive().aggregate().asString().map(body -> permit)))
+                        .post(DECIDE_ONCE_BATCH,
+                                (request, response) -> response
+                                        .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                                        .sendString(request.receive().aggregate().asString()
+                                                .map(RemoteBatchingBenchmark::permitAll))))
+                .bindNow();
+        final var builder = RemotePolicyDecisionPoint.builder().http().baseUrl("http://localhost:" + server.port());
+        if (batching) {
+            builder.batchDecideOnce(CONCURRENT_CALLS, Duration.ofMillis(1L));
+        }
+        pdp = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.disposeNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENT_CALLS)
+    public AuthorizationDecision decideOnce() {
+        return Flux.range(0, CONCURRENT_CALLS).flatMap(i -> pdp.decideOnce(SUBSCRIPTION)).blockLast();
+    }
+
+    private static String permitAll(String body) {
+        try {
+            final var subscriptions = MAPPER.readValue(body, MultiAuthorizationSubscription.class);
+            final var decisions     = new MultiAuthorizationDecision();
+            for (var subscription : subscriptions) {
+                decisions.setAuthorizationDecisionForSubscriptionWithId(subscription.authorizationSubscriptionId(),
+                        AuthorizationDecision.PERMIT);
+            }
+            return MAPPER.writeValueAsString(decisions);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.networknt.schema.JsonSchema;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.functions.SchemaValidationLibrary;
+
+/**
+ * Measures validating the same value against the same JSON schema repeatedly.
+ * Compiling the schema once is compared to compiling it for every validation,
+ * as done before compiled schemas were reused, and to the function of the
+ * schema validation library, which looks up the compiled schema by content.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaValidationBenchmark {
+
+    private static final String SCHEMA = """
+            {
+              "$schema": "https://json-schema.org/draft/2020-12/schema",
+              "type": "object",
+              "required": [ "id", "owner", "amount", "items" ],
+              "properties": {
+                "id":     { "type": "integer", "minimum": 1 },
+                "owner":  { "type": "string", "pattern": "^[a-z]+@example[.]org$" },
+                "amount": { "type": "number", "minimum": 0 },
+                "state":  { "enum": [ "draft", "approved", "paid" ] },
+                "items":  {
+                  "type": "array",
+                  "items": {
+                    "type": "object",
+                    "required": [ "article", "quantity" ],
+                    "properties": {
+                      "article":  { "type": "string" },
+                      "quantity": { "type": "integer", "minimum": 1 }
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+    private static final String INVOICE = """
+            {
+              "id": 4711,
+              "owner": "alice@example.org",
+              "amount": 1234.56,
+              "state": "approved",
+              "items": [
+                { "article": "ART-000001", "quantity": 2 },
+                { "article": "ART-000002", "quantity": 1 },
+                { "article": "ART-000003", "quantity": 5 }
+              ]
+            }
+            """;
+
+    private Val        schema;
+    private Val        invoice;
+    private JsonSchema compiledSchema;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        schema         = Val.ofJson(SCHEMA);
+        invoice        = Val.ofJson(INVOICE);
+        compiledSchema = SchemaValidationLibrary.compileSchema(schema.get());
+    }
+
+    @Benchmark
+    public boolean compiledOnce() {
+        return SchemaValidationLibrary.isCompliantWithSchema(invoice.get(), compiledSchema);
+    }
+
+    @Benchmark
+    public boolean compiledPerCall() {
+        return SchemaValidationLibrary.isCompliantWithSchema(invoice.get(),
+                SchemaValidationLibrary.compileSchema(schema.get()));
+    }
+
+    @Benchmark
+    public Val libraryFunction() {
+        return SchemaValidationLibrary.isCompliant(invoice, schema);
+    }
+
+}
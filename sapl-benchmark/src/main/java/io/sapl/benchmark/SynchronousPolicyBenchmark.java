@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.functions.Function;
+import io.sapl.api.functions.FunctionLibrary;
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.pdp.EmbeddedPolicyDecisionPoint;
+import lombok.experimental.UtilityClass;
+import reactor.core.publisher.Flux;
+
+/**
+ * Measures the latency of single decisions for policies without attribute
+ * access, all matching the subscription. If all functions the policies call are
+ * declared pure, they are evaluated synchronously in a single pass. Otherwise,
+ * the same policies are evaluated reactively. The sampled latencies show the
+ * percentiles in addition to the average.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SynchronousPolicyBenchmark {
+
+    private static final AuthorizationSubscription SUBSCRIPTION = AuthorizationSubscription
+            .of(Map.of("role", "User"), Map.of("verb", "read"), Map.of("depth", 3));
+
+    @Param({ "true", "false" })
+    public boolean pureFunctions;
+
+    @Param({ "1", "10", "1000" })
+    public int matchingPolicies;
+
+    private EmbeddedPolicyDecisionPoint pdp;
+
+    @Setup
+    public void setUp() throws InitializationException {
+        final var functionContext = new AnnotationFunctionContext();
+        functionContext.loadLibrary(pureFunctions ? PureLibrary.class : ImpureLibrary.class);
+        final var policies      = IntStream.range(0, matchingPolicies).mapToObj(i -> """
+                policy "synchronous_%d"
+                permit action.verb == "read"
+                where
+                  bench.normalize(subject.role) == "user";
+                  resource.depth > 2;
+                obligation { "type": "log", "role": subject.role }
+                advice "notify"
+                """.formatted(i)).toList();
+        final var configuration = BenchmarkSupport.configuration(new AnnotationAttributeContext(), functionContext,
+                BenchmarkSupport.naiveIndex(policies));
+        pdp = EmbeddedPolicyDecisionPoint.builder(() -> Flux.just(configuration)).build();
+    }
+
+    @Benchmark
+    public AuthorizationDecision decideOnce() {
+        return pdp.decideOnce(SUBSCRIPTION).block();
+    }
+
+    @UtilityClass
+    @FunctionLibrary(name = "bench", pure = true)
+    public static class PureLibrary {
+
+        @Function
+        public Val normalize(Val text) {
+            return Val.of(text.getText().toLowerCase(Locale.ROOT));
+        }
+
+    }
+
+    @UtilityClass
+    @FunctionLibrary(name = "bench")
+    public static class ImpureLibrary {
+
+        @Function
+        public Val normalize(Val text) {
+            return Val.of(text.getText().toLowerCase(Locale.ROOT));
+        }
+
+    }
+
+}
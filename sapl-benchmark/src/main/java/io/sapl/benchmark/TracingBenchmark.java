@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.pdp.EmbeddedPolicyDecisionPoint;
+import reactor.core.publisher.Flux;
+
+/**
+ * Measures single decisions of the embedded PDP with and without recording the
+ * evaluation trace. All documents are pure and match the subscription, so the
+ * difference is the cost of building the trace of every evaluated document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracingBenchmark {
+
+    private static final AuthorizationSubscription SUBSCRIPTION = AuthorizationSubscription
+            .of(Map.of("role", "role_1"), Map.of("verb", "read"), Map.of("depth", 3));
+
+    @Param({ "true", "false" })
+    public boolean tracingEnabled;
+
+    @Param({ "10", "100" })
+    public int documents;
+
+    private EmbeddedPolicyDecisionPoint pdp;
+
+    @Setup
+    public void setUp() {
+        final var policies      = IntStream.range(0, documents).mapToObj(i -> """
+                policy "policy_%d"
+                permit action.verb == "read"
+                where
+                  subject.role == "role_%d";
+                  resource.depth > %d;
+                """.formatted(i, i, i % 5)).toList();
+        final var configuration = BenchmarkSupport.configuration(new AnnotationAttributeContext(),
+                new AnnotationFunctionContext(), BenchmarkSupport.naiveIndex(policies));
+        pdp = EmbeddedPolicyDecisionPoint.builder(() -> Flux.just(configuration)).tracingEnabled(tracingEnabled)
+                .build();
+    }
+
+    @Benchmark
+    public AuthorizationDecision decideOnce() {
+        return pdp.decideOnce(SUBSCRIPTION).block();
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.pdp.EmbeddedPolicyDecisionPoint;
+import reactor.core.publisher.Flux;
+
+/**
+ * Measures decisions for a policy defining many variables in its body. Each
+ * definition reads the previous variable and a subscription variable, which
+ * is bound before all policy variables. Run with {@code -prof gc} to report
+ * the allocations per decision in addition to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VariableBenchmark {
+
+    private static final AuthorizationSubscription SUBSCRIPTION = AuthorizationSubscription
+            .of(Map.of("level", 1), Map.of("verb", "read"), Map.of("depth", 3));
+
+    @Param({ "10", "100", "500" })
+    public int variables;
+
+    private EmbeddedPolicyDecisionPoint pdp;
+
+    @Setup
+    public void setUp() {
+        final var definitions   = IntStream.range(1, variables)
+                .mapToObj(i -> "  var v_%d = v_%d + subject.level;".formatted(i, i - 1))
+                .collect(Collectors.joining("\n"));
+        final var policy        = """
+                policy "variables"
+                permit
+                where
+                  var v_0 = subject.level;
+                %s
+                  v_%d > 0;
+                """.formatted(definitions, variables - 1);
+        final var configuration = BenchmarkSupport.configuration(new AnnotationAttributeContext(),
+                new AnnotationFunctionContext(), BenchmarkSupport.naiveIndex(List.of(policy)));
+        pdp = EmbeddedPolicyDecisionPoint.builder(() -> Flux.just(configuration)).build();
+    }
+
+    @Benchmark
+    public AuthorizationDecision decideOnce() {
+        return pdp.decideOnce(SUBSCRIPTION).block();
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+
+/**
+ * Measures encoding and decoding an authorization subscription and a decision
+ * carrying constraints and a resource in the JSON and the CBOR wire format.
+ * The small payload resembles a simple request, the large payload carries the
+ * claims of a token with many group memberships as subject and a document
+ * with many line items as resource. The size of the encoded messages in bytes
+ * is reported by the secondary results {@code subscriptionBytes} and
+ * {@code decisionBytes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final int GROUPS     = 200;
+    private static final int LINE_ITEMS = 100;
+
+    @Param({ "JSON", "CBOR" })
+    public String format;
+
+    @Param({ "SMALL", "LARGE" })
+    public String payload;
+
+    /**
+     * Reports the size of the last encoded messages. The counters are assigned
+     * instead of accumulated, so that the single benchmark thread reports the
+     * size of one message.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long subscriptionBytes;
+        public long decisionBytes;
+    }
+
+    private ObjectMapper              mapper;
+    private AuthorizationSubscription subscription;
+    private AuthorizationDecision     decision;
+
+    @Setup
+    public void setUp() {
+        final var json = new ObjectMapper().registerModule(new Jdk8Module());
+        final var large    = "LARGE".equals(payload);
+        final var subject  = large ? largeSubject(json)
+                : json.valueToTree(Map.of("name", "alice", "roles", List.of("user", "auditor"), "department",
+                        "finance"));
+        final var resource = large ? largeResource(json)
+                : json.valueToTree(Map.of("type", "invoice", "id", 4711, "amount", 1234.56));
+        mapper       = "CBOR".equals(format) ? new CBORMapper().registerModule(new Jdk8Module()) : json;
+        subscription = new AuthorizationSubscription(subject,
+                json.valueToTree(Map.of("verb", "read", "http", Map.of("method", "GET", "path", "/invoices/4711"))),
+                resource, json.valueToTree(Map.of("time", "2025-01-01T12:00:00Z")));
+        decision     = AuthorizationDecision.PERMIT
+                .withObligations(json.createArrayNode().add(json.createObjectNode().put("type", "log")
+                        .put("message", "alice read invoice 4711")))
+                .withAdvice((ArrayNode) json.valueToTree(List.of("notify-auditor")))
+                .withResource(resource);
+    }
+
+    @Benchmark
+    public AuthorizationSubscription subscriptionRoundTrip(EncodedSize size) throws IOException {
+        final var bytes = mapper.writeValueAsBytes(subscription);
+        size.subscriptionBytes = bytes.length;
+        return mapper.readValue(bytes, AuthorizationSubscription.class);
+    }
+
+    @Benchmark
+    public AuthorizationDecision decisionRoundTrip(EncodedSize size) throws IOException {
+        final var bytes = mapper.writeValueAsBytes(decision);
+        size.decisionBytes = bytes.length;
+        return mapper.readValue(bytes, AuthorizationDecision.class);
+    }
+
+    private static JsonNode largeSubject(ObjectMapper json) {
+        final var claims = json.createObjectNode().put("iss", "https://login.example.org/realms/finance")
+                .put("sub", "3f1c2a9e-7d4b-4e21-9a8f-0c6b5d2e1f47").put("name", "Alice Example")
+                .put("email", "alice@example.org").put("iat", 1735732800L).put("exp", 1735736400L);
+        final var groups = claims.putArray("groups");
+        IntStream.range(0, GROUPS).forEach(i -> groups.add("/organisation/department_%d/team_%d".formatted(i / 10, i)));
+        claims.putArray("roles").add("user").add("auditor").add("invoice-reader");
+        return claims;
+    }
+
+    private static JsonNode largeResource(ObjectMapper json) {
+        final var invoice = json.createObjectNode().put("type", "invoice").put("id", 4711)
+                .put("customer", "ACME Corporation").put("currency", "EUR").put("amount", 123456.78);
+        final var items   = invoice.putArray("items");
+        IntStream.range(0, LINE_ITEMS)
+                .forEach(i -> items.addObject().put("position", i).put("article", "ART-%06d".formatted(i))
+                        .put("description", "Article number %d of the order".formatted(i))
+                        .put("quantity", 1 + i % 7).put("price", 9.99 + i));
+        return invoice;
+    }
+
+}
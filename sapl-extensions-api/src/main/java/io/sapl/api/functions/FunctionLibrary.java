@@ -49,4 +49,13 @@
      */
     String libraryDocumentation() default "";
 
+    /**
+     * Declares all functions of the library to be pure, i.e., their results only
+     * depend on their parameters and calling them has no side effects. The PDP
+     * may reuse decisions of documents which only call pure functions.
+     *
+     * @return true, if all functions of the library are pure
+     */
+    boolean pure() default false;
+
 }
@@ -132,6 +132,21 @@ public Val asSecret() {
         return new Val(value, true, trace, error);
     }
 
+    /**
+     * Propagates the secret status of a value this Val was derived from. Used
+     * instead of {@link #withTrace(Class, boolean, Val...)} if no trace is
+     * recorded.
+     *
+     * @param source the value this Val was derived from
+     * @return the Val, marked as secret if the source is a secret
+     */
+    public Val inheritSecretStatus(Val source) {
+        if (secret || !source.isSecret()) {
+            return this;
+        }
+        return asSecret();
+    }
+
     /**
      * @param trace a trace
      * @return the Val with attached trace.
@@ -166,4 +166,15 @@ public AuthorizationDecision withDecision(@NonNull Decision newDecision) {
         return new AuthorizationDecision(newDecision, resource, obligations, advice);
     }
 
+    /**
+     * @return a new decision object equal to this one, which does not share any
+     * JSON nodes with the original object.
+     */
+    public AuthorizationDecision deepCopy() {
+        final BaseJsonNode copiedResource    = null == resource ? null : resource.deepCopy();
+        final ArrayNode    copiedObligations = null == obligations ? null : obligations.deepCopy();
+        final ArrayNode    copiedAdvice      = null == advice ? null : advice.deepCopy();
+        return new AuthorizationDecision(decision, copiedResource, copiedObligations, copiedAdvice);
+    }
+
 }
@@ -37,4 +37,13 @@ public interface TracedDecision extends Traced {
      * @return the modified decision with explanation
      */
     TracedDecision modified(AuthorizationDecision authzDecision, String explanation);
+
+    /**
+     * Creates a copy for one of several subscribers sharing a decision, so that
+     * modifications of the JSON contents of the decision by one subscriber do not
+     * affect the others.
+     *
+     * @return a copy of the decision not sharing any mutable state with it
+     */
+    TracedDecision copy();
 }
@@ -807,6 +807,18 @@ void traceOfUntraced() {
         assertThatJson(givenUntraced.getTrace()).isObject().doesNotContainKey("trace");
     }
 
+    @Test
+    void inheritSecretStatus() {
+        final var secret    = Val.of("not to be known").asSecret();
+        final var notSecret = Val.of("not secret");
+        final var sa        = new SoftAssertions();
+        sa.assertThat(Val.of(123).inheritSecretStatus(secret).isSecret()).isTrue();
+        sa.assertThat(Val.of(123).inheritSecretStatus(notSecret).isSecret()).isFalse();
+        sa.assertThat(secret.inheritSecretStatus(notSecret).isSecret()).isTrue();
+        sa.assertThat(notSecret.inheritSecretStatus(notSecret)).isSameAs(notSecret);
+        sa.assertAll();
+    }
+
     @Test
     void traceOfUndefined() {
         final var givenUndefined = Val.UNDEFINED;
@@ -28,7 +28,7 @@
  * Function library implementing blacken, replace, and remove filter functions.
  */
 @UtilityClass
-@FunctionLibrary(name = FilterFunctionLibrary.NAME, description = FilterFunctionLibrary.DESCRIPTION)
+@FunctionLibrary(name = FilterFunctionLibrary.NAME, description = FilterFunctionLibrary.DESCRIPTION, pure = true)
 public class FilterFunctionLibrary {
 
     public static final String NAME        = "filter";
@@ -18,8 +18,13 @@
 package io.sapl.functions;
 
 import java.util.HashMap;
+import java.util.Map;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.networknt.schema.JsonMetaSchema;
+import com.networknt.schema.JsonSchema;
 import com.networknt.schema.JsonSchemaException;
 import com.networknt.schema.JsonSchemaFactory;
 import com.networknt.schema.resource.MapSchemaLoader;
@@ -31,7 +36,7 @@
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
-@FunctionLibrary(name = SchemaValidationLibrary.NAME, description = SchemaValidationLibrary.DESCRIPTION)
+@FunctionLibrary(name = SchemaValidationLibrary.NAME, description = SchemaValidationLibrary.DESCRIPTION, pure = true)
 public class SchemaValidationLibrary {
 
     public static final String NAME        = "jsonschema";
@@ -45,6 +50,15 @@ public class SchemaValidationLibrary {
 
     private static final String ID = "$id";
 
+    private static final long MAXIMUM_NUMBER_OF_CACHED_SCHEMAS = 256L;
+
+    private static final JsonSchemaFactory SCHEMA_FACTORY = schemaFactory(new HashMap<>());
+
+    private static final Cache<SchemaKey, JsonSchema> SCHEMA_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_NUMBER_OF_CACHED_SCHEMAS).build();
+
+    private record SchemaKey(JsonNode jsonSchema, JsonNode externalSchemas) {}
+
     @Function(docs = """
             ```isCompliantWithSchema(validationSubject, OBJECT schema)```:
             This function tests the ```validationSubject``` for compliance with the with the provided JSON schema
@@ -135,6 +149,47 @@ public static Val isCompliantWithExternalSchemas(Val validationSubject, @JsonObj
             return Val.FALSE;
         }
 
+        try {
+            return Val.of(isCompliantWithSchema(validationSubject.get(), cachedSchema(jsonSchema, externalSchemas)));
+        } catch (JsonSchemaException e) {
+            return Val.FALSE;
+        }
+    }
+
+    /**
+     * Compiles a schema without external references for repeated validations.
+     *
+     * @param jsonSchema a JSON schema
+     * @return the compiled schema
+     * @throws JsonSchemaException if the schema cannot be compiled
+     */
+    public static JsonSchema compileSchema(JsonNode jsonSchema) {
+        return SCHEMA_FACTORY.getSchema(jsonSchema);
+    }
+
+    /**
+     * @param validationSubject a value
+     * @param schema a compiled schema
+     * @return true, if the value is compliant with the schema
+     */
+    public static boolean isCompliantWithSchema(JsonNode validationSubject, JsonSchema schema) {
+        try {
+            return schema.validate(validationSubject).isEmpty();
+        } catch (JsonSchemaException e) {
+            return false;
+        }
+    }
+
+    /*
+     * Schemas passed to the functions are usually constant values of a policy.
+     * Keyed by content, the compiled schema is reused across evaluations.
+     */
+    private static JsonSchema cachedSchema(Val jsonSchema, Val externalSchemas) {
+        final var key    = new SchemaKey(jsonSchema.getJsonNode(), externalSchemas.isArray() ? externalSchemas.get() : null);
+        final var cached = SCHEMA_CACHE.getIfPresent(key);
+        if (null != cached) {
+            return cached;
+        }
         final var schemaMap = new HashMap<String, String>();
         if (externalSchemas.isArray()) {
             for (var externalSchema : externalSchemas.getArrayNode()) {
@@ -143,19 +198,16 @@ public static Val isCompliantWithExternalSchemas(Val validationSubject, @JsonObj
                 }
             }
         }
+        final var schema = schemaFactory(schemaMap).getSchema(jsonSchema.getJsonNode());
+        SCHEMA_CACHE.put(key, schema);
+        return schema;
+    }
 
-        final var schemaLoader  = new MapSchemaLoader(schemaMap);
-        final var schemaFactory = JsonSchemaFactory.builder()
-                .schemaLoaders(schemaLoaders -> schemaLoaders.add(schemaLoader)).metaSchema(JsonMetaSchema.getV202012())
-                .defaultMetaSchemaIri(JsonMetaSchema.getV202012().getIri()).build();
-
-        try {
-            final var validator = schemaFactory.getSchema(jsonSchema.getJsonNode());
-            final var messages  = validator.validate(validationSubject.get());
-            return Val.of(messages.isEmpty());
-        } catch (JsonSchemaException e) {
-            return Val.FALSE;
-        }
+    private static JsonSchemaFactory schemaFactory(Map<String, String> schemaMap) {
+        final var schemaLoader = new MapSchemaLoader(schemaMap);
+        return JsonSchemaFactory.builder().schemaLoaders(schemaLoaders -> schemaLoaders.add(schemaLoader))
+                .metaSchema(JsonMetaSchema.getV202012()).defaultMetaSchemaIri(JsonMetaSchema.getV202012().getIri())
+                .build();
     }
 
 }
@@ -33,7 +33,7 @@
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
-@FunctionLibrary(name = StandardFunctionLibrary.NAME, description = StandardFunctionLibrary.DESCRIPTION)
+@FunctionLibrary(name = StandardFunctionLibrary.NAME, description = StandardFunctionLibrary.DESCRIPTION, pure = true)
 public class StandardFunctionLibrary {
 
     public static final String NAME        = "standard";
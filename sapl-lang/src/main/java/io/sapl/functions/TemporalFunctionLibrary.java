@@ -43,7 +43,7 @@
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
-@FunctionLibrary(name = TemporalFunctionLibrary.NAME, description = TemporalFunctionLibrary.DESCRIPTION)
+@FunctionLibrary(name = TemporalFunctionLibrary.NAME, description = TemporalFunctionLibrary.DESCRIPTION, pure = true)
 public class TemporalFunctionLibrary {
 
     public static final String NAME        = "time";
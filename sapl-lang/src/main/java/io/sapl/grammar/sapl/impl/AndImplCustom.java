@@ -17,14 +17,14 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.And;
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
 import io.sapl.grammar.sapl.impl.util.OperatorUtil;
 import io.sapl.grammar.sapl.impl.util.TargetExpressionUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 /**
@@ -40,28 +40,33 @@ public class AndImplCustom extends AndImpl {
 
     @Override
     public Flux<Val> evaluate() {
-        if (TargetExpressionUtil.isInTargetExpression(this)) {
-            // indexing implies: lazy evaluation is not allowed in target expressions.
-            return Flux.just(ErrorFactory.error(this, LAZY_OPERATOR_IN_TARGET_ERROR).withTrace(And.class));
-        }
-        final var left = getLeft().evaluate().map(v -> OperatorUtil.requireBoolean(this, v));
-        return left.switchMap(leftResult -> {
-            if (leftResult.isError()) {
-                // Errors short circuit evaluation. Do not add further traces.
-                return Flux.just(leftResult);
-            }
-            // Lazy evaluation of the right expression
-            if (Boolean.TRUE.equals(leftResult.getBoolean())) {
-                return getRight().evaluate().map(v -> OperatorUtil.requireBoolean(this, v)).map(rightResult -> {
-                    if (rightResult.isError()) {
-                        // Errors short circuit evaluation. Do not add further traces.
-                        return rightResult;
-                    }
-                    return rightResult.withTrace(And.class, false,
-                            Map.of(Trace.LEFT, leftResult, Trace.RIGHT, rightResult));
-                });
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            if (TargetExpressionUtil.isInTargetExpression(this)) {
+                // indexing implies: lazy evaluation is not allowed in target expressions.
+                return Flux.just(tracer.trace(ErrorFactory.error(this, LAZY_OPERATOR_IN_TARGET_ERROR), And.class));
             }
-            return Flux.just(Val.FALSE);
+            final var left = ExpressionCompiler.evaluate(getLeft())
+                    .map(v -> OperatorUtil.requireBoolean(this, v, tracer));
+            return left.switchMap(leftResult -> {
+                if (leftResult.isError()) {
+                    // Errors short circuit evaluation. Do not add further traces.
+                    return Flux.just(leftResult);
+                }
+                // Lazy evaluation of the right expression
+                if (Boolean.TRUE.equals(leftResult.getBoolean())) {
+                    return ExpressionCompiler.evaluate(getRight())
+                            .map(v -> OperatorUtil.requireBoolean(this, v, tracer)).map(rightResult -> {
+                                if (rightResult.isError()) {
+                                    // Errors short circuit evaluation. Do not add further traces.
+                                    return rightResult;
+                                }
+                                return tracer.trace(rightResult, And.class, false, Trace.LEFT, leftResult, Trace.RIGHT,
+                                        rightResult);
+                            });
+                }
+                return Flux.just(Val.FALSE);
+            });
         });
     }
 
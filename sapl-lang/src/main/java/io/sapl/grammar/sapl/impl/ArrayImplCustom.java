@@ -18,12 +18,13 @@
 package io.sapl.grammar.sapl.impl;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Array;
 import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 /**
@@ -48,14 +49,18 @@ public class ArrayImplCustom extends ArrayImpl {
     public Flux<Val> evaluate() {
         // handle the empty array
         if (getItems().isEmpty()) {
-            return Flux.just(Val.of(Val.JSON.arrayNode()).withTrace(Array.class));
+            return Flux.deferContextual(ctx -> Flux.just(Tracer.of(ctx).trace(Val.of(Val.JSON.arrayNode()),
+                    Array.class)));
         }
         // aggregate child fluxes into a Flux of a JSON array
         final List<Flux<Val>> itemFluxes = new ArrayList<>(getItems().size());
         for (Expression item : getItems()) {
-            itemFluxes.add(item.evaluate());
+            itemFluxes.add(ExpressionCompiler.evaluate(item));
         }
-        return Flux.combineLatest(itemFluxes, this::collectValuesToArrayNode);
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            return Flux.combineLatest(itemFluxes, values -> collectValuesToArrayNode(values, tracer));
+        });
     }
 
     /**
@@ -65,13 +70,13 @@ public Flux<Val> evaluate() {
      * Jackson JsonNodes which do not have a concept of 'undefined'. Also, as we
      * want to return valid JSON values 'undefined' may not occur anywhere.
      */
-    private Val collectValuesToArrayNode(Object[] values) {
+    private Val collectValuesToArrayNode(Object[] values, Tracer tracer) {
         final var resultArr    = Val.JSON.arrayNode();
-        final var tracedValues = new LinkedList<Val>();
+        final var tracedValues = new Val[values.length];
         Val       error        = null;
-        for (var oVal : values) {
-            Val val = (Val) oVal;
-            tracedValues.add(val);
+        for (var i = 0; i < values.length; i++) {
+            Val val = (Val) values[i];
+            tracedValues[i] = val;
             if (val.isError() && error == null) {
                 error = val;
             }
@@ -81,9 +86,9 @@ private Val collectValuesToArrayNode(Object[] values) {
             }
         }
         if (error != null)
-            return error.withTrace(Array.class, true, tracedValues.toArray(new Val[0]));
+            return tracer.trace(error, Array.class, true, tracedValues);
 
-        return Val.of(resultArr).withTrace(Array.class, true, tracedValues.toArray(new Val[0]));
+        return tracer.trace(Val.of(resultArr), Array.class, true, tracedValues);
     }
 
 }
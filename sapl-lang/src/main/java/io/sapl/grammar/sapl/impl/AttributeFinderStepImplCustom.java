@@ -21,8 +21,6 @@
 import static io.sapl.interpreter.context.AuthorizationContext.getImports;
 import static io.sapl.interpreter.context.AuthorizationContext.getVariables;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.AttributeFinderStep;
@@ -30,6 +28,7 @@
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
 import io.sapl.grammar.sapl.impl.util.FunctionUtil;
 import io.sapl.grammar.sapl.impl.util.TargetExpressionUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
 
@@ -51,18 +50,20 @@ public Flux<Val> apply(@NonNull Val parentValue) {
         return Flux.deferContextual(ctxView -> {
             final var attributeName = FunctionUtil.resolveAbsoluteFunctionName(getIdentifier(), getImports(ctxView));
 
+            final var tracer = Tracer.of(ctxView);
             if (parentValue.isError()) {
-                return Flux.just(parentValue.withTrace(AttributeFinderStep.class, false,
-                        Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, Val.of(attributeName))));
+                return Flux.just(tracer.trace(parentValue, AttributeFinderStep.class, false, Trace.PARENT_VALUE,
+                        parentValue, Trace.ATTRIBUTE, Val.of(attributeName)));
             }
             if (TargetExpressionUtil.isInTargetExpression(this)) {
-                return Flux.just(ErrorFactory.error(this, EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR).withTrace(
-                        AttributeFinderStep.class, false,
-                        Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, Val.of(attributeName))));
+                return Flux.just(tracer.trace(ErrorFactory.error(this, EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR),
+                        AttributeFinderStep.class, false, Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE,
+                        Val.of(attributeName)));
             }
             if (parentValue.isUndefined()) {
-                return Flux.just(ErrorFactory.error(this, UNDEFINED_VALUE_ERROR).withTrace(AttributeFinderStep.class,
-                        false, Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, Val.of(attributeName))));
+                final var error = ErrorFactory.error(this, UNDEFINED_VALUE_ERROR);
+                return Flux.just(tracer.trace(error, AttributeFinderStep.class, false, Trace.PARENT_VALUE, parentValue,
+                        Trace.ATTRIBUTE, Val.of(attributeName)));
             }
 
             final var attributeContext = getAttributeContext(ctxView);
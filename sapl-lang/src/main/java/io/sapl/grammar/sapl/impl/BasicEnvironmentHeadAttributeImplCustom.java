@@ -17,14 +17,13 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.AttributeFinderStep;
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
 import io.sapl.grammar.sapl.impl.util.FunctionUtil;
 import io.sapl.grammar.sapl.impl.util.TargetExpressionUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
 
@@ -42,9 +41,9 @@ public Flux<Val> evaluate() {
                     AuthorizationContext.getImports(ctx));
 
             if (TargetExpressionUtil.isInTargetExpression(this))
-                return Flux.just(
-                        ErrorFactory.error(this, EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR, fullyQualifiedName).withTrace(
-                                AttributeFinderStep.class, false, Map.of(Trace.ATTRIBUTE, Val.of(fullyQualifiedName))));
+                return Flux.just(Tracer.of(ctx).trace(
+                        ErrorFactory.error(this, EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR, fullyQualifiedName),
+                        AttributeFinderStep.class, false, Trace.ATTRIBUTE, Val.of(fullyQualifiedName)));
 
             return AuthorizationContext.getAttributeContext(ctx).evaluateEnvironmentAttribute(this, fullyQualifiedName,
                     getArguments(), AuthorizationContext.getVariables(ctx)).next();
@@ -27,6 +27,7 @@
 import io.sapl.grammar.sapl.BasicExpression;
 import io.sapl.grammar.sapl.Step;
 import io.sapl.grammar.sapl.impl.util.RepackageUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
 
@@ -61,7 +62,7 @@ private Function<Val, Publisher<Val>> resolveSteps(EList<Step> steps, int stepId
     private Flux<Val> resolveFilterOrSubTemplate(Val value) {
         if (filter != null) {
             return filter.apply(value).contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx,
-                    value.withTrace(BasicExpression.class, true, value)));
+                    Tracer.of(ctx).trace(value, BasicExpression.class, true, value)));
         }
         if (subtemplate != null) {
             return applySubTemplate(value);
@@ -72,16 +73,17 @@ private Flux<Val> resolveFilterOrSubTemplate(Val value) {
     private Flux<Val> applySubTemplate(Val value) {
         if (!value.isArray()) {
             return subtemplate.evaluate().contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx,
-                    value.withTrace(BasicExpression.class, true, value)));
+                    Tracer.of(ctx).trace(value, BasicExpression.class, true, value)));
         }
         final var array = value.getArrayNode();
         if (array.isEmpty()) {
-            return Flux.just(value.withTrace(BasicExpression.class, true, value));
+            return Flux.deferContextual(ctx -> Flux.just(Tracer.of(ctx).trace(value, BasicExpression.class, true,
+                    value)));
         }
         final var itemFluxes = new ArrayList<Flux<Val>>(array.size());
         for (var element : array) {
             itemFluxes.add(subtemplate.evaluate().contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx,
-                    Val.of(element).withTrace(BasicExpression.class, true, value))));
+                    Tracer.of(ctx).trace(Val.of(element), BasicExpression.class, true, value))));
         }
         return Flux.combineLatest(itemFluxes, RepackageUtil::recombineArray);
     }
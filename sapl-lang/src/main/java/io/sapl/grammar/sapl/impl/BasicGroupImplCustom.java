@@ -19,6 +19,8 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.BasicGroup;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 /**
@@ -30,9 +32,12 @@ public class BasicGroupImplCustom extends BasicGroupImpl {
 
     @Override
     public Flux<Val> evaluate() {
-        final Flux<Val> evaluatedExpressions = getExpression().evaluate();
-        return evaluatedExpressions.switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v))
-                .map(val -> val.withTrace(BasicGroup.class, true, val));
+        final Flux<Val> evaluatedExpressions = ExpressionCompiler.evaluate(getExpression());
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            return evaluatedExpressions.switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v))
+                    .map(val -> tracer.trace(val, BasicGroup.class, true, val));
+        });
     }
 
 }
@@ -17,11 +17,10 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.BasicIdentifier;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
 
@@ -35,10 +34,11 @@ public class BasicIdentifierImplCustom extends BasicIdentifierImpl {
     @Override
     public Flux<Val> evaluate() {
         return Flux.deferContextual(ctx -> {
+            final var tracer         = Tracer.of(ctx);
             final var identifierFlux = Flux.just(AuthorizationContext.getVariable(ctx, getIdentifier()));
             return identifierFlux.switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v))
-                    .map(val -> val.withTrace(BasicIdentifier.class, true,
-                            Map.of(Trace.IDENTIFIER, Val.of(getIdentifier()), Trace.VALUE, val)));
+                    .map(val -> tracer.trace(val, BasicIdentifier.class, true, Trace.IDENTIFIER,
+                            Val.of(getIdentifier()), Trace.VALUE, val));
         });
     }
 
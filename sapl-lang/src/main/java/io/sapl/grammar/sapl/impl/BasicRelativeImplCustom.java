@@ -20,6 +20,7 @@
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.BasicRelative;
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
 import reactor.util.context.ContextView;
@@ -40,11 +41,12 @@ public Flux<Val> evaluate() {
 
     private Flux<Val> evaluateRelativeNode(ContextView ctx) {
         final var relativeNode = AuthorizationContext.getRelativeNode(ctx);
+        final var tracer       = Tracer.of(ctx);
 
         if (relativeNode.isUndefined())
-            return Flux.just(ErrorFactory.error(this, NO_RELATIVE_NODE_ERROR).withTrace(BasicRelative.class));
+            return Flux.just(tracer.trace(ErrorFactory.error(this, NO_RELATIVE_NODE_ERROR), BasicRelative.class));
 
-        return Flux.just(relativeNode.withTrace(BasicRelative.class, true, relativeNode))
+        return Flux.just(tracer.trace(relativeNode, BasicRelative.class, true, relativeNode))
                 .switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v));
     }
 
@@ -19,13 +19,8 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
-import java.math.BigDecimal;
-import java.util.Map;
-
-import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
-import io.sapl.grammar.sapl.Div;
-import io.sapl.grammar.sapl.impl.util.ErrorFactory;
+import io.sapl.grammar.sapl.impl.util.ArithmeticUtil;
 import reactor.core.publisher.Flux;
 
 /**
@@ -37,18 +32,10 @@
  */
 public class DivImplCustom extends DivImpl {
 
-    private static final String DIVISION_BY_ZERO_ERROR = "Division by zero";
-
     @Override
     public Flux<Val> evaluate() {
-        return arithmeticOperator(this, this, this::divide);
-    }
-
-    private Val divide(Val dividend, Val divisor) {
-        final var trace = Map.<String, Val>of(Trace.DIVIDEND, dividend, Trace.DIVISOR, divisor);
-        if (divisor.decimalValue().compareTo(BigDecimal.ZERO) == 0)
-            return ErrorFactory.error(this, DIVISION_BY_ZERO_ERROR).withTrace(Div.class, false, trace);
-        return Val.of(dividend.decimalValue().divide(divisor.decimalValue())).withTrace(Div.class, false, trace);
+        return arithmeticOperator(this, this,
+                (dividend, divisor, tracer) -> ArithmeticUtil.divide(this, dividend, divisor, tracer));
     }
 
 }
@@ -19,11 +19,10 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.booleanOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.EagerOr;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 /**
@@ -39,9 +38,9 @@ public Flux<Val> evaluate() {
         return booleanOperator(this, this, EagerOrImplCustom::or);
     }
 
-    public static Val or(Val left, Val right) {
-        return Val.of(left.getBoolean() || right.getBoolean()).withTrace(EagerOr.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    public static Val or(Val left, Val right, Tracer tracer) {
+        return tracer.trace(Val.of(left.getBoolean() || right.getBoolean()), EagerOr.class, false, Trace.LEFT, left,
+                Trace.RIGHT, right);
     }
 
 }
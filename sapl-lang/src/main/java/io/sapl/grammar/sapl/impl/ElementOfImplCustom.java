@@ -19,13 +19,12 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
-import java.util.Map;
-
 import com.fasterxml.jackson.databind.JsonNode;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.ElementOf;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 /**
@@ -42,9 +41,9 @@ public Flux<Val> evaluate() {
         return operator(this, this, ElementOfImplCustom::elementOf);
     }
 
-    public static Val elementOf(Val needle, Val haystack) {
-        return rawElementOf(needle, haystack).withTrace(ElementOf.class, false,
-                Map.of(Trace.NEEDLE, needle, Trace.HAYSTACK, haystack));
+    public static Val elementOf(Val needle, Val haystack, Tracer tracer) {
+        return tracer.trace(rawElementOf(needle, haystack), ElementOf.class, false, Trace.NEEDLE, needle,
+                Trace.HAYSTACK, haystack);
     }
 
     private static Val rawElementOf(Val needle, Val haystack) {
@@ -19,11 +19,10 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Equals;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 /**
@@ -39,9 +38,8 @@ public Flux<Val> evaluate() {
         return operator(this, this, EqualsImplCustom::equals);
     }
 
-    public static Val equals(Val left, Val right) {
-        return primitiveEquals(left, right).withTrace(Equals.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    public static Val equals(Val left, Val right, Tracer tracer) {
+        return tracer.trace(primitiveEquals(left, right), Equals.class, false, Trace.LEFT, left, Trace.RIGHT, right);
     }
 
     private static Val primitiveEquals(Val left, Val right) {
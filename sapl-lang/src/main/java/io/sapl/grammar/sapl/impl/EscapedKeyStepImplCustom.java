@@ -17,12 +17,11 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.EscapedKeyStep;
 import io.sapl.grammar.sapl.FilterStatement;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
 
@@ -36,8 +35,11 @@ public class EscapedKeyStepImplCustom extends EscapedKeyStepImpl {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(KeyStepImplCustom.applyToValue(parentValue, id).withTrace(EscapedKeyStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue, Trace.IDENTIFIER, Val.of(id))));
+        return Flux.deferContextual(ctx -> {
+            final var value = KeyStepImplCustom.applyToValue(parentValue, id);
+            return Flux.just(Tracer.of(ctx).trace(value, EscapedKeyStep.class, true, Trace.PARENT_VALUE, parentValue,
+                    Trace.IDENTIFIER, Val.of(id)));
+        });
     }
 
     @Override
@@ -17,12 +17,12 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.ExpressionStep;
 import io.sapl.grammar.sapl.FilterStatement;
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
 
@@ -52,27 +52,33 @@ public class ExpressionStepImplCustom extends ExpressionStepImpl {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        if (parentValue.isError()) {
-            return Flux.just(parentValue.withParentTrace(ExpressionStep.class, false, parentValue));
-        }
-        if (parentValue.isArray()) {
-            return expression.evaluate().map(index -> extractValueAt(parentValue, index));
-        }
-        if (parentValue.isObject()) {
-            return expression.evaluate().map(index -> extractKey(parentValue, index));
-        }
-        return Flux.just(
-                ErrorFactory.error(this, EXPRESSIONS_STEP_ONLY_APPLICABLE_TO_ARRAY_OR_OBJECT_WAS_S_ERROR, parentValue)
-                        .withParentTrace(ExpressionStep.class, false, parentValue));
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            if (parentValue.isError()) {
+                return Flux.just(tracer.traceParent(parentValue, ExpressionStep.class, false, parentValue));
+            }
+            if (parentValue.isArray()) {
+                return ExpressionCompiler.evaluate(expression).map(index -> extractValueAt(parentValue, index, tracer));
+            }
+            if (parentValue.isObject()) {
+                return ExpressionCompiler.evaluate(expression).map(index -> extractKey(parentValue, index, tracer));
+            }
+            return Flux.just(tracer.traceParent(
+                    ErrorFactory.error(this, EXPRESSIONS_STEP_ONLY_APPLICABLE_TO_ARRAY_OR_OBJECT_WAS_S_ERROR,
+                            parentValue),
+                    ExpressionStep.class, false, parentValue));
+        });
     }
 
     @Override
     public Flux<Val> applyFilterStatement(@NonNull Val parentValue, int stepId, @NonNull FilterStatement statement) {
         if (!parentValue.isArray() && !parentValue.isObject()) {
             // this means the element does not get selected does not get filtered
-            return Flux.just(parentValue.withParentTrace(ExpressionStep.class, true, parentValue));
+            return Flux.deferContextual(ctx -> Flux
+                    .just(Tracer.of(ctx).traceParent(parentValue, ExpressionStep.class, true, parentValue)));
         }
-        return expression.evaluate().concatMap(key -> applyFilterStatement(key, parentValue, stepId, statement));
+        return ExpressionCompiler.evaluate(expression)
+                .concatMap(key -> applyFilterStatement(key, parentValue, stepId, statement));
     }
 
     private Flux<Val> applyFilterStatement(Val key, Val parentValue, int stepId, FilterStatement statement) {
@@ -84,45 +90,49 @@ private Flux<Val> applyFilterStatement(Val key, Val parentValue, int stepId, Fil
             // This is an IndexStep equivalent
             return IndexStepImplCustom.doApplyFilterStatement(key.decimalValue(), parentValue, stepId, statement);
         }
-        return Flux.just(ErrorFactory
-                .error(this, "Type mismatch. Tried to access {} with {}", parentValue.getValType(), key.getValType())
-                .withParentTrace(ExpressionStep.class, false, parentValue));
+        final var error = ErrorFactory.error(this, "Type mismatch. Tried to access {} with {}",
+                parentValue.getValType(), key.getValType());
+        return Flux.deferContextual(
+                ctx -> Flux.just(Tracer.of(ctx).traceParent(error, ExpressionStep.class, false, parentValue)));
     }
 
-    private Val extractValueAt(Val parentValue, Val index) {
-        final var trace = Map.<String, Val>of("parentValue", parentValue, "expressionResult", index);
+    private Val extractValueAt(Val parentValue, Val index, Tracer tracer) {
         if (index.isError()) {
-            return index.withTrace(ExpressionStep.class, false, trace);
+            return trace(index, false, parentValue, index, tracer);
         }
         if (!index.isNumber()) {
-            return ErrorFactory.error(this, ARRAY_ACCESS_TYPE_MISMATCH_EXPECT_AN_INTEGER_WAS_S_ERROR, index)
-                    .withTrace(ExpressionStep.class, false, trace);
+            return trace(ErrorFactory.error(this, ARRAY_ACCESS_TYPE_MISMATCH_EXPECT_AN_INTEGER_WAS_S_ERROR, index),
+                    false, parentValue, index, tracer);
         }
         final var idx   = index.get().asInt();
         final var array = parentValue.get();
         if (idx < 0 || idx > array.size()) {
-            return ErrorFactory
-                    .error(this, INDEX_OUT_OF_BOUNDS_INDEX_MUST_BE_BETWEEN_0_AND_D_WAS_D_ERROR, array.size(), idx)
-                    .withTrace(ExpressionStep.class, false, trace);
+            return trace(ErrorFactory.error(this, INDEX_OUT_OF_BOUNDS_INDEX_MUST_BE_BETWEEN_0_AND_D_WAS_D_ERROR,
+                    array.size(), idx), false, parentValue, index, tracer);
         }
-        return Val.of(array.get(idx)).withTrace(ExpressionStep.class, true, trace);
+        return trace(Val.of(array.get(idx)), true, parentValue, index, tracer);
     }
 
-    private Val extractKey(Val parentValue, Val key) {
-        final var trace = Map.<String, Val>of("parentValue", parentValue, "expressionResult", key);
+    private Val extractKey(Val parentValue, Val key, Tracer tracer) {
         if (key.isError()) {
-            return key.withTrace(ExpressionStep.class, false, trace);
+            return trace(key, false, parentValue, key, tracer);
         }
         if (!key.isTextual()) {
-            return ErrorFactory.error(this, OBJECT_ACCESS_TYPE_MISMATCH_EXPECT_A_STRING_WAS_S_ERROR, key)
-                    .withTrace(ExpressionStep.class, false, trace);
+            return trace(ErrorFactory.error(this, OBJECT_ACCESS_TYPE_MISMATCH_EXPECT_A_STRING_WAS_S_ERROR, key),
+                    false, parentValue, key, tracer);
         }
         final var fieldName = key.get().asText();
         final var object    = parentValue.getObjectNode();
         if (!object.has(fieldName)) {
-            return Val.UNDEFINED.withTrace(ExpressionStep.class, true, trace);
+            return trace(Val.UNDEFINED, true, parentValue, key, tracer);
         }
-        return Val.of(object.get(fieldName)).withTrace(ExpressionStep.class, true, trace);
+        return trace(Val.of(object.get(fieldName)), true, parentValue, key, tracer);
+    }
+
+    private static Val trace(Val value, boolean inheritsSecretStatus, Val parentValue, Val expressionResult,
+            Tracer tracer) {
+        return tracer.trace(value, ExpressionStep.class, inheritsSecretStatus, "parentValue", parentValue,
+                "expressionResult", expressionResult);
     }
 
 }
@@ -17,7 +17,6 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
 import java.util.function.Function;
 
 import org.reactivestreams.Publisher;
@@ -28,6 +27,7 @@
 import io.sapl.grammar.sapl.FilterStatement;
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
 import io.sapl.grammar.sapl.impl.util.FilterAlgorithmUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 public class FilterExtendedImplCustom extends FilterExtendedImpl {
@@ -36,17 +36,14 @@ public class FilterExtendedImplCustom extends FilterExtendedImpl {
 
     @Override
     public Flux<Val> apply(Val unfilteredValue) {
-        if (unfilteredValue.isError()) {
-            return Flux.just(unfilteredValue.withTrace(FilterExtended.class, true,
-                    Map.of(Trace.UNFILTERED_VALUE, unfilteredValue)));
+        if (unfilteredValue.isError() || statements == null) {
+            return Flux.deferContextual(ctx -> Flux.just(Tracer.of(ctx).trace(unfilteredValue, FilterExtended.class,
+                    true, Trace.UNFILTERED_VALUE, unfilteredValue)));
         }
         if (unfilteredValue.isUndefined()) {
-            return Flux.just(ErrorFactory.error(this, FILTERS_CANNOT_BE_APPLIED_TO_UNDEFINED_VALUES_ERROR)
-                    .withTrace(FilterExtended.class, true, Map.of(Trace.UNFILTERED_VALUE, unfilteredValue)));
-        }
-        if (statements == null) {
-            return Flux.just(unfilteredValue.withTrace(FilterExtended.class, true,
-                    Map.of(Trace.UNFILTERED_VALUE, unfilteredValue)));
+            final var error = ErrorFactory.error(this, FILTERS_CANNOT_BE_APPLIED_TO_UNDEFINED_VALUES_ERROR);
+            return Flux.deferContextual(ctx -> Flux.just(Tracer.of(ctx).trace(error, FilterExtended.class, true,
+                    Trace.UNFILTERED_VALUE, unfilteredValue)));
         }
         return Flux.just(unfilteredValue).switchMap(applyFilterStatements());
     }
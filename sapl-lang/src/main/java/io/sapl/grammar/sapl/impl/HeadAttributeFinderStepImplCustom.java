@@ -19,8 +19,6 @@
 
 import static io.sapl.interpreter.context.AuthorizationContext.getImports;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.FilterStatement;
@@ -28,6 +26,7 @@
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
 import io.sapl.grammar.sapl.impl.util.FunctionUtil;
 import io.sapl.grammar.sapl.impl.util.TargetExpressionUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
@@ -48,19 +47,20 @@ public Flux<Val> apply(@NonNull Val parentValue) {
         return Flux.deferContextual(ctxView -> {
             final var attributeName = FunctionUtil.resolveAbsoluteFunctionName(getIdentifier(), getImports(ctxView));
 
+            final var tracer = Tracer.of(ctxView);
             if (parentValue.isError()) {
-                return Flux.just(parentValue.withTrace(HeadAttributeFinderStep.class, false,
-                        Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, Val.of(attributeName))));
+                return Flux.just(tracer.trace(parentValue, HeadAttributeFinderStep.class, false, Trace.PARENT_VALUE,
+                        parentValue, Trace.ATTRIBUTE, Val.of(attributeName)));
             }
             if (TargetExpressionUtil.isInTargetExpression(this)) {
-                return Flux.just(ErrorFactory.error(this, EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR).withTrace(
-                        HeadAttributeFinderStep.class, false,
-                        Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, Val.of(attributeName))));
+                return Flux.just(tracer.trace(ErrorFactory.error(this, EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR),
+                        HeadAttributeFinderStep.class, false, Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE,
+                        Val.of(attributeName)));
             }
             if (parentValue.isUndefined()) {
-                return Flux.just(
-                        ErrorFactory.error(this, UNDEFINED_VALUE_ERROR).withTrace(HeadAttributeFinderStep.class, false,
-                                Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, Val.of(attributeName))));
+                final var error = ErrorFactory.error(this, UNDEFINED_VALUE_ERROR);
+                return Flux.just(tracer.trace(error, HeadAttributeFinderStep.class, false, Trace.PARENT_VALUE,
+                        parentValue, Trace.ATTRIBUTE, Val.of(attributeName)));
             }
             return AuthorizationContext.getAttributeContext(ctxView).evaluateAttribute(this, attributeName, parentValue,
                     getArguments(), AuthorizationContext.getVariables(ctxView)).take(1);
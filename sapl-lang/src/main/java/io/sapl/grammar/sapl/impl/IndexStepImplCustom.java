@@ -19,7 +19,6 @@
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Map;
 
 import com.fasterxml.jackson.core.TreeNode;
 
@@ -30,6 +29,7 @@
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
 import io.sapl.grammar.sapl.impl.util.FilterAlgorithmUtil;
 import io.sapl.grammar.sapl.impl.util.RepackageUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
@@ -50,8 +50,8 @@ public class IndexStepImplCustom extends IndexStepImpl {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(applyToValue(parentValue).withTrace(IndexStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index))));
+        return Flux.deferContextual(ctx -> Flux.just(Tracer.of(ctx).trace(applyToValue(parentValue), IndexStep.class,
+                true, Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index))));
     }
 
     public Val applyToValue(@NonNull Val parentValue) {
@@ -82,22 +82,28 @@ public Flux<Val> applyFilterStatement(@NonNull Val parentValue, int stepId, @Non
 
     public static Flux<Val> doApplyFilterStatement(BigDecimal index, Val parentValue, int stepId,
             FilterStatement statement) {
+        return Flux.deferContextual(ctx -> doApplyFilterStatement(index, parentValue, stepId, statement,
+                Tracer.of(ctx)));
+    }
+
+    private static Flux<Val> doApplyFilterStatement(BigDecimal index, Val parentValue, int stepId,
+            FilterStatement statement, Tracer tracer) {
         if (!parentValue.isArray()) {
             // this means the element does not get selected does not get filtered
-            return Flux.just(parentValue.withTrace(IndexStep.class, true,
-                    Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index))));
+            return Flux.just(tracer.trace(parentValue, IndexStep.class, true, Trace.PARENT_VALUE, parentValue,
+                    Trace.INDEX, Val.of(index)));
         }
         final var array = parentValue.getArrayNode();
         final var idx   = normalizeIndex(index, array);
         if (idx < 0 || idx >= array.size()) {
             // this means the element does not get selected does not get filtered
-            return Flux.just(parentValue.withTrace(IndexStep.class, true,
-                    Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index))));
+            return Flux.just(tracer.trace(parentValue, IndexStep.class, true, Trace.PARENT_VALUE, parentValue,
+                    Trace.INDEX, Val.of(index)));
         }
         final var elementFluxes = new ArrayList<Flux<Val>>(array.size());
         for (var i = 0; i < array.size(); i++) {
-            final var element = Val.of(array.get(i)).withTrace(IndexStep.class, true, Map.of(Trace.PARENT_VALUE,
-                    parentValue, Trace.ELEMENT_INDEX, Val.of(i), Trace.SELECTED_INDEX, Val.of(index)));
+            final var element = tracer.trace(Val.of(array.get(i)), IndexStep.class, true, Trace.PARENT_VALUE,
+                    parentValue, Trace.ELEMENT_INDEX, Val.of(i), Trace.SELECTED_INDEX, Val.of(index));
             if (i == idx) {
                 if (stepId == statement.getTarget().getSteps().size() - 1) {
                     // this was the final step. apply filter
@@ -114,7 +120,7 @@ public static Flux<Val> doApplyFilterStatement(BigDecimal index, Val parentValue
                 elementFluxes.add(Flux.just(element));
             }
         }
-        return Flux.combineLatest(elementFluxes, RepackageUtil::recombineArray);
+        return Flux.combineLatest(elementFluxes, values -> RepackageUtil.recombineArray(values, tracer));
     }
 
 }
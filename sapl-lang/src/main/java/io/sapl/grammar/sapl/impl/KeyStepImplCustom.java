@@ -18,7 +18,6 @@
 package io.sapl.grammar.sapl.impl;
 
 import java.util.ArrayList;
-import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
@@ -26,6 +25,7 @@
 import io.sapl.grammar.sapl.KeyStep;
 import io.sapl.grammar.sapl.impl.util.FilterAlgorithmUtil;
 import io.sapl.grammar.sapl.impl.util.RepackageUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
@@ -42,8 +42,8 @@ public class KeyStepImplCustom extends KeyStepImpl {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(applyToValue(parentValue, id).withTrace(KeyStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue, Trace.IDENTIFIER, Val.of(id))));
+        return Flux.deferContextual(ctx -> Flux.just(Tracer.of(ctx).trace(applyToValue(parentValue, id),
+                KeyStep.class, true, Trace.PARENT_VALUE, parentValue, Trace.IDENTIFIER, Val.of(id))));
     }
 
     @Override
@@ -80,11 +80,13 @@ public static Val applyToValue(@NonNull Val parentValue, String id) {
     public static Flux<Val> applyKeyStepFilterStatement(String id, Val parentValue, int stepId,
             FilterStatement statement) {
         if (parentValue.isObject()) {
-            return applyFilterStatementToObject(id, parentValue, stepId, statement);
+            return Flux.deferContextual(
+                    ctx -> applyFilterStatementToObject(id, parentValue, stepId, statement, Tracer.of(ctx)));
         }
 
         if (parentValue.isArray()) {
-            return applyFilterStatementToArray(id, parentValue, stepId, statement);
+            return Flux.deferContextual(
+                    ctx -> applyFilterStatementToArray(id, parentValue, stepId, statement, Tracer.of(ctx)));
         }
 
         // this means the element does not get selected does not get filtered
@@ -92,15 +94,15 @@ public static Flux<Val> applyKeyStepFilterStatement(String id, Val parentValue,
     }
 
     private static Flux<Val> applyFilterStatementToObject(String id, Val unfilteredValue, int stepId,
-            FilterStatement statement) {
+            FilterStatement statement, Tracer tracer) {
         final var object      = unfilteredValue.getObjectNode();
         final var fieldFluxes = new ArrayList<Flux<Tuple2<String, Val>>>(object.size());
         final var fields      = object.fields();
         while (fields.hasNext()) {
             final var field = fields.next();
             final var key   = field.getKey();
-            final var value = Val.of(field.getValue()).withTrace(KeyStep.class, true,
-                    Map.of(Trace.UNFILTERED_VALUE, unfilteredValue, Trace.KEY, Val.of(key)));
+            final var value = tracer.trace(Val.of(field.getValue()), KeyStep.class, true, Trace.UNFILTERED_VALUE,
+                    unfilteredValue, Trace.KEY, Val.of(key));
             if (field.getKey().equals(id)) {
                 if (stepId == statement.getTarget().getSteps().size() - 1) {
                     // this was the final step. apply filter
@@ -120,25 +122,25 @@ private static Flux<Val> applyFilterStatementToObject(String id, Val unfilteredV
                 fieldFluxes.add(Flux.just(Tuples.of(field.getKey(), value)));
             }
         }
-        return Flux.combineLatest(fieldFluxes, RepackageUtil::recombineObject);
+        return Flux.combineLatest(fieldFluxes, values -> RepackageUtil.recombineObject(values, tracer));
     }
 
     private static Flux<Val> applyFilterStatementToArray(String id, Val unfilteredValue, int stepId,
-            FilterStatement statement) {
+            FilterStatement statement, Tracer tracer) {
         final var array = unfilteredValue.getArrayNode();
         if (array.isEmpty()) {
-            return Flux.just(
-                    unfilteredValue.withTrace(KeyStep.class, true, Map.of(Trace.UNFILTERED_VALUE, unfilteredValue)));
+            return Flux.just(tracer.trace(unfilteredValue, KeyStep.class, true, Trace.UNFILTERED_VALUE,
+                    unfilteredValue));
         }
         final var elementFluxes = new ArrayList<Flux<Val>>(array.size());
         final var elements      = array.elements();
         var       i             = 0;
         while (elements.hasNext()) {
-            final var element = Val.of(elements.next()).withTrace(KeyStep.class, true,
-                    Map.of(Trace.UNFILTERED_VALUE, unfilteredValue, Trace.INDEX, Val.of(i++)));
+            final var element = tracer.trace(Val.of(elements.next()), KeyStep.class, true, Trace.UNFILTERED_VALUE,
+                    unfilteredValue, Trace.INDEX, Val.of(i++));
             if (element.isObject()) {
                 // array element is an object. apply this step to the object.
-                elementFluxes.add(applyFilterStatementToObject(id, element, stepId, statement)
+                elementFluxes.add(applyFilterStatementToObject(id, element, stepId, statement, tracer)
                         .contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx, Val.of(array))));
             } else {
                 // array element not an object. just return it as it will not be affected by
@@ -146,7 +148,7 @@ private static Flux<Val> applyFilterStatementToArray(String id, Val unfilteredVa
                 elementFluxes.add(Flux.just(element));
             }
         }
-        return Flux.combineLatest(elementFluxes, RepackageUtil::recombineArray);
+        return Flux.combineLatest(elementFluxes, values -> RepackageUtil.recombineArray(values, tracer));
     }
 
 }
@@ -19,11 +19,10 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Less;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 /**
@@ -39,9 +38,9 @@ public Flux<Val> evaluate() {
         return arithmeticOperator(this, this, LessImplCustom::lessThan);
     }
 
-    public static Val lessThan(Val left, Val right) {
-        return Val.of(left.decimalValue().compareTo(right.decimalValue()) < 0).withTrace(Less.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    public static Val lessThan(Val left, Val right, Tracer tracer) {
+        return tracer.trace(Val.of(left.decimalValue().compareTo(right.decimalValue()) < 0), Less.class, false,
+                Trace.LEFT, left, Trace.RIGHT, right);
     }
 
 }
@@ -19,23 +19,15 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
-import java.util.Map;
-
-import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
-import io.sapl.grammar.sapl.Minus;
+import io.sapl.grammar.sapl.impl.util.ArithmeticUtil;
 import reactor.core.publisher.Flux;
 
 public class MinusImplCustom extends MinusImpl {
 
     @Override
     public Flux<Val> evaluate() {
-        return arithmeticOperator(this, this, this::subtract);
-    }
-
-    private Val subtract(Val minuend, Val subtrahend) {
-        return Val.of(minuend.decimalValue().subtract(subtrahend.decimalValue())).withTrace(Minus.class, false,
-                Map.of(Trace.MINUEND, minuend, Trace.SUBTRAHEND, subtrahend));
+        return arithmeticOperator(this, this, ArithmeticUtil::subtract);
     }
 
 }
@@ -19,13 +19,8 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
-import java.math.BigDecimal;
-import java.util.Map;
-
-import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
-import io.sapl.grammar.sapl.Modulo;
-import io.sapl.grammar.sapl.impl.util.ErrorFactory;
+import io.sapl.grammar.sapl.impl.util.ArithmeticUtil;
 import reactor.core.publisher.Flux;
 
 /**
@@ -33,19 +28,10 @@
  */
 public class ModuloImplCustom extends ModuloImpl {
 
-    private static final String DIVISION_BY_ZERO_ERROR = "Division by zero";
-
     @Override
     public Flux<Val> evaluate() {
-        return arithmeticOperator(this, this, this::divide);
-    }
-
-    private Val divide(Val dividend, Val divisor) {
-        if (divisor.decimalValue().compareTo(BigDecimal.ZERO) == 0)
-            return ErrorFactory.error(this, DIVISION_BY_ZERO_ERROR).withTrace(Modulo.class, false,
-                    Map.of(Trace.DIVIDEND, dividend, Trace.DIVISOR, divisor));
-        return Val.of(dividend.decimalValue().remainder(divisor.decimalValue())).withTrace(Modulo.class, false,
-                Map.of(Trace.DIVIDEND, dividend, Trace.DIVISOR, divisor));
+        return arithmeticOperator(this, this,
+                (dividend, divisor, tracer) -> ArithmeticUtil.remainder(this, dividend, divisor, tracer));
     }
 
 }
@@ -19,11 +19,10 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.More;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 /**
@@ -40,9 +39,9 @@ public Flux<Val> evaluate() {
 
     }
 
-    public static Val moreThan(Val left, Val right) {
-        return Val.of(left.decimalValue().compareTo(right.decimalValue()) > 0).withTrace(More.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    public static Val moreThan(Val left, Val right, Tracer tracer) {
+        return tracer.trace(Val.of(left.decimalValue().compareTo(right.decimalValue()) > 0), More.class, false,
+                Trace.LEFT, left, Trace.RIGHT, right);
     }
 
 }
@@ -19,11 +19,10 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Multi;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 public class MultiImplCustom extends MultiImpl {
@@ -33,9 +32,9 @@ public Flux<Val> evaluate() {
         return arithmeticOperator(this, this, MultiImplCustom::multiply);
     }
 
-    public static Val multiply(Val left, Val right) {
-        return Val.of(left.decimalValue().multiply(right.decimalValue())).withTrace(Multi.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    public static Val multiply(Val left, Val right, Tracer tracer) {
+        return tracer.trace(Val.of(left.decimalValue().multiply(right.decimalValue())), Multi.class, false, Trace.LEFT,
+                left, Trace.RIGHT, right);
     }
 
 }
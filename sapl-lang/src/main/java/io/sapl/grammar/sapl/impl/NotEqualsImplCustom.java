@@ -19,11 +19,10 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.NotEquals;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 /**
@@ -39,9 +38,8 @@ public Flux<Val> evaluate() {
         return operator(this, this, NotEqualsImplCustom::notEqual);
     }
 
-    public static Val notEqual(Val left, Val right) {
-        return Val.notEqual(left, right).withTrace(NotEquals.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    public static Val notEqual(Val left, Val right, Tracer tracer) {
+        return tracer.trace(Val.notEqual(left, right), NotEquals.class, false, Trace.LEFT, left, Trace.RIGHT, right);
 
     }
 
@@ -22,6 +22,7 @@
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Not;
 import io.sapl.grammar.sapl.impl.util.OperatorUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 public class NotImplCustom extends NotImpl {
@@ -31,8 +32,8 @@ public Flux<Val> evaluate() {
         return operator(this, this, OperatorUtil::requireBoolean, NotImplCustom::not);
     }
 
-    public static Val not(Val x) {
-        return Val.of(!x.get().asBoolean()).withTrace(Not.class, false, x);
+    public static Val not(Val x, Tracer tracer) {
+        return tracer.trace(Val.of(!x.get().asBoolean()), Not.class, false, x);
     }
 
 }
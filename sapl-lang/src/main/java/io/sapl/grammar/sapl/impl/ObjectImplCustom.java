@@ -23,6 +23,8 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Pair;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 /**
@@ -51,33 +53,54 @@ public Flux<Val> evaluate() {
         for (Pair member : getMembers()) {
             keys.add(member.getKey());
 
-            valueFluxes.add(member.getValue().evaluate());
-        }
-
-        // handle the empty object
-        if (valueFluxes.isEmpty()) {
-            return Flux.just(Val.of(Val.JSON.objectNode()).withTrace(Object.class));
+            valueFluxes.add(ExpressionCompiler.evaluate(member.getValue()));
         }
 
         // the indices of the keys correspond to the indices of the values, because
         // combineLatest() preserves the order of the given list of fluxes in the array
         // of values passed to the combinator function
-        return Flux.combineLatest(valueFluxes, values -> {
-            final var result       = Val.JSON.objectNode();
-            final var tracedValues = new HashMap<String, Val>();
-            // omit undefined fields
-            for (var idx = 0; idx < values.length; idx++) {
-                final var key   = keys.get(idx);
-                final var value = ((Val) values[idx]);
-                if (value.isError()) {
-                    // propagate errors
-                    return value.withTrace(Object.class, true, tracedValues);
-                }
-                value.ifDefined(val -> result.set(key, val));
-                tracedValues.put(key, value);
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            // handle the empty object
+            if (valueFluxes.isEmpty()) {
+                return Flux.just(tracer.trace(Val.of(Val.JSON.objectNode()), Object.class));
             }
-            return Val.of(result).withTrace(Object.class, true, tracedValues);
+            if (!tracer.isEnabled()) {
+                return Flux.combineLatest(valueFluxes, values -> untracedObject(keys, values));
+            }
+            return Flux.combineLatest(valueFluxes, values -> {
+                final var result       = Val.JSON.objectNode();
+                final var tracedValues = new HashMap<String, Val>();
+                // omit undefined fields
+                for (var idx = 0; idx < values.length; idx++) {
+                    final var key   = keys.get(idx);
+                    final var value = ((Val) values[idx]);
+                    if (value.isError()) {
+                        // propagate errors
+                        return tracer.trace(value, Object.class, true, tracedValues);
+                    }
+                    value.ifDefined(val -> result.set(key, val));
+                    tracedValues.put(key, value);
+                }
+                return tracer.trace(Val.of(result), Object.class, true, tracedValues);
+            });
         });
     }
 
+    private static Val untracedObject(List<String> keys, Object[] values) {
+        final var result = Val.JSON.objectNode();
+        var       secret = false;
+        for (var idx = 0; idx < values.length; idx++) {
+            final var key   = keys.get(idx);
+            final var value = ((Val) values[idx]);
+            if (value.isError()) {
+                return secret ? value.asSecret() : value;
+            }
+            value.ifDefined(val -> result.set(key, val));
+            secret |= value.isSecret();
+        }
+        final var object = Val.of(result);
+        return secret ? object.asSecret() : object;
+    }
+
 }
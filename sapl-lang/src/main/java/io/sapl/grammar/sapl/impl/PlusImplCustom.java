@@ -19,13 +19,12 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
-import java.util.Map;
-
 import com.fasterxml.jackson.databind.node.TextNode;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Plus;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 public class PlusImplCustom extends PlusImpl {
@@ -37,14 +36,14 @@ public Flux<Val> evaluate() {
         return operator(this, this, PlusImplCustom::plus);
     }
 
-    public static Val plus(Val left, Val right) {
+    public static Val plus(Val left, Val right, Tracer tracer) {
         if (left.isNumber() && right.isNumber())
-            return Val.of(left.get().decimalValue().add(right.get().decimalValue())).withTrace(Plus.class, false,
-                    Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+            return tracer.trace(Val.of(left.get().decimalValue().add(right.get().decimalValue())), Plus.class, false,
+                    Trace.LEFT, left, Trace.RIGHT, right);
 
         final var lStr = left.orElse(UNDEFINED).asText();
         final var rStr = right.orElse(UNDEFINED).asText();
-        return Val.of(lStr.concat(rStr)).withTrace(Plus.class, false, Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+        return tracer.trace(Val.of(lStr.concat(rStr)), Plus.class, false, Trace.LEFT, left, Trace.RIGHT, right);
     }
 
 }
@@ -17,7 +17,6 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
 import java.util.function.Function;
 
 import io.sapl.api.interpreter.Trace;
@@ -28,6 +27,9 @@
 import io.sapl.grammar.sapl.PolicyBody;
 import io.sapl.grammar.sapl.ValueDefinition;
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
 import reactor.util.context.Context;
@@ -44,7 +46,7 @@ public class PolicyBodyImplCustom extends PolicyBodyImpl {
      */
     @Override
     public Flux<Val> evaluate() {
-        return evaluateStatements(Val.TRUE.withTrace(PolicyBody.class), 0);
+        return Flux.deferContextual(ctx -> evaluateStatements(Tracer.of(ctx).trace(Val.TRUE, PolicyBody.class), 0));
     }
 
     protected Flux<Val> evaluateStatements(Val previousResult, int statementId) {
@@ -55,8 +57,8 @@ protected Flux<Val> evaluateStatements(Val previousResult, int statementId) {
         }
 
         if (!previousResult.getBoolean() || statementId == statements.size()) {
-            return Flux.just(previousResult.withTrace(PolicyBody.class, false,
-                    Map.of(Trace.PREVIOUS_CONDITION_RESULT, previousResult)));
+            return Flux.deferContextual(ctx -> Flux.just(Tracer.of(ctx).trace(previousResult, PolicyBody.class,
+                    false, Trace.PREVIOUS_CONDITION_RESULT, previousResult)));
         }
 
         final var statement = statements.get(statementId);
@@ -68,9 +70,49 @@ protected Flux<Val> evaluateStatements(Val previousResult, int statementId) {
                 .switchMap(newResult -> evaluateStatements(newResult, statementId + 1));
     }
 
+    /**
+     * Evaluates the statements of a body without attribute access in the calling
+     * thread. Produces the same result as {@link #evaluate()}.
+     *
+     * @param ctx the context of the authorization subscription
+     * @return the result of the body or null, if a statement could not be
+     * evaluated synchronously
+     */
+    Val evaluateSynchronously(Context ctx) {
+        final var tracer = Tracer.of(ctx);
+        var       result = tracer.trace(Val.TRUE, PolicyBody.class);
+        for (var statement : statements) {
+            if (result.isError() || !result.getBoolean()) {
+                break;
+            }
+            if (statement instanceof ValueDefinition valueDefinition) {
+                final var value = SynchronousEvaluation.evaluate(valueDefinition.getEval(), ctx);
+                if (null == value) {
+                    return null;
+                }
+                ctx = AuthorizationContext.setVariable(ctx, valueDefinition.getName(), tracer.trace(value,
+                        PolicyBody.class, true, Trace.VARIABLE_NAME, Val.of(valueDefinition.getName())));
+            } else {
+                final var conditionResult = SynchronousEvaluation.evaluate(((Condition) statement).getExpression(),
+                        ctx);
+                if (null == conditionResult) {
+                    return null;
+                }
+                result = assertConditionResultIsBooleanOrError(conditionResult, tracer);
+            }
+        }
+        if (result.isError()) {
+            return result;
+        }
+        return tracer.trace(result, PolicyBody.class, false, Trace.PREVIOUS_CONDITION_RESULT, result);
+    }
+
     private Flux<Val> evaluateValueStatement(Val previousResult, int statementId, ValueDefinition valueDefinition) {
-        final var valueStream = valueDefinition.getEval().evaluate().map(val -> val.withTrace(PolicyBody.class, true,
-                Map.of(Trace.VARIABLE_NAME, Val.of(valueDefinition.getName()))));
+        final var valueStream = Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            return ExpressionCompiler.evaluate(valueDefinition.getEval()).map(val -> tracer.trace(val,
+                    PolicyBody.class, true, Trace.VARIABLE_NAME, Val.of(valueDefinition.getName())));
+        });
         return valueStream.switchMap(value -> evaluateStatements(previousResult, statementId + 1)
                 .contextWrite(setVariable(valueDefinition.getName(), value)));
     }
@@ -81,15 +123,19 @@ private Function<Context, Context> setVariable(String name, Val value) {
 
     // protected to provide hook for test coverage calculations
     protected Flux<Val> evaluateCondition(Val previousResult, Condition condition) {
-        return condition.getExpression().evaluate().map(this::assertConditionResultIsBooleanOrError);
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            return ExpressionCompiler.evaluate(condition.getExpression())
+                    .map(result -> assertConditionResultIsBooleanOrError(result, tracer));
+        });
     }
 
-    private Val assertConditionResultIsBooleanOrError(Val conditionResult) {
+    private Val assertConditionResultIsBooleanOrError(Val conditionResult, Tracer tracer) {
         if (conditionResult.isBoolean() || conditionResult.isError())
             return conditionResult;
 
-        return ErrorFactory.error(this, STATEMENT_NOT_BOOLEAN_ERROR, conditionResult).withTrace(PolicyBody.class, false,
-                Map.of(Trace.PREVIOUS_CONDITION_RESULT, conditionResult));
+        return tracer.trace(ErrorFactory.error(this, STATEMENT_NOT_BOOLEAN_ERROR, conditionResult), PolicyBody.class,
+                false, Trace.PREVIOUS_CONDITION_RESULT, conditionResult);
     }
 
 }
@@ -20,21 +20,43 @@
 import java.util.function.BiFunction;
 
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.pdp.Decision;
 import io.sapl.grammar.sapl.Expression;
 import io.sapl.grammar.sapl.Policy;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
 import io.sapl.grammar.sapl.impl.util.ImportsUtil;
+import io.sapl.grammar.sapl.impl.util.PurityAnalysis;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.DocumentEvaluationResult;
 import io.sapl.interpreter.PolicyDecision;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
 
 public class PolicyImplCustom extends PolicyImpl {
 
     @Override
     public Flux<DocumentEvaluationResult> evaluate() {
-        final var whereResult     = body == null ? Flux.just(Val.TRUE.withTrace(Policy.class)) : body.evaluate();
+        final Flux<DocumentEvaluationResult> evaluation;
+        if (isSynchronouslyEvaluable()) {
+            evaluation = Flux.deferContextual(ctx -> callsOnlyPureFunctions(ctx) ? evaluateSynchronously(ctx)
+                    : evaluateReactively());
+        } else {
+            evaluation = evaluateReactively();
+        }
+        return evaluation.contextWrite(ctx -> ImportsUtil.loadImportsIntoContext(this, ctx))
+                .onErrorResume(this::importFailure);
+    }
+
+    private Flux<DocumentEvaluationResult> evaluateReactively() {
+        final var whereResult     = body == null
+                ? Flux.deferContextual(ctx -> Flux.just(Tracer.of(ctx).trace(Val.TRUE, Policy.class)))
+                : body.evaluate();
         final var afterWhere      = whereResult
                 .map(where -> PolicyDecision.fromWhereResult(getSaplName(), entitlement.getDecision(), where));
         final var withObligations = afterWhere
@@ -42,10 +64,83 @@ public Flux<DocumentEvaluationResult> evaluate() {
         final var withAdvice      = withObligations
                 .switchMap(decision -> addConstraints(decision, advice, 0, PolicyDecision::withAdvice));
 
-        Flux<DocumentEvaluationResult> withResource = withAdvice.switchMap(this::addResource);
+        return withAdvice.switchMap(this::addResource);
+    }
 
-        return withResource.contextWrite(ctx -> ImportsUtil.loadImportsIntoContext(this, ctx))
-                .onErrorResume(this::importFailure);
+    /*
+     * Policies without attribute access yield exactly one decision. They are
+     * evaluated in a single pass in the calling thread and only the result is
+     * wrapped into a Flux. Subclasses of the body, e.g., for recording test
+     * coverage, hook into the reactive evaluation and keep using it.
+     */
+    private boolean isSynchronouslyEvaluable() {
+        return (null == body || body.getClass() == PolicyBodyImplCustom.class)
+                && PurityAnalysis.purity(this).isPure();
+    }
+
+    /*
+     * If an expression does not complete synchronously, the policy is evaluated
+     * again reactively. Functions called before are then called a second time.
+     * Thus, the synchronous evaluation is only attempted if all functions of the
+     * document are declared pure, and the decision is made before evaluating
+     * anything.
+     */
+    private boolean callsOnlyPureFunctions(ContextView ctx) {
+        return EcoreUtil.getRootContainer(this) instanceof SAPLImplCustom sapl && sapl.callsOnlyPureFunctions(
+                AuthorizationContext.getAttributeContext(ctx), AuthorizationContext.functionContext(ctx));
+    }
+
+    private Flux<DocumentEvaluationResult> evaluateSynchronously(ContextView ctxView) {
+        final var ctx         = Context.of(ctxView);
+        final var whereResult = body == null ? Tracer.of(ctx).trace(Val.TRUE, Policy.class)
+                : ((PolicyBodyImplCustom) body).evaluateSynchronously(ctx);
+        if (null == whereResult) {
+            return evaluateReactively();
+        }
+        var decision = PolicyDecision.fromWhereResult(getSaplName(), entitlement.getDecision(), whereResult);
+        decision = addConstraintsSynchronously(decision, obligations, PolicyDecision::withObligation, ctx);
+        if (null == decision) {
+            return evaluateReactively();
+        }
+        decision = addConstraintsSynchronously(decision, advice, PolicyDecision::withAdvice, ctx);
+        if (null == decision) {
+            return evaluateReactively();
+        }
+        if (transformation == null || decisionMustNotCarryConstraints(decision)) {
+            return Flux.just(decision);
+        }
+        final var resource = SynchronousEvaluation.evaluate(transformation, ctx);
+        if (null == resource) {
+            return evaluateReactively();
+        }
+        return Flux.just(decision.withResource(resource));
+    }
+
+    private PolicyDecision addConstraintsSynchronously(PolicyDecision policyDecision, EList<Expression> constraints,
+            BiFunction<PolicyDecision, Val, PolicyDecision> merge, Context ctx) {
+        if (constraints == null) {
+            return policyDecision;
+        }
+        var decision = policyDecision;
+        for (var constraint : constraints) {
+            if (decisionMustNotCarryConstraints(decision)) {
+                return decision;
+            }
+            final var value = SynchronousEvaluation.evaluate(constraint, ctx);
+            if (null == value) {
+                return null;
+            }
+            decision = merge.apply(decision, value);
+        }
+        return decision;
+    }
+
+    /**
+     * @return true, if evaluating the policy accesses attributes, i.e., it may
+     * subscribe to policy information points
+     */
+    public boolean isAttributeDependent() {
+        return PurityAnalysis.purity(this).attributeDependent();
     }
 
     private Flux<DocumentEvaluationResult> importFailure(Throwable error) {
@@ -66,7 +161,8 @@ public DocumentEvaluationResult importError(String errorMessage) {
     private Flux<PolicyDecision> addResource(PolicyDecision policyDecision) {
         if (transformation == null || decisionMustNotCarryConstraints(policyDecision))
             return Flux.just(policyDecision);
-        return transformation.evaluate().map(policyDecision::withResource).defaultIfEmpty(policyDecision);
+        return ExpressionCompiler.evaluate(transformation).map(policyDecision::withResource)
+                .defaultIfEmpty(policyDecision);
     }
 
     private Flux<PolicyDecision> addConstraints(PolicyDecision policyDecision, EList<Expression> constraints,
@@ -75,7 +171,7 @@ private Flux<PolicyDecision> addConstraints(PolicyDecision policyDecision, EList
                 || decisionMustNotCarryConstraints(policyDecision)) {
             return Flux.just(policyDecision);
         }
-        final var constraint             = constraints.get(constraintIndex).evaluate();
+        final var constraint             = ExpressionCompiler.evaluate(constraints.get(constraintIndex));
         final var decisionWithConstraint = constraint.map(val -> merge.apply(policyDecision, val));
         return decisionWithConstraint
                 .switchMap(decision -> addConstraints(decision, constraints, constraintIndex + 1, merge));
@@ -20,12 +20,13 @@
 import static io.sapl.interpreter.combinators.CombiningAlgorithmFactory.policySetCombiningAlgorithm;
 
 import java.util.HashSet;
-import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.PolicySet;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
 import io.sapl.grammar.sapl.impl.util.ImportsUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.CombinedDecision;
 import io.sapl.interpreter.DocumentEvaluationResult;
 import io.sapl.interpreter.PolicySetDecision;
@@ -91,11 +92,11 @@ private Flux<CombinedDecision> evaluateValueDefinitionsAndPolicies(int valueDefi
             return policySetCombiningAlgorithm(getAlgorithm()).combinePoliciesInSet(this);
 
         final var valueDefinition           = valueDefinitions.get(valueDefinitionId);
-        final var evaluatedValueDefinitions = valueDefinition.getEval().evaluate();
+        final var evaluatedValueDefinitions = ExpressionCompiler.evaluate(valueDefinition.getEval());
         return evaluatedValueDefinitions.switchMap(value -> evaluateValueDefinitionsAndPolicies(valueDefinitionId + 1)
                 .contextWrite(ctx -> AuthorizationContext.setVariable(ctx, valueDefinition.getName(),
-                        value.withTrace(PolicySet.class, true, Map.of(Trace.POLICY_SET, Val.of(saplName),
-                                Trace.VARIABLE_NAME, Val.of(valueDefinition.getName()), Trace.VALUE, value)))));
+                        Tracer.of(ctx).trace(value, PolicySet.class, true, Trace.POLICY_SET, Val.of(saplName),
+                                Trace.VARIABLE_NAME, Val.of(valueDefinition.getName()), Trace.VALUE, value))));
     }
 
 }
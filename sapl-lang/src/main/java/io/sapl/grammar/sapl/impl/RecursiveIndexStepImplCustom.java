@@ -18,8 +18,6 @@
 package io.sapl.grammar.sapl.impl;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -30,6 +28,7 @@
 import io.sapl.grammar.sapl.RecursiveIndexStep;
 import io.sapl.grammar.sapl.impl.util.FilterAlgorithmUtil;
 import io.sapl.grammar.sapl.impl.util.RepackageUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
@@ -46,13 +45,16 @@ public class RecursiveIndexStepImplCustom extends RecursiveIndexStepImpl {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(applyToValue(parentValue).withTrace(RecursiveIndexStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index.intValue()))));
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            return Flux.just(tracer.trace(applyToValue(parentValue, tracer), RecursiveIndexStep.class, true,
+                    Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index.intValue())));
+        });
     }
 
-    public Val applyToValue(@NonNull Val parentValue) {
+    public Val applyToValue(@NonNull Val parentValue, Tracer tracer) {
         if (parentValue.isError()) {
-            return parentValue.withParentTrace(RecursiveIndexStep.class, true, parentValue);
+            return tracer.traceParent(parentValue, RecursiveIndexStep.class, true, parentValue);
         }
         if (parentValue.isUndefined()) {
             return Val.ofEmptyArray();
@@ -85,25 +87,27 @@ private static int normalizeIndex(int idx, int size) {
 
     @Override
     public Flux<Val> applyFilterStatement(@NonNull Val parentValue, int stepId, @NonNull FilterStatement statement) {
-        return doApplyFilterStatement(index.intValue(), parentValue, stepId, statement);
+        return Flux.deferContextual(
+                ctx -> doApplyFilterStatement(index.intValue(), parentValue, stepId, statement, Tracer.of(ctx)));
     }
 
-    private static Flux<Val> doApplyFilterStatement(int index, Val parentValue, int stepId, FilterStatement statement) {
+    private static Flux<Val> doApplyFilterStatement(int index, Val parentValue, int stepId, FilterStatement statement,
+            Tracer tracer) {
         if (parentValue.isObject()) {
-            return applyFilterStatementToObject(index, parentValue, stepId, statement);
+            return applyFilterStatementToObject(index, parentValue, stepId, statement, tracer);
         }
 
         if (!parentValue.isArray()) {
             // this means the element does not get selected does not get filtered
-            return Flux.just(parentValue.withTrace(RecursiveIndexStep.class, true,
-                    Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index))));
+            return Flux.just(tracer.trace(parentValue, RecursiveIndexStep.class, true, Trace.PARENT_VALUE,
+                    parentValue, Trace.INDEX, Val.of(index)));
         }
         final var array         = parentValue.getArrayNode();
         final var idx           = normalizeIndex(index, array.size());
         final var elementFluxes = new ArrayList<Flux<Val>>(array.size());
         for (var i = 0; i < array.size(); i++) {
-            final var element = Val.of(array.get(i)).withTrace(RecursiveIndexStep.class, true,
-                    Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index)));
+            final var element = tracer.trace(Val.of(array.get(i)), RecursiveIndexStep.class, true, Trace.PARENT_VALUE,
+                    parentValue, Trace.INDEX, Val.of(index));
             if (i == idx) {
                 if (stepId == statement.getTarget().getSteps().size() - 1) {
                     // this was the final step. apply filter
@@ -111,26 +115,22 @@ private static Flux<Val> doApplyFilterStatement(int index, Val parentValue, int
                             .applyFilterFunction(element, statement.getArguments(), statement.getIdentifier(),
                                     statement.isEach(), statement)
                             .contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx, parentValue))
-                            .map(filteredValue -> {
-                                final var trace = new HashMap<String, Val>();
-                                trace.put(Trace.UNFILTERED_VALUE, element);
-                                trace.put(Trace.FILTERED, filteredValue);
-                                return filteredValue.withTrace(RecursiveIndexStep.class, true, trace);
-                            }));
+                            .map(filteredValue -> tracer.trace(filteredValue, RecursiveIndexStep.class, true,
+                                    Trace.UNFILTERED_VALUE, element, Trace.FILTERED, filteredValue)));
                 } else {
                     // there are more steps. descent with them
                     elementFluxes.add(statement.getTarget().getSteps().get(stepId + 1).applyFilterStatement(element,
                             stepId + 1, statement));
                 }
             } else {
-                elementFluxes.add(doApplyFilterStatement(index, element, stepId, statement));
+                elementFluxes.add(doApplyFilterStatement(index, element, stepId, statement, tracer));
             }
         }
-        return Flux.combineLatest(elementFluxes, RepackageUtil::recombineArray);
+        return Flux.combineLatest(elementFluxes, values -> RepackageUtil.recombineArray(values, tracer));
     }
 
     private static Flux<Val> applyFilterStatementToObject(int idx, Val parentValue, int stepId,
-            FilterStatement statement) {
+            FilterStatement statement, Tracer tracer) {
         final var object      = parentValue.getObjectNode();
         final var fieldFluxes = new ArrayList<Flux<Tuple2<String, Val>>>(object.size());
         final var fields      = object.fields();
@@ -138,11 +138,12 @@ private static Flux<Val> applyFilterStatementToObject(int idx, Val parentValue,
             final var field      = fields.next();
             final var key        = field.getKey();
             final var value      = field.getValue();
-            final var fieldValue = Val.of(value).withTrace(RecursiveIndexStep.class, true,
-                    Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(idx), Trace.KEY, Val.of(key)));
-            fieldFluxes.add(doApplyFilterStatement(idx, fieldValue, stepId, statement).map(val -> Tuples.of(key, val)));
+            final var fieldValue = tracer.trace(Val.of(value), RecursiveIndexStep.class, true, Trace.PARENT_VALUE,
+                    parentValue, Trace.INDEX, Val.of(idx), Trace.KEY, Val.of(key));
+            fieldFluxes.add(doApplyFilterStatement(idx, fieldValue, stepId, statement, tracer)
+                    .map(val -> Tuples.of(key, val)));
         }
-        return Flux.combineLatest(fieldFluxes, RepackageUtil::recombineObject);
+        return Flux.combineLatest(fieldFluxes, values -> RepackageUtil.recombineObject(values, tracer));
     }
 
 }
@@ -18,8 +18,6 @@
 package io.sapl.grammar.sapl.impl;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -30,6 +28,7 @@
 import io.sapl.grammar.sapl.RecursiveKeyStep;
 import io.sapl.grammar.sapl.impl.util.FilterAlgorithmUtil;
 import io.sapl.grammar.sapl.impl.util.RepackageUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
@@ -47,8 +46,8 @@ public class RecursiveKeyStepImplCustom extends RecursiveKeyStepImpl {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(applyToValue(parentValue).withTrace(RecursiveKeyStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue, Trace.KEY, Val.of(id))));
+        return Flux.deferContextual(ctx -> Flux.just(Tracer.of(ctx).trace(applyToValue(parentValue),
+                RecursiveKeyStep.class, true, Trace.PARENT_VALUE, parentValue, Trace.KEY, Val.of(id))));
     }
 
     public Val applyToValue(@NonNull Val parentValue) {
@@ -82,26 +81,27 @@ private ArrayNode collect(JsonNode node, ArrayNode results) {
     @Override
     public Flux<Val> applyFilterStatement(@NonNull Val unfilteredValue, int stepId,
             @NonNull FilterStatement statement) {
-        return applyKeyStepFilterStatement(id, unfilteredValue, stepId, statement);
+        return Flux.deferContextual(
+                ctx -> applyKeyStepFilterStatement(id, unfilteredValue, stepId, statement, Tracer.of(ctx)));
     }
 
     private static Flux<Val> applyKeyStepFilterStatement(String id, Val unfilteredValue, int stepId,
-            FilterStatement statement) {
+            FilterStatement statement, Tracer tracer) {
         if (unfilteredValue.isObject()) {
-            return applyFilterStatementToObject(id, unfilteredValue, stepId, statement);
+            return applyFilterStatementToObject(id, unfilteredValue, stepId, statement, tracer);
         }
 
         if (unfilteredValue.isArray()) {
-            return applyFilterStatementToArray(id, unfilteredValue, stepId, statement);
+            return applyFilterStatementToArray(id, unfilteredValue, stepId, statement, tracer);
         }
 
         // this means the element does not get selected does not get filtered
-        return Flux.just(unfilteredValue.withTrace(RecursiveKeyStep.class, true,
-                Map.of(Trace.UNFILTERED_VALUE, unfilteredValue, Trace.KEY, Val.of(id))));
+        return Flux.just(tracer.trace(unfilteredValue, RecursiveKeyStep.class, true, Trace.UNFILTERED_VALUE,
+                unfilteredValue, Trace.KEY, Val.of(id)));
     }
 
     private static Flux<Val> applyFilterStatementToObject(String id, Val unfilteredValue, int stepId,
-            FilterStatement statement) {
+            FilterStatement statement, Tracer tracer) {
         final var object      = unfilteredValue.getObjectNode();
         final var fieldFluxes = new ArrayList<Flux<Tuple2<String, Val>>>(object.size());
         final var fields      = object.fields();
@@ -109,11 +109,8 @@ private static Flux<Val> applyFilterStatementToObject(String id, Val unfilteredV
         while (fields.hasNext()) {
             final var field = fields.next();
             final var key   = field.getKey();
-            final var trace = new HashMap<String, Val>();
-            trace.put(Trace.UNFILTERED_VALUE, unfilteredValue);
-            trace.put(Trace.KEY, Val.of(id));
-            trace.put("[\"+key+\"]", Val.of(key));
-            final var value = Val.of(field.getValue()).withTrace(RecursiveKeyStep.class, true, trace);
+            final var value = tracer.trace(Val.of(field.getValue()), RecursiveKeyStep.class, true,
+                    Trace.UNFILTERED_VALUE, unfilteredValue, Trace.KEY, Val.of(id), "[\"+key+\"]", Val.of(key));
             if (field.getKey().equals(id)) {
                 if (stepId == statement.getTarget().getSteps().size() - 1) {
                     // this was the final step. apply filter
@@ -130,39 +127,36 @@ private static Flux<Val> applyFilterStatementToObject(String id, Val unfilteredV
                 }
             } else {
                 // field not matching. Do recursive search for first match.
-                fieldFluxes.add(applyKeyStepFilterStatement(id, value, stepId, statement)
+                fieldFluxes.add(applyKeyStepFilterStatement(id, value, stepId, statement, tracer)
                         .map(val -> Tuples.of(field.getKey(), val)));
             }
         }
-        return Flux.combineLatest(fieldFluxes, RepackageUtil::recombineObject);
+        return Flux.combineLatest(fieldFluxes, values -> RepackageUtil.recombineObject(values, tracer));
     }
 
     private static Flux<Val> applyFilterStatementToArray(String id, Val unfilteredValue, int stepId,
-            FilterStatement statement) {
+            FilterStatement statement, Tracer tracer) {
         final var array = unfilteredValue.getArrayNode();
 
         if (array.isEmpty()) {
-            return Flux.just(unfilteredValue.withTrace(RecursiveKeyStep.class, true,
-                    Map.of(Trace.UNFILTERED_VALUE, unfilteredValue, Trace.KEY, Val.of(id))));
+            return Flux.just(tracer.trace(unfilteredValue, RecursiveKeyStep.class, true, Trace.UNFILTERED_VALUE,
+                    unfilteredValue, Trace.KEY, Val.of(id)));
         }
         final var elementFluxes = new ArrayList<Flux<Val>>(array.size());
         final var elements      = array.elements();
         var       index         = 0;
         while (elements.hasNext()) {
-            final var trace = new HashMap<String, Val>();
-            trace.put(Trace.UNFILTERED_VALUE, unfilteredValue);
-            trace.put(Trace.KEY, Val.of(id));
-            trace.put(Trace.INDEX, Val.of(index++));
-            final var element = Val.of(elements.next()).withTrace(RecursiveKeyStep.class, true, trace);
+            final var element = tracer.trace(Val.of(elements.next()), RecursiveKeyStep.class, true,
+                    Trace.UNFILTERED_VALUE, unfilteredValue, Trace.KEY, Val.of(id), Trace.INDEX, Val.of(index++));
             if (element.isObject()) {
                 // array element is an object. apply this step to the object.
-                elementFluxes.add(applyFilterStatementToObject(id, element, stepId, statement));
+                elementFluxes.add(applyFilterStatementToObject(id, element, stepId, statement, tracer));
             } else {
                 // array element not an object. Do recursive search for first match.
-                elementFluxes.add(applyKeyStepFilterStatement(id, element, stepId, statement));
+                elementFluxes.add(applyKeyStepFilterStatement(id, element, stepId, statement, tracer));
             }
         }
-        return Flux.combineLatest(elementFluxes, RepackageUtil::recombineArray);
+        return Flux.combineLatest(elementFluxes, values -> RepackageUtil.recombineArray(values, tracer));
     }
 
 }
@@ -17,8 +17,6 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
@@ -29,6 +27,7 @@
 import io.sapl.grammar.sapl.WildcardStep;
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
 import io.sapl.grammar.sapl.impl.util.FilterAlgorithmUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
 
@@ -44,8 +43,8 @@ public class RecursiveWildcardStepImplCustom extends RecursiveWildcardStepImpl {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(applyToValue(parentValue).withTrace(RecursiveWildcardStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue)));
+        return Flux.deferContextual(ctx -> Flux.just(Tracer.of(ctx).trace(applyToValue(parentValue),
+                RecursiveWildcardStep.class, true, Trace.PARENT_VALUE, parentValue)));
     }
 
     public Val applyToValue(@NonNull Val parentValue) {
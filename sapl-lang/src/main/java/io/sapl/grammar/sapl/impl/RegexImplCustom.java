@@ -17,15 +17,14 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
 import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
-import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
-import io.sapl.grammar.sapl.Regex;
-import io.sapl.grammar.sapl.impl.util.ErrorFactory;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
 import io.sapl.grammar.sapl.impl.util.OperatorUtil;
+import io.sapl.grammar.sapl.impl.util.RegexUtil;
+import io.sapl.grammar.sapl.impl.util.Tracer;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
 
 /**
@@ -36,32 +35,28 @@
  */
 public class RegexImplCustom extends RegexImpl {
 
-    private static final String REGEX_SYNTAX_ERROR = "Syntax error in regular expression '%s'.";
+    private Pattern literalPattern;
 
     @Override
     public Flux<Val> evaluate() {
-        final var leftFlux  = getLeft().evaluate();
-        final var rightFlux = getRight().evaluate().map(v -> OperatorUtil.requireText(this, v));
-        return Flux.combineLatest(leftFlux, rightFlux, this::matchRegexp);
+        final var leftFlux = ExpressionCompiler.evaluate(getLeft());
+        return Flux.deferContextual(ctx -> {
+            final var tracer    = Tracer.of(ctx);
+            final var cache     = AuthorizationContext.getRegexPatternCache(ctx);
+            final var rightFlux = ExpressionCompiler.evaluate(getRight())
+                    .map(v -> OperatorUtil.requireText(this, v, tracer));
+            return Flux.combineLatest(leftFlux, rightFlux,
+                    (left, right) -> RegexUtil.matchRegexp(this, cache, literalPattern, left, right, tracer));
+        });
     }
 
-    private Val matchRegexp(Val left, Val right) {
-        if (left.isError()) {
-            return left;
-        }
-        if (right.isError()) {
-            return right;
-        }
-        if (!left.isTextual()) {
-            return Val.FALSE.withTrace(Regex.class, false, Map.of(Trace.LEFT, left, Trace.RIGHT, right));
-        }
-        try {
-            return Val.of(Pattern.matches(right.getText(), left.getText())).withTrace(Regex.class, false,
-                    Map.of(Trace.LEFT, left, Trace.RIGHT, right));
-        } catch (PatternSyntaxException e) {
-            return ErrorFactory.error(this, REGEX_SYNTAX_ERROR, right).withTrace(Regex.class, false,
-                    Map.of(Trace.LEFT, left, Trace.RIGHT, right));
-        }
+    /**
+     * Compiles the pattern if the right-hand side of the operator is a folded
+     * constant text. Invalid patterns are left to the evaluation to report the
+     * error.
+     */
+    public void precompilePattern() {
+        literalPattern = RegexUtil.literalPattern(getRight());
     }
 
 }
@@ -26,6 +26,7 @@
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 
+import io.sapl.api.interpreter.PolicyEvaluationException;
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.functions.SchemaValidationLibrary;
@@ -36,13 +37,81 @@
 import io.sapl.grammar.sapl.Schema;
 import io.sapl.grammar.sapl.impl.util.ImportsUtil;
 import io.sapl.grammar.sapl.impl.util.MatchingUtil;
+import io.sapl.grammar.sapl.impl.util.PurityAnalysis;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.DocumentEvaluationResult;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.pip.AttributeContext;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 
 public class SAPLImplCustom extends SAPLImpl {
 
+    private volatile ImportTable    importTable;
+    private volatile FunctionPurity functionPurity;
+
+    /**
+     * @return true, if evaluating the document, including its target expression,
+     * accesses attributes, i.e., it may subscribe to policy information points
+     */
+    public boolean isAttributeDependent() {
+        return PurityAnalysis.purity(this).attributeDependent();
+    }
+
+    /**
+     * Resolves the imports of the document. The resolved imports are kept as long
+     * as the document is evaluated with the same attribute and function contexts,
+     * i.e., until the libraries of the PDP change.
+     *
+     * @param attributeContext the attribute context
+     * @param functionContext the function context
+     * @return the imports mapping short names to fully qualified names
+     */
+    public Map<String, String> imports(AttributeContext attributeContext, FunctionContext functionContext) {
+        final var table = importTable;
+        if (null != table && table.attributeContext() == attributeContext
+                && table.functionContext() == functionContext) {
+            return table.imports();
+        }
+        final var imports = Map.copyOf(ImportsUtil.fetchImports(this, attributeContext, functionContext));
+        importTable = new ImportTable(attributeContext, functionContext, imports);
+        return imports;
+    }
+
+    private record ImportTable(AttributeContext attributeContext, FunctionContext functionContext,
+            Map<String, String> imports) {}
+
+    /**
+     * Checks whether all functions called by the document are declared pure by
+     * their libraries. The result is kept as long as the document is evaluated
+     * with the same attribute and function contexts.
+     *
+     * @param attributeContext the attribute context
+     * @param functionContext the function context
+     * @return true, if the document only calls pure functions. False, if it calls
+     * other functions, accesses attributes, or its imports cannot be resolved.
+     */
+    public boolean callsOnlyPureFunctions(AttributeContext attributeContext, FunctionContext functionContext) {
+        final var last = functionPurity;
+        if (null != last && last.attributeContext() == attributeContext
+                && last.functionContext() == functionContext) {
+            return last.pure();
+        }
+        boolean pure;
+        try {
+            pure = PurityAnalysis.callsOnlyPureFunctions(this, imports(attributeContext, functionContext),
+                    functionContext);
+        } catch (PolicyEvaluationException e) {
+            pure = false;
+        }
+        functionPurity = new FunctionPurity(attributeContext, functionContext, pure);
+        return pure;
+    }
+
+    private record FunctionPurity(AttributeContext attributeContext, FunctionContext functionContext,
+            boolean pure) {}
+
     @Override
     public Mono<Val> matches() {
         // this does not use the implicit expression to not disrupt hit recording with
@@ -51,7 +120,10 @@ public Mono<Val> matches() {
         if (this.schemas == null) {
             return this.policyElement.matches();
         } else {
-            return Mono.zip(this.policyElement.matches(), schemasMatch()).map(this::and);
+            return Mono.deferContextual(ctx -> {
+                final var tracer = Tracer.of(ctx);
+                return Mono.zip(this.policyElement.matches(), schemasMatch()).map(matches -> and(matches, tracer));
+            });
         }
 
     }
@@ -60,7 +132,7 @@ private Mono<Val> schemasMatch() {
         return MatchingUtil.matches(getSchemaPredicateExpression(), this);
     }
 
-    private Val and(Tuple2<Val, Val> matches) {
+    private Val and(Tuple2<Val, Val> matches, Tracer tracer) {
         final var elementMatch = matches.getT1();
         final var schemaMatch  = matches.getT2();
         Val       result;
@@ -69,8 +141,8 @@ private Val and(Tuple2<Val, Val> matches) {
         } else if (elementMatch.isError()) {
             result = elementMatch;
         } else {
-            result = Val.of(elementMatch.getBoolean() && schemaMatch.getBoolean()).withTrace(SAPL.class, true,
-                    Map.of(Trace.TARGET_EXPRESSION_RESULT, elementMatch, Trace.SCHEMA_VALIDATION, schemaMatch));
+            result = tracer.trace(Val.of(elementMatch.getBoolean() && schemaMatch.getBoolean()), SAPL.class, true,
+                    Trace.TARGET_EXPRESSION_RESULT, elementMatch, Trace.SCHEMA_VALIDATION, schemaMatch);
         }
         return result;
     }
@@ -19,13 +19,14 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.StringLiteral;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 public class StringLiteralImplCustom extends StringLiteralImpl {
 
     @Override
     public Flux<Val> evaluate() {
-        return Flux.just(Val.of(getString()).withTrace(StringLiteral.class));
+        return Flux.deferContextual(ctx -> Flux.just(Tracer.of(ctx).trace(Val.of(getString()), StringLiteral.class)));
     }
 
 }
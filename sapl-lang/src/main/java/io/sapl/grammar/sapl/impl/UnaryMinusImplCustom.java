@@ -21,6 +21,7 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.UnaryMinus;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 public class UnaryMinusImplCustom extends UnaryMinusImpl {
@@ -30,8 +31,8 @@ public Flux<Val> evaluate() {
         return arithmeticOperator(this, this, UnaryMinusImplCustom::negate);
     }
 
-    public static Val negate(Val value) {
-        return Val.of(value.decimalValue().negate()).withTrace(UnaryMinus.class, true, value);
+    public static Val negate(Val value, Tracer tracer) {
+        return tracer.trace(Val.of(value.decimalValue().negate()), UnaryMinus.class, true, value);
     }
 
 }
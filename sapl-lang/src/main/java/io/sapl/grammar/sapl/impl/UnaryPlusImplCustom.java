@@ -21,6 +21,7 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.UnaryPlus;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import reactor.core.publisher.Flux;
 
 public class UnaryPlusImplCustom extends UnaryPlusImpl {
@@ -30,8 +31,8 @@ public Flux<Val> evaluate() {
         return arithmeticOperator(this, this, UnaryPlusImplCustom::plus);
     }
 
-    public static Val plus(Val val) {
-        return val.withTrace(UnaryPlus.class, true, val);
+    public static Val plus(Val val, Tracer tracer) {
+        return tracer.trace(val, UnaryPlus.class, true, val);
     }
 
 }
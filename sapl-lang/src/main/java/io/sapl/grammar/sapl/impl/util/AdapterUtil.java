@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Looks up the adapters attached to AST nodes after parsing.
+ */
+@UtilityClass
+public class AdapterUtil {
+
+    /**
+     * Looks up an adapter without creating the adapter list of nodes which have
+     * no adapters at all. This keeps the lookup allocation free for the majority
+     * of nodes on the evaluation path.
+     *
+     * @param object an AST node
+     * @param type the type of the adapter
+     * @return the adapter or null, if the node has no adapter of the type
+     */
+    public static Object getAdapter(EObject object, Object type) {
+        if (object instanceof InternalEObject internalObject && !internalObject.eNotificationRequired()) {
+            return null;
+        }
+        return EcoreUtil.getAdapter(object.eAdapters(), type);
+    }
+
+}
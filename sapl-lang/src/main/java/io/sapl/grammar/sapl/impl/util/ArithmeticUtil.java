@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.math.BigDecimal;
+
+import org.eclipse.emf.ecore.EObject;
+
+import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.Div;
+import io.sapl.grammar.sapl.Minus;
+import io.sapl.grammar.sapl.Modulo;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Arithmetic operations on numerical values shared by the reactive operators
+ * and the compiled closures of expressions.
+ */
+@UtilityClass
+public class ArithmeticUtil {
+
+    static final String DIVISION_BY_ZERO_ERROR = "Division by zero";
+
+    /**
+     * @param minuend a numerical value
+     * @param subtrahend a numerical value
+     * @param tracer attaches the trace of the operation
+     * @return the difference
+     */
+    public static Val subtract(Val minuend, Val subtrahend, Tracer tracer) {
+        return tracer.trace(Val.of(minuend.decimalValue().subtract(subtrahend.decimalValue())), Minus.class, false,
+                Trace.MINUEND, minuend, Trace.SUBTRAHEND, subtrahend);
+    }
+
+    /**
+     * @param location the operator in the document
+     * @param dividend a numerical value
+     * @param divisor a numerical value
+     * @param tracer attaches the trace of the operation
+     * @return the quotient or an error, if the divisor is zero
+     */
+    public static Val divide(EObject location, Val dividend, Val divisor, Tracer tracer) {
+        final Val quotient;
+        if (divisor.decimalValue().compareTo(BigDecimal.ZERO) == 0)
+            quotient = ErrorFactory.error(location, DIVISION_BY_ZERO_ERROR);
+        else
+            quotient = Val.of(dividend.decimalValue().divide(divisor.decimalValue()));
+        return tracer.trace(quotient, Div.class, false, Trace.DIVIDEND, dividend, Trace.DIVISOR, divisor);
+    }
+
+    /**
+     * @param location the operator in the document
+     * @param dividend a numerical value
+     * @param divisor a numerical value
+     * @param tracer attaches the trace of the operation
+     * @return the remainder or an error, if the divisor is zero
+     */
+    public static Val remainder(EObject location, Val dividend, Val divisor, Tracer tracer) {
+        final Val remainder;
+        if (divisor.decimalValue().compareTo(BigDecimal.ZERO) == 0)
+            remainder = ErrorFactory.error(location, DIVISION_BY_ZERO_ERROR);
+        else
+            remainder = Val.of(dividend.decimalValue().remainder(divisor.decimalValue()));
+        return tracer.trace(remainder, Modulo.class, false, Trace.DIVIDEND, dividend, Trace.DIVISOR, divisor);
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.AttributeFinderStep;
+import io.sapl.grammar.sapl.BasicEnvironmentAttribute;
+import io.sapl.grammar.sapl.BasicEnvironmentHeadAttribute;
+import io.sapl.grammar.sapl.BasicFunction;
+import io.sapl.grammar.sapl.BasicIdentifier;
+import io.sapl.grammar.sapl.BasicRelative;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.FilterComponent;
+import io.sapl.grammar.sapl.HeadAttributeFinderStep;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Folds constant sub-expressions of a document into pre-built values.
+ * <p>
+ * An expression is constant if neither the expression nor any of its
+ * sub-expressions refers to variables, relative nodes, functions, attributes or
+ * filters. Such an expression, e.g., a literal, an object or array of literals,
+ * or arithmetic on literals, is evaluated once after parsing. The resulting
+ * value is attached to the AST node and returned on evaluation instead of
+ * re-evaluating it for every decision.
+ * <p>
+ * The folded value is stored without the trace of its evaluation at parse
+ * time. Objects and arrays are mutable and end up in decisions, e.g., as
+ * obligations. Thus, each lookup returns a deep copy of them, while immutable
+ * scalar values are shared.
+ */
+@UtilityClass
+public class ConstantFolder {
+
+    /**
+     * Folds all maximal constant sub-expressions of a document.
+     *
+     * @param root the root of the AST
+     * @return the number of folded sub-expressions
+     */
+    public int foldConstants(EObject root) {
+        var       numberOfFoldedExpressions = 0;
+        final var contents                  = root.eAllContents();
+        while (contents.hasNext()) {
+            if (contents.next() instanceof Expression expression) {
+                if (null != constant(expression)) {
+                    contents.prune();
+                    continue;
+                }
+                if (isConstant(expression)) {
+                    final var value = evaluateConstant(expression);
+                    if (null != value) {
+                        expression.eAdapters().add(new ConstantAdapter(withoutTrace(value)));
+                        numberOfFoldedExpressions++;
+                        contents.prune();
+                    }
+                }
+            }
+        }
+        return numberOfFoldedExpressions;
+    }
+
+    /**
+     * @param expression an expression
+     * @return the folded value of the expression or null, if the expression was
+     * not folded. Objects and arrays are returned as a fresh copy.
+     */
+    public Val constant(Expression expression) {
+        if (AdapterUtil.getAdapter(expression, ConstantAdapter.class) instanceof ConstantAdapter constantAdapter) {
+            return constantAdapter.value();
+        }
+        return null;
+    }
+
+    private static boolean isConstant(Expression expression) {
+        if (isVariable(expression)) {
+            return false;
+        }
+        final var contents = expression.eAllContents();
+        while (contents.hasNext()) {
+            if (isVariable(contents.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVariable(EObject object) {
+        return object instanceof BasicIdentifier || object instanceof BasicRelative || object instanceof BasicFunction
+                || object instanceof BasicEnvironmentAttribute || object instanceof BasicEnvironmentHeadAttribute
+                || object instanceof AttributeFinderStep || object instanceof HeadAttributeFinderStep
+                || object instanceof FilterComponent;
+    }
+
+    /*
+     * Constant expressions evaluate synchronously to exactly one value without
+     * accessing the context. Anything else is left to the regular evaluation.
+     */
+    private static Val evaluateConstant(Expression expression) {
+        final var values    = new ArrayList<Val>(1);
+        final var completed = new AtomicBoolean();
+        try {
+            final var subscription = expression.evaluate().subscribe(values::add, error -> {},
+                    () -> completed.set(true));
+            if (!completed.get()) {
+                subscription.dispose();
+                return null;
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return values.size() == 1 ? values.get(0) : null;
+    }
+
+    private static Val withoutTrace(Val value) {
+        if (value.isError()) {
+            return Val.error(value.getError());
+        }
+        if (value.isUndefined()) {
+            return Val.UNDEFINED;
+        }
+        final var detached = Val.of(value.get());
+        return value.isSecret() ? detached.asSecret() : detached;
+    }
+
+    @RequiredArgsConstructor
+    private static class ConstantAdapter extends AdapterImpl {
+
+        private final Val value;
+
+        private Val value() {
+            if (value.isDefined() && value.get().isContainerNode()) {
+                final var copy = Val.of(value.get().deepCopy());
+                return value.isSecret() ? copy.asSecret() : copy;
+            }
+            return value;
+        }
+
+        @Override
+        public boolean isAdapterForType(Object type) {
+            return ConstantAdapter.class == type;
+        }
+
+    }
+
+}
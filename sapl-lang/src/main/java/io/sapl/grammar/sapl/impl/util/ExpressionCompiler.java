@@ -0,0 +1,521 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+
+import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.And;
+import io.sapl.grammar.sapl.BasicExpression;
+import io.sapl.grammar.sapl.BasicGroup;
+import io.sapl.grammar.sapl.BasicIdentifier;
+import io.sapl.grammar.sapl.BasicValue;
+import io.sapl.grammar.sapl.BinaryOperator;
+import io.sapl.grammar.sapl.Div;
+import io.sapl.grammar.sapl.EagerAnd;
+import io.sapl.grammar.sapl.EagerOr;
+import io.sapl.grammar.sapl.ElementOf;
+import io.sapl.grammar.sapl.EscapedKeyStep;
+import io.sapl.grammar.sapl.Equals;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.FalseLiteral;
+import io.sapl.grammar.sapl.IndexStep;
+import io.sapl.grammar.sapl.KeyStep;
+import io.sapl.grammar.sapl.Less;
+import io.sapl.grammar.sapl.LessEquals;
+import io.sapl.grammar.sapl.Minus;
+import io.sapl.grammar.sapl.Modulo;
+import io.sapl.grammar.sapl.More;
+import io.sapl.grammar.sapl.MoreEquals;
+import io.sapl.grammar.sapl.Multi;
+import io.sapl.grammar.sapl.Not;
+import io.sapl.grammar.sapl.NotEquals;
+import io.sapl.grammar.sapl.NullLiteral;
+import io.sapl.grammar.sapl.NumberLiteral;
+import io.sapl.grammar.sapl.Or;
+import io.sapl.grammar.sapl.Plus;
+import io.sapl.grammar.sapl.Regex;
+import io.sapl.grammar.sapl.Step;
+import io.sapl.grammar.sapl.StringLiteral;
+import io.sapl.grammar.sapl.TrueLiteral;
+import io.sapl.grammar.sapl.UnaryMinus;
+import io.sapl.grammar.sapl.UnaryOperator;
+import io.sapl.grammar.sapl.UnaryPlus;
+import io.sapl.grammar.sapl.UndefinedLiteral;
+import io.sapl.grammar.sapl.Value;
+import io.sapl.grammar.sapl.XOr;
+import io.sapl.grammar.sapl.impl.EagerAndImplCustom;
+import io.sapl.grammar.sapl.impl.EagerOrImplCustom;
+import io.sapl.grammar.sapl.impl.ElementOfImplCustom;
+import io.sapl.grammar.sapl.impl.EqualsImplCustom;
+import io.sapl.grammar.sapl.impl.IndexStepImplCustom;
+import io.sapl.grammar.sapl.impl.KeyStepImplCustom;
+import io.sapl.grammar.sapl.impl.LessEqualsImplCustom;
+import io.sapl.grammar.sapl.impl.LessImplCustom;
+import io.sapl.grammar.sapl.impl.MoreEqualsImplCustom;
+import io.sapl.grammar.sapl.impl.MoreImplCustom;
+import io.sapl.grammar.sapl.impl.MultiImplCustom;
+import io.sapl.grammar.sapl.impl.NotEqualsImplCustom;
+import io.sapl.grammar.sapl.impl.NotImplCustom;
+import io.sapl.grammar.sapl.impl.PlusImplCustom;
+import io.sapl.grammar.sapl.impl.UnaryMinusImplCustom;
+import io.sapl.grammar.sapl.impl.UnaryPlusImplCustom;
+import io.sapl.grammar.sapl.impl.XOrImplCustom;
+import io.sapl.grammar.sapl.impl.util.OperatorUtil.TracedBinaryOperator;
+import io.sapl.grammar.sapl.impl.util.OperatorUtil.TracedUnaryOperator;
+import io.sapl.grammar.sapl.impl.util.OperatorUtil.TypeRequirement;
+import io.sapl.interpreter.context.AuthorizationContext;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.UtilityClass;
+import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
+
+/**
+ * Compiles attribute-free expressions into closures which are evaluated
+ * synchronously.
+ * <p>
+ * The reactive evaluation of the AST assembles a Flux pipeline for each node,
+ * even if the expression only consists of operators, literals, and key or index
+ * steps on variables. After parsing, {@link #compileDocument(EObject)} attaches
+ * a {@link CompiledExpression} to each maximal subtree made up of such nodes.
+ * Places evaluating a sub-expression use {@link #evaluate(Expression)} which
+ * runs the compiled closure and only lifts its result into a Flux. All other
+ * nodes, e.g., attribute finders, function calls, filters, or object and array
+ * construction, are evaluated reactively as before.
+ * <p>
+ * The compiled closures produce exactly the values and traces of the reactive
+ * evaluation. If tracing is disabled in the {@link AuthorizationContext}, they
+ * only propagate the secret status and skip assembling trace arguments.
+ */
+@UtilityClass
+public class ExpressionCompiler {
+
+    private static final String LAZY_AND_IN_TARGET_ERROR = "Lazy AND operator is not allowed in the target";
+    private static final String LAZY_OR_IN_TARGET_ERROR  = "Lazy OR operator is not allowed in the target";
+
+    /**
+     * An expression compiled into a synchronous closure.
+     */
+    @FunctionalInterface
+    public interface CompiledExpression {
+
+        /**
+         * @param ctx the context of the authorization subscription
+         * @return the value of the expression
+         */
+        Val evaluate(ContextView ctx);
+
+    }
+
+    @FunctionalInterface
+    private interface CompiledStep {
+
+        Val apply(Val parentValue, Tracer tracer);
+
+        static CompiledStep identity() {
+            return (parentValue, tracer) -> parentValue;
+        }
+
+    }
+
+    /**
+     * Compiles all maximal attribute-free sub-expressions of a document and
+     * attaches the compiled closures to the respective AST nodes.
+     *
+     * @param root the root of the AST
+     * @return the number of compiled sub-expressions
+     */
+    public int compileDocument(EObject root) {
+        var       numberOfCompiledExpressions = 0;
+        final var contents                    = root.eAllContents();
+        while (contents.hasNext()) {
+            if (contents.next() instanceof Expression expression) {
+                if (null != ConstantFolder.constant(expression) || null != compiled(expression)) {
+                    contents.prune();
+                    continue;
+                }
+                final var compiledExpression = compile(expression);
+                if (null != compiledExpression) {
+                    expression.eAdapters().add(new CompiledExpressionAdapter(compiledExpression));
+                    numberOfCompiledExpressions++;
+                    contents.prune();
+                }
+            }
+        }
+        return numberOfCompiledExpressions;
+    }
+
+    /**
+     * Evaluates an expression using its folded value or its compiled closure, if
+     * available.
+     *
+     * @param expression an expression
+     * @return the value stream of the expression
+     */
+    public Flux<Val> evaluate(Expression expression) {
+        final var constant = ConstantFolder.constant(expression);
+        if (null != constant) {
+            return Flux.just(constant);
+        }
+        final var compiledExpression = compiled(expression);
+        if (null == compiledExpression) {
+            return expression.evaluate();
+        }
+        return Flux.deferContextual(ctx -> Flux.just(compiledExpression.evaluate(ctx)));
+    }
+
+    /**
+     * @param expression an expression
+     * @return the closure attached to the expression or null, if it was not
+     * compiled
+     */
+    public CompiledExpression compiled(Expression expression) {
+        if (AdapterUtil.getAdapter(expression, CompiledExpression.class) instanceof CompiledExpressionAdapter adapter) {
+            return adapter.compiledExpression;
+        }
+        return null;
+    }
+
+    /**
+     * Compiles an expression, if it only consists of supported nodes.
+     *
+     * @param expression an expression
+     * @return the compiled closure or null, if the expression cannot be compiled
+     */
+    public CompiledExpression compile(Expression expression) {
+        final var constant = ConstantFolder.constant(expression);
+        if (null != constant) {
+            return ctx -> constant;
+        }
+        if (expression instanceof BasicExpression basicExpression
+                && (null != basicExpression.getFilter() || null != basicExpression.getSubtemplate())) {
+            return null;
+        }
+        if (expression instanceof BasicValue basicValue) {
+            return compileBasicValue(basicValue);
+        }
+        if (expression instanceof BasicIdentifier identifier) {
+            return compileIdentifier(identifier);
+        }
+        if (expression instanceof BasicGroup group) {
+            return compileGroup(group);
+        }
+        if (expression instanceof And and) {
+            return compileAnd(and);
+        }
+        if (expression instanceof Or or) {
+            return compileOr(or);
+        }
+        if (expression instanceof Regex regex) {
+            return compileRegex(regex);
+        }
+        if (expression instanceof BinaryOperator operator) {
+            return compileBinaryOperator(operator);
+        }
+        if (expression instanceof UnaryOperator operator) {
+            return compileUnaryOperator(operator);
+        }
+        return null;
+    }
+
+    private static CompiledExpression compileBasicValue(BasicValue basicValue) {
+        final var value = compileLiteral(basicValue.getValue());
+        final var steps = compileSteps(basicValue.getSteps());
+        if (null == value || null == steps) {
+            return null;
+        }
+        if (basicValue.getSteps().isEmpty()) {
+            return value;
+        }
+        return ctx -> steps.apply(value.evaluate(ctx), Tracer.of(ctx));
+    }
+
+    private static CompiledExpression compileLiteral(Value value) {
+        if (value instanceof StringLiteral stringLiteral) {
+            final var string = Val.of(stringLiteral.getString());
+            return ctx -> Tracer.of(ctx).trace(string, StringLiteral.class);
+        }
+        if (value instanceof NumberLiteral numberLiteral) {
+            final var number = Val.of(numberLiteral.getNumber());
+            return ctx -> number;
+        }
+        if (value instanceof TrueLiteral) {
+            return ctx -> Val.TRUE;
+        }
+        if (value instanceof FalseLiteral) {
+            return ctx -> Val.FALSE;
+        }
+        if (value instanceof NullLiteral) {
+            return ctx -> Val.NULL;
+        }
+        if (value instanceof UndefinedLiteral) {
+            return ctx -> Val.UNDEFINED;
+        }
+        return null;
+    }
+
+    private static CompiledExpression compileIdentifier(BasicIdentifier identifier) {
+        final var name  = identifier.getIdentifier();
+        final var id    = Val.of(name);
+        final var steps = compileSteps(identifier.getSteps());
+        if (null == steps) {
+            return null;
+        }
+        return ctx -> {
+            final var tracer = Tracer.of(ctx);
+            final var value  = steps.apply(AuthorizationContext.getVariable(ctx, name), tracer);
+            return tracer.trace(value, BasicIdentifier.class, true, Trace.IDENTIFIER, id, Trace.VALUE, value);
+        };
+    }
+
+    private static CompiledExpression compileGroup(BasicGroup group) {
+        final var expression = compile(group.getExpression());
+        final var steps      = compileSteps(group.getSteps());
+        if (null == expression || null == steps) {
+            return null;
+        }
+        return ctx -> {
+            final var tracer = Tracer.of(ctx);
+            final var value  = steps.apply(expression.evaluate(ctx), tracer);
+            return tracer.trace(value, BasicGroup.class, true, value);
+        };
+    }
+
+    private static CompiledStep compileSteps(EList<Step> steps) {
+        var compiledSteps = CompiledStep.identity();
+        for (var step : steps) {
+            final var compiledStep = compileStep(step);
+            if (null == compiledStep) {
+                return null;
+            }
+            final var previousSteps = compiledSteps;
+            compiledSteps = (value, tracer) -> compiledStep.apply(previousSteps.apply(value, tracer), tracer);
+        }
+        return compiledSteps;
+    }
+
+    private static CompiledStep compileStep(Step step) {
+        if (step instanceof KeyStep keyStep) {
+            final var id  = keyStep.getId();
+            final var key = Val.of(id);
+            return (parentValue, tracer) -> tracer.trace(KeyStepImplCustom.applyToValue(parentValue, id),
+                    KeyStep.class, true, Trace.PARENT_VALUE, parentValue, Trace.IDENTIFIER, key);
+        }
+        if (step instanceof EscapedKeyStep keyStep) {
+            final var id  = keyStep.getId();
+            final var key = Val.of(id);
+            return (parentValue, tracer) -> tracer.trace(KeyStepImplCustom.applyToValue(parentValue, id),
+                    EscapedKeyStep.class, true, Trace.PARENT_VALUE, parentValue, Trace.IDENTIFIER, key);
+        }
+        if (step instanceof IndexStepImplCustom indexStep) {
+            final var index = Val.of(indexStep.getIndex());
+            return (parentValue, tracer) -> tracer.trace(indexStep.applyToValue(parentValue), IndexStep.class, true,
+                    Trace.PARENT_VALUE, parentValue, Trace.INDEX, index);
+        }
+        return null;
+    }
+
+    private static CompiledExpression compileAnd(And and) {
+        if (TargetExpressionUtil.isInTargetExpression(and)) {
+            return ctx -> Tracer.of(ctx).trace(ErrorFactory.error(and, LAZY_AND_IN_TARGET_ERROR), And.class);
+        }
+        final var left  = compile(and.getLeft());
+        final var right = compile(and.getRight());
+        if (null == left || null == right) {
+            return null;
+        }
+        return ctx -> {
+            final var tracer     = Tracer.of(ctx);
+            final var leftResult = OperatorUtil.requireBoolean(and, left.evaluate(ctx), tracer);
+            if (leftResult.isError()) {
+                return leftResult;
+            }
+            if (!leftResult.getBoolean()) {
+                return Val.FALSE;
+            }
+            final var rightResult = OperatorUtil.requireBoolean(and, right.evaluate(ctx), tracer);
+            if (rightResult.isError()) {
+                return rightResult;
+            }
+            return tracer.trace(rightResult, And.class, false, Trace.LEFT, leftResult, Trace.RIGHT, rightResult);
+        };
+    }
+
+    private static CompiledExpression compileOr(Or or) {
+        if (TargetExpressionUtil.isInTargetExpression(or)) {
+            return ctx -> Tracer.of(ctx).trace(ErrorFactory.error(or, LAZY_OR_IN_TARGET_ERROR), Or.class);
+        }
+        final var left  = compile(or.getLeft());
+        final var right = compile(or.getRight());
+        if (null == left || null == right) {
+            return null;
+        }
+        return ctx -> {
+            final var tracer     = Tracer.of(ctx);
+            final var leftResult = OperatorUtil.requireBoolean(or, left.evaluate(ctx), tracer);
+            if (leftResult.isError()) {
+                return leftResult;
+            }
+            if (leftResult.getBoolean()) {
+                return tracer.trace(Val.TRUE, Or.class, false, Trace.LEFT, leftResult);
+            }
+            final var rightResult = OperatorUtil.requireBoolean(or, right.evaluate(ctx), tracer);
+            if (rightResult.isError()) {
+                return rightResult;
+            }
+            return tracer.trace(rightResult, Or.class, false, Trace.LEFT, leftResult, Trace.RIGHT, rightResult);
+        };
+    }
+
+    private static CompiledExpression compileRegex(Regex regex) {
+        final var left  = compile(regex.getLeft());
+        final var right = compile(regex.getRight());
+        if (null == left || null == right) {
+            return null;
+        }
+        final var literalPattern = RegexUtil.literalPattern(regex.getRight());
+        return ctx -> {
+            final var tracer = Tracer.of(ctx);
+            return RegexUtil.matchRegexp(regex, AuthorizationContext.getRegexPatternCache(ctx), literalPattern,
+                    left.evaluate(ctx), OperatorUtil.requireText(regex, right.evaluate(ctx), tracer), tracer);
+        };
+    }
+
+    private static CompiledExpression compileBinaryOperator(BinaryOperator operator) {
+        final var transformation = binaryTransformation(operator);
+        if (null == transformation) {
+            return null;
+        }
+        final var typeRequirement = typeRequirement(operator);
+
+        final var left  = compile(operator.getLeft());
+        final var right = compile(operator.getRight());
+        if (null == left || null == right) {
+            return null;
+        }
+        return ctx -> {
+            final var tracer = Tracer.of(ctx);
+            return OperatorUtil.errorOrDo(transformation, tracer).apply(
+                    typeRequirement.apply(operator, left.evaluate(ctx), tracer),
+                    typeRequirement.apply(operator, right.evaluate(ctx), tracer));
+        };
+    }
+
+    private static TracedBinaryOperator binaryTransformation(BinaryOperator operator) {
+        if (operator instanceof Equals) {
+            return EqualsImplCustom::equals;
+        }
+        if (operator instanceof NotEquals) {
+            return NotEqualsImplCustom::notEqual;
+        }
+        if (operator instanceof ElementOf) {
+            return ElementOfImplCustom::elementOf;
+        }
+        if (operator instanceof Plus) {
+            return PlusImplCustom::plus;
+        }
+        if (operator instanceof EagerAnd) {
+            return EagerAndImplCustom::and;
+        }
+        if (operator instanceof EagerOr) {
+            return EagerOrImplCustom::or;
+        }
+        if (operator instanceof XOr) {
+            return XOrImplCustom::xor;
+        }
+        if (operator instanceof Less) {
+            return LessImplCustom::lessThan;
+        }
+        if (operator instanceof LessEquals) {
+            return LessEqualsImplCustom::lessOrEqual;
+        }
+        if (operator instanceof More) {
+            return MoreImplCustom::moreThan;
+        }
+        if (operator instanceof MoreEquals) {
+            return MoreEqualsImplCustom::moreOrEqual;
+        }
+        if (operator instanceof Multi) {
+            return MultiImplCustom::multiply;
+        }
+        if (operator instanceof Minus) {
+            return ArithmeticUtil::subtract;
+        }
+        if (operator instanceof Div) {
+            return (dividend, divisor, tracer) -> ArithmeticUtil.divide(operator, dividend, divisor, tracer);
+        }
+        if (operator instanceof Modulo) {
+            return (dividend, divisor, tracer) -> ArithmeticUtil.remainder(operator, dividend, divisor, tracer);
+        }
+        return null;
+    }
+
+    private static TypeRequirement typeRequirement(BinaryOperator operator) {
+        if (operator instanceof EagerAnd || operator instanceof EagerOr || operator instanceof XOr) {
+            return OperatorUtil::requireBoolean;
+        }
+        if (operator instanceof Less || operator instanceof LessEquals || operator instanceof More
+                || operator instanceof MoreEquals || operator instanceof Multi || operator instanceof Minus
+                || operator instanceof Div || operator instanceof Modulo) {
+            return OperatorUtil::requireBigDecimal;
+        }
+        return OperatorUtil::noRequirement;
+    }
+
+    private static CompiledExpression compileUnaryOperator(UnaryOperator operator) {
+        final var expression = compile(operator.getExpression());
+        if (null == expression) {
+            return null;
+        }
+        final TracedUnaryOperator transformation;
+        final TypeRequirement     typeRequirement;
+        if (operator instanceof Not) {
+            transformation  = NotImplCustom::not;
+            typeRequirement = OperatorUtil::requireBoolean;
+        } else if (operator instanceof UnaryMinus) {
+            transformation  = UnaryMinusImplCustom::negate;
+            typeRequirement = OperatorUtil::requireBigDecimal;
+        } else if (operator instanceof UnaryPlus) {
+            transformation  = UnaryPlusImplCustom::plus;
+            typeRequirement = OperatorUtil::requireBigDecimal;
+        } else {
+            return null;
+        }
+        return ctx -> {
+            final var tracer = Tracer.of(ctx);
+            return OperatorUtil.errorOrDo(transformation, tracer)
+                    .apply(typeRequirement.apply(operator, expression.evaluate(ctx), tracer));
+        };
+    }
+
+    @RequiredArgsConstructor
+    private static class CompiledExpressionAdapter extends AdapterImpl {
+
+        private final CompiledExpression compiledExpression;
+
+        @Override
+        public boolean isAdapterForType(Object type) {
+            return CompiledExpression.class == type;
+        }
+
+    }
+
+}
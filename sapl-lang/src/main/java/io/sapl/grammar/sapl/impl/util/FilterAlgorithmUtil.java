@@ -19,7 +19,6 @@
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -50,142 +49,159 @@ public class FilterAlgorithmUtil {
 
     public static Flux<Val> applyFilter(@NonNull Val unfilteredValue, int stepId, Supplier<Flux<Val>> selector,
             @NonNull FilterStatement statement, Class<?> operationType) {
-        if (unfilteredValue.isError()) {
-            return Flux.just(unfilteredValue.withParentTrace(ConditionStep.class, true, unfilteredValue));
-        }
         if (unfilteredValue.isArray()) {
             return applyFilterOnArray(unfilteredValue, stepId, selector, statement, operationType);
         }
         if (unfilteredValue.isObject()) {
             return applyFilterOnObject(unfilteredValue, stepId, selector, statement, operationType);
         }
-        return Flux
-                .just(unfilteredValue.withTrace(ConditionStep.class, true, Map.of(UNFILTERED_VALUE, unfilteredValue)));
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            if (unfilteredValue.isError()) {
+                return Flux.just(tracer.traceParent(unfilteredValue, ConditionStep.class, true, unfilteredValue));
+            }
+            return Flux.just(tracer.trace(unfilteredValue, ConditionStep.class, true, UNFILTERED_VALUE,
+                    unfilteredValue));
+        });
     }
 
     public static Flux<Val> applyFilterOnArray(Val unfilteredValue, int stepId, Supplier<Flux<Val>> selector,
             FilterStatement statement, Class<?> operationType) {
-        if (!unfilteredValue.isArray()) {
-            return Flux.just(
-                    unfilteredValue.withTrace(ConditionStep.class, true, Map.of(UNFILTERED_VALUE, unfilteredValue)));
-        }
-        final var array = unfilteredValue.getArrayNode();
-        if (array.isEmpty()) {
-            return Flux.just(unfilteredValue.withTrace(operationType, true, Map.of(UNFILTERED_VALUE, unfilteredValue)));
-        }
-        final var elementFluxes = new ArrayList<Flux<Val>>(array.size());
-        final var iter          = array.elements();
-        var       elementCount  = 0;
-        while (iter.hasNext()) {
-            final var element       = iter.next();
-            final var elementValue  = Val.of(element).withTrace(operationType, true, Map.of("from", unfilteredValue));
-            final var index         = elementCount++;
-            final var conditions    = selector.get()
-                    .contextWrite(ctx -> AuthorizationContext.setRelativeNodeWithIndex(ctx, elementValue, index));
-            final var moddedElement = conditions.concatMap(
-                    applyFilterIfConditionMet(elementValue, unfilteredValue, stepId, statement, "[" + index + "]"));
-            elementFluxes.add(moddedElement);
-        }
-        return Flux.combineLatest(elementFluxes, RepackageUtil::recombineArray);
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            if (!unfilteredValue.isArray()) {
+                return Flux.just(tracer.trace(unfilteredValue, ConditionStep.class, true, UNFILTERED_VALUE,
+                        unfilteredValue));
+            }
+            final var array = unfilteredValue.getArrayNode();
+            if (array.isEmpty()) {
+                return Flux.just(tracer.trace(unfilteredValue, operationType, true, UNFILTERED_VALUE,
+                        unfilteredValue));
+            }
+            final var elementFluxes = new ArrayList<Flux<Val>>(array.size());
+            final var iter          = array.elements();
+            var       elementCount  = 0;
+            while (iter.hasNext()) {
+                final var element       = iter.next();
+                final var elementValue  = tracer.trace(Val.of(element), operationType, true, "from", unfilteredValue);
+                final var index         = elementCount++;
+                final var conditions    = selector.get()
+                        .contextWrite(c -> AuthorizationContext.setRelativeNodeWithIndex(c, elementValue, index));
+                final var moddedElement = conditions.concatMap(applyFilterIfConditionMet(elementValue,
+                        unfilteredValue, stepId, statement, "[" + index + "]", tracer));
+                elementFluxes.add(moddedElement);
+            }
+            return Flux.combineLatest(elementFluxes, values -> RepackageUtil.recombineArray(values, tracer));
+        });
     }
 
     public static Flux<Val> applyFilterOnObject(Val unfilteredValue, int stepId, Supplier<Flux<Val>> selector,
             FilterStatement statement, Class<?> operationType) {
-        if (!unfilteredValue.isObject()) {
-            return Flux.just(
-                    unfilteredValue.withTrace(ConditionStep.class, true, Map.of(UNFILTERED_VALUE, unfilteredValue)));
-        }
-        final var object = unfilteredValue.getObjectNode();
-        if (object.isEmpty()) {
-            return Flux.just(
-                    unfilteredValue.withTrace(ConditionStep.class, true, Map.of(UNFILTERED_VALUE, unfilteredValue)));
-        }
-        final var fieldFluxes = new ArrayList<Flux<Tuple2<String, Val>>>(object.size());
-        final var iter        = object.fields();
-        while (iter.hasNext()) {
-            final var field          = iter.next();
-            final var key            = field.getKey();
-            final var originalValue  = Val.of(field.getValue()).withTrace(operationType, true,
-                    Map.of("from", unfilteredValue));
-            final var conditions     = selector.get()
-                    .contextWrite(ctx -> AuthorizationContext.setRelativeNodeWithKey(ctx, originalValue, key));
-            final var filteredFields = conditions
-                    .concatMap(applyFilterIfConditionMet(originalValue, unfilteredValue, stepId, statement, key));
-            final var keyValuePairs  = filteredFields.map(filteredField -> Tuples.of(key, filteredField));
-            fieldFluxes.add(keyValuePairs);
-        }
-        return Flux.combineLatest(fieldFluxes, RepackageUtil::recombineObject);
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            if (!unfilteredValue.isObject() || unfilteredValue.getObjectNode().isEmpty()) {
+                return Flux.just(tracer.trace(unfilteredValue, ConditionStep.class, true, UNFILTERED_VALUE,
+                        unfilteredValue));
+            }
+            final var object      = unfilteredValue.getObjectNode();
+            final var fieldFluxes = new ArrayList<Flux<Tuple2<String, Val>>>(object.size());
+            final var iter        = object.fields();
+            while (iter.hasNext()) {
+                final var field          = iter.next();
+                final var key            = field.getKey();
+                final var originalValue  = tracer.trace(Val.of(field.getValue()), operationType, true, "from",
+                        unfilteredValue);
+                final var conditions     = selector.get()
+                        .contextWrite(c -> AuthorizationContext.setRelativeNodeWithKey(c, originalValue, key));
+                final var filteredFields = conditions.concatMap(
+                        applyFilterIfConditionMet(originalValue, unfilteredValue, stepId, statement, key, tracer));
+                final var keyValuePairs  = filteredFields.map(filteredField -> Tuples.of(key, filteredField));
+                fieldFluxes.add(keyValuePairs);
+            }
+            return Flux.combineLatest(fieldFluxes, values -> RepackageUtil.recombineObject(values, tracer));
+        });
     }
 
     private static Function<Val, Flux<Val>> applyFilterIfConditionMet(Val elementValue, Val unfilteredValue, int stepId,
-            FilterStatement statement, String elementIdentifier) {
+            FilterStatement statement, String elementIdentifier, Tracer tracer) {
         return conditionResult -> {
-            final var trace = Map.<String, Val>of(UNFILTERED_VALUE, unfilteredValue, "conditionResult", conditionResult,
-                    elementIdentifier, elementValue);
             if (conditionResult.isError()) {
-                return Flux.just(conditionResult.withTrace(ConditionStep.class, true, trace));
+                return Flux.just(traceCondition(conditionResult, unfilteredValue, conditionResult, elementIdentifier,
+                        elementValue, tracer));
             }
             if (!conditionResult.isBoolean()) {
-                return Flux.just(ErrorFactory.error(statement, TYPE_MISMATCH_CONDITION_NOT_BOOLEAN_S, conditionResult)
-                        .withTrace(ConditionStep.class, true, trace));
+                final var error = ErrorFactory.error(statement, TYPE_MISMATCH_CONDITION_NOT_BOOLEAN_S, conditionResult);
+                return Flux.just(traceCondition(error, unfilteredValue, conditionResult, elementIdentifier,
+                        elementValue, tracer));
             }
+            final var elementValueTraced = traceCondition(elementValue, unfilteredValue, conditionResult,
+                    elementIdentifier, elementValue, tracer);
             if (conditionResult.getBoolean()) {
-                final var elementValueTraced = elementValue.withTrace(ConditionStep.class, true, trace);
                 if (stepId == statement.getTarget().getSteps().size() - 1) {
                     // this was the final step. apply filter
                     return applyFilterFunction(elementValueTraced, statement.getArguments(), statement.getIdentifier(),
                             statement.isEach(), statement)
-                            .contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx,
-                                    unfilteredValue.withTrace(ConditionStep.class, true, trace)));
+                            .contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx, traceCondition(
+                                    unfilteredValue, unfilteredValue, conditionResult, elementIdentifier,
+                                    elementValue, tracer)));
                 } else {
                     // there are more steps. descent with them
                     return statement.getTarget().getSteps().get(stepId + 1).applyFilterStatement(elementValueTraced,
                             stepId + 1, statement);
                 }
             } else {
-                return Flux.just(elementValue.withTrace(ConditionStep.class, true, trace));
+                return Flux.just(elementValueTraced);
             }
         };
     }
 
+    private static Val traceCondition(Val value, Val unfilteredValue, Val conditionResult, String elementIdentifier,
+            Val elementValue, Tracer tracer) {
+        return tracer.trace(value, ConditionStep.class, true, UNFILTERED_VALUE, unfilteredValue, "conditionResult",
+                conditionResult, elementIdentifier, elementValue);
+    }
+
     public static Flux<Val> applyFilterFunction(Val unfilteredValue, Arguments arguments, FunctionIdentifier identifier,
             boolean each, EObject location) {
-        if (unfilteredValue.isError()) {
-            return Flux.just(unfilteredValue.withTrace(FilterComponent.class, true, unfilteredValue));
-        }
-        if (unfilteredValue.isUndefined()) {
-            return Flux.just(ErrorFactory.error(location, TYPE_MISMATCH_UNFILTERED_UNDEFINED)
-                    .withTrace(FilterComponent.class, true, unfilteredValue));
-        }
-
-        if (!each) {
-            return FunctionUtil.combineArgumentFluxes(arguments)
-                    .concatMap(parameters -> FunctionUtil.evaluateFunctionWithLeftHandArgumentMono(location, identifier,
-                            unfilteredValue, parameters))
-                    .map(val -> val.withTrace(FilterComponent.class, true,
-                            Map.of(UNFILTERED_VALUE, unfilteredValue, "filterResult", val)));
-        }
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            if (unfilteredValue.isError()) {
+                return Flux.just(tracer.trace(unfilteredValue, FilterComponent.class, true, unfilteredValue));
+            }
+            if (unfilteredValue.isUndefined()) {
+                return Flux.just(tracer.trace(ErrorFactory.error(location, TYPE_MISMATCH_UNFILTERED_UNDEFINED),
+                        FilterComponent.class, true, unfilteredValue));
+            }
 
-        // "|- each" may only be applied to arrays
-        if (!unfilteredValue.isArray()) {
-            return Flux
-                    .just(ErrorFactory.error(location, TYPE_MISMATCH_EACH_ON_NON_ARRAY + unfilteredValue.getValType())
-                            .withTrace(FilterComponent.class, true, unfilteredValue));
-        }
+            if (!each) {
+                return FunctionUtil.combineArgumentFluxes(arguments)
+                        .concatMap(parameters -> FunctionUtil.evaluateFunctionWithLeftHandArgumentMono(location,
+                                identifier, unfilteredValue, parameters))
+                        .map(val -> tracer.trace(val, FilterComponent.class, true, UNFILTERED_VALUE, unfilteredValue,
+                                "filterResult", val));
+            }
 
-        final var rootArray      = (ArrayNode) unfilteredValue.get();
-        final var argumentFluxes = FunctionUtil.combineArgumentFluxes(arguments);
-        return argumentFluxes.concatMap(parameters -> {
-            final var elementsEvaluations = new ArrayList<Mono<Val>>(rootArray.size());
-            var       index               = 0;
-            for (var element : rootArray) {
-                final var elementVal = Val.of(element).withTrace(FilterComponent.class, true,
-                        Map.of(UNFILTERED_VALUE, unfilteredValue, "index", Val.of(index++)));
-                elementsEvaluations.add(FunctionUtil.evaluateFunctionWithLeftHandArgumentMono(location, identifier,
-                        elementVal, parameters));
+            // "|- each" may only be applied to arrays
+            if (!unfilteredValue.isArray()) {
+                final var error = ErrorFactory.error(location,
+                        TYPE_MISMATCH_EACH_ON_NON_ARRAY + unfilteredValue.getValType());
+                return Flux.just(tracer.trace(error, FilterComponent.class, true, unfilteredValue));
             }
-            return Flux.combineLatest(elementsEvaluations, e -> Arrays.copyOf(e, e.length, Val[].class))
-                    .map(RepackageUtil::recombineArray);
+
+            final var rootArray      = (ArrayNode) unfilteredValue.get();
+            final var argumentFluxes = FunctionUtil.combineArgumentFluxes(arguments);
+            return argumentFluxes.concatMap(parameters -> {
+                final var elementsEvaluations = new ArrayList<Mono<Val>>(rootArray.size());
+                var       index               = 0;
+                for (var element : rootArray) {
+                    final var elementVal = tracer.trace(Val.of(element), FilterComponent.class, true,
+                            UNFILTERED_VALUE, unfilteredValue, "index", Val.of(index++));
+                    elementsEvaluations.add(FunctionUtil.evaluateFunctionWithLeftHandArgumentMono(location,
+                            identifier, elementVal, parameters));
+                }
+                return Flux.combineLatest(elementsEvaluations, e -> Arrays.copyOf(e, e.length, Val[].class))
+                        .map(values -> RepackageUtil.recombineArray(values, tracer));
+            });
         });
     }
 
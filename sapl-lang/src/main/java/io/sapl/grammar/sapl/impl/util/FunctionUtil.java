@@ -22,16 +22,19 @@
 import java.util.Map;
 import java.util.stream.Stream;
 
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.ecore.EObject;
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Arguments;
-import io.sapl.grammar.sapl.Expression;
 import io.sapl.grammar.sapl.FunctionIdentifier;
 import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.functions.FunctionContext.ResolvedFunction;
 import lombok.experimental.UtilityClass;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 @UtilityClass
 public class FunctionUtil {
@@ -43,10 +46,29 @@ public Flux<Val[]> combineArgumentFluxes(Arguments arguments) {
         return combine(argumentFluxes(arguments));
     }
 
+    /**
+     * Attaches the merged names to all function identifiers of a document. The
+     * fully qualified name is then resolved once per set of imports instead of on
+     * every evaluation.
+     *
+     * @param root the root of the AST
+     */
+    public void bindFunctionNames(EObject root) {
+        root.eAllContents().forEachRemaining(object -> {
+            if (object instanceof FunctionIdentifier identifier && null == nameBinding(identifier)) {
+                identifier.eAdapters().add(new NameBinding(mergeStepsToName(identifier)));
+            }
+        });
+    }
+
     public String resolveAbsoluteFunctionName(FunctionIdentifier identifier, Map<String, String> imports) {
         if (null == identifier) {
             return "";
         }
+        final var binding = nameBinding(identifier);
+        if (null != binding) {
+            return binding.resolve(imports);
+        }
         final var functionName = mergeStepsToName(identifier);
         return imports.getOrDefault(functionName, functionName);
     }
@@ -55,16 +77,51 @@ public String resolveAbsoluteFunctionName(String unresolvedFunctionName, Map<Str
         return imports.getOrDefault(unresolvedFunctionName, unresolvedFunctionName);
     }
 
+    /**
+     * Looks up the function called by an identifier. The result is remembered by
+     * the identifier as long as the imports and the function context do not
+     * change, i.e., the function is looked up once per PDP configuration instead
+     * of on every evaluation.
+     *
+     * @param identifier a function identifier
+     * @param imports the imports of the document
+     * @param functionContext the function context
+     * @return the function
+     */
+    public ResolvedFunction resolveFunction(FunctionIdentifier identifier, Map<String, String> imports,
+            FunctionContext functionContext) {
+        final var binding = null == identifier ? null : nameBinding(identifier);
+        if (null != binding) {
+            return binding.resolve(imports, functionContext);
+        }
+        return functionContext.resolveFunction(resolveAbsoluteFunctionName(identifier, imports));
+    }
+
     public Mono<Val> evaluateFunctionMono(EObject location, FunctionIdentifier identifier, Val... parameters) {
-        return evaluateFunctionMono(location, mergeStepsToName(identifier), parameters);
+        return Mono.deferContextual(ctx -> {
+            final var function = resolveFunction(identifier, AuthorizationContext.getImports(ctx),
+                    AuthorizationContext.functionContext(ctx));
+            if (!AuthorizationContext.isTracingEnabled(ctx)) {
+                return Mono.just(function.evaluateWithoutTrace(location, parameters));
+            }
+            return Mono.just(function.evaluate(location, parameters));
+        });
     }
 
     public Mono<Val> evaluateFunctionMono(EObject location, String unresolvedFunctionName, Val... parameters) {
-        return Mono.deferContextual(ctx -> Mono.just(AuthorizationContext.functionContext(ctx).evaluate(location,
+        return Mono.deferContextual(ctx -> Mono.just(evaluateFunction(ctx, location,
                 resolveAbsoluteFunctionName(unresolvedFunctionName, AuthorizationContext.getImports(ctx)),
                 parameters)));
     }
 
+    private Val evaluateFunction(ContextView ctx, EObject location, String function, Val... parameters) {
+        final var functionContext = AuthorizationContext.functionContext(ctx);
+        if (!AuthorizationContext.isTracingEnabled(ctx)) {
+            return functionContext.evaluateWithoutTrace(location, function, parameters);
+        }
+        return functionContext.evaluate(location, function, parameters);
+    }
+
     public Mono<Val> evaluateFunctionWithLeftHandArgumentMono(EObject location, FunctionIdentifier identifier,
             Val leftHandArgument, Val... parameters) {
         Val[] mergedParameters = new Val[parameters.length + 1];
@@ -74,7 +131,7 @@ public Mono<Val> evaluateFunctionWithLeftHandArgumentMono(EObject location, Func
     }
 
     private Stream<Flux<Val>> argumentFluxes(Arguments arguments) {
-        return arguments.getArgs().stream().map(Expression::evaluate);
+        return arguments.getArgs().stream().map(ExpressionCompiler::evaluate);
     }
 
     private Flux<Val[]> combine(Stream<Flux<Val>> argumentFluxes) {
@@ -89,4 +146,55 @@ private String mergeStepsToName(FunctionIdentifier identifier) {
         return String.join(".", identifier.getNameFragments());
     }
 
+    private NameBinding nameBinding(FunctionIdentifier identifier) {
+        return (NameBinding) AdapterUtil.getAdapter(identifier, NameBinding.class);
+    }
+
+    /*
+     * The imports of a document are resolved once per PDP configuration and
+     * passed as the same map on each evaluation. Thus, remembering the last
+     * resolution for this map turns the lookup into a field read. The same holds
+     * for the function looked up in the function context of the configuration.
+     */
+    private static class NameBinding extends AdapterImpl {
+
+        private final String      functionName;
+        private volatile Resolved resolved;
+        private volatile Bound    bound;
+
+        NameBinding(String functionName) {
+            this.functionName = functionName;
+        }
+
+        String resolve(Map<String, String> imports) {
+            final var lastResolved = resolved;
+            if (null != lastResolved && lastResolved.imports() == imports) {
+                return lastResolved.fullyQualifiedName();
+            }
+            final var fullyQualifiedName = imports.getOrDefault(functionName, functionName);
+            resolved = new Resolved(imports, fullyQualifiedName);
+            return fullyQualifiedName;
+        }
+
+        ResolvedFunction resolve(Map<String, String> imports, FunctionContext functionContext) {
+            final var lastBound = bound;
+            if (null != lastBound && lastBound.imports() == imports && lastBound.functionContext() == functionContext) {
+                return lastBound.function();
+            }
+            final var function = functionContext.resolveFunction(resolve(imports));
+            bound = new Bound(imports, functionContext, function);
+            return function;
+        }
+
+        @Override
+        public boolean isAdapterForType(Object type) {
+            return NameBinding.class == type;
+        }
+
+    }
+
+    private record Resolved(Map<String, String> imports, String fullyQualifiedName) {}
+
+    private record Bound(Map<String, String> imports, FunctionContext functionContext, ResolvedFunction function) {}
+
 }
@@ -42,12 +42,14 @@ public static Mono<Val> matches(Expression targetExpression, EObject startObject
             return Mono.just(Val.TRUE);
         }
 
-        return targetExpression.evaluate().contextWrite(ctx -> ImportsUtil.loadImportsIntoContext(startObject, ctx))
+        return ExpressionCompiler.evaluate(targetExpression)
+                .contextWrite(ctx -> ImportsUtil.loadImportsIntoContext(startObject, ctx))
                 .onErrorResume(error -> Mono.just(ErrorFactory.error(targetExpression, error))).next()
                 .defaultIfEmpty(Val.FALSE).flatMap(result -> {
                     if (result.isError() || !result.isBoolean()) {
-                        return Mono.just(ErrorFactory.error(targetExpression, CONDITION_NOT_BOOLEAN_ERROR, result)
-                                .withTrace(PolicyElement.class, false, result));
+                        final var error = ErrorFactory.error(targetExpression, CONDITION_NOT_BOOLEAN_ERROR, result);
+                        return Mono.deferContextual(
+                                ctx -> Mono.just(Tracer.of(ctx).trace(error, PolicyElement.class, false, result)));
                     }
                     return Mono.just(result);
                 });
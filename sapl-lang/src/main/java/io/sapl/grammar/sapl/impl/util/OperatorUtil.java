@@ -35,95 +35,143 @@ public class OperatorUtil {
     static final String TEXT_OPERATION_TYPE_MISMATCH_S_ERROR       = "Type mismatch. Text operation expects text values, but got: '%s'.";
     static final String ARITHMETIC_OPERATION_TYPE_MISMATCH_S_ERROR = "Type mismatch. Number operation expects number values, but got: '%s'.";
 
+    /**
+     * Binary operation on two values. The tracer attaches the trace of the
+     * operation, if tracing is enabled for the subscription.
+     */
+    @FunctionalInterface
+    public interface TracedBinaryOperator {
+        Val apply(Val left, Val right, Tracer tracer);
+    }
+
+    /**
+     * Unary operation on a value. The tracer attaches the trace of the
+     * operation, if tracing is enabled for the subscription.
+     */
+    @FunctionalInterface
+    public interface TracedUnaryOperator {
+        Val apply(Val value, Tracer tracer);
+    }
+
+    /**
+     * Validation of an operand, returning the operand or an error.
+     */
+    @FunctionalInterface
+    public interface TypeRequirement {
+        Val apply(EObject demandingComponent, Val value, Tracer tracer);
+    }
+
     public static Flux<Val> operator(EObject demandingComponent, BinaryOperator operator,
-            java.util.function.BiFunction<EObject, Val, Val> leftTypeRequirement,
-            java.util.function.BiFunction<EObject, Val, Val> rightTypeRequirement,
-            java.util.function.BinaryOperator<Val> transformation) {
-        final var left  = operator.getLeft().evaluate().map(v -> leftTypeRequirement.apply(demandingComponent, v));
-        final var right = operator.getRight().evaluate().map(v -> rightTypeRequirement.apply(demandingComponent, v));
-        return Flux.combineLatest(left, right, errorOrDo(transformation));
+            TypeRequirement leftTypeRequirement, TypeRequirement rightTypeRequirement,
+            TracedBinaryOperator transformation) {
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            final var left   = ExpressionCompiler.evaluate(operator.getLeft())
+                    .map(v -> leftTypeRequirement.apply(demandingComponent, v, tracer));
+            final var right  = ExpressionCompiler.evaluate(operator.getRight())
+                    .map(v -> rightTypeRequirement.apply(demandingComponent, v, tracer));
+            return Flux.combineLatest(left, right, errorOrDo(transformation, tracer));
+        });
     }
 
     public static Flux<Val> arithmeticOperator(EObject demandingComponent, BinaryOperator operator,
-            java.util.function.BinaryOperator<Val> transformation) {
+            TracedBinaryOperator transformation) {
         return operator(demandingComponent, operator, OperatorUtil::requireBigDecimal, OperatorUtil::requireBigDecimal,
                 transformation);
     }
 
     public static Flux<Val> arithmeticOperator(EObject demandingComponent, UnaryOperator unaryOperator,
-            java.util.function.UnaryOperator<Val> transformation) {
+            TracedUnaryOperator transformation) {
         return operator(demandingComponent, unaryOperator, OperatorUtil::requireBigDecimal, transformation);
     }
 
     public static Flux<Val> booleanOperator(EObject demandingComponent, BinaryOperator operator,
-            java.util.function.BinaryOperator<Val> transformation) {
+            TracedBinaryOperator transformation) {
         return operator(demandingComponent, operator, OperatorUtil::requireBoolean, OperatorUtil::requireBoolean,
                 transformation);
     }
 
     public static Flux<Val> operator(EObject demandingComponent, BinaryOperator operator,
-            java.util.function.BinaryOperator<Val> transformation) {
-        return operator(demandingComponent, operator, (d, v) -> v, (d, v) -> v, transformation);
+            TracedBinaryOperator transformation) {
+        return operator(demandingComponent, operator, OperatorUtil::noRequirement, OperatorUtil::noRequirement,
+                transformation);
     }
 
     public static Flux<Val> operator(EObject demandingComponent, UnaryOperator unaryOperator,
-            java.util.function.BiFunction<EObject, Val, Val> typeRequirement,
-            java.util.function.UnaryOperator<Val> transformation) {
-        return unaryOperator.getExpression().evaluate().map(v -> typeRequirement.apply(demandingComponent, v))
-                .map(errorOrDo(transformation));
+            TypeRequirement typeRequirement, TracedUnaryOperator transformation) {
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            return ExpressionCompiler.evaluate(unaryOperator.getExpression())
+                    .map(v -> typeRequirement.apply(demandingComponent, v, tracer))
+                    .map(errorOrDo(transformation, tracer));
+        });
     }
 
-    public static java.util.function.BinaryOperator<Val> errorOrDo(
-            java.util.function.BinaryOperator<Val> transformation) {
+    public static java.util.function.BinaryOperator<Val> errorOrDo(TracedBinaryOperator transformation,
+            Tracer tracer) {
         return (left, right) -> {
             if (left.isError())
                 return left;
             if (right.isError())
                 return right;
-            return transformation.apply(left, right);
+            return transformation.apply(left, right, tracer);
         };
     }
 
-    public static java.util.function.UnaryOperator<Val> errorOrDo(
-            java.util.function.UnaryOperator<Val> transformation) {
+    public static java.util.function.UnaryOperator<Val> errorOrDo(TracedUnaryOperator transformation,
+            Tracer tracer) {
         return value -> {
             if (value.isError())
                 return value;
-            return transformation.apply(value);
+            return transformation.apply(value, tracer);
         };
     }
 
+    /**
+     * Accepts any value.
+     *
+     * @param value a Val
+     * @param tracer unused
+     * @return the input Val
+     */
+    public static Val noRequirement(EObject demandingComponent, Val value, Tracer tracer) {
+        return value;
+    }
+
     /**
      * Validation method to ensure a Val is a JsonNode, i.e., not undefined or an
      * error.
      *
      * @param value a Val
+     * @param tracer attaches the trace to errors
      * @return the input Val, or an error, if the input is not a JsonNode.
      */
-    public static Val requireJsonNode(EObject demandingComponent, Val value) {
+    public static Val requireJsonNode(EObject demandingComponent, Val value, Tracer tracer) {
         if (value.isError()) {
             return value;
         }
         if (value.isDefined()) {
             return value;
         }
-        return ErrorFactory.error(demandingComponent, UNDEFINED_VALUE_ERROR, Val.typeOf(value)).withTrace(Val.class,
-                true, value);
+        return tracer.trace(ErrorFactory.error(demandingComponent, UNDEFINED_VALUE_ERROR, Val.typeOf(value)),
+                Val.class, true, value);
     }
 
     /**
      * Validation method to ensure a Val is a Boolean.
      *
      * @param value a Val
+     * @param tracer attaches the trace to errors
      * @return the input Val, or an error, if the input is not Boolean.
      */
-    public static Val requireBoolean(EObject demandingComponent, Val value) {
+    public static Val requireBoolean(EObject demandingComponent, Val value, Tracer tracer) {
         if (value.isError()) {
             return value;
         }
         if (!value.isBoolean()) {
-            return ErrorFactory.error(demandingComponent, BOOLEAN_OPERATION_TYPE_MISMATCH_S_ERROR, Val.typeOf(value))
-                    .withTrace(Val.class, true, value);
+            final var error = ErrorFactory.error(demandingComponent, BOOLEAN_OPERATION_TYPE_MISMATCH_S_ERROR,
+                    Val.typeOf(value));
+            return tracer.trace(error, Val.class, true, value);
         }
         return value;
     }
@@ -132,15 +180,17 @@ public static Val requireBoolean(EObject demandingComponent, Val value) {
      * Validation method to ensure a Val is a JSON array.
      *
      * @param value a Val
+     * @param tracer attaches the trace to errors
      * @return the input Val, or an error, if the input is not an array.
      */
-    public static Val requireArrayNode(EObject demandingComponent, Val value) {
+    public static Val requireArrayNode(EObject demandingComponent, Val value, Tracer tracer) {
         if (value.isError()) {
             return value;
         }
         if (value.isUndefined() || !value.get().isArray()) {
-            return ErrorFactory.error(demandingComponent, ARRAY_OPERATION_TYPE_MISMATCH_S_ERROR, Val.typeOf(value))
-                    .withTrace(Val.class, true, value);
+            final var error = ErrorFactory.error(demandingComponent, ARRAY_OPERATION_TYPE_MISMATCH_S_ERROR,
+                    Val.typeOf(value));
+            return tracer.trace(error, Val.class, true, value);
         }
         return value;
     }
@@ -149,15 +199,17 @@ public static Val requireArrayNode(EObject demandingComponent, Val value) {
      * Validation method to ensure a Val is a JSON object.
      *
      * @param value a Val
+     * @param tracer attaches the trace to errors
      * @return the input Val, or an error, if the input is not an object.
      */
-    public static Val requireObjectNode(EObject demandingComponent, Val value) {
+    public static Val requireObjectNode(EObject demandingComponent, Val value, Tracer tracer) {
         if (value.isError()) {
             return value;
         }
         if (value.isUndefined() || !value.get().isObject()) {
-            return ErrorFactory.error(demandingComponent, OBJECT_OPERATION_TYPE_MISMATCH_S_ERROR, Val.typeOf(value))
-                    .withTrace(Val.class, true, value);
+            final var error = ErrorFactory.error(demandingComponent, OBJECT_OPERATION_TYPE_MISMATCH_S_ERROR,
+                    Val.typeOf(value));
+            return tracer.trace(error, Val.class, true, value);
         }
         return value;
     }
@@ -166,15 +218,17 @@ public static Val requireObjectNode(EObject demandingComponent, Val value) {
      * Validation method to ensure a Val is a textual value.
      *
      * @param value a Val
+     * @param tracer attaches the trace to errors
      * @return the input Val, or an error, if the input is not textual.
      */
-    public static Val requireText(EObject demandingComponent, Val value) {
+    public static Val requireText(EObject demandingComponent, Val value, Tracer tracer) {
         if (value.isError()) {
             return value;
         }
         if (value.isUndefined() || !value.get().isTextual()) {
-            return ErrorFactory.error(demandingComponent, TEXT_OPERATION_TYPE_MISMATCH_S_ERROR, Val.typeOf(value))
-                    .withTrace(Val.class, true, value);
+            final var error = ErrorFactory.error(demandingComponent, TEXT_OPERATION_TYPE_MISMATCH_S_ERROR,
+                    Val.typeOf(value));
+            return tracer.trace(error, Val.class, true, value);
         }
         return value;
     }
@@ -183,15 +237,17 @@ public static Val requireText(EObject demandingComponent, Val value) {
      * Validation method to ensure a val is a numerical value.
      *
      * @param value a Val
+     * @param tracer attaches the trace to errors
      * @return the input Val, or an error, if the input is not a number.
      */
-    public static Val requireBigDecimal(EObject demandingComponent, Val value) {
+    public static Val requireBigDecimal(EObject demandingComponent, Val value, Tracer tracer) {
         if (value.isError()) {
             return value;
         }
         if (value.isUndefined() || !value.get().isNumber()) {
-            return ErrorFactory.error(demandingComponent, ARITHMETIC_OPERATION_TYPE_MISMATCH_S_ERROR, Val.typeOf(value))
-                    .withTrace(Val.class, true, value);
+            final var error = ErrorFactory.error(demandingComponent, ARITHMETIC_OPERATION_TYPE_MISMATCH_S_ERROR,
+                    Val.typeOf(value));
+            return tracer.trace(error, Val.class, true, value);
         }
         return value;
     }
@@ -200,9 +256,10 @@ public static Val requireBigDecimal(EObject demandingComponent, Val value) {
      * Validation method to ensure a val is a numerical value.
      *
      * @param value a Val
+     * @param tracer attaches the trace to errors
      * @return the input Val, or an error, if the input is not a number.
      */
-    public static Val requireNumber(EObject demandingComponent, Val value) {
-        return requireBigDecimal(demandingComponent, value);
+    public static Val requireNumber(EObject demandingComponent, Val value, Tracer tracer) {
+        return requireBigDecimal(demandingComponent, value, tracer);
     }
 }
@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import io.sapl.grammar.sapl.AttributeFinderStep;
+import io.sapl.grammar.sapl.BasicEnvironmentAttribute;
+import io.sapl.grammar.sapl.BasicEnvironmentHeadAttribute;
+import io.sapl.grammar.sapl.FunctionIdentifier;
+import io.sapl.grammar.sapl.HeadAttributeFinderStep;
+import io.sapl.grammar.sapl.Import;
+import io.sapl.grammar.sapl.LibraryImport;
+import io.sapl.grammar.sapl.PolicyElement;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.grammar.sapl.WildcardImport;
+import io.sapl.interpreter.Purity;
+import io.sapl.interpreter.functions.FunctionContext;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Classifies the nodes of a document by their dependencies on attributes and
+ * time.
+ * <p>
+ * The analysis runs once after parsing. It annotates every node of the AST with
+ * its {@link Purity}, i.e., the combined classification of the node and all its
+ * descendants, and whether the node is part of the target expression of a
+ * policy or policy set. Time dependency is detected for attributes of the time
+ * policy information point, also if they are referenced via imports.
+ */
+@UtilityClass
+public class PurityAnalysis {
+
+    public static final String TIME_LIBRARY = "time";
+
+    private static final PurityAdapter[] ADAPTERS = adapters();
+
+    /**
+     * Annotates all nodes of a document.
+     *
+     * @param sapl the root of a document
+     * @return the classification of the whole document
+     */
+    public Purity analyze(SAPL sapl) {
+        return analyze(sapl, false, sapl.getImports());
+    }
+
+    /**
+     * Looks up the classification of an AST node. If the document was not
+     * analyzed, the sub-tree of the node is classified without annotating it.
+     *
+     * @param element a node of the AST
+     * @return the classification of the node including its descendants
+     */
+    public Purity purity(EObject element) {
+        final var adapter = adapter(element);
+        if (null != adapter) {
+            return adapter.purity;
+        }
+        return classify(element, importsOf(element));
+    }
+
+    /**
+     * @param element a node of the AST
+     * @return true, if the node is part of the target expression of a policy or
+     * policy set, or null if the document was not analyzed
+     */
+    public Boolean isInTargetExpression(EObject element) {
+        final var adapter = adapter(element);
+        if (null == adapter) {
+            return null;
+        }
+        return adapter.inTargetExpression;
+    }
+
+    /**
+     * Checks whether all functions called by an element or its descendants are
+     * declared pure by their libraries. Function names are resolved with the given
+     * imports. Attribute finders are named like functions and are never pure.
+     *
+     * @param element a node of the AST
+     * @param imports the imports of the document
+     * @param functionContext the function context the document is evaluated with
+     * @return true, if the element only calls pure functions
+     */
+    public boolean callsOnlyPureFunctions(EObject element, Map<String, String> imports,
+            FunctionContext functionContext) {
+        final var contents = element.eAllContents();
+        while (contents.hasNext()) {
+            if (contents.next() instanceof FunctionIdentifier identifier && !functionContext
+                    .isPureFunction(FunctionUtil.resolveAbsoluteFunctionName(identifier, imports))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Purity analyze(EObject element, boolean inTargetExpression, List<Import> imports) {
+        var purity = ownPurity(element, imports);
+        for (var child : element.eContents()) {
+            final var childInTargetExpression = inTargetExpression
+                    || element instanceof PolicyElement policyElement && policyElement.getTargetExpression() == child;
+            purity = purity.and(analyze(child, childInTargetExpression, imports));
+        }
+        element.eAdapters().add(adapterFor(purity, inTargetExpression));
+        return purity;
+    }
+
+    private static Purity classify(EObject element, List<Import> imports) {
+        var       purity   = ownPurity(element, imports);
+        final var contents = element.eAllContents();
+        while (contents.hasNext()) {
+            purity = purity.and(ownPurity(contents.next(), imports));
+        }
+        return purity;
+    }
+
+    private static Purity ownPurity(EObject element, List<Import> imports) {
+        if (element instanceof AttributeFinderStep step) {
+            return timed(Purity.STREAMING, step.getIdentifier(), imports);
+        }
+        if (element instanceof BasicEnvironmentAttribute attribute) {
+            return timed(Purity.STREAMING, attribute.getIdentifier(), imports);
+        }
+        if (element instanceof HeadAttributeFinderStep step) {
+            return timed(Purity.HEAD, step.getIdentifier(), imports);
+        }
+        if (element instanceof BasicEnvironmentHeadAttribute attribute) {
+            return timed(Purity.HEAD, attribute.getIdentifier(), imports);
+        }
+        return Purity.PURE;
+    }
+
+    private static Purity timed(Purity purity, FunctionIdentifier identifier, List<Import> imports) {
+        if (isTimeAttribute(identifier, imports)) {
+            return purity.withTime();
+        }
+        return purity;
+    }
+
+    /*
+     * Imports are resolved statically. A wildcard import of the time library
+     * conservatively marks all attributes with unqualified names as
+     * time-dependent.
+     */
+    private static boolean isTimeAttribute(FunctionIdentifier identifier, List<Import> imports) {
+        if (null == identifier) {
+            return false;
+        }
+        final var fragments = identifier.getNameFragments();
+        if (fragments.isEmpty()) {
+            return false;
+        }
+        final var first = fragments.get(0);
+        if (fragments.size() > 1) {
+            if (TIME_LIBRARY.equals(first)) {
+                return true;
+            }
+            for (var anImport : imports) {
+                if (anImport instanceof LibraryImport libraryImport && first.equals(libraryImport.getLibAlias())
+                        && isTimeLibrary(libraryImport)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (var anImport : imports) {
+            if (anImport instanceof WildcardImport && isTimeLibrary(anImport)) {
+                return true;
+            }
+            if (!(anImport instanceof LibraryImport) && first.equals(anImport.getFunctionName())
+                    && isTimeLibrary(anImport)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTimeLibrary(Import anImport) {
+        return TIME_LIBRARY.equals(String.join(".", anImport.getLibSteps()));
+    }
+
+    private static List<Import> importsOf(EObject element) {
+        if (EcoreUtil.getRootContainer(element) instanceof SAPL sapl) {
+            return sapl.getImports();
+        }
+        return List.of();
+    }
+
+    private static PurityAdapter adapter(EObject element) {
+        if (AdapterUtil.getAdapter(element, PurityAdapter.class) instanceof PurityAdapter adapter) {
+            return adapter;
+        }
+        return null;
+    }
+
+    /*
+     * The adapters carry no state besides the classification. Thus, one adapter
+     * per classification is shared by all nodes.
+     */
+    private static PurityAdapter adapterFor(Purity purity, boolean inTargetExpression) {
+        return ADAPTERS[index(purity.attributeDependent(), purity.timeDependent(), purity.streaming(),
+                inTargetExpression)];
+    }
+
+    private static PurityAdapter[] adapters() {
+        final var adapters = new PurityAdapter[16];
+        for (var i = 0; i < adapters.length; i++) {
+            final var purity = new Purity((i & 1) != 0, (i & 2) != 0, (i & 4) != 0);
+            adapters[i] = new PurityAdapter(purity, (i & 8) != 0);
+        }
+        return adapters;
+    }
+
+    private static int index(boolean attributeDependent, boolean timeDependent, boolean streaming,
+            boolean inTargetExpression) {
+        return (attributeDependent ? 1 : 0) | (timeDependent ? 2 : 0) | (streaming ? 4 : 0)
+                | (inTargetExpression ? 8 : 0);
+    }
+
+    @RequiredArgsConstructor
+    private static class PurityAdapter extends AdapterImpl {
+
+        private final Purity  purity;
+        private final boolean inTargetExpression;
+
+        @Override
+        public boolean isAdapterForType(Object type) {
+            return PurityAdapter.class == type;
+        }
+
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Bounded cache of compiled regular expressions used by the {@code =~}
+ * operator.
+ * <p>
+ * Patterns are evicted in least recently used order once the maximum size is
+ * reached. To protect the decision thread against patterns prone to
+ * catastrophic backtracking, patterns longer than a maximum length are
+ * rejected and each match has to complete within a time budget. A PDP
+ * configures its own cache and limits by setting it in the authorization
+ * context. Evaluations without such a cache use the default cache.
+ */
+public class RegexPatternCache {
+
+    public static final long     DEFAULT_MAXIMUM_SIZE           = 1024L;
+    public static final int      DEFAULT_MAXIMUM_PATTERN_LENGTH = 1024;
+    public static final Duration DEFAULT_MATCH_TIME_BUDGET      = Duration.ofMillis(100L);
+
+    private static final RegexPatternCache DEFAULT = new RegexPatternCache(DEFAULT_MAXIMUM_SIZE,
+            DEFAULT_MAXIMUM_PATTERN_LENGTH, DEFAULT_MATCH_TIME_BUDGET);
+
+    private final Cache<String, Pattern> patterns;
+    @Getter
+    private final int                    maximumPatternLength;
+    private final long                   matchTimeBudgetNanos;
+
+    /**
+     * Creates a pattern cache.
+     *
+     * @param maximumSize the maximal number of cached patterns
+     * @param maximumPatternLength the maximal length of a regular expression
+     * @param matchTimeBudget the maximal duration of a single match
+     */
+    public RegexPatternCache(long maximumSize, int maximumPatternLength, @NonNull Duration matchTimeBudget) {
+        this.patterns             = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+        this.maximumPatternLength = maximumPatternLength;
+        this.matchTimeBudgetNanos = matchTimeBudget.toNanos();
+    }
+
+    /**
+     * @return the cache used by all PDPs which do not configure their own
+     */
+    public static RegexPatternCache defaultCache() {
+        return DEFAULT;
+    }
+
+    /**
+     * Compiles a regular expression without caching it. Used for patterns known
+     * at parse time.
+     *
+     * @param regex a regular expression
+     * @return the compiled pattern
+     * @throws PatternSyntaxException if the expression is not valid
+     * @throws IllegalArgumentException if the expression exceeds the maximal
+     * pattern length
+     */
+    public Pattern compile(String regex) {
+        requireMaximumLength(regex);
+        return Pattern.compile(regex);
+    }
+
+    /**
+     * Looks up the compiled pattern of a regular expression or compiles and
+     * caches it.
+     *
+     * @param regex a regular expression
+     * @return the compiled pattern
+     * @throws PatternSyntaxException if the expression is not valid
+     * @throws IllegalArgumentException if the expression exceeds the maximal
+     * pattern length
+     */
+    public Pattern pattern(String regex) {
+        requireMaximumLength(regex);
+        try {
+            return patterns.get(regex, () -> Pattern.compile(regex));
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Matches the entire input against a pattern within the time budget.
+     *
+     * @param pattern a compiled pattern
+     * @param input the input
+     * @return true, if the input matches the pattern
+     * @throws MatchTimeBudgetExceededException if the match did not complete in
+     * time
+     */
+    public boolean matches(Pattern pattern, String input) {
+        return pattern.matcher(new TimeBudgetedCharSequence(input, System.nanoTime() + matchTimeBudgetNanos))
+                .matches();
+    }
+
+    /**
+     * @return the number of currently cached patterns
+     */
+    public long size() {
+        return patterns.size();
+    }
+
+    /**
+     * @return the ratio of lookups served from the cache, 1.0 if no lookup
+     * happened yet
+     */
+    public double hitRatio() {
+        return patterns.stats().hitRate();
+    }
+
+    /**
+     * @return the number of lookups served from the cache
+     */
+    public long hits() {
+        return patterns.stats().hitCount();
+    }
+
+    /**
+     * @return the number of lookups which compiled a pattern
+     */
+    public long misses() {
+        return patterns.stats().missCount();
+    }
+
+    private void requireMaximumLength(String regex) {
+        if (regex.length() > maximumPatternLength) {
+            throw new IllegalArgumentException(
+                    String.format("Regular expression exceeds the maximum length of %d characters.",
+                            maximumPatternLength));
+        }
+    }
+
+    /**
+     * Signals that a match exceeded its time budget.
+     */
+    public static class MatchTimeBudgetExceededException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        MatchTimeBudgetExceededException() {
+            super("Regular expression exceeded its time budget.", null, false, false);
+        }
+
+    }
+
+    /*
+     * The regex engine reads the input character by character. Checking the
+     * deadline on every 1024th access bounds the cost of the check while still
+     * interrupting backtracking promptly.
+     */
+    private static class TimeBudgetedCharSequence implements CharSequence {
+
+        private static final int CHECK_INTERVAL_MASK = 0x3FF;
+
+        private final CharSequence delegate;
+        private final long         deadline;
+        private int                accesses;
+
+        TimeBudgetedCharSequence(CharSequence delegate, long deadline) {
+            this.delegate = delegate;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if ((++accesses & CHECK_INTERVAL_MASK) == 0 && System.nanoTime() - deadline > 0) {
+                throw new MatchTimeBudgetExceededException();
+            }
+            return delegate.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return delegate.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new TimeBudgetedCharSequence(delegate.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.eclipse.emf.ecore.EObject;
+
+import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.Regex;
+import io.sapl.grammar.sapl.impl.util.RegexPatternCache.MatchTimeBudgetExceededException;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Matching of the {@code =~} operator shared by the reactive operator and the
+ * compiled closures of expressions.
+ */
+@UtilityClass
+public class RegexUtil {
+
+    static final String REGEX_SYNTAX_ERROR      = "Syntax error in regular expression '%s'.";
+    static final String REGEX_TOO_LONG_ERROR    = "Regular expression longer than %d characters.";
+    static final String REGEX_TIME_BUDGET_ERROR = "Matching regular expression '%s' exceeded its time budget.";
+
+    /**
+     * Matches a value against a regular expression.
+     *
+     * @param location the operator in the document
+     * @param cache the cache and limits for regular expressions of the PDP
+     * @param literalPattern the pattern compiled at parse time, or null
+     * @param left the value to match
+     * @param right the regular expression
+     * @param tracer attaches the trace of the operation
+     * @return true, if the value is a text matching the regular expression, or
+     * an error
+     */
+    public static Val matchRegexp(EObject location, RegexPatternCache cache, Pattern literalPattern, Val left,
+            Val right, Tracer tracer) {
+        if (left.isError()) {
+            return left;
+        }
+        if (right.isError()) {
+            return right;
+        }
+        return tracer.trace(rawMatchRegexp(location, cache, literalPattern, left, right), Regex.class, false,
+                Trace.LEFT, left, Trace.RIGHT, right);
+    }
+
+    private static Val rawMatchRegexp(EObject location, RegexPatternCache cache, Pattern literalPattern, Val left,
+            Val right) {
+        if (!left.isTextual()) {
+            return Val.FALSE;
+        }
+        try {
+            return Val.of(cache.matches(pattern(cache, literalPattern, right.getText()), left.getText()));
+        } catch (PatternSyntaxException e) {
+            return ErrorFactory.error(location, REGEX_SYNTAX_ERROR, right);
+        } catch (IllegalArgumentException e) {
+            return ErrorFactory.error(location, REGEX_TOO_LONG_ERROR, cache.getMaximumPatternLength());
+        } catch (MatchTimeBudgetExceededException e) {
+            return ErrorFactory.error(location, REGEX_TIME_BUDGET_ERROR, right);
+        }
+    }
+
+    /**
+     * Compiles the pattern if the right-hand side of the operator is a folded
+     * constant text. Invalid patterns are left to the evaluation to report the
+     * error.
+     *
+     * @param right the right-hand side of the operator
+     * @return the compiled pattern or null
+     */
+    public static Pattern literalPattern(Expression right) {
+        final var constant = ConstantFolder.constant(right);
+        if (null == constant || !constant.isTextual()) {
+            return null;
+        }
+        try {
+            return RegexPatternCache.defaultCache().compile(constant.getText());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Pattern pattern(RegexPatternCache cache, Pattern literalPattern, String regex) {
+        if (null != literalPattern && literalPattern.pattern().equals(regex)
+                && regex.length() <= cache.getMaximumPatternLength()) {
+            return literalPattern;
+        }
+        return cache.pattern(regex);
+    }
+
+}
@@ -26,37 +26,41 @@
 @UtilityClass
 public class RepackageUtil {
 
-    public Val recombineObject(Object[] oElements) {
-        final var object         = Val.JSON.objectNode();
-        final var tracedElements = new ExpressionArgument[oElements.length];
-        var       elementCount   = 0;
-        Val       error          = null;
+    public Val recombineObject(Object[] oElements, Tracer tracer) {
+        final var object = Val.JSON.objectNode();
+        var       secret = false;
+        Val       error  = null;
         for (var elem : oElements) {
             @SuppressWarnings("unchecked")
             final var element = (Tuple2<String, Val>) elem;
-            final var key     = element.getT1();
             final var value   = element.getT2();
-            tracedElements[elementCount++] = new ExpressionArgument(key, value);
+            secret |= value.isSecret();
             if (value.isError() && error == null) {
                 error = value;
             } else if (value.isDefined()) { // drop undefined
-                object.set(element.getT1(), element.getT2().get());
+                object.set(element.getT1(), value.get());
             }
         }
-        if (error != null)
-            return error.withTrace(Object.class, true, tracedElements);
-        return Val.of(object).withTrace(Object.class, true, tracedElements);
+        final var result = error != null ? error : Val.of(object);
+        if (!tracer.isEnabled()) {
+            return secret ? result.asSecret() : result;
+        }
+        final var tracedElements = new ExpressionArgument[oElements.length];
+        for (var i = 0; i < oElements.length; i++) {
+            @SuppressWarnings("unchecked")
+            final var element = (Tuple2<String, Val>) oElements[i];
+            tracedElements[i] = new ExpressionArgument(element.getT1(), element.getT2());
+        }
+        return tracer.trace(result, Object.class, true, tracedElements);
     }
 
-    public Val recombineArray(Object[] oElements) {
-        final var array          = Val.JSON.arrayNode();
-        final var tracedElements = new ExpressionArgument[oElements.length];
-        var       elementCount   = 0;
-        Val       error          = null;
+    public Val recombineArray(Object[] oElements, Tracer tracer) {
+        final var array  = Val.JSON.arrayNode();
+        var       secret = false;
+        Val       error  = null;
         for (var elem : oElements) {
             final var element = (Val) elem;
-            tracedElements[elementCount] = new ExpressionArgument("array[" + elementCount + "]", element);
-            elementCount++;
+            secret |= element.isSecret();
             if (element.isError() && error == null) {
                 error = element;
             }
@@ -65,9 +69,15 @@ public Val recombineArray(Object[] oElements) {
                 array.add(element.get());
             }
         }
-        if (error != null)
-            return error.withTrace(Array.class, true, tracedElements);
-        return Val.of(array).withTrace(Array.class, true, tracedElements);
+        final var result = error != null ? error : Val.of(array);
+        if (!tracer.isEnabled()) {
+            return secret ? result.asSecret() : result;
+        }
+        final var tracedElements = new ExpressionArgument[oElements.length];
+        for (var i = 0; i < oElements.length; i++) {
+            tracedElements[i] = new ExpressionArgument("array[" + i + "]", (Val) oElements[i]);
+        }
+        return tracer.trace(result, Array.class, true, tracedElements);
     }
 
 }
@@ -19,7 +19,6 @@
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -38,96 +37,123 @@ public class StepAlgorithmUtil {
 
     public Flux<Val> apply(Val parentValue, Supplier<Flux<Val>> selector, String stepParameters, Class<?> operationType,
             EObject location) {
-        if (parentValue.isError()) {
-            return Flux.just(parentValue.withParentTrace(operationType, true, parentValue));
-        }
         if (parentValue.isArray()) {
             return applyOnArray(parentValue, selector, stepParameters, operationType, location);
         }
         if (parentValue.isObject()) {
             return applyOnObject(parentValue, selector, stepParameters, operationType, location);
         }
-        return Flux.just(ErrorFactory.error(location, STEP_ACCESS_TYPE_MISMATCH, parentValue).withTrace(operationType,
-                true, parentValue));
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            if (parentValue.isError()) {
+                return Flux.just(tracer.traceParent(parentValue, operationType, true, parentValue));
+            }
+            return Flux.just(tracer.trace(ErrorFactory.error(location, STEP_ACCESS_TYPE_MISMATCH, parentValue),
+                    operationType, true, parentValue));
+        });
     }
 
     public static Flux<Val> applyOnArray(Val parentValue, Supplier<Flux<Val>> selector, String stepParameters,
             Class<?> operationType, EObject location) {
-        if (parentValue.isError()) {
-            return Flux.just(parentValue.withParentTrace(operationType, true, parentValue));
-        }
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            if (parentValue.isError()) {
+                return Flux.just(tracer.traceParent(parentValue, operationType, true, parentValue));
+            }
 
-        if (!parentValue.isArray()) {
-            return Flux.just(ErrorFactory.error(location, ARRAY_ACCESS_TYPE_MISMATCH, parentValue)
-                    .withParentTrace(operationType, true, parentValue));
-        }
+            if (!parentValue.isArray()) {
+                return Flux.just(tracer.traceParent(
+                        ErrorFactory.error(location, ARRAY_ACCESS_TYPE_MISMATCH, parentValue), operationType, true,
+                        parentValue));
+            }
 
-        if (parentValue.isEmpty()) {
-            return Flux.just(Val.ofEmptyArray().withParentTrace(operationType, true, parentValue));
-        }
-        final var array   = parentValue.getArrayNode();
-        final var results = new ArrayList<Flux<Val>>(array.size());
-        for (int i = 0; i < array.size(); i++) {
-            final var element         = array.get(i);
-            final var elementValue    = Val.of(element);
-            final var index           = i;
-            final var condition       = selector.get()
-                    .contextWrite(ctx -> AuthorizationContext.setRelativeNodeWithIndex(ctx,
-                            elementValue.withTrace(operationType, true, Map.of("from", parentValue)), index));
-            final var selectedElement = condition.map(applySelectionToElement(elementValue, stepParameters,
-                    operationType, parentValue, "array[" + index + "]"));
-            results.add(selectedElement);
-        }
-        return Flux.combineLatest(results, RepackageUtil::recombineArray);
+            if (parentValue.isEmpty()) {
+                return Flux.just(tracer.traceParent(Val.ofEmptyArray(), operationType, true, parentValue));
+            }
+            final var array   = parentValue.getArrayNode();
+            final var results = new ArrayList<Flux<Val>>(array.size());
+            for (int i = 0; i < array.size(); i++) {
+                final var elementValue    = Val.of(array.get(i));
+                final var index           = i;
+                final var relativeNode    = relativeNode(elementValue, operationType, parentValue, tracer);
+                final var condition       = selector.get()
+                        .contextWrite(c -> AuthorizationContext.setRelativeNodeWithIndex(c, relativeNode, index));
+                final var selectedElement = condition.map(applySelectionToElement(elementValue, stepParameters,
+                        operationType, parentValue, "array[" + index + "]", tracer));
+                results.add(selectedElement);
+            }
+            return Flux.combineLatest(results, values -> RepackageUtil.recombineArray(values, tracer));
+        });
     }
 
     public static Flux<Val> applyOnObject(Val parentValue, Supplier<Flux<Val>> selector, String stepParameters,
             Class<?> operationType, EObject location) {
-        if (parentValue.isError()) {
-            return Flux.just(parentValue.withParentTrace(operationType, true, parentValue));
-        }
+        return Flux.deferContextual(ctx -> {
+            final var tracer = Tracer.of(ctx);
+            if (parentValue.isError()) {
+                return Flux.just(tracer.traceParent(parentValue, operationType, true, parentValue));
+            }
 
-        if (!parentValue.isObject()) {
-            return Flux.just(ErrorFactory.error(location, OBJECT_ACCESS_TYPE_MISMATCH, parentValue)
-                    .withParentTrace(operationType, true, parentValue));
-        }
+            if (!parentValue.isObject()) {
+                return Flux.just(tracer.traceParent(
+                        ErrorFactory.error(location, OBJECT_ACCESS_TYPE_MISMATCH, parentValue), operationType, true,
+                        parentValue));
+            }
 
-        if (parentValue.isEmpty()) {
-            return Flux.just(Val.ofEmptyArray().withParentTrace(operationType, true, parentValue));
-        }
+            if (parentValue.isEmpty()) {
+                return Flux.just(tracer.traceParent(Val.ofEmptyArray(), operationType, true, parentValue));
+            }
 
-        final var object  = parentValue.getObjectNode();
-        final var results = new ArrayList<Flux<Val>>(object.size());
-        final var fields  = object.fields();
-        while (fields.hasNext()) {
-            final var field     = fields.next();
-            final var key       = field.getKey();
-            final var value     = Val.of(field.getValue());
-            final var condition = selector.get().contextWrite(ctx -> AuthorizationContext.setRelativeNodeWithKey(ctx,
-                    value.withTrace(operationType, true, Map.of("from", parentValue)), key));
-            final var selected  = condition
-                    .map(applySelectionToElement(value, stepParameters, operationType, parentValue, key));
-            results.add(selected);
-        }
-        return Flux.combineLatest(results, RepackageUtil::recombineArray);
+            final var object  = parentValue.getObjectNode();
+            final var results = new ArrayList<Flux<Val>>(object.size());
+            final var fields  = object.fields();
+            while (fields.hasNext()) {
+                final var field        = fields.next();
+                final var key          = field.getKey();
+                final var value        = Val.of(field.getValue());
+                final var relativeNode = relativeNode(value, operationType, parentValue, tracer);
+                final var condition    = selector.get()
+                        .contextWrite(c -> AuthorizationContext.setRelativeNodeWithKey(c, relativeNode, key));
+                final var selected     = condition.map(applySelectionToElement(value, stepParameters, operationType,
+                        parentValue, key, tracer));
+                results.add(selected);
+            }
+            return Flux.combineLatest(results, values -> RepackageUtil.recombineArray(values, tracer));
+        });
+    }
+
+    private static Val relativeNode(Val elementValue, Class<?> operationType, Val parentValue, Tracer tracer) {
+        return tracer.trace(elementValue, operationType, true, "from", parentValue);
     }
 
     private static Function<Val, Val> applySelectionToElement(Val elementValue, String stepParameters,
-            Class<?> operationType, Val parentValue, String elementIdentifier) {
+            Class<?> operationType, Val parentValue, String elementIdentifier, Tracer tracer) {
+        if (!tracer.isEnabled()) {
+            return conditionResult -> {
+                if (conditionResult.isError()) {
+                    return conditionResult.inheritSecretStatus(parentValue);
+                }
+                if (conditionResult.isBoolean() && conditionResult.getBoolean()) {
+                    return elementValue.inheritSecretStatus(parentValue).inheritSecretStatus(conditionResult);
+                }
+                // Treat non-boolean as FALSE
+                return Val.UNDEFINED.inheritSecretStatus(parentValue).inheritSecretStatus(conditionResult);
+            };
+        }
         return conditionResult -> {
             final var trace = new HashMap<String, Val>();
             trace.put("parentValue", parentValue);
             trace.put("stepParameters", Val.of(stepParameters));
-            trace.put(elementIdentifier, elementValue.withTrace(operationType, true, Map.of("from", parentValue)));
+            trace.put(elementIdentifier, relativeNode(elementValue, operationType, parentValue, tracer));
             trace.put("conditionResult", conditionResult);
             if (conditionResult.isError()) {
-                return conditionResult.withTrace(operationType, true, trace);
+                return tracer.trace(conditionResult, operationType, true, trace);
             }
             if (conditionResult.isBoolean() && conditionResult.getBoolean()) {
-                return elementValue.withTrace(operationType, true, trace);
+                return tracer.trace(elementValue, operationType, true, trace);
             }
             // Treat non-boolean as FALSE
-            return Val.UNDEFINED.withTrace(operationType, true, trace);
+            return tracer.trace(Val.UNDEFINED, operationType, true, trace);
         };
     }
 
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import org.reactivestreams.Subscription;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.Expression;
+import lombok.experimental.UtilityClass;
+import reactor.core.CoreSubscriber;
+import reactor.util.context.Context;
+
+/**
+ * Evaluates expressions without attribute access in the calling thread.
+ * <p>
+ * Folded and compiled expressions are evaluated directly. Other expressions,
+ * e.g., function calls or filters, are subscribed to with the given context and
+ * drained synchronously. Without attribute access, they emit exactly one value
+ * and complete before the subscription returns. If an expression does not
+ * behave this way, no value is returned and the caller falls back to the
+ * reactive evaluation. As the fallback evaluates the expressions again, callers
+ * only use this evaluation for documents which call pure functions only.
+ */
+@UtilityClass
+public class SynchronousEvaluation {
+
+    /**
+     * @param expression an expression without attribute access
+     * @param ctx the context of the authorization subscription
+     * @return the single value of the expression or null, if the expression did
+     * not synchronously emit exactly one value and complete
+     */
+    public Val evaluate(Expression expression, Context ctx) {
+        final var constant = ConstantFolder.constant(expression);
+        if (null != constant) {
+            return constant;
+        }
+        final var compiledExpression = ExpressionCompiler.compiled(expression);
+        if (null != compiledExpression) {
+            return compiledExpression.evaluate(ctx);
+        }
+        final var subscriber = new SingleValueSubscriber(ctx);
+        expression.evaluate().subscribe(subscriber);
+        return subscriber.value();
+    }
+
+    private static class SingleValueSubscriber implements CoreSubscriber<Val> {
+
+        private final Context ctx;
+        private Subscription  subscription;
+        private Val           value;
+        private int           numberOfValues;
+        private boolean       completed;
+        private boolean       failed;
+
+        SingleValueSubscriber(Context ctx) {
+            this.ctx = ctx;
+        }
+
+        @Override
+        public Context currentContext() {
+            return ctx;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(Val next) {
+            value = next;
+            numberOfValues++;
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            failed = true;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        Val value() {
+            if (!completed && !failed && null != subscription) {
+                subscription.cancel();
+            }
+            if (completed && numberOfValues == 1) {
+                return value;
+            }
+            return null;
+        }
+    }
+
+}
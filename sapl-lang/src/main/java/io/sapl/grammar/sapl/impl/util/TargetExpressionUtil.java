@@ -32,11 +32,17 @@ public class TargetExpressionUtil {
 
     /**
      * Used to check for illegal attributes or lazy operators in target expressions.
+     * For analyzed documents, the result is looked up from the
+     * {@link PurityAnalysis} instead of walking up the AST.
      *
      * @param object an EObject in the AST
      * @return true, the object is the target expression in a Policy or Policy Set.
      */
     public boolean isInTargetExpression(EObject object) {
+        final var analyzed = PurityAnalysis.isInTargetExpression(object);
+        if (null != analyzed) {
+            return analyzed;
+        }
         EObject current = object;
         while (current.eContainer() != null) {
             final var container     = current.eContainer();
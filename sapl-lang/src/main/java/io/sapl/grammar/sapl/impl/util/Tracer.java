@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.util.Map;
+
+import io.sapl.api.interpreter.ExpressionArgument;
+import io.sapl.api.interpreter.Val;
+import io.sapl.interpreter.context.AuthorizationContext;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import reactor.util.context.ContextView;
+
+/**
+ * Attaches evaluation traces to values.
+ * <p>
+ * All traces recorded during policy evaluation are attached through a tracer
+ * obtained from the {@link AuthorizationContext} of the subscription. If
+ * tracing is disabled for the subscription, neither traces nor their argument
+ * lists are allocated and only the secret status of the arguments is
+ * propagated to the value. The named variants take argument names and values
+ * individually, so callers do not have to build argument maps up front.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Tracer {
+
+    /**
+     * Records traces.
+     */
+    public static final Tracer ENABLED = new Tracer(true);
+
+    /**
+     * Only propagates the secret status.
+     */
+    public static final Tracer DISABLED = new Tracer(false);
+
+    private final boolean enabled;
+
+    /**
+     * @param ctx the context of the subscription
+     * @return the tracer matching the tracing mode of the subscription
+     */
+    public static Tracer of(ContextView ctx) {
+        return of(AuthorizationContext.isTracingEnabled(ctx));
+    }
+
+    /**
+     * @param tracingEnabled true, if traces are to be recorded
+     * @return the tracer for the mode
+     */
+    public static Tracer of(boolean tracingEnabled) {
+        return tracingEnabled ? ENABLED : DISABLED;
+    }
+
+    /**
+     * @return true, if traces are recorded
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param value a value
+     * @param operation traced operation
+     * @return the value with a trace of the operation, if tracing is enabled
+     */
+    public Val trace(Val value, Class<?> operation) {
+        return enabled ? value.withTrace(operation) : value;
+    }
+
+    /**
+     * @param value a value
+     * @param operation traced operation
+     * @param inheritsSecretStatus if true, the value becomes a secret if the
+     * argument is a secret
+     * @param argument the argument of the operation
+     * @return the traced value
+     */
+    public Val trace(Val value, Class<?> operation, boolean inheritsSecretStatus, Val argument) {
+        if (enabled) {
+            return value.withTrace(operation, inheritsSecretStatus, argument);
+        }
+        return inheritsSecretStatus ? value.inheritSecretStatus(argument) : value;
+    }
+
+    /**
+     * @param value a value
+     * @param operation traced operation
+     * @param inheritsSecretStatus if true, the value becomes a secret if any
+     * argument is a secret
+     * @param arguments the arguments of the operation
+     * @return the traced value
+     */
+    public Val trace(Val value, Class<?> operation, boolean inheritsSecretStatus, Val... arguments) {
+        if (enabled) {
+            return value.withTrace(operation, inheritsSecretStatus, arguments);
+        }
+        if (!inheritsSecretStatus) {
+            return value;
+        }
+        var result = value;
+        for (var argument : arguments) {
+            result = result.inheritSecretStatus(argument);
+        }
+        return result;
+    }
+
+    /**
+     * @param value a value
+     * @param operation traced operation
+     * @param inheritsSecretStatus if true, the value becomes a secret if the
+     * argument is a secret
+     * @param name name of the argument
+     * @param argument the argument
+     * @return the traced value
+     */
+    public Val trace(Val value, Class<?> operation, boolean inheritsSecretStatus, String name, Val argument) {
+        if (enabled) {
+            return value.withTrace(operation, inheritsSecretStatus, new ExpressionArgument(name, argument));
+        }
+        return inheritsSecretStatus ? value.inheritSecretStatus(argument) : value;
+    }
+
+    /**
+     * @param value a value
+     * @param operation traced operation
+     * @param inheritsSecretStatus if true, the value becomes a secret if any
+     * argument is a secret
+     * @param name1 name of the first argument
+     * @param argument1 the first argument
+     * @param name2 name of the second argument
+     * @param argument2 the second argument
+     * @return the traced value
+     */
+    public Val trace(Val value, Class<?> operation, boolean inheritsSecretStatus, String name1, Val argument1,
+            String name2, Val argument2) {
+        if (enabled) {
+            return value.withTrace(operation, inheritsSecretStatus, new ExpressionArgument(name1, argument1),
+                    new ExpressionArgument(name2, argument2));
+        }
+        return inheritsSecretStatus ? value.inheritSecretStatus(argument1).inheritSecretStatus(argument2) : value;
+    }
+
+    /**
+     * @param value a value
+     * @param operation traced operation
+     * @param inheritsSecretStatus if true, the value becomes a secret if any
+     * argument is a secret
+     * @param name1 name of the first argument
+     * @param argument1 the first argument
+     * @param name2 name of the second argument
+     * @param argument2 the second argument
+     * @param name3 name of the third argument
+     * @param argument3 the third argument
+     * @return the traced value
+     */
+    public Val trace(Val value, Class<?> operation, boolean inheritsSecretStatus, String name1, Val argument1,
+            String name2, Val argument2, String name3, Val argument3) {
+        if (enabled) {
+            return value.withTrace(operation, inheritsSecretStatus, new ExpressionArgument(name1, argument1),
+                    new ExpressionArgument(name2, argument2), new ExpressionArgument(name3, argument3));
+        }
+        return inheritsSecretStatus
+                ? value.inheritSecretStatus(argument1).inheritSecretStatus(argument2).inheritSecretStatus(argument3)
+                : value;
+    }
+
+    /**
+     * Traces an operation with arguments the caller assembled after checking
+     * {@link #isEnabled()}.
+     *
+     * @param value a value
+     * @param operation traced operation
+     * @param inheritsSecretStatus if true, the value becomes a secret if any
+     * argument is a secret
+     * @param arguments the arguments with their names
+     * @return the traced value
+     */
+    public Val trace(Val value, Class<?> operation, boolean inheritsSecretStatus, ExpressionArgument... arguments) {
+        if (enabled) {
+            return value.withTrace(operation, inheritsSecretStatus, arguments);
+        }
+        if (!inheritsSecretStatus) {
+            return value;
+        }
+        var result = value;
+        for (var argument : arguments) {
+            result = result.inheritSecretStatus(argument.value());
+        }
+        return result;
+    }
+
+    /**
+     * Traces an operation with an argument map the caller already has.
+     * Arguments only assembled for the trace should be passed to the named
+     * variants instead.
+     *
+     * @param value a value
+     * @param operation traced operation
+     * @param inheritsSecretStatus if true, the value becomes a secret if any
+     * argument is a secret
+     * @param arguments the arguments with their names
+     * @return the traced value
+     */
+    public Val trace(Val value, Class<?> operation, boolean inheritsSecretStatus, Map<String, Val> arguments) {
+        if (enabled) {
+            return value.withTrace(operation, inheritsSecretStatus, arguments);
+        }
+        if (!inheritsSecretStatus) {
+            return value;
+        }
+        var result = value;
+        for (var argument : arguments.values()) {
+            result = result.inheritSecretStatus(argument);
+        }
+        return result;
+    }
+
+    /**
+     * @param value a value
+     * @param operation traced operation
+     * @param inheritsSecretStatus if true, the value becomes a secret if the
+     * parent value is a secret
+     * @param parentValue the value the operation was applied to
+     * @return the traced value
+     */
+    public Val traceParent(Val value, Class<?> operation, boolean inheritsSecretStatus, Val parentValue) {
+        if (enabled) {
+            return value.withParentTrace(operation, inheritsSecretStatus, parentValue);
+        }
+        return inheritsSecretStatus ? value.inheritSecretStatus(parentValue) : value;
+    }
+
+    /**
+     * @param value a value
+     * @param leftHandValue the left-hand value of an attribute finder
+     * @param operation traced operation
+     * @param inheritsSecretStatus if true, the value becomes a secret if the
+     * left-hand value or any argument is a secret
+     * @param arguments the arguments of the attribute finder
+     * @return the traced value
+     */
+    public Val traceAttribute(Val value, Val leftHandValue, Class<?> operation, boolean inheritsSecretStatus,
+            Val... arguments) {
+        if (enabled) {
+            return value.withTrace(leftHandValue, operation, inheritsSecretStatus, arguments);
+        }
+        if (!inheritsSecretStatus) {
+            return value;
+        }
+        return trace(value.inheritSecretStatus(leftHandValue), operation, true, arguments);
+    }
+
+}
@@ -103,6 +103,11 @@ public CombinedDecision withEvaluationResult(DocumentEvaluationResult result) {
         return newCombinedDecision;
     }
 
+    public CombinedDecision withAuthorizationDecision(AuthorizationDecision newAuthorizationDecision) {
+        return new CombinedDecision(newAuthorizationDecision, combiningAlgorithm, documentEvaluationResults,
+                errorMessage);
+    }
+
     public CombinedDecision withDecisionAndEvaluationResult(AuthorizationDecision newAuthorizationDecision,
             DocumentEvaluationResult result) {
         final var newCombinedDecision = new CombinedDecision(newAuthorizationDecision, combiningAlgorithm,
@@ -42,6 +42,11 @@
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.grammar.SAPLStandaloneSetup;
 import io.sapl.grammar.sapl.SAPL;
+import io.sapl.grammar.sapl.impl.RegexImplCustom;
+import io.sapl.grammar.sapl.impl.util.ConstantFolder;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.grammar.sapl.impl.util.FunctionUtil;
+import io.sapl.grammar.sapl.impl.util.PurityAnalysis;
 import io.sapl.interpreter.context.AuthorizationContext;
 import io.sapl.interpreter.functions.FunctionContext;
 import io.sapl.interpreter.pip.AttributeContext;
@@ -96,9 +101,25 @@ private static Document loadAsResource(String id, InputStream policyInputStream)
         String    name = null;
         if (sapl != null && sapl.getPolicyElement() != null)
             name = sapl.getPolicyElement().getSaplName();
-        final var diagnostic = Diagnostician.INSTANCE.validate(sapl);
-        final var actualId   = null == id ? name : null;
-        return new Document(actualId, name, sapl, diagnostic, composeErrorMessage(diagnostic));
+        final var diagnostic        = Diagnostician.INSTANCE.validate(sapl);
+        var       foldedExpressions = 0;
+        if (diagnostic.getSeverity() == Diagnostic.OK) {
+            PurityAnalysis.analyze(sapl);
+            foldedExpressions = ConstantFolder.foldConstants(sapl);
+            precompileRegularExpressions(sapl);
+            FunctionUtil.bindFunctionNames(sapl);
+            ExpressionCompiler.compileDocument(sapl);
+        }
+        final var actualId = null == id ? name : null;
+        return new Document(actualId, name, sapl, diagnostic, composeErrorMessage(diagnostic), foldedExpressions);
+    }
+
+    private static void precompileRegularExpressions(SAPL sapl) {
+        sapl.eAllContents().forEachRemaining(object -> {
+            if (object instanceof RegexImplCustom regex) {
+                regex.precompilePattern();
+            }
+        });
     }
 
     @Override
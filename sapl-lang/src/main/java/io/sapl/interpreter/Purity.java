@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter;
+
+/**
+ * Static classification of a SAPL document, policy element, or expression by
+ * its dependencies on the environment of the PDP.
+ *
+ * @param attributeDependent the element accesses attributes, i.e., it may
+ * subscribe to policy information points
+ * @param timeDependent the element accesses attributes of the time policy
+ * information point
+ * @param streaming the element accesses attributes as streams, i.e., not only
+ * the head of an attribute stream, and may yield multiple results over time
+ */
+public record Purity(boolean attributeDependent, boolean timeDependent, boolean streaming) {
+
+    public static final Purity PURE      = new Purity(false, false, false);
+    public static final Purity HEAD      = new Purity(true, false, false);
+    public static final Purity STREAMING = new Purity(true, false, true);
+
+    /**
+     * @return true, if the element neither accesses attributes nor time. It
+     * yields exactly one result which only depends on the subscription,
+     * variables, and functions.
+     */
+    public boolean isPure() {
+        return !attributeDependent && !timeDependent && !streaming;
+    }
+
+    /**
+     * @param other another classification
+     * @return the classification of an element containing both elements
+     */
+    public Purity and(Purity other) {
+        if (this == other || other.isPure()) {
+            return this;
+        }
+        if (isPure()) {
+            return other;
+        }
+        return new Purity(attributeDependent || other.attributeDependent, timeDependent || other.timeDependent,
+                streaming || other.streaming);
+    }
+
+    /**
+     * @return the same classification additionally marked as time-dependent
+     */
+    public Purity withTime() {
+        return new Purity(attributeDependent, true, streaming);
+    }
+
+}
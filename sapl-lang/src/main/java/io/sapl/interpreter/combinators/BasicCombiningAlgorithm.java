@@ -20,19 +20,27 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.function.Function;
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.Decision;
 import io.sapl.grammar.sapl.CombiningAlgorithm;
 import io.sapl.grammar.sapl.PolicyElement;
+import io.sapl.grammar.sapl.impl.PolicyImplCustom;
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
+import io.sapl.grammar.sapl.impl.util.PurityAnalysis;
+import io.sapl.grammar.sapl.impl.util.Tracer;
 import io.sapl.interpreter.CombinedDecision;
 import io.sapl.interpreter.DocumentEvaluationResult;
+import io.sapl.interpreter.context.AuthorizationContext;
 import io.sapl.prp.DocumentMatch;
 import lombok.experimental.UtilityClass;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 @UtilityClass
 public class BasicCombiningAlgorithm {
@@ -42,9 +50,11 @@ public static Flux<CombinedDecision> eagerlyCombineMatchingDocuments(Collection<
             AuthorizationDecision defaultDecisionIfEmpty) {
         if (matchingDocuments.isEmpty())
             return Flux.just(CombinedDecision.of(defaultDecisionIfEmpty, algorithm));
-        final var policyDecisions = eagerMatchingDocumentsDecisionFluxes(matchingDocuments);
-        return Flux.combineLatest(policyDecisions, decisionObjects -> combinator
-                .apply(Arrays.copyOf(decisionObjects, decisionObjects.length, DocumentEvaluationResult[].class)));
+        return Flux.deferContextual(ctx -> {
+            final var policyDecisions = fanOut(ctx, eagerMatchingDocumentsDecisionFluxes(matchingDocuments));
+            return Flux.combineLatest(policyDecisions, decisionObjects -> combinator
+                    .apply(Arrays.copyOf(decisionObjects, decisionObjects.length, DocumentEvaluationResult[].class)));
+        });
     }
 
     public static Flux<CombinedDecision> eagerlyCombinePolicyElements(
@@ -58,6 +68,173 @@ public static Flux<CombinedDecision> eagerlyCombinePolicyElements(
                 .apply(Arrays.copyOf(decisionObjects, decisionObjects.length, DocumentEvaluationResult[].class)));
     }
 
+    /**
+     * Combines matching documents for algorithms where one decision overrides
+     * all others, i.e., the overrides and unless algorithms.
+     * <p>
+     * With lazy document combining enabled in the {@link AuthorizationContext},
+     * policies which cannot yield the overriding decision, carry no
+     * transformation, and access attributes are deferred. They are only
+     * subscribed to while the other documents do not yield the overriding
+     * decision. As such policies cannot change an overriding decision, its
+     * obligations, advice, or resource, the decision is the same as with eager
+     * combination. Only the list of documents in the combined decision is
+     * reduced. Within both groups, documents are subscribed to in the order of
+     * their evaluation cost, i.e., documents without attributes first and
+     * documents with streaming attributes last.
+     *
+     * @param matchingDocuments the matching documents
+     * @param combinator the combining function
+     * @param algorithm the combining algorithm
+     * @param defaultDecisionIfEmpty the decision if no document matches
+     * @param overridingDecision the decision overriding all others
+     * @return the combined decisions
+     */
+    public static Flux<CombinedDecision> combineMatchingDocuments(Collection<DocumentMatch> matchingDocuments,
+            Function<DocumentEvaluationResult[], CombinedDecision> combinator, CombiningAlgorithm algorithm,
+            AuthorizationDecision defaultDecisionIfEmpty, Decision overridingDecision) {
+        if (matchingDocuments.isEmpty())
+            return Flux.just(CombinedDecision.of(defaultDecisionIfEmpty, algorithm));
+        final var policyElements = new ArrayList<PolicyElement>(matchingDocuments.size());
+        for (var matchingDocument : matchingDocuments) {
+            policyElements.add(matchingDocument.document().sapl().getPolicyElement());
+        }
+        return Flux.deferContextual(ctx -> combine(fanOut(ctx, eagerMatchingDocumentsDecisionFluxes(matchingDocuments)),
+                policyElements, combinator, overridingDecision, AuthorizationContext.isLazyDocumentCombining(ctx)));
+    }
+
+    /**
+     * Combines the policies of a policy set for algorithms where one decision
+     * overrides all others. See
+     * {@link #combineMatchingDocuments(Collection, Function, CombiningAlgorithm, AuthorizationDecision, Decision)}.
+     *
+     * @param policyElements the policies
+     * @param combinator the combining function
+     * @param algorithm the combining algorithm
+     * @param defaultDecisionIfEmpty the decision if the set contains no policy
+     * @param overridingDecision the decision overriding all others
+     * @return the combined decisions
+     */
+    public static Flux<CombinedDecision> combinePolicyElements(Collection<? extends PolicyElement> policyElements,
+            Function<DocumentEvaluationResult[], CombinedDecision> combinator, CombiningAlgorithm algorithm,
+            AuthorizationDecision defaultDecisionIfEmpty, Decision overridingDecision) {
+        if (policyElements.isEmpty())
+            return Flux.just(CombinedDecision.of(defaultDecisionIfEmpty, algorithm));
+        return Flux.deferContextual(ctx -> combine(eagerPolicyElementDecisionFluxes(policyElements),
+                new ArrayList<>(policyElements), combinator, overridingDecision,
+                AuthorizationContext.isLazyDocumentCombining(ctx)));
+    }
+
+    private static Flux<CombinedDecision> combine(List<Flux<DocumentEvaluationResult>> documentDecisions,
+            List<? extends PolicyElement> policyElements,
+            Function<DocumentEvaluationResult[], CombinedDecision> combinator, Decision overridingDecision,
+            boolean lazy) {
+        final var decisiveIndexes = new ArrayList<Integer>(policyElements.size());
+        final var deferredIndexes = new ArrayList<Integer>(policyElements.size());
+        if (lazy) {
+            for (var i = 0; i < policyElements.size(); i++) {
+                if (isDeferrable(policyElements.get(i), overridingDecision)) {
+                    deferredIndexes.add(i);
+                } else {
+                    decisiveIndexes.add(i);
+                }
+            }
+        }
+        if (decisiveIndexes.isEmpty() || deferredIndexes.isEmpty()) {
+            return Flux.combineLatest(documentDecisions, decisionObjects -> combinator
+                    .apply(Arrays.copyOf(decisionObjects, decisionObjects.length, DocumentEvaluationResult[].class)));
+        }
+        final Comparator<Integer> byEvaluationCost = Comparator
+                .comparingInt(index -> evaluationCost(policyElements.get(index)));
+        decisiveIndexes.sort(byEvaluationCost);
+        deferredIndexes.sort(byEvaluationCost);
+
+        final var decisive = Flux.combineLatest(select(documentDecisions, decisiveIndexes),
+                decisionObjects -> Arrays.copyOf(decisionObjects, decisionObjects.length,
+                        DocumentEvaluationResult[].class))
+                .replay(1).refCount();
+        final var deferred = Flux.combineLatest(select(documentDecisions, deferredIndexes),
+                decisionObjects -> Arrays.copyOf(decisionObjects, decisionObjects.length,
+                        DocumentEvaluationResult[].class));
+
+        return decisive.map(decisions -> isDecided(decisions, overridingDecision)).distinctUntilChanged()
+                .switchMap(decided -> {
+                    if (Boolean.TRUE.equals(decided)) {
+                        return decisive.filter(decisions -> isDecided(decisions, overridingDecision))
+                                .map(combinator);
+                    }
+                    return Flux.combineLatest(
+                            decisive.filter(decisions -> !isDecided(decisions, overridingDecision)), deferred,
+                            (decisiveDecisions, deferredDecisions) -> combinator.apply(inOriginalOrder(
+                                    decisiveIndexes, decisiveDecisions, deferredIndexes, deferredDecisions)));
+                });
+    }
+
+    /*
+     * Deferring policy sets is not safe, as they may yield any decision. Policies
+     * without attribute access are cheap and evaluated eagerly.
+     */
+    private static boolean isDeferrable(PolicyElement policyElement, Decision overridingDecision) {
+        return policyElement instanceof PolicyImplCustom policy
+                && policy.getEntitlement().getDecision() != overridingDecision && null == policy.getTransformation()
+                && policy.isAttributeDependent();
+    }
+
+    /*
+     * Pure elements yield their decision synchronously. Streaming attributes are
+     * the most expensive, as they keep policy information points subscribed.
+     */
+    private static int evaluationCost(PolicyElement policyElement) {
+        final var purity = PurityAnalysis.purity(policyElement);
+        if (purity.streaming()) {
+            return 3;
+        }
+        if (purity.timeDependent()) {
+            return 2;
+        }
+        return purity.attributeDependent() ? 1 : 0;
+    }
+
+    private static boolean isDecided(DocumentEvaluationResult[] decisions, Decision overridingDecision) {
+        for (var decision : decisions) {
+            if (decision.getAuthorizationDecision().getDecision() == overridingDecision) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Flux<DocumentEvaluationResult>> select(List<Flux<DocumentEvaluationResult>> documentDecisions,
+            List<Integer> indexes) {
+        final var selected = new ArrayList<Flux<DocumentEvaluationResult>>(indexes.size());
+        for (var index : indexes) {
+            selected.add(documentDecisions.get(index));
+        }
+        return selected;
+    }
+
+    private static DocumentEvaluationResult[] inOriginalOrder(List<Integer> decisiveIndexes,
+            DocumentEvaluationResult[] decisiveDecisions, List<Integer> deferredIndexes,
+            DocumentEvaluationResult[] deferredDecisions) {
+        final var decisions = new DocumentEvaluationResult[decisiveDecisions.length + deferredDecisions.length];
+        for (var i = 0; i < decisiveDecisions.length; i++) {
+            decisions[decisiveIndexes.get(i)] = decisiveDecisions[i];
+        }
+        for (var i = 0; i < deferredDecisions.length; i++) {
+            decisions[deferredIndexes.get(i)] = deferredDecisions[i];
+        }
+        return decisions;
+    }
+
+    private static List<Flux<DocumentEvaluationResult>> fanOut(ContextView ctx,
+            List<Flux<DocumentEvaluationResult>> documentDecisions) {
+        final var parallelEvaluation = AuthorizationContext.getParallelDocumentEvaluation(ctx);
+        if (null == parallelEvaluation) {
+            return documentDecisions;
+        }
+        return parallelEvaluation.fanOut(documentDecisions);
+    }
+
     private static List<Flux<DocumentEvaluationResult>> eagerMatchingDocumentsDecisionFluxes(
             Collection<DocumentMatch> matchingDocuments) {
         final var documentDecisions = new ArrayList<Flux<DocumentEvaluationResult>>(matchingDocuments.size());
@@ -79,8 +256,8 @@ private static List<Flux<DocumentEvaluationResult>> eagerPolicyElementDecisionFl
 
     private static Flux<DocumentEvaluationResult> evaluatePolicyElementTargetAndPolicyIfApplicable(
             PolicyElement policyElement) {
-        final var matches = policyElement.matches()
-                .map(BasicCombiningAlgorithm::requireTargetExpressionEvaluatesToBoolean);
+        final var matches = policyElement.matches().flatMap(targetExpressionResult -> Mono.deferContextual(
+                ctx -> Mono.just(requireTargetExpressionEvaluatesToBoolean(targetExpressionResult, Tracer.of(ctx)))));
         return matches.flatMapMany(evaluatePolicyIfApplicable(policyElement));
     }
 
@@ -94,14 +271,13 @@ private static Function<Val, Flux<DocumentEvaluationResult>> evaluatePolicyIfApp
         };
     }
 
-    private static Val requireTargetExpressionEvaluatesToBoolean(Val targetExpressionResult) {
+    private static Val requireTargetExpressionEvaluatesToBoolean(Val targetExpressionResult, Tracer tracer) {
         if (targetExpressionResult.isBoolean())
             return targetExpressionResult;
 
-        return ErrorFactory
-                .error("Type mismatch. Target expression must evaluate to Boolean. Was: %s",
-                        targetExpressionResult.getValType())
-                .withTrace(BasicCombiningAlgorithm.class, false, targetExpressionResult);
+        final var error = ErrorFactory.error("Type mismatch. Target expression must evaluate to Boolean. Was: %s",
+                targetExpressionResult.getValType());
+        return tracer.trace(error, BasicCombiningAlgorithm.class, false, targetExpressionResult);
     }
 
 }
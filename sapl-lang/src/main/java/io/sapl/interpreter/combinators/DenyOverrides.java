@@ -61,13 +61,13 @@
 public class DenyOverrides {
 
     public Flux<CombinedDecision> denyOverrides(PolicySet policySet) {
-        return BasicCombiningAlgorithm.eagerlyCombinePolicyElements(policySet.getPolicies(), DenyOverrides::combinator,
-                CombiningAlgorithm.DENY_OVERRIDES, AuthorizationDecision.NOT_APPLICABLE);
+        return BasicCombiningAlgorithm.combinePolicyElements(policySet.getPolicies(), DenyOverrides::combinator,
+                CombiningAlgorithm.DENY_OVERRIDES, AuthorizationDecision.NOT_APPLICABLE, DENY);
     }
 
     public Flux<CombinedDecision> denyOverrides(List<DocumentMatch> documents) {
-        return BasicCombiningAlgorithm.eagerlyCombineMatchingDocuments(documents, DenyOverrides::combinator,
-                CombiningAlgorithm.DENY_OVERRIDES, AuthorizationDecision.NOT_APPLICABLE);
+        return BasicCombiningAlgorithm.combineMatchingDocuments(documents, DenyOverrides::combinator,
+                CombiningAlgorithm.DENY_OVERRIDES, AuthorizationDecision.NOT_APPLICABLE, DENY);
     }
 
     private CombinedDecision combinator(DocumentEvaluationResult[] policyDecisions) {
@@ -51,13 +51,13 @@
 public class DenyUnlessPermit {
 
     public Flux<CombinedDecision> denyUnlessPermit(PolicySet policySet) {
-        return BasicCombiningAlgorithm.eagerlyCombinePolicyElements(policySet.getPolicies(),
-                DenyUnlessPermit::combinator, CombiningAlgorithm.DENY_UNLESS_PERMIT, AuthorizationDecision.DENY);
+        return BasicCombiningAlgorithm.combinePolicyElements(policySet.getPolicies(), DenyUnlessPermit::combinator,
+                CombiningAlgorithm.DENY_UNLESS_PERMIT, AuthorizationDecision.DENY, PERMIT);
     }
 
     public Flux<CombinedDecision> denyUnlessPermit(List<DocumentMatch> documents) {
-        return BasicCombiningAlgorithm.eagerlyCombineMatchingDocuments(documents, DenyUnlessPermit::combinator,
-                CombiningAlgorithm.DENY_UNLESS_PERMIT, AuthorizationDecision.DENY);
+        return BasicCombiningAlgorithm.combineMatchingDocuments(documents, DenyUnlessPermit::combinator,
+                CombiningAlgorithm.DENY_UNLESS_PERMIT, AuthorizationDecision.DENY, PERMIT);
     }
 
     private CombinedDecision combinator(DocumentEvaluationResult[] policyDecisions) {
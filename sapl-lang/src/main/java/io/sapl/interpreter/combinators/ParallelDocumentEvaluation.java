@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.combinators;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.sapl.interpreter.DocumentEvaluationResult;
+import lombok.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Evaluates matching documents in parallel.
+ * <p>
+ * By default, all matching documents of a decision are evaluated on the thread
+ * delivering the subscription. If at least as many documents as the threshold
+ * match, each document is subscribed to on a bounded scheduler instead. The
+ * results are still combined in document order, so the decisions do not depend
+ * on the order in which the documents finish.
+ * <p>
+ * The number of fan-outs, their width, and the time documents wait for a
+ * worker of the scheduler are recorded.
+ */
+public class ParallelDocumentEvaluation {
+
+    public static final int DEFAULT_THRESHOLD = 32;
+
+    private final int       threshold;
+    private final Scheduler scheduler;
+
+    private final LongAdder       fanOuts              = new LongAdder();
+    private final LongAdder       scheduledDocuments   = new LongAdder();
+    private final LongAccumulator maximumFanOutWidth   = new LongAccumulator(Math::max, 0L);
+    private final LongAdder       totalQueueingDelay   = new LongAdder();
+    private final LongAccumulator maximumQueueingDelay = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Creates a parallel document evaluation using the default threshold and the
+     * parallel scheduler of Reactor, which is bounded by the number of CPU
+     * cores.
+     */
+    public ParallelDocumentEvaluation() {
+        this(DEFAULT_THRESHOLD, Schedulers.parallel());
+    }
+
+    /**
+     * Creates a parallel document evaluation.
+     *
+     * @param threshold minimal number of matching documents for a parallel
+     * evaluation
+     * @param scheduler the scheduler the documents are evaluated on
+     */
+    public ParallelDocumentEvaluation(int threshold, @NonNull Scheduler scheduler) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("The threshold for parallel document evaluation must be positive.");
+        }
+        this.threshold = threshold;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Moves the evaluation of the documents onto the scheduler, if the number of
+     * documents reaches the threshold. Each call reaching the threshold is
+     * recorded as one fan-out.
+     *
+     * @param documentDecisions the decision streams of the documents in document
+     * order
+     * @return the decision streams in the same order
+     */
+    public List<Flux<DocumentEvaluationResult>> fanOut(List<Flux<DocumentEvaluationResult>> documentDecisions) {
+        if (documentDecisions.size() < threshold) {
+            return documentDecisions;
+        }
+        final var scheduled = new ArrayList<Flux<DocumentEvaluationResult>>(documentDecisions.size());
+        for (var documentDecision : documentDecisions) {
+            scheduled.add(schedule(documentDecision));
+        }
+        fanOuts.increment();
+        maximumFanOutWidth.accumulate(documentDecisions.size());
+        return scheduled;
+    }
+
+    private Flux<DocumentEvaluationResult> schedule(Flux<DocumentEvaluationResult> documentDecision) {
+        return Flux.defer(() -> {
+            final var enqueued = System.nanoTime();
+            return Flux.defer(() -> {
+                recordQueueingDelay(System.nanoTime() - enqueued);
+                return documentDecision;
+            }).subscribeOn(scheduler);
+        });
+    }
+
+    private void recordQueueingDelay(long nanos) {
+        scheduledDocuments.increment();
+        totalQueueingDelay.add(nanos);
+        maximumQueueingDelay.accumulate(nanos);
+    }
+
+    /**
+     * @return the minimal number of matching documents for a parallel
+     * evaluation.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @return the number of decisions which were evaluated in parallel.
+     */
+    public long getNumberOfFanOuts() {
+        return fanOuts.sum();
+    }
+
+    /**
+     * @return the largest number of documents evaluated in parallel for a single
+     * decision.
+     */
+    public long getMaximumFanOutWidth() {
+        return maximumFanOutWidth.get();
+    }
+
+    /**
+     * @return the number of document evaluations started on the scheduler.
+     */
+    public long getNumberOfScheduledDocuments() {
+        return scheduledDocuments.sum();
+    }
+
+    /**
+     * @return the average time a document waited for a worker of the scheduler.
+     */
+    public Duration getAverageQueueingDelay() {
+        final var documents = scheduledDocuments.sum();
+        if (documents == 0L) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(totalQueueingDelay.sum() / documents);
+    }
+
+    /**
+     * @return the longest time a document waited for a worker of the scheduler.
+     */
+    public Duration getMaximumQueueingDelay() {
+        return Duration.ofNanos(maximumQueueingDelay.get());
+    }
+
+}
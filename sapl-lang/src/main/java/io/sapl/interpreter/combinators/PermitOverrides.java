@@ -63,13 +63,13 @@
 public class PermitOverrides {
 
     public Flux<CombinedDecision> permitOverrides(PolicySet policySet) {
-        return BasicCombiningAlgorithm.eagerlyCombinePolicyElements(policySet.getPolicies(),
-                PermitOverrides::combinator, CombiningAlgorithm.PERMIT_OVERRIDES, AuthorizationDecision.NOT_APPLICABLE);
+        return BasicCombiningAlgorithm.combinePolicyElements(policySet.getPolicies(), PermitOverrides::combinator,
+                CombiningAlgorithm.PERMIT_OVERRIDES, AuthorizationDecision.NOT_APPLICABLE, PERMIT);
     }
 
     public Flux<CombinedDecision> permitOverrides(List<DocumentMatch> documents) {
-        return BasicCombiningAlgorithm.eagerlyCombineMatchingDocuments(documents, PermitOverrides::combinator,
-                CombiningAlgorithm.PERMIT_OVERRIDES, AuthorizationDecision.NOT_APPLICABLE);
+        return BasicCombiningAlgorithm.combineMatchingDocuments(documents, PermitOverrides::combinator,
+                CombiningAlgorithm.PERMIT_OVERRIDES, AuthorizationDecision.NOT_APPLICABLE, PERMIT);
     }
 
     private CombinedDecision combinator(DocumentEvaluationResult[] policyDecisions) {
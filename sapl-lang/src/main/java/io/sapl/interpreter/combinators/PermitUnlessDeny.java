@@ -51,13 +51,13 @@
 public class PermitUnlessDeny {
 
     public Flux<CombinedDecision> permitUnlessDeny(PolicySet policySet) {
-        return BasicCombiningAlgorithm.eagerlyCombinePolicyElements(policySet.getPolicies(),
-                PermitUnlessDeny::combinator, CombiningAlgorithm.PERMIT_UNLESS_DENY, AuthorizationDecision.PERMIT);
+        return BasicCombiningAlgorithm.combinePolicyElements(policySet.getPolicies(), PermitUnlessDeny::combinator,
+                CombiningAlgorithm.PERMIT_UNLESS_DENY, AuthorizationDecision.PERMIT, DENY);
     }
 
     public Flux<CombinedDecision> permitUnlessDeny(List<DocumentMatch> documents) {
-        return BasicCombiningAlgorithm.eagerlyCombineMatchingDocuments(documents, PermitUnlessDeny::combinator,
-                CombiningAlgorithm.PERMIT_UNLESS_DENY, AuthorizationDecision.PERMIT);
+        return BasicCombiningAlgorithm.combineMatchingDocuments(documents, PermitUnlessDeny::combinator,
+                CombiningAlgorithm.PERMIT_UNLESS_DENY, AuthorizationDecision.PERMIT, DENY);
     }
 
     private CombinedDecision combinator(DocumentEvaluationResult[] policyDecisions) {
@@ -18,14 +18,13 @@
 package io.sapl.interpreter.context;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Objects;
 
 import io.sapl.api.interpreter.PolicyEvaluationException;
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.grammar.sapl.impl.util.RegexPatternCache;
+import io.sapl.interpreter.combinators.ParallelDocumentEvaluation;
 import io.sapl.interpreter.functions.AnnotationFunctionContext;
 import io.sapl.interpreter.functions.FunctionContext;
 import io.sapl.interpreter.pip.AnnotationAttributeContext;
@@ -51,6 +50,10 @@ public class AuthorizationContext {
     private static final String RESOURCE      = "resource";
     private static final String ENVIRONMENT   = "environment";
     private static final String RELATIVE_NODE = "relativeNode";
+    private static final String PARALLEL_EVAL = "parallelDocumentEvaluation";
+    private static final String TRACING       = "tracingEnabled";
+    private static final String LAZY_COMBINE  = "lazyDocumentCombining";
+    private static final String REGEX_CACHE   = "regexPatternCache";
 
     public static Map<String, String> getImports(ContextView ctx) {
         return ctx.getOrDefault(IMPORTS, Collections.emptyMap());
@@ -92,13 +95,10 @@ public Context setAttributeContext(Context ctx, AttributeContext attributeContex
     }
 
     public static Context setVariables(@NonNull Context ctx, Map<String, Val> environmentVariables) {
-        Map<String, Val> variables = new HashMap<>(ctx.getOrDefault(VARIABLES, new HashMap<>()));
-        for (var variable : environmentVariables.entrySet()) {
-            final var name = variable.getKey();
+        for (var name : environmentVariables.keySet()) {
             assertVariableNameNotReserved(name);
-            variables.put(name, variable.getValue());
         }
-        return ctx.put(VARIABLES, variables);
+        return ctx.put(VARIABLES, variableEnvironment(ctx).withAll(environmentVariables));
     }
 
     public Context setVariable(@NonNull Context ctx, String name, Val value) {
@@ -107,13 +107,10 @@ public Context setVariable(@NonNull Context ctx, String name, Val value) {
         if (value.isError())
             throw new PolicyEvaluationException(value.getMessage());
 
-        Map<String, Val> variables = new HashMap<>(ctx.getOrDefault(VARIABLES, new HashMap<>()));
-
         if (value.isUndefined())
-            variables.remove(name);
-        else
-            variables.put(name, value);
-        return ctx.put(VARIABLES, variables);
+            return ctx.put(VARIABLES, variableEnvironment(ctx).with(name, null));
+
+        return ctx.put(VARIABLES, variableEnvironment(ctx).with(name, value));
     }
 
     private void assertVariableNameNotReserved(String name) {
@@ -123,37 +120,30 @@ private void assertVariableNameNotReserved(String name) {
     }
 
     public Context setSubscriptionVariables(@NonNull Context ctx, AuthorizationSubscription authorizationSubscription) {
-
-        Map<String, Val> variables = new HashMap<>(
-                Objects.requireNonNull(ctx.getOrDefault(VARIABLES, new HashMap<>())));
-
-        variables.put(SUBJECT, Val.of(authorizationSubscription.getSubject()));
-        variables.put(ACTION, Val.of(authorizationSubscription.getAction()));
-        variables.put(RESOURCE, Val.of(authorizationSubscription.getResource()));
-        variables.put(ENVIRONMENT, Val.of(authorizationSubscription.getEnvironment()));
+        final var variables = variableEnvironment(ctx).with(SUBJECT, Val.of(authorizationSubscription.getSubject()))
+                .with(ACTION, Val.of(authorizationSubscription.getAction()))
+                .with(RESOURCE, Val.of(authorizationSubscription.getResource()))
+                .with(ENVIRONMENT, Val.of(authorizationSubscription.getEnvironment()));
         return ctx.put(VARIABLES, variables);
     }
 
-    @SuppressWarnings("unchecked")
-    // In this case the catch clause takes care of making it fail-safe and solves
-    // the runtime type erasure problem for this case.
+    /**
+     * @param ctx the context
+     * @return an unmodifiable map of all variables
+     */
     public static Map<String, Val> getVariables(ContextView ctx) {
-        Map<String, Val> result = null;
-        try {
-            result = (Map<String, Val>) ctx.get(VARIABLES);
-        } catch (ClassCastException | NoSuchElementException e) {
-            // NOOP continue with result == null
-        }
-        if (result == null)
-            result = new HashMap<>();
-        return result;
+        return variableEnvironment(ctx).asMap();
     }
 
     public static Val getVariable(ContextView ctx, String name) {
-        final var value = getVariables(ctx).get(name);
-        if (value == null)
-            return Val.UNDEFINED;
-        return value;
+        return variableEnvironment(ctx).get(name);
+    }
+
+    private static VariableEnvironment variableEnvironment(ContextView ctx) {
+        if (ctx.getOrDefault(VARIABLES, null) instanceof VariableEnvironment variables) {
+            return variables;
+        }
+        return VariableEnvironment.EMPTY;
     }
 
     public static FunctionContext functionContext(ContextView ctx) {
@@ -167,6 +157,59 @@ public Context setFunctionContext(Context ctx, FunctionContext functionContext)
         return ctx.put(FUNCTION_CTX, functionContext);
     }
 
+    /**
+     * @param ctx the context
+     * @return the parallel document evaluation, or null if documents are
+     * evaluated sequentially
+     */
+    public static ParallelDocumentEvaluation getParallelDocumentEvaluation(ContextView ctx) {
+        return ctx.getOrDefault(PARALLEL_EVAL, null);
+    }
+
+    public Context setParallelDocumentEvaluation(Context ctx, ParallelDocumentEvaluation parallelDocumentEvaluation) {
+        return ctx.put(PARALLEL_EVAL, parallelDocumentEvaluation);
+    }
+
+    /**
+     * @param ctx the context
+     * @return true, unless evaluation traces have been disabled for the
+     * subscription
+     */
+    public static boolean isTracingEnabled(ContextView ctx) {
+        return ctx.getOrDefault(TRACING, Boolean.TRUE);
+    }
+
+    public Context setTracingEnabled(Context ctx, boolean tracingEnabled) {
+        return ctx.put(TRACING, tracingEnabled);
+    }
+
+    /**
+     * @param ctx the context
+     * @return true, if documents which cannot yield the overriding decision of
+     * a combining algorithm are only evaluated while no other document yields
+     * it
+     */
+    public static boolean isLazyDocumentCombining(ContextView ctx) {
+        return ctx.getOrDefault(LAZY_COMBINE, Boolean.FALSE);
+    }
+
+    public Context setLazyDocumentCombining(Context ctx, boolean lazyDocumentCombining) {
+        return ctx.put(LAZY_COMBINE, lazyDocumentCombining);
+    }
+
+    /**
+     * @param ctx the context
+     * @return the cache and limits for regular expressions of the PDP, or the
+     * default cache if none is set
+     */
+    public static RegexPatternCache getRegexPatternCache(ContextView ctx) {
+        return ctx.getOrDefault(REGEX_CACHE, RegexPatternCache.defaultCache());
+    }
+
+    public Context setRegexPatternCache(Context ctx, RegexPatternCache regexPatternCache) {
+        return ctx.put(REGEX_CACHE, regexPatternCache);
+    }
+
     public Context setImports(Context ctx, Map<String, String> imports) {
         return ctx.put(IMPORTS, imports);
     }
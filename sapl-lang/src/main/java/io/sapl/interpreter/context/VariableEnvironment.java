@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.context;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.sapl.api.interpreter.Val;
+
+/**
+ * Persistent environment of variables.
+ * <p>
+ * Each frame binds either a single variable or a set of variables and links to
+ * its parent. Defining a variable creates a new frame and leaves the parent
+ * unchanged, thus no copy of the existing variables is required. A frame
+ * binding a variable to null removes the variable from the environment.
+ * <p>
+ * A lookup walks the frames up to the nearest frame knowing all variables of
+ * the environment. To bound the length of this walk for documents defining
+ * many variables, every {@value #MAXIMUM_CHAIN_LENGTH}th frame is created as a
+ * flat map of all variables, which also releases the frames before it.
+ */
+final class VariableEnvironment {
+
+    static final int MAXIMUM_CHAIN_LENGTH = 16;
+
+    static final VariableEnvironment EMPTY = new VariableEnvironment(Map.of());
+
+    private final VariableEnvironment parent;
+    private final Map<String, Val>    bindings;
+    private final String              name;
+    private final Val                 value;
+    private final int                 chainLength;
+
+    private volatile Map<String, Val> variables;
+
+    private VariableEnvironment(VariableEnvironment parent, Map<String, Val> bindings, String name, Val value) {
+        this.parent      = parent;
+        this.bindings    = bindings;
+        this.name        = name;
+        this.value       = value;
+        this.chainLength = parent.chainLength + 1;
+    }
+
+    private VariableEnvironment(Map<String, Val> variables) {
+        this.parent      = null;
+        this.bindings    = variables;
+        this.name        = null;
+        this.value       = null;
+        this.chainLength = 0;
+        this.variables   = variables;
+    }
+
+    /**
+     * @param name a variable name
+     * @param value the value or null to remove the variable
+     * @return an environment with the variable bound to the value
+     */
+    VariableEnvironment with(String name, Val value) {
+        if (chainLength < MAXIMUM_CHAIN_LENGTH) {
+            return new VariableEnvironment(this, null, name, value);
+        }
+        final var map = new HashMap<>(asMap());
+        if (null == value) {
+            map.remove(name);
+        } else {
+            map.put(name, value);
+        }
+        return new VariableEnvironment(Collections.unmodifiableMap(map));
+    }
+
+    /**
+     * @param bindings variables
+     * @return an environment with all variables bound
+     */
+    VariableEnvironment withAll(Map<String, Val> bindings) {
+        if (chainLength < MAXIMUM_CHAIN_LENGTH) {
+            return new VariableEnvironment(this, Collections.unmodifiableMap(new HashMap<>(bindings)), null, null);
+        }
+        final var map = new HashMap<>(asMap());
+        map.putAll(bindings);
+        return new VariableEnvironment(Collections.unmodifiableMap(map));
+    }
+
+    /**
+     * @param name a variable name
+     * @return the value of the variable or undefined
+     */
+    Val get(String name) {
+        for (var frame = this; null != frame; frame = frame.parent) {
+            final var allVariables = frame.variables;
+            if (null != allVariables) {
+                final var boundValue = allVariables.get(name);
+                return null == boundValue ? Val.UNDEFINED : boundValue;
+            }
+            if (null != frame.bindings) {
+                final var boundValue = frame.bindings.get(name);
+                if (null != boundValue) {
+                    return boundValue;
+                }
+            } else if (frame.name.equals(name)) {
+                return null == frame.value ? Val.UNDEFINED : frame.value;
+            }
+        }
+        return Val.UNDEFINED;
+    }
+
+    /**
+     * @return all variables of the environment as an unmodifiable map
+     */
+    Map<String, Val> asMap() {
+        var result = variables;
+        if (null == result) {
+            final var frames = new ArrayDeque<VariableEnvironment>();
+            var       frame  = this;
+            while (null != frame && null == frame.variables) {
+                frames.push(frame);
+                frame = frame.parent;
+            }
+            final var map = null == frame ? new HashMap<String, Val>() : new HashMap<>(frame.variables);
+            for (var pending : frames) {
+                pending.applyTo(map);
+            }
+            result    = Collections.unmodifiableMap(map);
+            variables = result;
+        }
+        return result;
+    }
+
+    private void applyTo(Map<String, Val> map) {
+        if (null != bindings) {
+            map.putAll(bindings);
+        } else if (null == value) {
+            map.remove(name);
+        } else {
+            map.put(name, value);
+        }
+    }
+
+}
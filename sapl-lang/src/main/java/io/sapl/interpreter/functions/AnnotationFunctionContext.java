@@ -17,10 +17,11 @@
  */
 package io.sapl.interpreter.functions;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Parameter;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,6 +30,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -48,6 +50,7 @@
 import io.sapl.interpreter.pip.LibraryEntryMetadata;
 import io.sapl.interpreter.validation.IllegalParameterType;
 import io.sapl.interpreter.validation.ParameterTypeValidator;
+import io.sapl.interpreter.validation.ParameterTypeValidator.Validator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -68,8 +71,9 @@ public final class AnnotationFunctionContext implements FunctionContext {
     static final String      FUNCTION_NAME_COLLISION_ERROR                  = "Function name collision %s";
 
     private final Collection<LibraryDocumentation> documentation = new ConcurrentLinkedQueue<>();
-    private final Map<String, FunctionMetadata>    functions     = new ConcurrentHashMap<>();
+    private final Map<String, FunctionInvoker>     functions     = new ConcurrentHashMap<>();
     private final Map<String, Collection<String>>  libraries     = new ConcurrentHashMap<>();
+    private final Set<String>                      pureFunctions = ConcurrentHashMap.newKeySet();
 
     private List<String> codeTemplateCache;
 
@@ -115,61 +119,79 @@ public final void loadLibraries(FunctionLibrarySupplier librariesSupplier) throw
 
     @Override
     public Val evaluate(EObject location, String function, Val... parameters) {
+        return withFunctionTrace(evaluateWithoutTrace(location, function, parameters), function, parameters);
+    }
+
+    @Override
+    public Val evaluateWithoutTrace(EObject location, String function, Val... parameters) {
+        final var invoker = functions.get(function);
+        if (invoker == null)
+            return ErrorFactory.error(location, UNKNOWN_FUNCTION_ERROR, function);
+
+        return evaluateInvoker(location, invoker, parameters);
+    }
+
+    @Override
+    public ResolvedFunction resolveFunction(String function) {
+        final var invoker = functions.get(function);
+        if (invoker == null) {
+            // libraries may still be loaded later, keep looking the function up
+            return FunctionContext.super.resolveFunction(function);
+        }
+        return new BoundFunction(function, invoker);
+    }
+
+    private static Val withFunctionTrace(Val result, String function, Val... parameters) {
         final var functionTrace = new ExpressionArgument[parameters.length + 1];
         functionTrace[0] = new ExpressionArgument("functionName", Val.of(function));
         for (var parameter = 0; parameter < parameters.length; parameter++) {
             functionTrace[parameter + 1] = new ExpressionArgument("parameter[" + parameter + "]",
                     parameters[parameter]);
         }
-        final var metadata = functions.get(function);
-        if (metadata == null)
-            return ErrorFactory.error(location, UNKNOWN_FUNCTION_ERROR, function).withTrace(FunctionContext.class,
-                    false, functionTrace);
-
-        final var funParams = metadata.getFunction().getParameters();
+        return result.withTrace(FunctionContext.class, false, functionTrace);
+    }
 
+    private Val evaluateInvoker(EObject location, FunctionInvoker invoker, Val... parameters) {
+        final var metadata = invoker.metadata();
         if (metadata.isVarArgsParameters()) {
-            return evaluateVarArgsFunction(location, metadata, funParams, parameters).withTrace(FunctionContext.class,
-                    false, functionTrace);
+            return evaluateVarArgsFunction(location, invoker, parameters);
         }
         if (metadata.getNumberOfParameters() == parameters.length) {
-            return evaluateFixedParametersFunction(location, metadata, funParams, parameters)
-                    .withTrace(FunctionContext.class, false, functionTrace);
+            return evaluateFixedParametersFunction(location, invoker, parameters);
         }
         return ErrorFactory.error(location, ILLEGAL_NUMBER_OF_PARAMETERS_ERROR, metadata.getNumberOfParameters(),
-                parameters.length).withTrace(FunctionContext.class, false, functionTrace);
+                parameters.length);
     }
 
-    private Val evaluateFixedParametersFunction(EObject location, FunctionMetadata metadata, Parameter[] funParams,
-            Val... parameters) {
+    private Val evaluateFixedParametersFunction(EObject location, FunctionInvoker invoker, Val... parameters) {
+        final var validators = invoker.validators();
         for (int i = 0; i < parameters.length; i++) {
             try {
-                ParameterTypeValidator.validateType(parameters[i], funParams[i]);
+                validators[i].validate(parameters[i]);
             } catch (IllegalParameterType e) {
                 return ErrorFactory.error(location, e);
             }
         }
-        return invokeFunction(location, metadata, (Object[]) parameters);
+        return invokeFunction(location, invoker, parameters);
     }
 
-    private Val evaluateVarArgsFunction(EObject location, FunctionMetadata metadata, Parameter[] funParams,
-            Val... parameters) {
+    private Val evaluateVarArgsFunction(EObject location, FunctionInvoker invoker, Val... parameters) {
+        final var validator = invoker.validators()[0];
         for (Val parameter : parameters) {
             try {
-                ParameterTypeValidator.validateType(parameter, funParams[0]);
+                validator.validate(parameter);
             } catch (IllegalParameterType e) {
                 return ErrorFactory.error(location, e);
             }
         }
-        // The following cast is actually necessary. Reason unknown.
-        return invokeFunction(location, metadata, (Object[]) new Object[] { parameters });
+        return invokeFunction(location, invoker, parameters);
     }
 
-    private Val invokeFunction(EObject location, FunctionMetadata metadata, Object... parameters) {
+    private Val invokeFunction(EObject location, FunctionInvoker invoker, Val... parameters) {
         try {
-            return (Val) metadata.getFunction().invoke(metadata.getLibrary(), parameters);
+            return invoker.invoke(parameters);
         } catch (Throwable e) {
-            return invocationExceptionToError(e, location, metadata, parameters);
+            return invocationExceptionToError(e, location, invoker.metadata(), (Object[]) parameters);
         }
     }
 
@@ -221,6 +243,12 @@ public final void loadLibrary(Object library, Class<?> libraryType) throws Initi
             }
         }
 
+        if (libAnnotation.pure()) {
+            for (var funName : libraries.get(libName)) {
+                pureFunctions.add(String.join(".", libName, funName));
+            }
+        }
+
         documentation.add(libDocs);
     }
 
@@ -271,7 +299,7 @@ private void importFunction(Object library, String libName, LibraryDocumentation
         if (functions.containsKey(funMeta.fullyQualifiedName())) {
             throw new InitializationException(FUNCTION_NAME_COLLISION_ERROR, funMeta.fullyQualifiedName());
         }
-        functions.put(funMeta.fullyQualifiedName(), funMeta);
+        functions.put(funMeta.fullyQualifiedName(), FunctionInvoker.of(funMeta));
         libMeta.documentation.put(funMeta.getDocumentationCodeTemplate(), funAnnotation.docs());
 
         libraries.get(libName).add(funName);
@@ -291,6 +319,11 @@ public Boolean isProvidedFunction(String function) {
         return functions.containsKey(function);
     }
 
+    @Override
+    public boolean isPureFunction(String function) {
+        return pureFunctions.contains(function);
+    }
+
     @Override
     public Collection<LibraryDocumentation> getDocumentation() {
         return Collections.unmodifiableCollection(documentation);
@@ -305,6 +338,32 @@ public Collection<String> providedFunctionsOfLibrary(String libraryName) {
             return new HashSet<>();
     }
 
+    /*
+     * A function looked up once for a call site. Functions cannot be replaced
+     * after loading, so the invoker stays valid for the lifetime of the context.
+     */
+    private final class BoundFunction implements ResolvedFunction {
+
+        private final String          function;
+        private final FunctionInvoker invoker;
+
+        BoundFunction(String function, FunctionInvoker invoker) {
+            this.function = function;
+            this.invoker  = invoker;
+        }
+
+        @Override
+        public Val evaluate(EObject location, Val... parameters) {
+            return withFunctionTrace(evaluateInvoker(location, invoker, parameters), function, parameters);
+        }
+
+        @Override
+        public Val evaluateWithoutTrace(EObject location, Val... parameters) {
+            return evaluateInvoker(location, invoker, parameters);
+        }
+
+    }
+
     /**
      * Metadata for individual functions.
      */
@@ -363,6 +422,53 @@ public String getDocumentationCodeTemplate(String alias) {
 
     }
 
+    /**
+     * Dispatches invocations of a function. The method handle and the parameter
+     * validators are resolved once when the library is loaded. If the method is
+     * not accessible for method handles, reflection is used instead.
+     */
+    private record FunctionInvoker(FunctionMetadata metadata, MethodHandle handle, Validator[] validators) {
+
+        private static final MethodType DISPATCH_TYPE = MethodType.methodType(Val.class, Val[].class);
+
+        static FunctionInvoker of(FunctionMetadata metadata) {
+            final var method     = metadata.getFunction();
+            final var parameters = method.getParameters();
+            final var validators = new Validator[parameters.length];
+            for (var i = 0; i < parameters.length; i++) {
+                validators[i] = ParameterTypeValidator.validatorFor(parameters[i]);
+            }
+            return new FunctionInvoker(metadata, methodHandle(metadata), validators);
+        }
+
+        private static MethodHandle methodHandle(FunctionMetadata metadata) {
+            final var method = metadata.getFunction();
+            try {
+                var handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    handle = handle.bindTo(metadata.getLibrary());
+                }
+                if (!metadata.isVarArgsParameters()) {
+                    handle = handle.asSpreader(Val[].class, method.getParameterCount());
+                }
+                return handle.asType(DISPATCH_TYPE);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        Val invoke(Val... parameters) throws Throwable {
+            if (null == handle) {
+                if (metadata.isVarArgsParameters()) {
+                    return (Val) metadata.getFunction().invoke(metadata.getLibrary(), (Object) parameters);
+                }
+                return (Val) metadata.getFunction().invoke(metadata.getLibrary(), (Object[]) parameters);
+            }
+            return (Val) handle.invokeExact(parameters);
+        }
+
+    }
+
     @Override
     public Collection<String> getAvailableLibraries() {
         return this.libraries.keySet();
@@ -373,7 +479,7 @@ public List<String> getCodeTemplates() {
         if (codeTemplateCache == null) {
             codeTemplateCache = new LinkedList<>();
             for (var entry : functions.entrySet()) {
-                codeTemplateCache.add(entry.getValue().getCodeTemplate());
+                codeTemplateCache.add(entry.getValue().metadata().getCodeTemplate());
             }
             Collections.sort(codeTemplateCache);
         }
@@ -384,7 +490,7 @@ public List<String> getCodeTemplates() {
     public Map<String, JsonNode> getFunctionSchemas() {
         final var schemas = new HashMap<String, JsonNode>();
         for (var entry : functions.entrySet()) {
-            schemas.put(entry.getKey(), entry.getValue().functionSchema);
+            schemas.put(entry.getKey(), entry.getValue().metadata().functionSchema);
         }
         return schemas;
     }
@@ -398,12 +504,13 @@ public Collection<String> getAllFullyQualifiedFunctions() {
     public Map<String, String> getDocumentedCodeTemplates() {
         final var documentedCodeTemplates = new HashMap<String, String>();
         for (var entry : functions.entrySet()) {
-            final var documentationCodeTemplate = entry.getValue().getDocumentationCodeTemplate();
+            final var metadata                  = entry.getValue().metadata();
+            final var documentationCodeTemplate = metadata.getDocumentationCodeTemplate();
             for (var library : documentation) {
                 documentedCodeTemplates.putIfAbsent(library.name, library.description);
                 Optional.ofNullable(library.getDocumentation().get(documentationCodeTemplate)).ifPresent(template -> {
                     documentedCodeTemplates.put(entry.getKey(), template);
-                    documentedCodeTemplates.put(entry.getValue().getCodeTemplate(), template);
+                    documentedCodeTemplates.put(metadata.getCodeTemplate(), template);
                 });
             }
         }
@@ -412,7 +519,7 @@ public Map<String, String> getDocumentedCodeTemplates() {
 
     @Override
     public Collection<FunctionMetadata> getFunctionMetatata() {
-        return new ArrayList<>(functions.values());
+        return functions.values().stream().map(FunctionInvoker::metadata).toList();
     }
 
 }
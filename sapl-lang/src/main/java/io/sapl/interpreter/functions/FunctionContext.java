@@ -33,6 +33,40 @@ public interface FunctionContext extends LibraryFunctionProvider {
 
     Val evaluate(EObject location, String function, Val... parameters);
 
+    /**
+     * Evaluates a function without attaching an evaluation trace to the result.
+     *
+     * @param location the location of the function call in the document
+     * @param function a fully qualified function name
+     * @param parameters the parameters
+     * @return the result of the function call
+     */
+    default Val evaluateWithoutTrace(EObject location, String function, Val... parameters) {
+        return evaluate(location, function, parameters);
+    }
+
+    /**
+     * Looks up a function for a call site. The AST remembers the result, so that
+     * repeated evaluations of the same call do not have to look up the function
+     * by its name again.
+     *
+     * @param function a fully qualified function name
+     * @return the function bound to this context
+     */
+    default ResolvedFunction resolveFunction(String function) {
+        return new ResolvedFunction() {
+            @Override
+            public Val evaluate(EObject location, Val... parameters) {
+                return FunctionContext.this.evaluate(location, function, parameters);
+            }
+
+            @Override
+            public Val evaluateWithoutTrace(EObject location, Val... parameters) {
+                return FunctionContext.this.evaluateWithoutTrace(location, function, parameters);
+            }
+        };
+    }
+
     Collection<LibraryDocumentation> getDocumentation();
 
     List<String> getCodeTemplates();
@@ -42,4 +76,34 @@ public interface FunctionContext extends LibraryFunctionProvider {
     Map<String, JsonNode> getFunctionSchemas();
 
     Collection<FunctionMetadata> getFunctionMetatata();
+
+    /**
+     * @param function a fully qualified function name
+     * @return true, if the function is provided by a library declared pure
+     */
+    default boolean isPureFunction(String function) {
+        return false;
+    }
+
+    /**
+     * A function of a context, which has already been looked up by its name.
+     */
+    interface ResolvedFunction {
+
+        /**
+         * @param location the location of the function call in the document
+         * @param parameters the parameters
+         * @return the result of the function call with an evaluation trace
+         */
+        Val evaluate(EObject location, Val... parameters);
+
+        /**
+         * @param location the location of the function call in the document
+         * @param parameters the parameters
+         * @return the result of the function call without an evaluation trace
+         */
+        Val evaluateWithoutTrace(EObject location, Val... parameters);
+
+    }
+
 }
@@ -48,8 +48,10 @@
 import io.sapl.api.pip.StaticPolicyInformationPointSupplier;
 import io.sapl.grammar.sapl.Arguments;
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
 import io.sapl.interpreter.InitializationException;
 import io.sapl.interpreter.SchemaLoadingUtil;
+import io.sapl.interpreter.context.AuthorizationContext;
 import io.sapl.interpreter.validation.ParameterTypeValidator;
 import lombok.NoArgsConstructor;
 import reactor.core.publisher.Flux;
@@ -82,6 +84,8 @@ public final class AnnotationAttributeContext implements AttributeContext {
 
     private List<String> templatesCache;
 
+    private AttributeStreamBroker attributeStreamBroker;
+
     /**
      * Create context from a supplied PIPs.
      *
@@ -96,6 +100,17 @@ public AnnotationAttributeContext(PolicyInformationPointSupplier pipSupplier,
         loadPolicyInformationPoints(staticPipSupplier);
     }
 
+    /**
+     * Create an empty context which shares identical attribute streams between
+     * concurrent subscriptions.
+     *
+     * @param attributeStreamBroker the broker managing the shared attribute
+     * streams
+     */
+    public AnnotationAttributeContext(AttributeStreamBroker attributeStreamBroker) {
+        this.attributeStreamBroker = attributeStreamBroker;
+    }
+
     /**
      * Loads supplied policy information point instances into the context.
      *
@@ -180,31 +195,54 @@ private Flux<Val> evaluateAttribute(String attributeName, AttributeFinderMetadat
                 .switchMap(invokeAttributeFinderMethod(arguments, attributeName, pip, method));
     }
 
-    @SuppressWarnings("unchecked")
+    /*
+     * Traces are attached per subscriber, as shared attribute streams may serve
+     * subscriptions with and without tracing.
+     */
     private Function<Object[], Publisher<? extends Val>> invokeAttributeFinderMethod(EObject location,
             String attributeName, Object pip, Method method) {
         return invocationParameters -> {
-            try {
-                return ((Flux<Val>) method.invoke(pip, invocationParameters)).map(val -> {
-                    final var trace = new HashMap<String, Val>();
-                    trace.put("attribute", Val.of(attributeName));
-                    for (var i = 0; i < invocationParameters.length; i++) {
-                        if (invocationParameters[i] instanceof Val) {
-                            trace.put("argument[" + i + "]", (Val) (invocationParameters[i]));
-                        }
-                        if (invocationParameters[i] instanceof Map) {
-                            trace.put("argument[" + i + "]", Val.of("VARIABLES OMITTED"));
-                        }
-                    }
-                    trace.put("timestamp", Val.of(Instant.now().toString()));
-                    return val.withTrace(AttributeContext.class, false, trace);
-                });
-            } catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
-                return Flux.just(ErrorFactory.causeOrMessage(location, e));
+            final Flux<Val> attributeStream;
+            if (null == attributeStreamBroker) {
+                attributeStream = invokeAttributeFinderMethod(location, pip, method, invocationParameters);
+            } else {
+                attributeStream = attributeStreamBroker.attributeStream(attributeName, method, invocationParameters,
+                        () -> invokeAttributeFinderMethod(location, pip, method, invocationParameters));
             }
+            return Flux.deferContextual(ctx -> {
+                if (!AuthorizationContext.isTracingEnabled(ctx)) {
+                    return attributeStream;
+                }
+                return attributeStream.map(val -> withAttributeTrace(val, attributeName, invocationParameters));
+            });
         };
     }
 
+    @SuppressWarnings("unchecked")
+    private Flux<Val> invokeAttributeFinderMethod(EObject location, Object pip, Method method,
+            Object[] invocationParameters) {
+        try {
+            return (Flux<Val>) method.invoke(pip, invocationParameters);
+        } catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
+            return Flux.just(ErrorFactory.causeOrMessage(location, e));
+        }
+    }
+
+    private static Val withAttributeTrace(Val val, String attributeName, Object[] invocationParameters) {
+        final var trace = new HashMap<String, Val>();
+        trace.put("attribute", Val.of(attributeName));
+        for (var i = 0; i < invocationParameters.length; i++) {
+            if (invocationParameters[i] instanceof Val) {
+                trace.put("argument[" + i + "]", (Val) (invocationParameters[i]));
+            }
+            if (invocationParameters[i] instanceof Map) {
+                trace.put("argument[" + i + "]", Val.of("VARIABLES OMITTED"));
+            }
+        }
+        trace.put("timestamp", Val.of(Instant.now().toString()));
+        return val.withTrace(AttributeContext.class, false, trace);
+    }
+
     private List<Flux<Val>> validatedArguments(AttributeFinderMetadata attributeMetadata, Arguments arguments) {
         final var argumentFluxes                   = new ArrayList<Flux<Val>>(arguments.getArgs().size());
         var       indexOfArgumentParameterOfMethod = 0;
@@ -222,7 +260,8 @@ private List<Flux<Val>> validatedArguments(AttributeFinderMetadata attributeMeta
             } else {
                 parameter = attributeMetadata.function.getParameters()[indexOfArgumentParameterOfMethod++];
             }
-            argumentFluxes.add(ParameterTypeValidator.validateType(argument.evaluate(), parameter, argument));
+            argumentFluxes.add(ParameterTypeValidator.validateType(ExpressionCompiler.evaluate(argument), parameter,
+                    argument));
         }
         return argumentFluxes;
     }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import io.sapl.api.interpreter.Val;
+import lombok.NonNull;
+import reactor.core.publisher.Flux;
+
+/**
+ * Shares attribute streams between concurrent subscriptions.
+ * <p>
+ * Active attribute streams are keyed by the attribute finder, the left-hand
+ * value and the argument values of the invocation. All subscribers to the same
+ * key are served by one upstream subscription to the policy information point.
+ * Late subscribers immediately receive the latest value of the stream. When the
+ * last subscriber leaves, the upstream is kept alive for a grace period and
+ * only cancelled if no new subscriber arrives in the meantime.
+ */
+public class AttributeStreamBroker {
+
+    public static final Duration DEFAULT_GRACE_PERIOD = Duration.ofSeconds(3L);
+
+    private final Duration                           gracePeriod;
+    private final Map<AttributeStreamKey, Flux<Val>> activeStreams = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a broker using the default grace period.
+     */
+    public AttributeStreamBroker() {
+        this(DEFAULT_GRACE_PERIOD);
+    }
+
+    /**
+     * Creates a broker.
+     *
+     * @param gracePeriod time an upstream attribute stream is kept alive after
+     * the last subscriber left.
+     */
+    public AttributeStreamBroker(@NonNull Duration gracePeriod) {
+        this.gracePeriod = gracePeriod;
+    }
+
+    /**
+     * Looks up an active attribute stream or creates a new shared one.
+     *
+     * @param attributeName the fully qualified name of the attribute
+     * @param attributeFinder the method implementing the attribute finder
+     * @param invocationParameters the parameters the attribute finder is invoked
+     * with, i.e., left-hand value, variables, and arguments
+     * @param upstream supplies the upstream attribute stream if no stream for
+     * the given key is active
+     * @return a shared attribute stream
+     */
+    public Flux<Val> attributeStream(String attributeName, Method attributeFinder, Object[] invocationParameters,
+            Supplier<Flux<Val>> upstream) {
+        final var key = new AttributeStreamKey(attributeName, attributeFinder, keyParameters(invocationParameters));
+        return activeStreams.computeIfAbsent(key, k -> shareStream(k, upstream));
+    }
+
+    /**
+     * @return the number of currently active shared attribute streams.
+     */
+    public int numberOfActiveStreams() {
+        return activeStreams.size();
+    }
+
+    private Flux<Val> shareStream(AttributeStreamKey key, Supplier<Flux<Val>> upstream) {
+        final var shared = new AtomicReference<Flux<Val>>();
+        shared.set(Flux.defer(upstream).doFinally(signal -> activeStreams.remove(key, shared.get())).replay(1)
+                .refCount(1, gracePeriod));
+        return shared.get();
+    }
+
+    private static List<Object> keyParameters(Object[] invocationParameters) {
+        final var parameters = new ArrayList<>(invocationParameters.length);
+        for (var parameter : invocationParameters) {
+            if (parameter instanceof Val[] varArgs) {
+                parameters.add(Arrays.asList(varArgs));
+            } else {
+                parameters.add(parameter);
+            }
+        }
+        return parameters;
+    }
+
+    private record AttributeStreamKey(String attributeName, Method attributeFinder, List<Object> parameters) {}
+
+}
@@ -23,11 +23,13 @@
 import java.util.Arrays;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import org.eclipse.emf.ecore.EObject;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.JsonSchemaException;
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.validation.Array;
@@ -52,31 +54,64 @@ public class ParameterTypeValidator {
     private static final Set<Class<?>> VALIDATION_ANNOTATIONS = Set.of(Number.class, Int.class, Long.class, Bool.class,
             Text.class, Array.class, JsonObject.class, Schema.class);
 
-    public static void validateType(Val parameterValue, Parameter parameterType) throws IllegalParameterType {
+    private static final Validator NO_VALIDATION = parameterValue -> {};
+
+    /**
+     * Validates a value against the validation annotations of a parameter.
+     */
+    @FunctionalInterface
+    public interface Validator {
+
+        /**
+         * @param parameterValue a value
+         * @throws IllegalParameterType if the value does not match the parameter
+         */
+        void validate(Val parameterValue) throws IllegalParameterType;
+
+    }
+
+    /**
+     * Inspects the validation annotations of a parameter once and returns a
+     * validator which only performs the checks on the value.
+     *
+     * @param parameterType a parameter
+     * @return a validator for the values of the parameter
+     */
+    public static Validator validatorFor(Parameter parameterType) {
         if (hasNoValidationAnnotations(parameterType))
-            return;
+            return NO_VALIDATION;
 
-        if (parameterValue.isError())
-            throw new IllegalParameterType(String.format(ILLEGAL_PARAMETER_TYPE_ERROR, "error",
-                    listAllowedTypes(parameterType.getAnnotations())));
+        final var annotations  = parameterType.getAnnotations();
+        final var allowedTypes = listAllowedTypes(annotations);
+        moveSchemaAnnotationToTheEndIfItExists(annotations);
+        final var allowedTypesInValidationOrder = listAllowedTypes(annotations);
+        final var schemaCompliance              = schemaCompliance(annotations);
+        return parameterValue -> {
+            if (parameterValue.isError())
+                throw new IllegalParameterType(String.format(ILLEGAL_PARAMETER_TYPE_ERROR, "error", allowedTypes));
 
-        if (parameterValue.isUndefined())
-            throw new IllegalParameterType(String.format(ILLEGAL_PARAMETER_TYPE_ERROR, "undefined",
-                    listAllowedTypes(parameterType.getAnnotations())));
+            if (parameterValue.isUndefined())
+                throw new IllegalParameterType(
+                        String.format(ILLEGAL_PARAMETER_TYPE_ERROR, "undefined", allowedTypes));
+
+            validateJsonNodeType(parameterValue.get(), annotations, allowedTypesInValidationOrder, schemaCompliance);
+        };
+    }
 
-        validateJsonNodeType(parameterValue.get(), parameterType);
+    public static void validateType(Val parameterValue, Parameter parameterType) throws IllegalParameterType {
+        validatorFor(parameterType).validate(parameterValue);
     }
 
     public static Flux<Val> validateType(Flux<Val> parameterFlux, Parameter parameterType, EObject location) {
         if (hasNoValidationAnnotations(parameterType))
             return parameterFlux;
-        return parameterFlux.map(mapInvalidToError(parameterType, location));
+        return parameterFlux.map(mapInvalidToError(validatorFor(parameterType), location));
     }
 
-    private static Function<Val, Val> mapInvalidToError(Parameter parameterType, EObject location) {
+    private static Function<Val, Val> mapInvalidToError(Validator validator, EObject location) {
         return val -> {
             try {
-                validateType(val, parameterType);
+                validator.validate(val);
             } catch (IllegalParameterType e) {
                 return ErrorFactory.error(location, e);
             }
@@ -84,16 +119,14 @@ private static Function<Val, Val> mapInvalidToError(Parameter parameterType, EOb
         };
     }
 
-    private static void validateJsonNodeType(JsonNode node, Parameter parameterType) throws IllegalParameterType {
-        Annotation[] annotations = parameterType.getAnnotations();
-        String       errorText;
-        moveSchemaAnnotationToTheEndIfItExists(annotations);
-
+    private static void validateJsonNodeType(JsonNode node, Annotation[] annotations, String allowedTypes,
+            Predicate<JsonNode> schemaCompliance) throws IllegalParameterType {
+        String errorText;
         for (Annotation annotation : annotations) {
             if (nodeContentsMatchesTypeGivenByAnnotation(node, annotation))
                 return;
             if (annotation instanceof Schema schemaAnnotation) {
-                if (nodeCompliantWithSchema(node, schemaAnnotation)) {
+                if (schemaCompliance.test(node)) {
                     return;
                 } else {
                     errorText = schemaAnnotation.errorText();
@@ -105,8 +138,8 @@ private static void validateJsonNodeType(JsonNode node, Parameter parameterType)
             }
         }
 
-        throw new IllegalParameterType(String.format(ILLEGAL_PARAMETER_TYPE_ERROR, node.getNodeType().toString(),
-                listAllowedTypes(annotations)));
+        throw new IllegalParameterType(
+                String.format(ILLEGAL_PARAMETER_TYPE_ERROR, node.getNodeType().toString(), allowedTypes));
     }
 
     private static boolean nodeContentsMatchesTypeGivenByAnnotation(JsonNode node, Annotation annotation) {
@@ -119,14 +152,27 @@ private static boolean nodeContentsMatchesTypeGivenByAnnotation(JsonNode node, A
                 || (JsonObject.class.isAssignableFrom(annotation.getClass()) && node.isObject());
     }
 
-    private static boolean nodeCompliantWithSchema(JsonNode node, Schema schemaAnnotation) {
-        final var schema = schemaAnnotation.value();
+    /*
+     * A parameter carries at most one schema annotation. Its schema is parsed and
+     * compiled once when the validator is created.
+     */
+    private static Predicate<JsonNode> schemaCompliance(Annotation[] annotations) {
+        for (var annotation : annotations) {
+            if (annotation instanceof Schema schemaAnnotation) {
+                return schemaCompliance(schemaAnnotation.value());
+            }
+        }
+        return node -> true;
+    }
+
+    private static Predicate<JsonNode> schemaCompliance(String schema) {
         if ("".equals(schema))
-            return true;
+            return node -> true;
         try {
-            return SchemaValidationLibrary.isCompliant(Val.of(node), Val.ofJson(schema)).getBoolean();
-        } catch (JsonProcessingException e) {
-            return false;
+            final var compiledSchema = SchemaValidationLibrary.compileSchema(Val.ofJson(schema).get());
+            return node -> SchemaValidationLibrary.isCompliantWithSchema(node, compiledSchema);
+        } catch (JsonProcessingException | JsonSchemaException e) {
+            return node -> false;
         }
     }
 
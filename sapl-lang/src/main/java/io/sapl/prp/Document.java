@@ -22,14 +22,60 @@
 
 import io.sapl.grammar.sapl.Policy;
 import io.sapl.grammar.sapl.SAPL;
+import io.sapl.grammar.sapl.impl.SAPLImplCustom;
+import io.sapl.grammar.sapl.impl.util.PurityAnalysis;
 import io.sapl.interpreter.DocumentType;
+import io.sapl.interpreter.Purity;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.pip.AttributeContext;
 
-public record Document(String id, String name, SAPL sapl, Diagnostic diagnostic, String errorMessage) {
+/**
+ * A parsed SAPL document.
+ *
+ * @param id the id of the document
+ * @param name the name of the policy or policy set
+ * @param sapl the AST of the document
+ * @param diagnostic the validation result
+ * @param errorMessage the error message, if the document is invalid
+ * @param foldedExpressions the number of constant sub-expressions folded into
+ * pre-built values after parsing
+ */
+public record Document(String id, String name, SAPL sapl, Diagnostic diagnostic, String errorMessage,
+        int foldedExpressions) {
+
+    public Document(String id, String name, SAPL sapl, Diagnostic diagnostic, String errorMessage) {
+        this(id, name, sapl, diagnostic, errorMessage, 0);
+    }
 
     public boolean isInvalid() {
         return null == diagnostic || diagnostic.getSeverity() != Diagnostic.OK;
     }
 
+    /**
+     * @return the classification of the document by its dependencies on
+     * attributes and time, or null if the document is invalid
+     */
+    public Purity purity() {
+        if (null == sapl) {
+            return null;
+        }
+        return PurityAnalysis.purity(sapl);
+    }
+
+    /**
+     * @param attributeContext the attribute context the document is evaluated
+     * with
+     * @param functionContext the function context the document is evaluated with
+     * @return true, if all functions called by the document are declared pure by
+     * their libraries
+     */
+    public boolean callsOnlyPureFunctions(AttributeContext attributeContext, FunctionContext functionContext) {
+        if (sapl instanceof SAPLImplCustom document) {
+            return document.callsOnlyPureFunctions(attributeContext, functionContext);
+        }
+        return false;
+    }
+
     public String source() {
         return NodeModelUtils.findActualNodeFor(sapl).getText();
     }
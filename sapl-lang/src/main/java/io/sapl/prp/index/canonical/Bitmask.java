@@ -18,8 +18,7 @@
 package io.sapl.prp.index.canonical;
 
 import java.util.BitSet;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 import com.google.common.base.Preconditions;
 
@@ -69,21 +68,24 @@ public void set(int fromIndex, int toIndex) {
     }
 
     public int numberOfBitsSet() {
-        AtomicInteger numberOfBitsSets = new AtomicInteger();
-        forEachSetBit(index -> numberOfBitsSets.getAndIncrement());
-
-        return numberOfBitsSets.get();
+        return impl.cardinality();
     }
 
-    public void forEachSetBit(final Consumer<Integer> action) {
+    public void forEachSetBit(final IntConsumer action) {
         Preconditions.checkNotNull(action);
-        impl.stream().forEach(action::accept);
+        for (int index = impl.nextSetBit(0); index >= 0; index = impl.nextSetBit(index + 1)) {
+            action.accept(index);
+        }
     }
 
     public boolean isSet(int bitIndex) {
         return impl.get(bitIndex);
     }
 
+    public long[] toLongArray() {
+        return impl.toLongArray();
+    }
+
     @Override
     public String toString() {
         return String.valueOf(impl.toString());
@@ -25,6 +25,8 @@
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Expression;
 import io.sapl.grammar.sapl.impl.util.ErrorFactory;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler.CompiledExpression;
 import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -37,6 +39,8 @@ public class Bool {
 
     private Expression expression;
 
+    private CompiledExpression compiledExpression;
+
     private int hash;
 
     private boolean hasHashCode;
@@ -51,8 +55,9 @@ public Bool(boolean value) {
     }
 
     public Bool(final Expression expression, final Map<String, String> imports) {
-        this.expression = Preconditions.checkNotNull(expression);
-        this.imports    = imports;
+        this.expression         = Preconditions.checkNotNull(expression);
+        this.imports            = imports;
+        this.compiledExpression = ExpressionCompiler.compile(expression);
     }
 
     public boolean evaluate() {
@@ -63,10 +68,25 @@ public boolean evaluate() {
     }
 
     public Mono<Val> evaluateExpression() {
+        if (null != compiledExpression) {
+            // attribute-free and without function calls, no imports required
+            return Mono.deferContextual(ctx -> Mono.just(requireBoolean(compiledExpression.evaluate(ctx))));
+        }
         Flux<Val> resultFlux = isConstantExpression ? Flux.just(Val.of(constant))
                 : expression.evaluate().contextWrite(ctx -> AuthorizationContext.setImports(ctx, imports));
-        return resultFlux.map(result -> result.isError() || result.isBoolean() ? result
-                : ErrorFactory.error("Canonical Index Lookup: expression not boolean")).next();
+        return resultFlux.map(Bool::requireBoolean).next();
+    }
+
+    private static Val requireBoolean(Val result) {
+        return result.isError() || result.isBoolean() ? result
+                : ErrorFactory.error("Canonical Index Lookup: expression not boolean");
+    }
+
+    /**
+     * @return the expression of the Bool or null, if it is constant
+     */
+    Expression getExpression() {
+        return expression;
     }
 
     public boolean isImmutable() {
@@ -21,8 +21,6 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
 
 import io.sapl.api.interpreter.PolicyEvaluationException;
 import io.sapl.grammar.sapl.impl.util.ImportsUtil;
@@ -38,14 +36,31 @@
 import io.sapl.prp.index.canonical.ordering.PredicateOrderStrategy;
 import reactor.core.publisher.Mono;
 
+/**
+ * Immutable canonical policy index. Each update event yields a new index.
+ * <p>
+ * Updates only transform the target expressions of published documents into
+ * their canonical form. The target formulas of unchanged documents are taken
+ * over from the previous index. Events which do not change the document set,
+ * e.g., consistency changes, keep the index data of the previous index. A
+ * change of the document set updates the mappings of formulas to documents and
+ * of clauses to formulas copy-on-write, only touching the entries of removed
+ * and added documents. The dense clause indices, the bitmasks of the shared
+ * predicates, and the predicate order are derived from these mappings anew, as
+ * they depend on the statistics of all documents.
+ */
 public class CanonicalImmutableParsedDocumentIndex implements UpdateEventDrivenPolicyRetrievalPoint {
 
     private final CanonicalIndexDataContainer indexDataContainer;
 
     private final Map<String, Document> documents;
 
+    private final Map<String, DisjunctiveFormula> targets;
+
     private final PredicateOrderStrategy predicateOrderStrategy;
 
+    private final boolean equalityPartitioning;
+
     private final boolean consistent;
 
     private final AttributeContext attributeCtx;
@@ -54,32 +69,71 @@ public class CanonicalImmutableParsedDocumentIndex implements UpdateEventDrivenP
 
     public CanonicalImmutableParsedDocumentIndex(PredicateOrderStrategy predicateOrderStrategy,
             AttributeContext attributeCtx, FunctionContext functionCtx) {
-        this(Collections.emptyMap(), predicateOrderStrategy, true, attributeCtx, functionCtx);
+        this(predicateOrderStrategy, true, attributeCtx, functionCtx);
+    }
+
+    /**
+     * @param predicateOrderStrategy the strategy ordering the predicates
+     * @param equalityPartitioning if false, equality predicates comparing the
+     * same path with different literals are evaluated individually instead of
+     * being resolved by a single hash lookup
+     * @param attributeCtx the attribute context
+     * @param functionCtx the function context
+     */
+    public CanonicalImmutableParsedDocumentIndex(PredicateOrderStrategy predicateOrderStrategy,
+            boolean equalityPartitioning, AttributeContext attributeCtx, FunctionContext functionCtx) {
+        this(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), null, predicateOrderStrategy,
+                equalityPartitioning, true, attributeCtx, functionCtx);
     }
 
     public CanonicalImmutableParsedDocumentIndex(AttributeContext attributeCtx, FunctionContext functionCtx) {
-        this(Collections.emptyMap(), new DefaultPredicateOrderStrategy(), true, attributeCtx, functionCtx);
+        this(new DefaultPredicateOrderStrategy(), attributeCtx, functionCtx);
     }
 
     private CanonicalImmutableParsedDocumentIndex(Map<String, Document> updatedDocuments,
-            PredicateOrderStrategy predicateOrderStrategy, boolean consistent, AttributeContext attributeCtx,
+            Map<String, Document> previousDocuments, Map<String, DisjunctiveFormula> previousTargets,
+            CanonicalIndexDataContainer previousIndexDataContainer, PredicateOrderStrategy predicateOrderStrategy,
+            boolean equalityPartitioning, boolean consistent, AttributeContext attributeCtx,
             FunctionContext functionCtx) {
         this.documents              = updatedDocuments;
         this.predicateOrderStrategy = predicateOrderStrategy;
+        this.equalityPartitioning   = equalityPartitioning;
         this.consistent             = consistent;
         this.attributeCtx           = attributeCtx;
         this.functionCtx            = functionCtx;
+        if (null != previousIndexDataContainer && isSameDocumentSet(updatedDocuments, previousDocuments)) {
+            this.targets            = previousTargets;
+            this.indexDataContainer = previousIndexDataContainer;
+        } else {
+            this.targets            = retainTargets(updatedDocuments, previousDocuments, previousTargets);
+            this.indexDataContainer = createIndexData(previousDocuments, previousTargets, previousIndexDataContainer);
+        }
+    }
 
-        Map<String, DisjunctiveFormula> targets = this.documents.entrySet().stream()
-                .collect(Collectors.toMap(Entry::getKey, entry -> retainTarget(entry.getValue())));
-
-        this.indexDataContainer = new CanonicalIndexDataCreationStrategy(predicateOrderStrategy).constructNew(documents,
-                targets);
+    private CanonicalIndexDataContainer createIndexData(Map<String, Document> previousDocuments,
+            Map<String, DisjunctiveFormula> previousTargets, CanonicalIndexDataContainer previousIndexDataContainer) {
+        final var strategy = new CanonicalIndexDataCreationStrategy(predicateOrderStrategy, equalityPartitioning);
+        if (null == previousIndexDataContainer) {
+            return strategy.constructNew(documents, targets);
+        }
+        final var removedTargets = new HashMap<Document, DisjunctiveFormula>();
+        for (var entry : previousDocuments.entrySet()) {
+            if (documents.get(entry.getKey()) != entry.getValue()) {
+                removedTargets.put(entry.getValue(), previousTargets.get(entry.getKey()));
+            }
+        }
+        final var addedTargets = new HashMap<Document, DisjunctiveFormula>();
+        for (var entry : documents.entrySet()) {
+            if (previousDocuments.get(entry.getKey()) != entry.getValue()) {
+                addedTargets.put(entry.getValue(), targets.get(entry.getKey()));
+            }
+        }
+        return strategy.constructUpdated(previousIndexDataContainer, removedTargets, addedTargets);
     }
 
     CanonicalImmutableParsedDocumentIndex recreateIndex(Map<String, Document> updatedDocuments, boolean consistent) {
-        return new CanonicalImmutableParsedDocumentIndex(updatedDocuments, predicateOrderStrategy, consistent,
-                attributeCtx, functionCtx);
+        return new CanonicalImmutableParsedDocumentIndex(updatedDocuments, documents, targets, indexDataContainer,
+                predicateOrderStrategy, equalityPartitioning, consistent, attributeCtx, functionCtx);
     }
 
     @Override
@@ -124,6 +178,41 @@ void applyUpdate(Map<String, Document> newDocuments, PrpUpdateEvent.Update updat
         }
     }
 
+    private static boolean isSameDocumentSet(Map<String, Document> updatedDocuments,
+            Map<String, Document> previousDocuments) {
+        if (updatedDocuments.size() != previousDocuments.size()) {
+            return false;
+        }
+        for (var entry : updatedDocuments.entrySet()) {
+            if (previousDocuments.get(entry.getKey()) != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * The target formula of a document only depends on the document itself and
+     * the contexts of this index. Thus, formulas of documents unchanged by an
+     * update are taken over from the previous index and only added or replaced
+     * documents have to be transformed into their canonical form again.
+     */
+    private Map<String, DisjunctiveFormula> retainTargets(Map<String, Document> updatedDocuments,
+            Map<String, Document> previousDocuments, Map<String, DisjunctiveFormula> previousTargets) {
+        final var updatedTargets = new HashMap<String, DisjunctiveFormula>(updatedDocuments.size());
+        for (var entry : updatedDocuments.entrySet()) {
+            final var name           = entry.getKey();
+            final var document       = entry.getValue();
+            final var previousTarget = previousTargets.get(name);
+            if (null != previousTarget && previousDocuments.get(name) == document) {
+                updatedTargets.put(name, previousTarget);
+            } else {
+                updatedTargets.put(name, retainTarget(document));
+            }
+        }
+        return updatedTargets;
+    }
+
     private DisjunctiveFormula retainTarget(Document document) {
         final var          targetExpression = document.sapl().getImplicitTargetExpression();
         DisjunctiveFormula targetFormula;
@@ -36,8 +36,17 @@
 @UtilityClass
 public class CanonicalIndexAlgorithm {
 
+    // values are immutable, all matches share a single traced result
+    static final Val MATCHED = Val.TRUE.withTrace(CanonicalIndexAlgorithm.class);
+
     public Mono<PolicyRetrievalResult> match(CanonicalIndexDataContainer dataContainer) {
-        return matchCollectorNewest(dataContainer);
+        return Mono.deferContextual(ctx -> {
+            // target expressions are free of attributes, try to match without
+            // assembling a reactive pipeline first
+            final var result = CanonicalIndexSynchronousMatcher.match(dataContainer, ctx);
+            return null != result ? Mono.just(result) : matchCollectorNewest(dataContainer);
+        }).doOnSuccess(result -> dataContainer.lookupCompleted())
+                .onErrorResume(error -> Mono.just(PolicyRetrievalResult.retrievalErrorResult(error.getMessage())));
     }
 
     public Mono<PolicyRetrievalResult> matchCollectorNewest(CanonicalIndexDataContainer dataContainer) {
@@ -63,7 +72,7 @@ public Mono<PolicyRetrievalResult> matchCollectorNewest(CanonicalIndexDataContai
             final var documents = fetchDocuments(formulas, dataContainer);
             final var results   = new ArrayList<DocumentMatch>();
             for (var document : documents) {
-                results.add(new DocumentMatch(document, Val.TRUE.withTrace(CanonicalIndexAlgorithm.class)));
+                results.add(new DocumentMatch(document, MATCHED));
             }
             return new PolicyRetrievalResult(results, matchingCtx.isErrorsInTargets());
         }).onErrorResume(error -> Mono.just(PolicyRetrievalResult.retrievalErrorResult(error.getMessage())));
@@ -75,10 +84,21 @@ Mono<CanonicalIndexMatchingContext> skipPredicate(CanonicalIndexMatchingContext
 
     Mono<CanonicalIndexMatchingContext> evaluatePredicate(CanonicalIndexDataContainer dataContainer,
             Predicate predicate, CanonicalIndexMatchingContext ctx) {
-        return predicate.evaluate()
+        return evaluateWithStatistics(dataContainer, predicate)
                 .map(evaluationResult -> handleEvaluationResult(dataContainer, predicate, ctx, evaluationResult));
     }
 
+    private Mono<Val> evaluateWithStatistics(CanonicalIndexDataContainer dataContainer, Predicate predicate) {
+        if (!dataContainer.isCollectingPredicateStatistics()) {
+            return predicate.evaluate();
+        }
+        return Mono.defer(() -> {
+            final var start = System.nanoTime();
+            return predicate.evaluate()
+                    .doOnNext(result -> predicate.getStatistics().record(System.nanoTime() - start, result));
+        });
+    }
+
     CanonicalIndexMatchingContext handleEvaluationResult(CanonicalIndexDataContainer dataContainer, Predicate predicate,
             CanonicalIndexMatchingContext ctx, Val evaluationResult) {
         if (evaluationResult.isError()) {
@@ -29,6 +29,7 @@
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 
 @EqualsAndHashCode
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
@@ -39,7 +40,9 @@ public class CanonicalIndexDataContainer {
     private final Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas;
 
     @Getter
-    private final ImmutableList<Predicate> predicateOrder;
+    @NonFinal
+    @EqualsAndHashCode.Exclude
+    private volatile ImmutableList<Predicate> predicateOrder;
 
     private final List<Set<DisjunctiveFormula>> relatedFormulas;
 
@@ -54,6 +57,12 @@ public class CanonicalIndexDataContainer {
     @Getter
     private final int numberOfConjunctions;
 
+    @EqualsAndHashCode.Exclude
+    private final PredicateOrderAdaptation predicateOrderAdaptation;
+
+    @EqualsAndHashCode.Exclude
+    private final List<EqualityPartition> equalityPartitions;
+
     public CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<Document>> formulaToDocuments,
             Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas, Collection<Predicate> predicateOrder,
             List<Set<DisjunctiveFormula>> relatedFormulas, Map<DisjunctiveFormula, Bitmask> relatedCandidates,
@@ -70,6 +79,17 @@ public CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<Document>> formul
             List<Set<DisjunctiveFormula>> relatedFormulas, Map<DisjunctiveFormula, Bitmask> relatedCandidates,
             Map<Integer, Set<CTuple>> conjunctionsInFormulasReferencingConjunction, int[] numberOfLiteralsInConjunction,
             int[] numberOfFormulasWithConjunction, int numberOfConjunctions) {
+        this(formulaToDocuments, clauseToFormulas, predicateOrder, relatedFormulas, relatedCandidates,
+                conjunctionsInFormulasReferencingConjunction, numberOfLiteralsInConjunction,
+                numberOfFormulasWithConjunction, numberOfConjunctions, null, List.of());
+    }
+
+    CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<Document>> formulaToDocuments,
+            Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas, ImmutableList<Predicate> predicateOrder,
+            List<Set<DisjunctiveFormula>> relatedFormulas, Map<DisjunctiveFormula, Bitmask> relatedCandidates,
+            Map<Integer, Set<CTuple>> conjunctionsInFormulasReferencingConjunction, int[] numberOfLiteralsInConjunction,
+            int[] numberOfFormulasWithConjunction, int numberOfConjunctions,
+            PredicateOrderAdaptation predicateOrderAdaptation, List<EqualityPartition> equalityPartitions) {
         this.formulaToDocuments                           = formulaToDocuments;
         this.clauseToFormulas                             = clauseToFormulas;
         this.predicateOrder                               = predicateOrder;
@@ -79,6 +99,38 @@ public CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<Document>> formul
         this.numberOfLiteralsInConjunction                = numberOfLiteralsInConjunction.clone();
         this.numberOfFormulasWithConjunction              = numberOfFormulasWithConjunction.clone();
         this.numberOfConjunctions                         = numberOfConjunctions;
+        this.predicateOrderAdaptation                     = predicateOrderAdaptation;
+        this.equalityPartitions                           = equalityPartitions;
+    }
+
+    /**
+     * @return true, if the lookups have to record the statistics of the
+     * evaluated predicates for an adaptive predicate order
+     */
+    boolean isCollectingPredicateStatistics() {
+        return null != predicateOrderAdaptation;
+    }
+
+    void lookupCompleted() {
+        if (null != predicateOrderAdaptation) {
+            predicateOrderAdaptation.lookupCompleted(this);
+        }
+    }
+
+    List<EqualityPartition> getEqualityPartitions() {
+        return equalityPartitions;
+    }
+
+    Map<DisjunctiveFormula, Set<Document>> getFormulaToDocuments() {
+        return formulaToDocuments;
+    }
+
+    Map<ConjunctiveClause, Set<DisjunctiveFormula>> getClauseToFormulas() {
+        return clauseToFormulas;
+    }
+
+    void setPredicateOrder(Collection<Predicate> predicateOrder) {
+        this.predicateOrder = ImmutableList.copyOf(predicateOrder);
     }
 
     public int getNumberOfLiteralsInConjunction(int conjunctionIndex) {
@@ -30,8 +30,10 @@
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
+import com.google.common.collect.ImmutableList;
 
 import io.sapl.prp.Document;
+import io.sapl.prp.index.canonical.ordering.AdaptivePredicateOrderStrategy;
 import io.sapl.prp.index.canonical.ordering.DefaultPredicateOrderStrategy;
 import io.sapl.prp.index.canonical.ordering.PredicateOrderStrategy;
 import lombok.RequiredArgsConstructor;
@@ -41,10 +43,20 @@ public class CanonicalIndexDataCreationStrategy {
 
     private final PredicateOrderStrategy predicateOrderStrategy;
 
+    /**
+     * If false, no equality partitions are created and all equality predicates
+     * are evaluated individually.
+     */
+    private final boolean equalityPartitioning;
+
     public CanonicalIndexDataCreationStrategy() {
         this(new DefaultPredicateOrderStrategy());
     }
 
+    public CanonicalIndexDataCreationStrategy(PredicateOrderStrategy predicateOrderStrategy) {
+        this(predicateOrderStrategy, true);
+    }
+
     public CanonicalIndexDataContainer constructNew(final Map<String, Document> documents,
             final Map<String, DisjunctiveFormula> targets) {
         Map<String, Document> documentMap = new HashMap<>(documents);
@@ -58,6 +70,84 @@ public CanonicalIndexDataContainer constructNew(final Map<String, Document> docu
         return constructContainerWithOrder(formulaToDocuments, clauseToFormulas);
     }
 
+    /**
+     * Creates the index data after an update of the document set. The mappings
+     * of formulas to documents and of clauses to formulas are taken over from the
+     * previous index data and only changed for the removed and added documents.
+     * The sets of the previous index data are never modified, changed entries
+     * are replaced by copies.
+     *
+     * @param previous the index data before the update
+     * @param removedTargets the target formulas of the removed documents
+     * @param addedTargets the target formulas of the added documents
+     * @return the index data after the update
+     */
+    public CanonicalIndexDataContainer constructUpdated(final CanonicalIndexDataContainer previous,
+            final Map<Document, DisjunctiveFormula> removedTargets,
+            final Map<Document, DisjunctiveFormula> addedTargets) {
+        Map<DisjunctiveFormula, Set<Document>>          formulaToDocuments = new HashMap<>(
+                previous.getFormulaToDocuments());
+        Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas   = new HashMap<>(
+                previous.getClauseToFormulas());
+
+        removedTargets.forEach((document, formula) -> removeDocumentFromMappings(document, formula,
+                formulaToDocuments, clauseToFormulas));
+        addedTargets.forEach((document, formula) -> addDocumentToMappings(document, formula, formulaToDocuments,
+                clauseToFormulas));
+
+        return constructContainerWithOrder(formulaToDocuments, clauseToFormulas);
+    }
+
+    private static void removeDocumentFromMappings(final Document document, final DisjunctiveFormula formula,
+            Map<DisjunctiveFormula, Set<Document>> formulaToDocuments,
+            Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas) {
+        final var documents = formulaToDocuments.get(formula);
+        if (null == documents) {
+            return;
+        }
+        final var remainingDocuments = new HashSet<>(documents);
+        remainingDocuments.remove(document);
+        if (!remainingDocuments.isEmpty()) {
+            formulaToDocuments.put(formula, remainingDocuments);
+            return;
+        }
+        formulaToDocuments.remove(formula);
+        for (ConjunctiveClause clause : formula.getClauses()) {
+            final var formulas = clauseToFormulas.get(clause);
+            if (null == formulas || !formulas.contains(formula)) {
+                continue;
+            }
+            final var remainingFormulas = new HashSet<>(formulas);
+            remainingFormulas.remove(formula);
+            if (remainingFormulas.isEmpty()) {
+                clauseToFormulas.remove(clause);
+            } else {
+                clauseToFormulas.put(clause, remainingFormulas);
+            }
+        }
+    }
+
+    private static void addDocumentToMappings(final Document document, final DisjunctiveFormula formula,
+            Map<DisjunctiveFormula, Set<Document>> formulaToDocuments,
+            Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas) {
+        final var documents = formulaToDocuments.get(formula);
+        if (null != documents) {
+            final var extendedDocuments = new HashSet<>(documents);
+            extendedDocuments.add(document);
+            formulaToDocuments.put(formula, extendedDocuments);
+            return;
+        }
+        final Set<Document> newDocuments = new HashSet<>();
+        newDocuments.add(document);
+        formulaToDocuments.put(formula, newDocuments);
+        for (ConjunctiveClause clause : formula.getClauses()) {
+            final var formulas         = clauseToFormulas.get(clause);
+            final var extendedFormulas = null == formulas ? new HashSet<DisjunctiveFormula>() : new HashSet<>(formulas);
+            extendedFormulas.add(formula);
+            clauseToFormulas.put(clause, extendedFormulas);
+        }
+    }
+
     private CanonicalIndexDataContainer constructContainerWithOrder(
             Map<DisjunctiveFormula, Set<Document>> formulaToDocuments,
             Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas) {
@@ -84,9 +174,19 @@ private CanonicalIndexDataContainer constructContainerWithOrder(
 
         List<Set<DisjunctiveFormula>> relatedFormulas = flattenIndexMap(indexToTargets);
 
-        return new CanonicalIndexDataContainer(formulaToDocuments, clauseToFormulas, predicateOrder, relatedFormulas,
-                relatedCandidates, conjunctionsInFormulasReferencingConjunction, numberOfLiteralsInConjunction,
-                numberOfFormulasWithConjunction);
+        return new CanonicalIndexDataContainer(formulaToDocuments, clauseToFormulas,
+                ImmutableList.copyOf(predicateOrder), relatedFormulas, relatedCandidates,
+                conjunctionsInFormulasReferencingConjunction, numberOfLiteralsInConjunction,
+                numberOfFormulasWithConjunction, numberOfLiteralsInConjunction.length,
+                createPredicateOrderAdaptation(predicateInfos),
+                equalityPartitioning ? EqualityPartition.createPartitions(predicateOrder) : List.of());
+    }
+
+    private PredicateOrderAdaptation createPredicateOrderAdaptation(Collection<PredicateInfo> predicateInfos) {
+        if (predicateOrderStrategy instanceof AdaptivePredicateOrderStrategy adaptiveStrategy) {
+            return new PredicateOrderAdaptation(adaptiveStrategy, List.copyOf(predicateInfos));
+        }
+        return null;
     }
 
     private void addNewFormulasToClauseMapping(final Collection<DisjunctiveFormula> formulas,
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.prp.Document;
+import io.sapl.prp.DocumentMatch;
+import io.sapl.prp.PolicyRetrievalResult;
+import lombok.experimental.UtilityClass;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Non-reactive implementation of the canonical index lookup.
+ * <p>
+ * Target expressions cannot contain attribute finders and thus usually
+ * evaluate synchronously. This matcher evaluates the predicates eagerly on the
+ * calling thread and operates on primitive bitsets held in a reusable
+ * per-thread context. If a predicate does not emit a value during
+ * subscription, the lookup is abandoned and the caller has to fall back to
+ * {@link CanonicalIndexAlgorithm#matchCollectorNewest}.
+ */
+@UtilityClass
+class CanonicalIndexSynchronousMatcher {
+
+    private static final ThreadLocal<CanonicalIndexSynchronousMatchingContext> CONTEXTS = ThreadLocal
+            .withInitial(CanonicalIndexSynchronousMatchingContext::new);
+
+    /**
+     * @param dataContainer the index data
+     * @param contextView the context of the authorization subscription
+     * @return the retrieval result or null if a predicate did not evaluate
+     * synchronously
+     */
+    PolicyRetrievalResult match(CanonicalIndexDataContainer dataContainer, ContextView contextView) {
+        var ctx = CONTEXTS.get();
+        if (ctx.inUse) {
+            // re-entrant lookup on the same thread, do not clobber the outer state
+            ctx = new CanonicalIndexSynchronousMatchingContext();
+        }
+        ctx.inUse = true;
+        try {
+            final var equalityPartitions = dataContainer.getEqualityPartitions();
+            ctx.reset(dataContainer.getNumberOfConjunctions(), equalityPartitions.size(), Context.of(contextView));
+            for (var partition : equalityPartitions) {
+                resolveEqualityPartition(partition, ctx, contextView);
+            }
+            for (var predicate : dataContainer.getPredicateOrder()) {
+                if (!evaluatePredicate(dataContainer, predicate, ctx)) {
+                    return null;
+                }
+            }
+            return retrievalResult(dataContainer, ctx);
+        } finally {
+            ctx.release();
+        }
+    }
+
+    private static boolean evaluatePredicate(CanonicalIndexDataContainer dataContainer, Predicate predicate,
+            CanonicalIndexSynchronousMatchingContext ctx) {
+        final var words      = predicate.words();
+        final var candidates = ctx.candidates;
+        if (!intersects(words.conjunctions(), candidates, ctx.numberOfWords)) {
+            return true;
+        }
+
+        final var collectStatistics = dataContainer.isCollectingPredicateStatistics();
+        final var start             = collectStatistics ? System.nanoTime() : 0L;
+        final var evaluationResult  = evaluate(predicate, ctx);
+        if (null == evaluationResult) {
+            return false;
+        }
+        if (collectStatistics) {
+            predicate.getStatistics().record(System.nanoTime() - start, evaluationResult);
+        }
+        if (evaluationResult.isError()) {
+            ctx.errorsInTargets = true;
+            andNot(candidates, words.conjunctions(), ctx.numberOfWords);
+            return true;
+        }
+
+        final boolean result = evaluationResult.getBoolean();
+        andInto(ctx.selected, candidates, result ? words.falseForFalse() : words.falseForTrue(),
+                ctx.numberOfWords);
+        findSatisfiedCandidates(dataContainer, ctx);
+        or(ctx.matching, ctx.satisfied, ctx.numberOfWords);
+        findOrphanedCandidates(dataContainer, ctx);
+        andInto(ctx.selected, candidates, result ? words.falseForTrue() : words.falseForFalse(),
+                ctx.numberOfWords);
+
+        andNot(candidates, ctx.selected, ctx.numberOfWords);
+        andNot(candidates, ctx.satisfied, ctx.numberOfWords);
+        andNot(candidates, ctx.orphaned, ctx.numberOfWords);
+        return true;
+    }
+
+    /*
+     * Evaluates the path of the partition once and removes all conjunctions
+     * which are falsified by the true predicate of the partition, or by the
+     * absence of one. If the path evaluates to an error, the predicates of the
+     * partition are left to the generic evaluation, which reports the error.
+     */
+    private static void resolveEqualityPartition(EqualityPartition partition,
+            CanonicalIndexSynchronousMatchingContext ctx, ContextView contextView) {
+        final var value = partition.evaluatePath(contextView);
+        if (value.isError()) {
+            return;
+        }
+        final var truePredicate = partition.lookup(value);
+        ctx.resolvedPartitions[partition.id()]       = true;
+        ctx.truePredicateOfPartition[partition.id()] = truePredicate;
+        for (int w = 0; w < ctx.numberOfWords; w++) {
+            ctx.candidates[w] &= ~partition.unsatisfiableConjunctions(w, truePredicate);
+        }
+    }
+
+    private static Val evaluate(Predicate predicate, CanonicalIndexSynchronousMatchingContext ctx) {
+        final var partition = predicate.getEqualityPartition();
+        if (null != partition && ctx.resolvedPartitions[partition.id()]) {
+            return ctx.truePredicateOfPartition[partition.id()] == predicate ? Val.TRUE : Val.FALSE;
+        }
+        return ctx.evaluateSynchronously(predicate);
+    }
+
+    /*
+     * Expects the candidates whose literal of the predicate evaluated to true in
+     * ctx.selected and collects the conjunctions with all literals being true.
+     */
+    private static void findSatisfiedCandidates(CanonicalIndexDataContainer dataContainer,
+            CanonicalIndexSynchronousMatchingContext ctx) {
+        final var trueLiterals = ctx.trueLiteralsOfConjunction;
+        for (int w = 0; w < ctx.numberOfWords; w++) {
+            long satisfiedWord = 0L;
+            long word          = ctx.selected[w];
+            while (word != 0L) {
+                final var bit   = Long.numberOfTrailingZeros(word);
+                final var index = w * Long.SIZE + bit;
+                trueLiterals[index] += 1;
+                if (trueLiterals[index] == dataContainer.getNumberOfLiteralsInConjunction(index)) {
+                    satisfiedWord |= 1L << bit;
+                }
+                word &= word - 1L;
+            }
+            ctx.satisfied[w] = satisfiedWord;
+        }
+    }
+
+    private static void findOrphanedCandidates(CanonicalIndexDataContainer dataContainer,
+            CanonicalIndexSynchronousMatchingContext ctx) {
+        final var orphaned   = ctx.orphaned;
+        final var candidates = ctx.candidates;
+        final var eliminated = ctx.eliminatedFormulasWithConjunction;
+        for (int w = 0; w < ctx.numberOfWords; w++) {
+            orphaned[w] = 0L;
+        }
+        for (int w = 0; w < ctx.numberOfWords; w++) {
+            long word = ctx.satisfied[w];
+            while (word != 0L) {
+                final var index = w * Long.SIZE + Long.numberOfTrailingZeros(word);
+                for (var cTuple : dataContainer.getConjunctionsInFormulasReferencingConjunction(index)) {
+                    final var cI = cTuple.getCI();
+                    if (isSet(candidates, cI)) {
+                        eliminated[cI] += cTuple.getN();
+                        if (eliminated[cI] == dataContainer.getNumberOfFormulasWithConjunction(cI)) {
+                            orphaned[cI / Long.SIZE] |= 1L << cI;
+                        }
+                    }
+                }
+                word &= word - 1L;
+            }
+        }
+    }
+
+    private static PolicyRetrievalResult retrievalResult(CanonicalIndexDataContainer dataContainer,
+            CanonicalIndexSynchronousMatchingContext ctx) {
+        final Set<DisjunctiveFormula> formulas = new HashSet<>();
+        for (int w = 0; w < ctx.numberOfWords; w++) {
+            long word = ctx.matching[w];
+            while (word != 0L) {
+                formulas.addAll(dataContainer.getRelatedFormulas(w * Long.SIZE + Long.numberOfTrailingZeros(word)));
+                word &= word - 1L;
+            }
+        }
+        final Set<Document> documents = new HashSet<>();
+        final var           results   = new ArrayList<DocumentMatch>();
+        for (var formula : formulas) {
+            for (var document : dataContainer.getPoliciesIncludingFormula(formula)) {
+                if (documents.add(document)) {
+                    results.add(new DocumentMatch(document, CanonicalIndexAlgorithm.MATCHED));
+                }
+            }
+        }
+        return new PolicyRetrievalResult(results, ctx.errorsInTargets);
+    }
+
+    private static boolean isSet(long[] words, int index) {
+        final var w = index / Long.SIZE;
+        return w < words.length && (words[w] & (1L << index)) != 0L;
+    }
+
+    private static boolean intersects(long[] mask, long[] candidates, int numberOfWords) {
+        final var length = Math.min(mask.length, numberOfWords);
+        for (int w = 0; w < length; w++) {
+            if ((mask[w] & candidates[w]) != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void andInto(long[] target, long[] candidates, long[] mask, int numberOfWords) {
+        final var length = Math.min(mask.length, numberOfWords);
+        for (int w = 0; w < length; w++) {
+            target[w] = candidates[w] & mask[w];
+        }
+        for (int w = length; w < numberOfWords; w++) {
+            target[w] = 0L;
+        }
+    }
+
+    private static void or(long[] target, long[] mask, int numberOfWords) {
+        for (int w = 0; w < numberOfWords; w++) {
+            target[w] |= mask[w];
+        }
+    }
+
+    private static void andNot(long[] target, long[] mask, int numberOfWords) {
+        final var length = Math.min(mask.length, numberOfWords);
+        for (int w = 0; w < length; w++) {
+            target[w] &= ~mask[w];
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import java.util.Arrays;
+
+import org.reactivestreams.Subscription;
+
+import io.sapl.api.interpreter.Val;
+import reactor.core.CoreSubscriber;
+import reactor.util.context.Context;
+
+/**
+ * Reusable state of a synchronous canonical index lookup. All bitsets are kept
+ * as primitive word arrays which grow with the largest index seen by the owning
+ * thread and are reset at the beginning of each lookup.
+ */
+class CanonicalIndexSynchronousMatchingContext implements CoreSubscriber<Val> {
+
+    long[] candidates    = new long[0];
+    long[] matching      = new long[0];
+    long[] satisfied     = new long[0];
+    long[] selected      = new long[0];
+    long[] orphaned      = new long[0];
+
+    int[] trueLiteralsOfConjunction         = new int[0];
+    int[] eliminatedFormulasWithConjunction = new int[0];
+
+    Predicate[] truePredicateOfPartition = new Predicate[0];
+    boolean[]   resolvedPartitions       = new boolean[0];
+
+    int     numberOfWords;
+    boolean errorsInTargets;
+    boolean inUse;
+
+    private Context      context = Context.empty();
+    private Subscription subscription;
+    private Val          value;
+
+    void reset(int numberOfConjunctions, int numberOfPartitions, Context context) {
+        this.context         = context;
+        this.errorsInTargets = false;
+        this.numberOfWords   = (numberOfConjunctions + Long.SIZE - 1) / Long.SIZE;
+        if (candidates.length < numberOfWords) {
+            candidates    = new long[numberOfWords];
+            matching      = new long[numberOfWords];
+            satisfied     = new long[numberOfWords];
+            selected      = new long[numberOfWords];
+            orphaned      = new long[numberOfWords];
+        }
+        if (trueLiteralsOfConjunction.length < numberOfConjunctions) {
+            trueLiteralsOfConjunction         = new int[numberOfConjunctions];
+            eliminatedFormulasWithConjunction = new int[numberOfConjunctions];
+        }
+        if (resolvedPartitions.length < numberOfPartitions) {
+            truePredicateOfPartition = new Predicate[numberOfPartitions];
+            resolvedPartitions       = new boolean[numberOfPartitions];
+        }
+        Arrays.fill(truePredicateOfPartition, 0, numberOfPartitions, null);
+        Arrays.fill(resolvedPartitions, 0, numberOfPartitions, false);
+        Arrays.fill(candidates, 0, numberOfWords, -1L);
+        if (numberOfConjunctions % Long.SIZE != 0) {
+            candidates[numberOfWords - 1] = -1L >>> (Long.SIZE - numberOfConjunctions % Long.SIZE);
+        }
+        Arrays.fill(matching, 0, numberOfWords, 0L);
+        Arrays.fill(trueLiteralsOfConjunction, 0, numberOfConjunctions, 0);
+        Arrays.fill(eliminatedFormulasWithConjunction, 0, numberOfConjunctions, 0);
+    }
+
+    void release() {
+        Arrays.fill(truePredicateOfPartition, null);
+        context = Context.empty();
+        inUse   = false;
+    }
+
+    /**
+     * Subscribes to the evaluation of a predicate and returns its result if it
+     * is emitted during subscription.
+     *
+     * @param predicate a predicate of the index
+     * @return the result of the predicate or null if the evaluation did not
+     * produce a value synchronously
+     */
+    Val evaluateSynchronously(Predicate predicate) {
+        value        = null;
+        subscription = null;
+        predicate.evaluate().subscribe(this);
+        final var result = value;
+        if (null == result && null != subscription) {
+            subscription.cancel();
+        }
+        value        = null;
+        subscription = null;
+        return result;
+    }
+
+    @Override
+    public Context currentContext() {
+        return context;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1L);
+    }
+
+    @Override
+    public void onNext(Val value) {
+        this.value = value;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        // errors are left to the reactive matching
+    }
+
+    @Override
+    public void onComplete() {
+        // nothing to do
+    }
+
+}
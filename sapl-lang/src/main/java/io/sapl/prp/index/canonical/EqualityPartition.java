@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.BasicIdentifier;
+import io.sapl.grammar.sapl.BasicValue;
+import io.sapl.grammar.sapl.Equals;
+import io.sapl.grammar.sapl.EscapedKeyStep;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.FalseLiteral;
+import io.sapl.grammar.sapl.KeyStep;
+import io.sapl.grammar.sapl.NullLiteral;
+import io.sapl.grammar.sapl.NumberLiteral;
+import io.sapl.grammar.sapl.StringLiteral;
+import io.sapl.grammar.sapl.TrueLiteral;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler.CompiledExpression;
+import reactor.util.context.ContextView;
+
+/**
+ * Groups all predicates of the form {@code path == literal} comparing the same
+ * path, e.g., {@code resource.type == "invoice"}, with different literals.
+ * <p>
+ * At most one predicate of a partition can be true for a subscription. Thus,
+ * the path is evaluated once per lookup and the true predicate is found by a
+ * single hash lookup of the value. All other predicates of the partition are
+ * false, and the conjunctions containing one of them as a positive literal, or
+ * the true predicate as a negated literal, are removed from the candidates
+ * before the generic predicate evaluation starts.
+ */
+class EqualityPartition {
+
+    static final int MINIMUM_NUMBER_OF_PREDICATES = 2;
+
+    private final int                    id;
+    private final CompiledExpression     path;
+    private final Map<Object, Predicate> predicatesByLiteral;
+    private final long[]                 positiveConjunctions;
+    private final long[]                 conjunctionsWithSeveralPositives;
+
+    private EqualityPartition(int id, CompiledExpression path, Map<Object, Predicate> predicatesByLiteral) {
+        this.id                  = id;
+        this.path                = path;
+        this.predicatesByLiteral = predicatesByLiteral;
+
+        final var positives        = new Bitmask();
+        final var severalPositives = new Bitmask();
+        for (var predicate : predicatesByLiteral.values()) {
+            final var overlap = new Bitmask(positives);
+            overlap.and(predicate.getFalseForFalsePredicate());
+            severalPositives.or(overlap);
+            positives.or(predicate.getFalseForFalsePredicate());
+        }
+        this.positiveConjunctions             = positives.toLongArray();
+        this.conjunctionsWithSeveralPositives = severalPositives.toLongArray();
+    }
+
+    int id() {
+        return id;
+    }
+
+    /**
+     * @param ctx the context of the authorization subscription
+     * @return the value of the compared path
+     */
+    Val evaluatePath(ContextView ctx) {
+        return path.evaluate(ctx);
+    }
+
+    /**
+     * @param value the value of the path
+     * @return the predicate comparing the path with the value or null, if no
+     * predicate of the partition is true
+     */
+    Predicate lookup(Val value) {
+        final var key = literalKey(value);
+        return null == key ? null : predicatesByLiteral.get(key);
+    }
+
+    /**
+     * Computes one word of the conjunctions which cannot be satisfied anymore.
+     *
+     * @param w the index of the word
+     * @param truePredicate the true predicate of the partition or null
+     * @return the unsatisfiable conjunctions of the word
+     */
+    long unsatisfiableConjunctions(int w, Predicate truePredicate) {
+        final var positives = word(positiveConjunctions, w);
+        if (null == truePredicate) {
+            return positives;
+        }
+        final var words = truePredicate.words();
+        // conjunctions with the true predicate as their only positive literal of
+        // this partition remain
+        final var remaining = word(words.falseForFalse(), w) & ~word(conjunctionsWithSeveralPositives, w);
+        return (positives & ~remaining) | word(words.falseForTrue(), w);
+    }
+
+    private static long word(long[] words, int w) {
+        return w < words.length ? words[w] : 0L;
+    }
+
+    /*
+     * Equal values must have equal keys according to the semantics of the
+     * equality operator. Numbers are compared by their decimal value.
+     */
+    private static Object literalKey(Val value) {
+        if (value.isError() || value.isUndefined()) {
+            return null;
+        }
+        if (value.isNumber()) {
+            return value.decimalValue().stripTrailingZeros();
+        }
+        return value.get();
+    }
+
+    /**
+     * Creates the partitions of all equality predicates of an index and assigns
+     * the predicates to their partition. Requires the bitmasks of the predicates
+     * to be complete.
+     *
+     * @param predicates the predicates of an index
+     * @return the partitions with at least
+     * {@value #MINIMUM_NUMBER_OF_PREDICATES} predicates
+     */
+    static List<EqualityPartition> createPartitions(Iterable<Predicate> predicates) {
+        final Map<PathKey, Expression>             paths                = new HashMap<>();
+        final Map<PathKey, Map<Object, Predicate>> predicatesByPathKeys = new LinkedHashMap<>();
+        for (var predicate : predicates) {
+            final var expression = predicate.getBool().getExpression();
+            if (expression instanceof Equals equals) {
+                addEquality(predicate, equals.getLeft(), equals.getRight(), paths, predicatesByPathKeys);
+            }
+        }
+
+        final var partitions = new ArrayList<EqualityPartition>();
+        for (var entry : predicatesByPathKeys.entrySet()) {
+            final var predicatesByLiteral = entry.getValue();
+            if (predicatesByLiteral.size() < MINIMUM_NUMBER_OF_PREDICATES) {
+                continue;
+            }
+            final var partition = new EqualityPartition(partitions.size(),
+                    ExpressionCompiler.compile(paths.get(entry.getKey())), predicatesByLiteral);
+            predicatesByLiteral.values().forEach(predicate -> predicate.setEqualityPartition(partition));
+            partitions.add(partition);
+        }
+        return partitions;
+    }
+
+    private static void addEquality(Predicate predicate, Expression left, Expression right,
+            Map<PathKey, Expression> paths, Map<PathKey, Map<Object, Predicate>> predicatesByPathKeys) {
+        var pathKey = pathKey(left);
+        var literal = literal(right);
+        var path    = left;
+        if (null == pathKey || null == literal) {
+            pathKey = pathKey(right);
+            literal = literal(left);
+            path    = right;
+        }
+        if (null == pathKey || null == literal) {
+            return;
+        }
+        final var literalKey = literalKey(literal);
+        if (null == literalKey) {
+            return;
+        }
+        paths.putIfAbsent(pathKey, path);
+        // semantically identical predicates with different syntax, e.g., with
+        // swapped operands, are evaluated individually
+        predicatesByPathKeys.computeIfAbsent(pathKey, k -> new LinkedHashMap<>()).putIfAbsent(literalKey,
+                predicate);
+    }
+
+    private static PathKey pathKey(Expression expression) {
+        if (!(expression instanceof BasicIdentifier identifier) || null != identifier.getFilter()
+                || null != identifier.getSubtemplate()) {
+            return null;
+        }
+        final var keys = new ArrayList<String>(identifier.getSteps().size());
+        for (var step : identifier.getSteps()) {
+            if (step instanceof KeyStep keyStep) {
+                keys.add(keyStep.getId());
+            } else if (step instanceof EscapedKeyStep keyStep) {
+                keys.add(keyStep.getId());
+            } else {
+                return null;
+            }
+        }
+        return new PathKey(identifier.getIdentifier(), keys);
+    }
+
+    private static Val literal(Expression expression) {
+        if (!(expression instanceof BasicValue basicValue) || null != basicValue.getFilter()
+                || null != basicValue.getSubtemplate() || !basicValue.getSteps().isEmpty()) {
+            return null;
+        }
+        final var value = basicValue.getValue();
+        if (value instanceof StringLiteral stringLiteral) {
+            return Val.of(stringLiteral.getString());
+        }
+        if (value instanceof NumberLiteral numberLiteral) {
+            return Val.of(numberLiteral.getNumber());
+        }
+        if (value instanceof TrueLiteral) {
+            return Val.TRUE;
+        }
+        if (value instanceof FalseLiteral) {
+            return Val.FALSE;
+        }
+        if (value instanceof NullLiteral) {
+            return Val.NULL;
+        }
+        return null;
+    }
+
+    private record PathKey(String identifier, List<String> keys) {}
+
+}
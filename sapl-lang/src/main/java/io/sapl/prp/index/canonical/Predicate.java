@@ -20,7 +20,9 @@
 import com.google.common.base.Preconditions;
 
 import io.sapl.api.interpreter.Val;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import reactor.core.publisher.Mono;
 
 @Getter
@@ -34,6 +36,15 @@ public class Predicate {
 
     private final Bitmask falseForFalsePredicate = new Bitmask();
 
+    private final PredicateStatistics statistics = new PredicateStatistics();
+
+    @Getter(AccessLevel.NONE)
+    private Words words;
+
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private EqualityPartition equalityPartition;
+
     public Predicate(final Bool bool) {
         this.bool = Preconditions.checkNotNull(bool);
     }
@@ -42,4 +53,22 @@ public Mono<Val> evaluate() {
         return getBool().evaluateExpression();
     }
 
+    /*
+     * Primitive copies of the bitmasks used by the synchronous matching. They are
+     * created on first use, i.e., after the index data has been created, and the
+     * bitmasks must not be modified afterwards. As the record only has final
+     * fields, publishing it without synchronization is safe.
+     */
+    Words words() {
+        var current = words;
+        if (null == current) {
+            current = new Words(conjunctions.toLongArray(), falseForTruePredicate.toLongArray(),
+                    falseForFalsePredicate.toLongArray());
+            words   = current;
+        }
+        return current;
+    }
+
+    record Words(long[] conjunctions, long[] falseForTrue, long[] falseForFalse) {}
+
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.sapl.prp.index.canonical.ordering.AdaptivePredicateOrderStrategy;
+
+/**
+ * Periodically re-orders the predicates of an index using the statistics
+ * collected during its lookups. Re-ordering is triggered by a lookup, but
+ * executed on the scheduler of the strategy. At most one re-ordering of an
+ * index is in progress at a time, and lookups in progress keep using the order
+ * they started with.
+ */
+class PredicateOrderAdaptation {
+
+    private final AdaptivePredicateOrderStrategy strategy;
+    private final List<PredicateInfo>            predicateInfos;
+    private final long                           reorderIntervalNanos;
+    private final AtomicBoolean                  reordering = new AtomicBoolean();
+
+    private volatile long lastReorder;
+
+    PredicateOrderAdaptation(AdaptivePredicateOrderStrategy strategy, List<PredicateInfo> predicateInfos) {
+        this.strategy             = strategy;
+        this.predicateInfos       = predicateInfos;
+        this.reorderIntervalNanos = strategy.getReorderInterval().toNanos();
+        this.lastReorder          = System.nanoTime();
+    }
+
+    void lookupCompleted(CanonicalIndexDataContainer dataContainer) {
+        if (System.nanoTime() - lastReorder < reorderIntervalNanos || !reordering.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            strategy.getScheduler().schedule(() -> {
+                try {
+                    dataContainer.setPredicateOrder(strategy.createPredicateOrder(predicateInfos));
+                } finally {
+                    lastReorder = System.nanoTime();
+                    reordering.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reordering.set(false);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import io.sapl.api.interpreter.Val;
+
+/**
+ * Runtime statistics of a predicate collected during the index lookup. Used by
+ * adaptive predicate order strategies to estimate the costs and the
+ * selectivity of a predicate.
+ */
+public class PredicateStatistics {
+
+    private final LongAdder numberOfEvaluations = new LongAdder();
+    private final LongAdder numberOfTrueResults = new LongAdder();
+    private final LongAdder numberOfErrors      = new LongAdder();
+    private final LongAdder evaluationTime      = new LongAdder();
+
+    /**
+     * Records one evaluation of the predicate.
+     *
+     * @param nanos the evaluation time in nanoseconds
+     * @param result the evaluation result
+     */
+    public void record(long nanos, Val result) {
+        numberOfEvaluations.increment();
+        evaluationTime.add(nanos);
+        if (result.isError()) {
+            numberOfErrors.increment();
+        } else if (result.getBoolean()) {
+            numberOfTrueResults.increment();
+        }
+    }
+
+    /**
+     * @return the number of recorded evaluations
+     */
+    public long getNumberOfEvaluations() {
+        return numberOfEvaluations.sum();
+    }
+
+    /**
+     * @return the number of evaluations yielding true
+     */
+    public long getNumberOfTrueResults() {
+        return numberOfTrueResults.sum();
+    }
+
+    /**
+     * @return the number of evaluations yielding an error
+     */
+    public long getNumberOfErrors() {
+        return numberOfErrors.sum();
+    }
+
+    /**
+     * @return the average evaluation time in nanoseconds, 0 if the predicate has
+     * not been evaluated yet
+     */
+    public double getAverageEvaluationTime() {
+        final var evaluations = getNumberOfEvaluations();
+        return evaluations == 0L ? 0.0D : (double) evaluationTime.sum() / evaluations;
+    }
+
+}
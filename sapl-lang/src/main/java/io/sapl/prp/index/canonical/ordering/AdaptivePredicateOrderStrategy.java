@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical.ordering;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import io.sapl.prp.index.canonical.Predicate;
+import io.sapl.prp.index.canonical.PredicateInfo;
+import lombok.Getter;
+import lombok.NonNull;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Orders predicates by the score of the {@link DefaultPredicateOrderStrategy},
+ * but replaces its structural assumptions with statistics collected during the
+ * index lookup.
+ * <p>
+ * Once a predicate has been evaluated at least minimumSamples times, its costs
+ * are its average evaluation time relative to the average of all sampled
+ * predicates, and its selectivity is the observed share of lookups in which
+ * the predicate eliminated the candidates it is referenced by. Predicates
+ * which are expensive or rarely eliminate candidates are moved to the end.
+ * <p>
+ * The index re-orders its predicates using this strategy at most once per
+ * reorderInterval. The new order is computed on the given scheduler and
+ * replaces the previous one atomically.
+ */
+@Getter
+public class AdaptivePredicateOrderStrategy implements PredicateOrderStrategy {
+
+    public static final Duration DEFAULT_REORDER_INTERVAL = Duration.ofSeconds(10L);
+    public static final long     DEFAULT_MINIMUM_SAMPLES  = 100L;
+
+    private static final double MINIMUM_RELATIVE_COSTS = 0.01D;
+
+    private final Duration  reorderInterval;
+    private final long      minimumSamples;
+    private final Scheduler scheduler;
+
+    /**
+     * Creates a strategy using the default interval and number of samples,
+     * re-ordering on a single background thread.
+     */
+    public AdaptivePredicateOrderStrategy() {
+        this(DEFAULT_REORDER_INTERVAL, DEFAULT_MINIMUM_SAMPLES, Schedulers.single());
+    }
+
+    /**
+     * Creates a strategy.
+     *
+     * @param reorderInterval minimal time between two re-orderings of an index
+     * @param minimumSamples number of evaluations of a predicate before its
+     * statistics are taken into account
+     * @param scheduler the scheduler to compute new orders on
+     */
+    public AdaptivePredicateOrderStrategy(@NonNull Duration reorderInterval, long minimumSamples,
+            @NonNull Scheduler scheduler) {
+        if (reorderInterval.isNegative()) {
+            throw new IllegalArgumentException("The reorder interval must not be negative.");
+        }
+        if (minimumSamples < 1L) {
+            throw new IllegalArgumentException("The minimum number of samples must be at least 1.");
+        }
+        this.reorderInterval = reorderInterval;
+        this.minimumSamples  = minimumSamples;
+        this.scheduler       = scheduler;
+    }
+
+    @Override
+    public List<Predicate> createPredicateOrder(Collection<PredicateInfo> data) {
+        final List<PredicateInfo> predicateInfos = new ArrayList<>(data);
+        final var                 averageCosts   = averageEvaluationTime(predicateInfos);
+        predicateInfos.forEach(predicateInfo -> predicateInfo.setScore(createScore(predicateInfo, averageCosts)));
+
+        return predicateInfos.stream().sorted(Collections.reverseOrder()).map(PredicateInfo::getPredicate).toList();
+    }
+
+    private double averageEvaluationTime(List<PredicateInfo> predicateInfos) {
+        var sum                = 0.0D;
+        var numberOfPredicates = 0;
+        for (var predicateInfo : predicateInfos) {
+            final var statistics = predicateInfo.getPredicate().getStatistics();
+            if (statistics.getNumberOfEvaluations() >= minimumSamples) {
+                sum += statistics.getAverageEvaluationTime();
+                numberOfPredicates++;
+            }
+        }
+        return numberOfPredicates == 0 ? 0.0D : sum / numberOfPredicates;
+    }
+
+    private double createScore(final PredicateInfo predicateInfo, double averageCosts) {
+        final var square           = 2.0D;
+        final var groupedPositives = (double) predicateInfo.getGroupedNumberOfPositives();
+        final var groupedNegatives = (double) predicateInfo.getGroupedNumberOfNegatives();
+        final var relevance        = predicateInfo.getRelevance();
+        final var statistics       = predicateInfo.getPredicate().getStatistics();
+        final var evaluations      = statistics.getNumberOfEvaluations();
+
+        var costs       = 1.0D;
+        var selectivity = square - Math.pow((groupedPositives - groupedNegatives)
+                / (groupedPositives + groupedNegatives), square);
+        if (evaluations >= minimumSamples) {
+            if (averageCosts > 0.0D) {
+                costs = Math.max(statistics.getAverageEvaluationTime() / averageCosts, MINIMUM_RELATIVE_COSTS);
+            }
+            // positive literals are eliminated by false, negated ones by true,
+            // and all literals by an error
+            final var errors       = (double) statistics.getNumberOfErrors() / evaluations;
+            final var trueResults  = (double) statistics.getNumberOfTrueResults() / evaluations;
+            final var falseResults = 1.0D - trueResults - errors;
+            final var eliminations = (groupedPositives * falseResults + groupedNegatives * trueResults)
+                    / (groupedPositives + groupedNegatives) + errors;
+            selectivity = square * Math.min(eliminations, 1.0D);
+        }
+
+        return Math.pow(relevance, square - relevance) * (groupedPositives + groupedNegatives) / costs * selectivity;
+    }
+
+}
@@ -210,4 +210,21 @@ void when_schemaException_then_returnFalse() throws JsonProcessingException {
         final var result = isCompliant(validationSubject, Val.ofJson(VALID_SCHEMA));
         assertThat(result, is(val(false)));
     }
+
+    @Test
+    void when_equalSchemaIsUsedRepeatedly_then_resultsAreConsistent() throws JsonProcessingException {
+        for (var i = 0; i < 3; i++) {
+            assertThat(isCompliant(Val.ofJson(COMPLIANT_JSON), Val.ofJson(VALID_SCHEMA)), is(val(true)));
+            assertThat(isCompliant(Val.ofJson(NONCOMPLIANT_VALID_JSON), Val.ofJson(VALID_SCHEMA)), is(val(false)));
+        }
+    }
+
+    @Test
+    void when_schemaIsCompiled_then_itCanBeReused() throws JsonProcessingException {
+        final var schema = SchemaValidationLibrary.compileSchema(MAPPER.readTree(VALID_SCHEMA));
+        assertThat(SchemaValidationLibrary.isCompliantWithSchema(MAPPER.readTree(COMPLIANT_JSON), schema), is(true));
+        assertThat(SchemaValidationLibrary.isCompliantWithSchema(MAPPER.readTree(NONCOMPLIANT_VALID_JSON), schema),
+                is(false));
+    }
+
 }
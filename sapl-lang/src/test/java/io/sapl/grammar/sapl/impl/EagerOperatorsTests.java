@@ -694,4 +694,9 @@ void evaluateRegExRightError() {
         assertExpressionReturnsErrors("\"aaa\" =~ (10/0)");
     }
 
+    @Test
+    void evaluateRegExPatternTooLong() {
+        assertExpressionReturnsErrors("\"aaa\" =~ \"" + "a".repeat(2000) + "\"");
+    }
+
 }
@@ -21,6 +21,7 @@
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -31,10 +32,15 @@
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
+import io.sapl.api.functions.Function;
+import io.sapl.api.functions.FunctionLibrary;
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.pdp.AuthorizationDecision;
 import io.sapl.api.pdp.Decision;
 import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
 import io.sapl.testutil.MockUtil;
 import reactor.test.StepVerifier;
 
@@ -106,7 +112,33 @@ private static Stream<Arguments> provideTestCases() throws JsonProcessingExcepti
                 Arguments.of("policy \"p\" permit where (1/10); obligation \"aaa\"", AuthorizationDecision.INDETERMINATE),
 
                 // not applicable does not add constraint
-                Arguments.of("policy \"p\" permit where false; obligation \"aaa\"", AuthorizationDecision.NOT_APPLICABLE)
+                Arguments.of("policy \"p\" permit where false; obligation \"aaa\"", AuthorizationDecision.NOT_APPLICABLE),
+
+                // value definitions are visible in later conditions
+                Arguments.of("policy \"p\" permit where var x = 5; var y = x + 1; y == 6;", AuthorizationDecision.PERMIT),
+
+                // conditions after a false condition are not evaluated
+                Arguments.of("policy \"p\" permit where false; (10/0);", AuthorizationDecision.NOT_APPLICABLE),
+
+                // non-boolean condition
+                Arguments.of("policy \"p\" permit where \"no boolean\";", AuthorizationDecision.INDETERMINATE),
+
+                // value definition with error
+                Arguments.of("policy \"p\" permit where var x = (10/0); true;", AuthorizationDecision.INDETERMINATE),
+
+                // function calls and filters are evaluated synchronously
+                Arguments.of("policy \"p\" permit where mock.nil() == null; transform [1, 2] |- { @[0] : filter.remove }",
+                        new AuthorizationDecision(Decision.PERMIT, Optional.of(Val.ofJson("[2]").get()),
+                                Optional.empty(), Optional.empty())),
+
+                // function error in obligation
+                Arguments.of("policy \"p\" permit obligation mock.error()", AuthorizationDecision.INDETERMINATE),
+
+                // function exception in obligation
+                Arguments.of("policy \"p\" permit obligation mock.exception()", AuthorizationDecision.INDETERMINATE),
+
+                // attributes are evaluated reactively
+                Arguments.of("policy \"p\" permit where <test.nilflux> == null;", AuthorizationDecision.PERMIT)
 			);
 		// @formatter:on
     }
@@ -119,6 +151,23 @@ void documentEvaluatesToExpectedValue(String policySource, AuthorizationDecision
                 .expectNextMatches(hasDecision(expected)).verifyComplete();
     }
 
+    @Test
+    void when_documentCallsFunctionNotDeclaredPure_then_eachCallHappensOnce() throws InitializationException {
+        final var library         = new CountingFunctionLibrary();
+        final var functionContext = new AnnotationFunctionContext();
+        functionContext.loadLibrary(library);
+        final var policy = INTERPRETER
+                .parse("policy \"p\" permit where counter.count() > 0; obligation counter.count()");
+
+        StepVerifier
+                .create(policy.evaluate()
+                        .contextWrite(ctx -> AuthorizationContext.setFunctionContext(ctx, functionContext))
+                        .contextWrite(MockUtil::setUpAuthorizationContext))
+                .expectNextMatches(result -> result.getAuthorizationDecision().getDecision() == Decision.PERMIT)
+                .verifyComplete();
+        assertThat(library.calls).hasValue(2);
+    }
+
     @Test
     void targetExpression() {
         final var policy = INTERPRETER.parse("policy \"p\" deny false where true;");
@@ -132,4 +181,16 @@ void targetimportError() {
         assertThat(policy.getPolicyElement().importError("someError").getAuthorizationDecision().getDecision())
                 .isEqualTo(Decision.INDETERMINATE);
     }
+
+    @FunctionLibrary(name = "counter")
+    public static class CountingFunctionLibrary {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Function
+        public Val count() {
+            return Val.of(calls.incrementAndGet());
+        }
+
+    }
 }
@@ -20,6 +20,7 @@
 import static io.sapl.api.pdp.AuthorizationDecision.INDETERMINATE;
 import static io.sapl.api.pdp.AuthorizationDecision.PERMIT;
 import static io.sapl.testutil.TestUtil.hasDecision;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Map;
 import java.util.stream.Stream;
@@ -122,4 +123,22 @@ void documentEvaluatesToExpectedValue(String policySource, AuthorizationDecision
         StepVerifier.create(policy.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
                 .expectNextMatches(hasDecision(expected)).verifyComplete();
     }
+    @ParameterizedTest
+    @MethodSource("provideAttributeDependencyTestCases")
+    void attributeDependencyIsDetectedInWholeDocument(String documentSource, boolean expected) {
+        final var document = (SAPLImplCustom) INTERPRETER.parse(documentSource);
+        assertThat(document.isAttributeDependent()).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> provideAttributeDependencyTestCases() {
+        // @formatter:off
+        return Stream.of(
+                Arguments.of("policy \"p\" permit where subject == \"willi\";", false),
+                Arguments.of("policy \"p\" permit where subject.<test.numbers> == 1;", true),
+                Arguments.of("policy \"p\" permit transform |<test.numbers>", true),
+                Arguments.of("set \"s\" deny-overrides policy \"p\" permit where <test.numbers>;", true),
+                Arguments.of("set \"s\" deny-overrides for action == \"read\" policy \"p\" permit", false));
+        // @formatter:on
+    }
+
 }
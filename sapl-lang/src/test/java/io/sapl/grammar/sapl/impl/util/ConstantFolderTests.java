@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.grammar.sapl.BasicGroup;
+import io.sapl.grammar.sapl.BinaryOperator;
+import io.sapl.grammar.sapl.Condition;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.Policy;
+import io.sapl.grammar.sapl.SaplFactory;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.DocumentEvaluationResult;
+import io.sapl.prp.Document;
+import io.sapl.testutil.MockUtil;
+import io.sapl.testutil.ParserUtil;
+import reactor.test.StepVerifier;
+
+class ConstantFolderTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "\"text\"", "1 + 2 * 3", "{ \"a\": [1, 2, { \"b\": null }] }", "[1, 2, 3][1]",
+            "\"abc\" =~ \"a.*\"", "10 / 0", "!(1 < 2)", "{ \"a\": 1 }.*" })
+    void when_expressionIsConstant_then_foldedToItsValue(String source) throws IOException {
+        final var expression = ParserUtil.expression(source);
+        final var expected   = expression.evaluate().blockFirst();
+
+        assertThat(ConstantFolder.foldConstants(wrap(expression))).isEqualTo(1);
+        assertThat(ConstantFolder.constant(expression)).isEqualTo(expected);
+        StepVerifier.create(ExpressionCompiler.evaluate(expression)).expectNext(expected).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "subject", "time.now()", "subject.<test.numbers>", "<test.numbers>", "[1, @]",
+            "[1, 2, 3][?(@ > 1)]", "[1, 2] |- filter.remove" })
+    void when_expressionIsNotConstant_then_notFolded(String source) throws IOException {
+        final var expression = ParserUtil.expression(source);
+        assertThat(ConstantFolder.foldConstants(wrap(expression))).isZero();
+        assertThat(ConstantFolder.constant(expression)).isNull();
+    }
+
+    @Test
+    void when_documentIsParsed_then_numberOfFoldedExpressionsIsReported() {
+        final var document = new DefaultSAPLInterpreter().parseDocument("""
+                policy "test"
+                permit
+                where
+                  1 + 2 == 3;
+                  subject.role == { "x": [1, 2] };
+                obligation { "type": "log" }
+                """);
+
+        assertThat(document.foldedExpressions()).isEqualTo(3);
+        final var policy = (Policy) document.sapl().getPolicyElement();
+        final var equals = (BinaryOperator) ((Condition) policy.getBody().getStatements().get(1)).getExpression();
+        assertThat(ConstantFolder.constant(equals)).isNull();
+        assertThat(ConstantFolder.constant(equals.getRight())).isNotNull();
+        assertThat(ConstantFolder.constant(policy.getObligations().get(0)).get().get("type").asText())
+                .isEqualTo("log");
+        assertThat(ConstantFolder.foldConstants(document.sapl())).isZero();
+    }
+
+    @Test
+    void when_foldedValueIsContainer_then_eachLookupReturnsCopy() throws IOException {
+        final var expression = ParserUtil.expression("{ \"a\": [1, 2] }");
+        ConstantFolder.foldConstants(wrap(expression));
+
+        final var first = ConstantFolder.constant(expression);
+        ((ObjectNode) first.get()).put("a", "modified");
+
+        assertThat(ConstantFolder.constant(expression).get().get("a").isArray()).isTrue();
+        assertThat(ConstantFolder.constant(expression).get()).isNotSameAs(ConstantFolder.constant(expression).get());
+    }
+
+    @Test
+    void when_returnedObligationIsModified_then_nextDecisionIsUnchanged() {
+        final var document = new DefaultSAPLInterpreter().parseDocument("""
+                policy "test"
+                permit
+                obligation { "type": "log", "tags": ["audit"] }
+                """);
+
+        final var first = decide(document);
+        ((ObjectNode) first.getObligations().orElseThrow().get(0)).put("type", "modified");
+        ((ArrayNode) first.getObligations().orElseThrow().get(0).get("tags")).removeAll();
+
+        final var second     = decide(document);
+        final var obligation = second.getObligations().orElseThrow().get(0);
+        assertThat(obligation.get("type").asText()).isEqualTo("log");
+        assertThat(obligation.get("tags").get(0).asText()).isEqualTo("audit");
+    }
+
+    private static AuthorizationDecision decide(Document document) {
+        return document.sapl().evaluate().map(DocumentEvaluationResult::getAuthorizationDecision)
+                .contextWrite(MockUtil::setUpAuthorizationContext).blockFirst();
+    }
+
+    /*
+     * foldConstants only visits the contents of the given root. Thus, the parsed
+     * expression is wrapped into a group.
+     */
+    private static BasicGroup wrap(Expression expression) {
+        final var group = SaplFactory.eINSTANCE.createBasicGroup();
+        group.setExpression(expression);
+        return group;
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.grammar.sapl.BinaryOperator;
+import io.sapl.grammar.sapl.Condition;
+import io.sapl.grammar.sapl.Policy;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.testutil.MockUtil;
+import io.sapl.testutil.ParserUtil;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+class ExpressionCompilerTests {
+
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+
+    private static final AuthorizationSubscription SUBSCRIPTION = new AuthorizationSubscription(
+            JSON.objectNode().put("role", "admin").set("roles", JSON.arrayNode().add("a").add("b")),
+            JSON.objectNode().put("method", "GET"), JSON.textNode("resource"), JSON.nullNode());
+
+    @ParameterizedTest
+    @ValueSource(strings = { "subject.role == \"admin\" && action.method == \"GET\"",
+            "subject.role == \"admin\" || action.method == \"GET\"", "subject.role != \"admin\" || false",
+            "false && subject.role", "subject.role && true", "subject.roles[1] == \"b\"", "subject.roles[5]",
+            "subject.missing == undefined", "subject.\"role\"", "1 + 2 * 3 - 4 / 2 % 3", "\"a\" + 5", "10 / 0",
+            "7 % 0", "-(5)", "+5", "!true", "!5", "1 < 2 & 2 >= 2 | 3 > 4 ^ 4 <= 3", "3 <= \"a\"",
+            "nullVariable == null", "(subject.roles)[0]", "resource =~ \"res.*\"", "resource =~ \"[\"",
+            "5 =~ \"5\"" })
+    void when_expressionIsCompiled_then_resultEqualsReactiveEvaluation(String source) throws IOException {
+        final var expression = ParserUtil.expression(source);
+        final var compiled   = ExpressionCompiler.compile(expression);
+        assertThat(compiled).isNotNull();
+
+        final var ctx      = MockUtil.setUpAuthorizationContext(Context.empty(), SUBSCRIPTION);
+        final var expected = expression.evaluate().contextWrite(c -> ctx).blockFirst();
+        final var actual   = compiled.evaluate(ctx);
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getTrace()).isEqualTo(expected.getTrace());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "subject.role", "subject.\"role\"", "subject.roles[1]", "(subject.roles)[0]",
+            "subject.missing", "resource" })
+    void when_tracingIsDisabled_then_compiledExpressionYieldsUntracedValue(String source) throws IOException {
+        final var expression = ParserUtil.expression(source);
+        final var compiled   = ExpressionCompiler.compile(expression);
+        assertThat(compiled).isNotNull();
+
+        final var ctx      = MockUtil.setUpAuthorizationContext(Context.empty(), SUBSCRIPTION);
+        final var expected = expression.evaluate().contextWrite(c -> ctx).blockFirst();
+        final var actual   = compiled.evaluate(AuthorizationContext.setTracingEnabled(ctx, false));
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getTrace().has(Trace.TRACE_KEY)).isFalse();
+    }
+
+    @Test
+    void when_regexPatternCacheIsSetInContext_then_itsLimitsApply() throws IOException {
+        final var expression = ParserUtil.expression("resource =~ \"res.*\"");
+        final var compiled   = ExpressionCompiler.compile(expression);
+        assertThat(compiled).isNotNull();
+
+        final var ctx      = AuthorizationContext.setRegexPatternCache(
+                MockUtil.setUpAuthorizationContext(Context.empty(), SUBSCRIPTION),
+                new RegexPatternCache(10L, 3, Duration.ofSeconds(1L)));
+        final var expected = expression.evaluate().contextWrite(c -> ctx).blockFirst();
+        final var actual   = compiled.evaluate(ctx);
+        assertThat(expected.getMessage()).isEqualTo("Regular expression longer than 3 characters.");
+        assertThat(actual.getMessage()).isEqualTo(expected.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "subject.<test.numbers>", "time.now() == 1", "[1, 2]", "{ \"a\": 1 }.a",
+            "subject |- { @.role : filter.blacken }", "subject.role == @", "subject.*", "subject.roles[?(@ == 1)]" })
+    void when_expressionIsNotAttributeFree_then_notCompiled(String source) throws IOException {
+        assertThat(ExpressionCompiler.compile(ParserUtil.expression(source))).isNull();
+    }
+
+    @Test
+    void when_documentIsParsed_then_maximalSubExpressionsAreCompiled() {
+        final var document = new DefaultSAPLInterpreter().parseDocument("""
+                policy "test"
+                permit subject.role == "admin"
+                where
+                  action.method == "GET" && resource != "secret";
+                  subject.<test.numbers> == 1 + 2;
+                """);
+
+        final var sapl      = document.sapl();
+        final var policy    = (Policy) sapl.getPolicyElement();
+        final var statement = (Condition) policy.getBody().getStatements().get(1);
+        final var equals    = (BinaryOperator) statement.getExpression();
+
+        assertThat(ExpressionCompiler.compiled(policy.getTargetExpression())).isNotNull();
+        assertThat(ExpressionCompiler.compiled(equals)).isNull();
+        assertThat(ExpressionCompiler.compiled(equals.getRight())).isNotNull();
+        assertThat(ExpressionCompiler.compileDocument(sapl)).isZero();
+
+        final var ctx = MockUtil.setUpAuthorizationContext(Context.empty(), SUBSCRIPTION);
+        StepVerifier.create(ExpressionCompiler.evaluate(policy.getTargetExpression()).contextWrite(c -> ctx))
+                .expectNext(Val.TRUE).verifyComplete();
+    }
+
+}
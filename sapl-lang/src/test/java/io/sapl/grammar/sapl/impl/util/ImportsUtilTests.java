@@ -19,17 +19,26 @@
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
+import io.sapl.grammar.sapl.BasicFunction;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
 import io.sapl.interpreter.functions.FunctionContext;
 import io.sapl.interpreter.pip.AttributeContext;
+import io.sapl.testutil.ParserUtil;
 import reactor.util.context.Context;
 
 class ImportsUtilTests {
 
+    private static final DefaultSAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
     @Test
     @SuppressWarnings("unchecked")
     void nullReturnsEmptyImportMap() {
@@ -38,4 +47,39 @@ void nullReturnsEmptyImportMap() {
         assertThat((Map<String, Object>) ImportsUtil.loadImportsIntoContext(null, ctx).get("imports")).isEmpty();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void when_contextsUnchanged_then_importsAreResolvedOnce() {
+        final var document         = INTERPRETER.parseDocument("import simple.append policy \"p\" permit");
+        final var functionContext  = mock(FunctionContext.class);
+        final var attributeContext = mock(AttributeContext.class);
+        when(functionContext.isProvidedFunction("simple.append")).thenReturn(Boolean.TRUE);
+        final var ctx = Context.of("attributeCtx", attributeContext, "functionCtx", functionContext);
+
+        final var first  = (Map<String, String>) ImportsUtil.loadImportsIntoContext(document.sapl(), ctx)
+                .get("imports");
+        final var second = (Map<String, String>) ImportsUtil.loadImportsIntoContext(document.sapl(), ctx)
+                .get("imports");
+
+        assertThat(first).containsEntry("append", "simple.append").isSameAs(second);
+        verify(functionContext, times(1)).isProvidedFunction("simple.append");
+
+        final var otherFunctionContext = mock(FunctionContext.class);
+        when(otherFunctionContext.isProvidedFunction("simple.append")).thenReturn(Boolean.TRUE);
+        final var third = (Map<String, String>) ImportsUtil.loadImportsIntoContext(document.sapl(),
+                ctx.put("functionCtx", otherFunctionContext)).get("imports");
+        assertThat(third).isEqualTo(first).isNotSameAs(first);
+    }
+
+    @Test
+    void when_functionNamesAreBound_then_resolvedAgainstImports() throws IOException {
+        final var identifier = ((BasicFunction) ParserUtil.expression("append(1)")).getIdentifier();
+        FunctionUtil.bindFunctionNames(identifier.eContainer());
+        final var imports = Map.of("append", "simple.append");
+
+        assertThat(FunctionUtil.resolveAbsoluteFunctionName(identifier, imports)).isEqualTo("simple.append");
+        assertThat(FunctionUtil.resolveAbsoluteFunctionName(identifier, imports)).isEqualTo("simple.append");
+        assertThat(FunctionUtil.resolveAbsoluteFunctionName(identifier, Map.of())).isEqualTo("append");
+    }
+
 }
@@ -25,11 +25,14 @@
 
 class OperatorUtilTests {
 
+    private static final Tracer TRACER = Tracer.ENABLED;
+    private static final Val    ERROR  = Val.error(SaplError.UNKNOWN_ERROR);
+
     @Test
     void requireBoolean() {
         final var sa = new SoftAssertions();
-        sa.assertThat(OperatorUtil.requireBoolean(null, Val.TRUE)).isEqualTo(Val.TRUE);
-        final var value = OperatorUtil.requireBoolean(null, Val.UNDEFINED);
+        sa.assertThat(OperatorUtil.requireBoolean(null, Val.TRUE, TRACER)).isEqualTo(Val.TRUE);
+        final var value = OperatorUtil.requireBoolean(null, Val.UNDEFINED, TRACER);
         sa.assertThat(value.isError()).isTrue();
         sa.assertAll();
     }
@@ -37,50 +40,50 @@ void requireBoolean() {
     @Test
     void requireJsonNode() {
         final var sa = new SoftAssertions();
-        sa.assertThat(OperatorUtil.requireJsonNode(null, Val.TRUE)).isEqualTo(Val.TRUE);
-        sa.assertThat(OperatorUtil.requireJsonNode(null, Val.error(SaplError.UNKNOWN_ERROR)).isError()).isTrue();
-        sa.assertThat(OperatorUtil.requireJsonNode(null, Val.UNDEFINED).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireJsonNode(null, Val.TRUE, TRACER)).isEqualTo(Val.TRUE);
+        sa.assertThat(OperatorUtil.requireJsonNode(null, ERROR, TRACER).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireJsonNode(null, Val.UNDEFINED, TRACER).isError()).isTrue();
         sa.assertAll();
     }
 
     @Test
     void requireArrayNode() {
         final var sa = new SoftAssertions();
-        sa.assertThat(OperatorUtil.requireArrayNode(null, Val.ofEmptyArray())).isEqualTo(Val.ofEmptyArray());
-        sa.assertThat(OperatorUtil.requireArrayNode(null, Val.of(1)).isError()).isTrue();
-        sa.assertThat(OperatorUtil.requireArrayNode(null, Val.error(SaplError.UNKNOWN_ERROR)).isError()).isTrue();
-        sa.assertThat(OperatorUtil.requireArrayNode(null, Val.UNDEFINED).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireArrayNode(null, Val.ofEmptyArray(), TRACER)).isEqualTo(Val.ofEmptyArray());
+        sa.assertThat(OperatorUtil.requireArrayNode(null, Val.of(1), TRACER).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireArrayNode(null, ERROR, TRACER).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireArrayNode(null, Val.UNDEFINED, TRACER).isError()).isTrue();
         sa.assertAll();
     }
 
     @Test
     void requireObjectNode() {
         final var sa = new SoftAssertions();
-        sa.assertThat(OperatorUtil.requireObjectNode(null, Val.ofEmptyObject())).isEqualTo(Val.ofEmptyObject());
-        sa.assertThat(OperatorUtil.requireObjectNode(null, Val.of(1)).isError()).isTrue();
-        sa.assertThat(OperatorUtil.requireObjectNode(null, Val.error(SaplError.UNKNOWN_ERROR)).isError()).isTrue();
-        sa.assertThat(OperatorUtil.requireObjectNode(null, Val.UNDEFINED).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireObjectNode(null, Val.ofEmptyObject(), TRACER)).isEqualTo(Val.ofEmptyObject());
+        sa.assertThat(OperatorUtil.requireObjectNode(null, Val.of(1), TRACER).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireObjectNode(null, ERROR, TRACER).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireObjectNode(null, Val.UNDEFINED, TRACER).isError()).isTrue();
         sa.assertAll();
     }
 
     @Test
     void requireText() {
         final var sa = new SoftAssertions();
-        sa.assertThat(OperatorUtil.requireText(null, Val.of(""))).isEqualTo(Val.of(""));
-        sa.assertThat(OperatorUtil.requireText(null, Val.of(1)).isError()).isTrue();
-        sa.assertThat(OperatorUtil.requireText(null, Val.error(SaplError.UNKNOWN_ERROR)).isError()).isTrue();
-        sa.assertThat(OperatorUtil.requireText(null, Val.UNDEFINED).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireText(null, Val.of(""), TRACER)).isEqualTo(Val.of(""));
+        sa.assertThat(OperatorUtil.requireText(null, Val.of(1), TRACER).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireText(null, ERROR, TRACER).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireText(null, Val.UNDEFINED, TRACER).isError()).isTrue();
         sa.assertAll();
     }
 
     @Test
     void requireNumber() {
         final var sa = new SoftAssertions();
-        sa.assertThat(OperatorUtil.requireNumber(null, Val.of(1))).isEqualTo(Val.of(1));
-        sa.assertThat(OperatorUtil.requireNumber(null, Val.of(1)).isError()).isFalse();
-        sa.assertThat(OperatorUtil.requireNumber(null, Val.of("")).isError()).isTrue();
-        sa.assertThat(OperatorUtil.requireNumber(null, Val.error(SaplError.UNKNOWN_ERROR)).isError()).isTrue();
-        sa.assertThat(OperatorUtil.requireNumber(null, Val.UNDEFINED).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireNumber(null, Val.of(1), TRACER)).isEqualTo(Val.of(1));
+        sa.assertThat(OperatorUtil.requireNumber(null, Val.of(1), TRACER).isError()).isFalse();
+        sa.assertThat(OperatorUtil.requireNumber(null, Val.of(""), TRACER).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireNumber(null, ERROR, TRACER).isError()).isTrue();
+        sa.assertThat(OperatorUtil.requireNumber(null, Val.UNDEFINED, TRACER).isError()).isTrue();
         sa.assertAll();
     }
 
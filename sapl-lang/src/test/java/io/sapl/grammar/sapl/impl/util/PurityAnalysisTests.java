@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import io.sapl.grammar.sapl.AttributeFinderStep;
+import io.sapl.grammar.sapl.Policy;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.Purity;
+import io.sapl.testutil.ParserUtil;
+
+class PurityAnalysisTests {
+
+    private static final DefaultSAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
+    private static Stream<Arguments> provideDocuments() {
+        final var timeStreaming = new Purity(true, true, true);
+        final var timeHead      = new Purity(true, true, false);
+        // @formatter:off
+        return Stream.of(
+                Arguments.of("policy \"p\" permit where subject == \"willi\";", Purity.PURE),
+                Arguments.of("policy \"p\" permit where time.before(\"2021-11-08T13:00:00Z\", action);",
+                        Purity.PURE),
+                Arguments.of("policy \"p\" permit where subject.<test.numbers> == 1;", Purity.STREAMING),
+                Arguments.of("policy \"p\" permit where subject.|<test.numbers> == 1;", Purity.HEAD),
+                Arguments.of("policy \"p\" permit transform |<test.numbers>", Purity.HEAD),
+                Arguments.of("policy \"p\" permit where <time.now> != undefined;", timeStreaming),
+                Arguments.of("policy \"p\" permit where |<time.now> != undefined;", timeHead),
+                Arguments.of("import time.* policy \"p\" permit where <now> != undefined;", timeStreaming),
+                Arguments.of("import time.now policy \"p\" permit where <now> != undefined;", timeStreaming),
+                Arguments.of("import time as t policy \"p\" permit where <t.now> != undefined;", timeStreaming),
+                Arguments.of("import test as time policy \"p\" permit where <test.now> != undefined;",
+                        Purity.STREAMING),
+                Arguments.of("set \"s\" deny-overrides policy \"a\" permit policy \"b\" deny where <test.numbers>;",
+                        Purity.STREAMING));
+        // @formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideDocuments")
+    void when_documentIsAnalyzed_then_purityIsDetected(String source, Purity expected) {
+        final var document = INTERPRETER.parseDocument(source);
+        assertThat(document.purity()).isEqualTo(expected);
+        assertThat(document.purity().isPure()).isEqualTo(expected == Purity.PURE);
+    }
+
+    @Test
+    void when_documentIsAnalyzed_then_policiesAndExpressionsAreAnnotated() {
+        final var document = INTERPRETER.parseDocument("""
+                set "s" deny-overrides
+                policy "pure" permit
+                policy "streaming" deny where subject.<test.numbers> == 1;
+                """);
+        final var policies = document.sapl().getPolicyElement().eContents().stream()
+                .filter(Policy.class::isInstance).toList();
+        assertThat(PurityAnalysis.purity(policies.get(0))).isEqualTo(Purity.PURE);
+        assertThat(PurityAnalysis.purity(policies.get(1))).isEqualTo(Purity.STREAMING);
+        final var whereStatement = ((Policy) policies.get(1)).getBody().getStatements().get(0);
+        assertThat(PurityAnalysis.purity(whereStatement)).isEqualTo(Purity.STREAMING);
+    }
+
+    @Test
+    void when_documentIsAnalyzed_then_targetExpressionMembershipIsRecorded() {
+        final var document = INTERPRETER.parseDocument("""
+                policy "p" permit action == "read" where subject.<test.numbers> == 1;
+                """);
+        final var policy   = (Policy) document.sapl().getPolicyElement();
+        assertThat(PurityAnalysis.isInTargetExpression(policy)).isFalse();
+        assertThat(PurityAnalysis.isInTargetExpression(policy.getTargetExpression())).isTrue();
+        assertThat(PurityAnalysis.isInTargetExpression(policy.getTargetExpression().eContents().get(0))).isTrue();
+        final var contents = policy.getBody().eAllContents();
+        while (contents.hasNext()) {
+            final var element = contents.next();
+            if (element instanceof AttributeFinderStep) {
+                assertThat(PurityAnalysis.isInTargetExpression(element)).isFalse();
+                assertThat(TargetExpressionUtil.isInTargetExpression(element)).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void when_documentIsNotAnalyzed_then_purityIsClassifiedOnDemand() throws IOException {
+        final var expression = ParserUtil.expression("subject.<test.numbers>");
+        assertThat(PurityAnalysis.isInTargetExpression(expression)).isNull();
+        assertThat(PurityAnalysis.purity(expression)).isEqualTo(Purity.STREAMING);
+    }
+
+}
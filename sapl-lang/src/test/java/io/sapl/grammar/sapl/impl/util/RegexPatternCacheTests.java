@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.grammar.sapl.impl.util.RegexPatternCache.MatchTimeBudgetExceededException;
+
+class RegexPatternCacheTests {
+
+    @Test
+    void when_patternIsRequestedRepeatedly_then_compiledOnce() {
+        final var cache = new RegexPatternCache(10L, 100, Duration.ofSeconds(1L));
+
+        final var first  = cache.pattern("^/api/v[0-9]+/.*");
+        final var second = cache.pattern("^/api/v[0-9]+/.*");
+
+        assertThat(first).isSameAs(second);
+        assertThat(cache.size()).isEqualTo(1L);
+        assertThat(cache.hits()).isEqualTo(1L);
+        assertThat(cache.misses()).isEqualTo(1L);
+        assertThat(cache.hitRatio()).isEqualTo(0.5D);
+        assertThat(cache.matches(first, "/api/v2/tenants")).isTrue();
+        assertThat(cache.matches(first, "/web/v2/tenants")).isFalse();
+    }
+
+    @Test
+    void when_maximumSizeIsReached_then_patternsAreEvicted() {
+        final var cache = new RegexPatternCache(2L, 100, Duration.ofSeconds(1L));
+        for (var i = 0; i < 10; i++) {
+            cache.pattern("a{" + i + "}");
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(2L);
+    }
+
+    @Test
+    void when_patternIsTooLong_then_rejected() {
+        final var cache = new RegexPatternCache(10L, 5, Duration.ofSeconds(1L));
+        assertThatThrownBy(() -> cache.pattern("abcdef")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cache.compile("abcdef")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void when_patternIsInvalid_then_syntaxErrorIsThrown() {
+        final var cache = new RegexPatternCache(10L, 100, Duration.ofSeconds(1L));
+        assertThatThrownBy(() -> cache.pattern("***")).isInstanceOf(PatternSyntaxException.class);
+    }
+
+    @Test
+    void when_matchExceedsTimeBudget_then_matchIsAborted() {
+        final var cache   = new RegexPatternCache(10L, 100, Duration.ZERO);
+        final var pattern = cache.pattern("(a+)+$");
+        final var input   = "a".repeat(40) + "b";
+        assertThatThrownBy(() -> cache.matches(pattern, input)).isInstanceOf(MatchTimeBudgetExceededException.class);
+    }
+
+}
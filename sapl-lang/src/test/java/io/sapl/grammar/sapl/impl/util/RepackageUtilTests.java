@@ -32,7 +32,7 @@ void testObjectCombiningOnErrors1() {
         final var t2     = Tuples.of("key2", ErrorFactory.error("error1"));
         final var t3     = Tuples.of("key3", Val.of("value3"));
         final var t4     = Tuples.of("key4", Val.of("value4"));
-        final var actual = RepackageUtil.recombineObject(new Object[] { t1, t2, t3, t4 });
+        final var actual = RepackageUtil.recombineObject(new Object[] { t1, t2, t3, t4 }, Tracer.ENABLED);
         assertThat(actual).isEqualTo(ErrorFactory.error("error1"));
     }
 
@@ -42,7 +42,7 @@ void testObjectCombiningOnErrors2() {
         final var t2     = Tuples.of("key2", ErrorFactory.error("error1"));
         final var t3     = Tuples.of("key3", ErrorFactory.error("error2"));
         final var t4     = Tuples.of("key4", Val.of("value4"));
-        final var actual = RepackageUtil.recombineObject(new Object[] { t1, t2, t3, t4 });
+        final var actual = RepackageUtil.recombineObject(new Object[] { t1, t2, t3, t4 }, Tracer.ENABLED);
         assertThat(actual).isEqualTo(ErrorFactory.error("error1"));
     }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.grammar.sapl.Plus;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.testutil.MockUtil;
+import io.sapl.testutil.ParserUtil;
+import reactor.util.context.Context;
+
+class TracerTests {
+
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+
+    private static final AuthorizationSubscription SUBSCRIPTION = new AuthorizationSubscription(
+            JSON.objectNode().put("role", "admin").set("roles", JSON.arrayNode().add("a").add("b")),
+            JSON.objectNode().put("method", "GET"), JSON.textNode("resource"), JSON.nullNode());
+
+    @Test
+    void when_contextHasNoTracingFlag_then_tracingIsEnabled() {
+        assertThat(Tracer.of(Context.empty()).isEnabled()).isTrue();
+        assertThat(Tracer.of(AuthorizationContext.setTracingEnabled(Context.empty(), false)).isEnabled()).isFalse();
+    }
+
+    @Test
+    void when_tracingIsDisabled_then_valueIsReturnedWithoutTrace() {
+        final var value = Val.of(1);
+        assertThat(Tracer.DISABLED.trace(value, Plus.class, false, Val.of(2))).isSameAs(value);
+        assertThat(Tracer.DISABLED.trace(value, Plus.class, true, Trace.LEFT, Val.of(2), Trace.RIGHT, Val.of(3))
+                .getTrace().has(Trace.TRACE_KEY)).isFalse();
+    }
+
+    @Test
+    void when_tracingIsDisabled_then_secretStatusIsStillInherited() {
+        final var secret = Val.of(2).asSecret();
+        assertThat(Tracer.DISABLED.trace(Val.of(1), Plus.class, true, secret).isSecret()).isTrue();
+        assertThat(Tracer.DISABLED.trace(Val.of(1), Plus.class, false, secret).isSecret()).isFalse();
+        assertThat(Tracer.DISABLED.trace(Val.of(1), Plus.class, true, Trace.LEFT, Val.of(3), Trace.RIGHT, secret)
+                .isSecret()).isTrue();
+    }
+
+    @Test
+    void when_tracingIsEnabled_then_operationIsRecorded() {
+        final var traced = Tracer.ENABLED.trace(Val.of(3), Plus.class, true, Trace.LEFT, Val.of(1), Trace.RIGHT,
+                Val.of(2));
+        assertThat(traced.getTrace().get(Trace.TRACE_KEY).get(Trace.OPERATOR).asText()).isEqualTo("Plus");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "subject.role == \"admin\" && action.method == \"GET\"", "1 + 2 * 3 - 4 / 2 % 3",
+            "!(1 < 2) || 3 >= 4 ^ true", "-(5) + +5", "\"a\" + 5", "10 / 0", "resource =~ \"res.*\"",
+            "subject.roles[1] in [\"a\", \"b\"]", "[1, 2, subject.role]", "{ \"a\": subject.role, \"b\": [1, 2] }",
+            "subject.roles[?(@ == \"a\")]", "subject.*", "subject..role", "subject.roles[0:1]",
+            "subject |- { @.role : filter.blacken }", "mock.parameters(subject.role, 1)", "<test.numbers>",
+            "subject.<test.numbers>", "subject.|<test.numbers>", "(subject.roles)[0]" })
+    void when_tracingIsDisabled_then_operatorTreeEvaluatesWithoutTrace(String source) throws IOException {
+        final var expression = ParserUtil.expression(source);
+        final var ctx        = MockUtil.setUpAuthorizationContext(Context.empty(), SUBSCRIPTION);
+        final var untraced   = AuthorizationContext.setTracingEnabled(ctx, false);
+
+        final var expected = expression.evaluate().contextWrite(c -> ctx).blockFirst();
+        final var actual   = expression.evaluate().contextWrite(c -> untraced).blockFirst();
+        assertThat(actual).isEqualTo(expected);
+        assertThat(expected.getTrace().has(Trace.TRACE_KEY)).isTrue();
+        assertThat(actual.getTrace().has(Trace.TRACE_KEY)).isFalse();
+    }
+
+}
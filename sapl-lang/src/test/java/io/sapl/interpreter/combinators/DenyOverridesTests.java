@@ -21,21 +21,36 @@
 import static io.sapl.interpreter.combinators.CombinatorTestUtil.validateDecision;
 import static io.sapl.interpreter.combinators.CombinatorTestUtil.validateObligations;
 import static io.sapl.interpreter.combinators.CombinatorTestUtil.validateResource;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationDecision;
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.Decision;
+import io.sapl.api.pip.EnvironmentAttribute;
+import io.sapl.api.pip.PolicyInformationPoint;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 class DenyOverridesTests {
 
+    private static final DefaultSAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
     private static final JsonNodeFactory           JSON                                 = JsonNodeFactory.instance;
     private static final AuthorizationSubscription EMPTY_AUTH_SUBSCRIPTION              = new AuthorizationSubscription(
             null, null, null, null);
@@ -236,4 +251,73 @@ void collectAdvicePermit() {
         validateAdvice(AUTH_SUBSCRIPTION_WITH_TRUE_RESOURCE, policySet, Optional.of(advice));
     }
 
+    @Test
+    void when_lazyAndDenyIsDetermined_then_permitPoliciesWithAttributesAreNotEvaluated()
+            throws InitializationException {
+        final var pip              = new CountingPolicyInformationPoint();
+        final var attributeContext = new AnnotationAttributeContext();
+        attributeContext.loadPolicyInformationPoint(pip);
+        final var policySet = """
+                set "tests" deny-overrides
+                policy "expensive" permit where <counting.value>;
+                policy "cheap" deny obligation "log"
+                """;
+        final var decisions = INTERPRETER.evaluate(EMPTY_AUTH_SUBSCRIPTION, policySet, attributeContext,
+                new AnnotationFunctionContext(), Map.of())
+                .contextWrite(ctx -> AuthorizationContext.setLazyDocumentCombining(ctx, true));
+        StepVerifier.create(decisions)
+                .expectNextMatches(decision -> decision.getDecision() == Decision.DENY
+                        && decision.getObligations().orElseThrow().get(0).asText().equals("log"))
+                .verifyComplete();
+        assertThat(pip.subscriptions.get()).isZero();
+    }
+
+    @Test
+    void when_lazyAndDenyIsNotDetermined_then_permitPoliciesWithAttributesAreEvaluated()
+            throws InitializationException {
+        final var pip              = new CountingPolicyInformationPoint();
+        final var attributeContext = new AnnotationAttributeContext();
+        attributeContext.loadPolicyInformationPoint(pip);
+        final var policySet = """
+                set "tests" deny-overrides
+                policy "expensive" permit where <counting.value>;
+                policy "cheap" deny where false;
+                """;
+        final var decisions = INTERPRETER.evaluate(EMPTY_AUTH_SUBSCRIPTION, policySet, attributeContext,
+                new AnnotationFunctionContext(), Map.of())
+                .contextWrite(ctx -> AuthorizationContext.setLazyDocumentCombining(ctx, true));
+        StepVerifier.create(decisions.map(AuthorizationDecision::getDecision)).expectNext(Decision.PERMIT)
+                .thenCancel().verify();
+        assertThat(pip.subscriptions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void when_eager_then_permitPoliciesWithAttributesAreEvaluated() throws InitializationException {
+        final var pip              = new CountingPolicyInformationPoint();
+        final var attributeContext = new AnnotationAttributeContext();
+        attributeContext.loadPolicyInformationPoint(pip);
+        final var policySet = """
+                set "tests" deny-overrides
+                policy "expensive" permit where <counting.value>;
+                policy "cheap" deny
+                """;
+        final var decisions = INTERPRETER.evaluate(EMPTY_AUTH_SUBSCRIPTION, policySet, attributeContext,
+                new AnnotationFunctionContext(), Map.of());
+        StepVerifier.create(decisions.map(AuthorizationDecision::getDecision)).expectNext(Decision.DENY)
+                .verifyComplete();
+        assertThat(pip.subscriptions.get()).isEqualTo(1);
+    }
+
+    @PolicyInformationPoint(name = "counting")
+    public static class CountingPolicyInformationPoint {
+
+        final AtomicInteger subscriptions = new AtomicInteger();
+
+        @EnvironmentAttribute
+        public Flux<Val> value(Map<String, Val> variables) {
+            return Flux.just(Val.TRUE).doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+        }
+
+    }
+
 }
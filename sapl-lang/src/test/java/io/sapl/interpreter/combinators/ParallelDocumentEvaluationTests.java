@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.combinators;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.Decision;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.DocumentEvaluationResult;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.prp.DocumentMatch;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+class ParallelDocumentEvaluationTests {
+
+    private static final DefaultSAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
+    @Test
+    void when_thresholdNotPositive_then_throws() {
+        final var scheduler = Schedulers.parallel();
+        assertThatThrownBy(() -> new ParallelDocumentEvaluation(0, scheduler))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void when_belowThreshold_then_documentsAreNotScheduled() {
+        final var parallelEvaluation = new ParallelDocumentEvaluation(3, Schedulers.parallel());
+        final List<Flux<DocumentEvaluationResult>> documentDecisions = List.of(Flux.never(), Flux.never());
+        assertThat(parallelEvaluation.fanOut(documentDecisions)).isSameAs(documentDecisions);
+        assertThat(parallelEvaluation.getNumberOfFanOuts()).isZero();
+    }
+
+    @Test
+    void when_thresholdReached_then_documentsAreEvaluatedOnSchedulerAndCombinedInOrder() {
+        final var parallelEvaluation = new ParallelDocumentEvaluation(2, Schedulers.parallel());
+        final var documents          = new ArrayList<DocumentMatch>();
+        documents.add(match("policy \"first\" permit"));
+        documents.add(match("policy \"second\" deny"));
+        documents.add(match("policy \"third\" permit"));
+        documents.add(match("policy \"fourth\" permit where false;"));
+
+        final var decisions = DenyOverrides.denyOverrides(documents)
+                .contextWrite(ctx -> AuthorizationContext.setParallelDocumentEvaluation(ctx, parallelEvaluation));
+
+        StepVerifier.create(decisions).assertNext(combined -> {
+            assertThat(combined.getAuthorizationDecision().getDecision()).isEqualTo(Decision.DENY);
+            final var names = new ArrayList<String>();
+            combined.getTrace().get(Trace.EVALUATED_POLICIES)
+                    .forEach(policy -> names.add(policy.get(Trace.POLICY_NAME).asText()));
+            assertThat(names).containsExactly("first", "second", "third", "fourth");
+        }).verifyComplete();
+        assertThat(parallelEvaluation.getNumberOfFanOuts()).isEqualTo(1L);
+        assertThat(parallelEvaluation.getMaximumFanOutWidth()).isEqualTo(4L);
+        assertThat(parallelEvaluation.getNumberOfScheduledDocuments()).isEqualTo(4L);
+        assertThat(parallelEvaluation.getMaximumQueueingDelay())
+                .isGreaterThanOrEqualTo(parallelEvaluation.getAverageQueueingDelay());
+    }
+
+    @Test
+    void when_noParallelEvaluationInContext_then_decisionIsUnchanged() {
+        final var documents = List.of(match("policy \"first\" permit"), match("policy \"second\" deny"));
+        StepVerifier.create(DenyOverrides.denyOverrides(documents))
+                .expectNextMatches(combined -> combined.getAuthorizationDecision().getDecision() == Decision.DENY)
+                .verifyComplete();
+    }
+
+    private static DocumentMatch match(String policy) {
+        return new DocumentMatch(INTERPRETER.parseDocument(policy), Val.TRUE);
+    }
+
+}
@@ -17,11 +17,16 @@
  */
 package io.sapl.interpreter.context;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
 import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
 import reactor.util.context.Context;
 
 class AuthorizationContextTests {
@@ -38,4 +43,59 @@ void when_setReservedVariableName_then_throw() {
         assertThatThrownBy(() -> AuthorizationContext.setVariable(ctx, "environment", Val.NULL)).hasMessage(
                 String.format(AuthorizationContext.CANNOT_OVERWRITE_REQUEST_VARIABLE_S_ERROR, "environment"));
     }
+
+    @Test
+    void when_variablesAreSet_then_laterDefinitionsShadowEarlierOnes() {
+        final var environment = AuthorizationContext.setVariables(Context.empty(),
+                Map.of("a", Val.of(1), "b", Val.of(2)));
+        final var defined     = AuthorizationContext.setVariable(environment, "a", Val.of(3));
+        final var removed     = AuthorizationContext.setVariable(defined, "b", Val.UNDEFINED);
+
+        assertThat(AuthorizationContext.getVariable(environment, "a")).isEqualTo(Val.of(1));
+        assertThat(AuthorizationContext.getVariable(defined, "a")).isEqualTo(Val.of(3));
+        assertThat(AuthorizationContext.getVariable(defined, "b")).isEqualTo(Val.of(2));
+        assertThat(AuthorizationContext.getVariable(removed, "b")).isEqualTo(Val.UNDEFINED);
+        assertThat(AuthorizationContext.getVariable(removed, "c")).isEqualTo(Val.UNDEFINED);
+        assertThat(AuthorizationContext.getVariables(removed)).containsOnly(entry("a", Val.of(3)));
+        assertThat(AuthorizationContext.getVariables(environment)).containsOnly(entry("a", Val.of(1)),
+                entry("b", Val.of(2)));
+    }
+
+    @Test
+    void when_manyVariablesAreSet_then_lookupsSeeAllDefinitions() {
+        final var count = 3 * VariableEnvironment.MAXIMUM_CHAIN_LENGTH + 1;
+        var       ctx   = AuthorizationContext.setVariables(Context.empty(), Map.of("base", Val.of(-1)));
+        for (var i = 0; i < count; i++) {
+            ctx = AuthorizationContext.setVariable(ctx, "v_" + i, Val.of(i));
+        }
+        ctx = AuthorizationContext.setVariable(ctx, "v_0", Val.of(42));
+        ctx = AuthorizationContext.setVariable(ctx, "v_1", Val.UNDEFINED);
+
+        assertThat(AuthorizationContext.getVariable(ctx, "base")).isEqualTo(Val.of(-1));
+        assertThat(AuthorizationContext.getVariable(ctx, "v_0")).isEqualTo(Val.of(42));
+        assertThat(AuthorizationContext.getVariable(ctx, "v_1")).isEqualTo(Val.UNDEFINED);
+        for (var i = 2; i < count; i++) {
+            assertThat(AuthorizationContext.getVariable(ctx, "v_" + i)).isEqualTo(Val.of(i));
+        }
+        assertThat(AuthorizationContext.getVariables(ctx)).hasSize(count).doesNotContainKey("v_1")
+                .contains(entry("v_0", Val.of(42)), entry("base", Val.of(-1)));
+    }
+
+    @Test
+    void when_subscriptionVariablesAreSet_then_theyAreAvailable() {
+        final var subscription = AuthorizationSubscription.of("willi", "read", "something");
+        final var ctx          = AuthorizationContext.setSubscriptionVariables(Context.empty(), subscription);
+
+        assertThat(AuthorizationContext.getVariable(ctx, "subject")).isEqualTo(Val.of("willi"));
+        assertThat(AuthorizationContext.getVariable(ctx, "action")).isEqualTo(Val.of("read"));
+        assertThat(AuthorizationContext.getVariables(ctx)).containsKeys("subject", "action", "resource",
+                "environment");
+    }
+
+    @Test
+    void when_noVariablesAreSet_then_environmentIsEmpty() {
+        assertThat(AuthorizationContext.getVariables(Context.empty())).isEmpty();
+        assertThat(AuthorizationContext.getVariable(Context.empty(), "a")).isEqualTo(Val.UNDEFINED);
+    }
+
 }
@@ -112,6 +112,56 @@ void simpleFunctionCallWithVarArgsParameters() throws InitializationException {
                 is(MockLibrary.RETURN_VALUE));
     }
 
+    @Test
+    void when_instanceLibrary_then_functionIsInvokedOnTheInstance() throws InitializationException {
+        @FunctionLibrary(name = "counter")
+        class CounterLibrary {
+            private int invocations;
+
+            @Function
+            public Val count(Val increment) {
+                invocations += increment.get().asInt();
+                return Val.of(invocations);
+            }
+        }
+        final var context = new AnnotationFunctionContext(() -> List.of(new CounterLibrary()), List::of);
+        context.evaluate(null, "counter.count", Val.of(2));
+        assertThat(context.evaluate(null, "counter.count", Val.of(3)), is(Val.of(5)));
+    }
+
+    @Test
+    void when_staticLibraryWithVarArgs_then_allArgumentsArePassed() throws InitializationException {
+        final var context = new AnnotationFunctionContext(List::of, () -> List.of(StaticVarArgsLibrary.class));
+        assertThat(context.evaluate(null, "varargs.count", Val.TRUE, Val.FALSE, Val.NULL), is(Val.of(3)));
+        assertThat(context.evaluate(null, "varargs.count"), is(Val.of(0)));
+    }
+
+    @Test
+    void when_functionIsResolved_then_itEvaluatesLikeTheContext() throws InitializationException {
+        final var context  = new AnnotationFunctionContext(List::of, () -> List.of(StaticVarArgsLibrary.class));
+        final var function = context.resolveFunction("varargs.count");
+        assertThat(function.evaluateWithoutTrace(null, Val.TRUE, Val.FALSE), is(Val.of(2)));
+        assertThat(function.evaluate(null, Val.TRUE).getTrace(),
+                is(context.evaluate(null, "varargs.count", Val.TRUE).getTrace()));
+    }
+
+    @Test
+    void when_unknownFunctionIsResolvedBeforeLoading_then_loadedFunctionIsUsed() throws InitializationException {
+        final var context  = new AnnotationFunctionContext();
+        final var function = context.resolveFunction("varargs.count");
+        assertThat(function.evaluateWithoutTrace(null, Val.TRUE), valError());
+        context.loadLibrary(StaticVarArgsLibrary.class);
+        assertThat(function.evaluateWithoutTrace(null, Val.TRUE), is(Val.of(1)));
+    }
+
+    @FunctionLibrary(name = "varargs")
+    public static class StaticVarArgsLibrary {
+        @Function
+        public static Val count(Val... parameters) {
+            return Val.of(parameters.length);
+        }
+    }
+
     @Test
     void validationForFixedParametersFailsOnWrongInput() throws InitializationException {
         final var context = new AnnotationFunctionContext(() -> List.of(new ValidationLibrary()), List::of);
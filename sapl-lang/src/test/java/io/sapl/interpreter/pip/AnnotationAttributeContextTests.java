@@ -29,6 +29,7 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -1014,6 +1015,32 @@ public Flux<Val> attribute(Val leftHand, Map<String, Val> variables, @Text Val..
                 .expectNextMatches(valErrorText("Unknown attribute test.attribute")).verifyComplete();
     }
 
+    @Test
+    void when_attributeStreamBrokerIsUsed_then_identicalAttributesShareOneInvocation()
+            throws InitializationException, IOException {
+        final var invocations = new AtomicInteger();
+        @PolicyInformationPoint(name = "test")
+        class PIP {
+
+            @EnvironmentAttribute
+            public Flux<Val> attribute(@Text Val param) {
+                invocations.incrementAndGet();
+                return Flux.<Val>just(param).concatWith(Flux.never());
+            }
+
+        }
+
+        final var attributeCtx = new AnnotationAttributeContext(new AttributeStreamBroker());
+        attributeCtx.loadPolicyInformationPoint(new PIP());
+        final var variables  = Map.<String, Val>of();
+        final var expression = ParserUtil.expression("<test.attribute(\"param\")>");
+        final var first      = expression.evaluate().contextWrite(this.constructContext(attributeCtx, variables));
+        final var second     = expression.evaluate().contextWrite(this.constructContext(attributeCtx, variables));
+        StepVerifier.create(Flux.merge(first, second).take(2)).expectNext(Val.of("param"), Val.of("param"))
+                .verifyComplete();
+        assertThat(invocations.get(), is(1));
+    }
+
     private Function<Context, Context> constructContext(AttributeContext attributeCtx, Map<String, Val> variables) {
         return ctx -> {
             ctx = AuthorizationContext.setAttributeContext(ctx, attributeCtx);
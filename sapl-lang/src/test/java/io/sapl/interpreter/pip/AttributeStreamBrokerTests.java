@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class AttributeStreamBrokerTests {
+
+    private static final Method ATTRIBUTE_FINDER = attributeFinder();
+
+    @Test
+    void when_identicalInvocations_then_upstreamIsSubscribedOnlyOnce() {
+        final var broker        = new AttributeStreamBroker(Duration.ZERO);
+        final var subscriptions = new AtomicInteger();
+        final var sink          = Sinks.many().multicast().<Val>directBestEffort();
+        final var upstream      = sink.asFlux().doOnSubscribe(s -> subscriptions.incrementAndGet());
+
+        final var first  = broker.attributeStream("test.attribute", ATTRIBUTE_FINDER,
+                new Object[] { Val.of("left"), Val.of(1) }, () -> upstream);
+        final var second = broker.attributeStream("test.attribute", ATTRIBUTE_FINDER,
+                new Object[] { Val.of("left"), Val.of(1) }, () -> upstream);
+
+        final var firstValues  = first.take(2).collectList();
+        final var secondValues = second.take(2).collectList();
+        StepVerifier.create(firstValues.zipWith(secondValues)).then(() -> {
+            sink.tryEmitNext(Val.of("a"));
+            sink.tryEmitNext(Val.of("b"));
+        }).assertNext(values -> {
+            assertThat(values.getT1()).containsExactly(Val.of("a"), Val.of("b"));
+            assertThat(values.getT2()).containsExactly(Val.of("a"), Val.of("b"));
+        }).verifyComplete();
+        assertThat(subscriptions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void when_differentArguments_then_separateUpstreams() {
+        final var broker        = new AttributeStreamBroker();
+        final var subscriptions = new AtomicInteger();
+
+        final var first  = broker.attributeStream("test.attribute", ATTRIBUTE_FINDER, new Object[] { Val.of(1) },
+                () -> Flux.just(Val.of(1)).doOnSubscribe(s -> subscriptions.incrementAndGet()));
+        final var second = broker.attributeStream("test.attribute", ATTRIBUTE_FINDER, new Object[] { Val.of(2) },
+                () -> Flux.just(Val.of(2)).doOnSubscribe(s -> subscriptions.incrementAndGet()));
+
+        StepVerifier.create(first).expectNext(Val.of(1)).verifyComplete();
+        StepVerifier.create(second).expectNext(Val.of(2)).verifyComplete();
+        assertThat(subscriptions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void when_varArgsAreEqual_then_streamIsShared() {
+        final var broker = new AttributeStreamBroker();
+        final var first  = broker.attributeStream("test.attribute", ATTRIBUTE_FINDER,
+                new Object[] { new Val[] { Val.of(1), Val.of(2) } }, Flux::never);
+        final var second = broker.attributeStream("test.attribute", ATTRIBUTE_FINDER,
+                new Object[] { new Val[] { Val.of(1), Val.of(2) } }, Flux::never);
+        assertThat(first).isSameAs(second);
+        assertThat(broker.numberOfActiveStreams()).isEqualTo(1);
+    }
+
+    @Test
+    void when_lateSubscriber_then_latestValueIsReplayed() {
+        final var broker   = new AttributeStreamBroker();
+        final var sink     = Sinks.many().replay().<Val>latest();
+        final var upstream = sink.asFlux();
+        final var stream   = broker.attributeStream("test.attribute", ATTRIBUTE_FINDER, new Object[0],
+                () -> upstream);
+
+        final var firstSubscriber = stream.subscribe();
+        sink.tryEmitNext(Val.of("a"));
+        sink.tryEmitNext(Val.of("b"));
+
+        StepVerifier.create(stream.take(1)).expectNext(Val.of("b")).verifyComplete();
+        firstSubscriber.dispose();
+    }
+
+    @Test
+    void when_lastSubscriberLeavesAndGracePeriodExpires_then_streamIsRemoved() {
+        final var broker    = new AttributeStreamBroker(Duration.ZERO);
+        final var cancelled = new AtomicInteger();
+        final var stream    = broker.attributeStream("test.attribute", ATTRIBUTE_FINDER, new Object[0],
+                () -> Flux.<Val>never().doOnCancel(cancelled::incrementAndGet));
+
+        final var subscriber = stream.subscribe();
+        assertThat(broker.numberOfActiveStreams()).isEqualTo(1);
+        subscriber.dispose();
+
+        StepVerifier.create(Flux.interval(Duration.ofMillis(10L))
+                .takeUntil(i -> broker.numberOfActiveStreams() == 0).timeout(Duration.ofSeconds(5L)).then())
+                .verifyComplete();
+        assertThat(cancelled.get()).isEqualTo(1);
+    }
+
+    private static Method attributeFinder() {
+        try {
+            return AttributeStreamBrokerTests.class.getDeclaredMethod("attributeFinder");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
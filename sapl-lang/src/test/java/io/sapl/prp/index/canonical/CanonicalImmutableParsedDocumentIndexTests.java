@@ -136,6 +136,47 @@ void test_apply_update_events() {
         verify(spyIndex, times(1)).recreateIndex(argThat(Map::isEmpty), eq(false));
     }
 
+    @Test
+    void when_documentIsPublished_then_onlyItsTargetIsTransformed() {
+        final var p1 = new Update(Type.PUBLISH,
+                INTERPERETER.parseDocument("policy \"p1\" permit subject == \"willi\""));
+        final var p2 = new Update(Type.PUBLISH,
+                INTERPERETER.parseDocument("policy \"p2\" permit action == \"read\""));
+        final var p3 = new Update(Type.PUBLISH,
+                INTERPERETER.parseDocument("policy \"p3\" permit resource == \"something\""));
+
+        final var index = emptyIndex.apply(new PrpUpdateEvent(p1, p2, update(Type.CONSISTENT, null)));
+
+        try (MockedStatic<TreeWalker> walker = mockStatic(TreeWalker.class, Mockito.CALLS_REAL_METHODS)) {
+            final var updatedIndex = index.apply(new PrpUpdateEvent(p3));
+            walker.verify(() -> TreeWalker.walk(any(), any()), times(1));
+            assertThat(updatedIndex.allDocuments(), hasSize(3));
+
+            final var reducedIndex = updatedIndex.apply(new PrpUpdateEvent(new Update(Type.WITHDRAW, p1.getDocument())));
+            walker.verify(() -> TreeWalker.walk(any(), any()), times(1));
+            assertThat(reducedIndex.allDocuments(), hasSize(2));
+        }
+    }
+
+    @Test
+    void when_documentSetIsUnchanged_then_indexDataIsNotRebuilt() {
+        final var orderStrategy = spy(new NoPredicateOrderStrategy());
+        final var index         = new CanonicalImmutableParsedDocumentIndex(orderStrategy,
+                new AnnotationAttributeContext(), new AnnotationFunctionContext());
+        final var p1            = new Update(Type.PUBLISH,
+                INTERPERETER.parseDocument("policy \"p1\" permit subject == \"willi\""));
+
+        final var published = index.apply(new PrpUpdateEvent(p1, update(Type.CONSISTENT, null)));
+        verify(orderStrategy, times(2)).createPredicateOrder(any());
+
+        final var inconsistent = published.apply(new PrpUpdateEvent(update(Type.INCONSISTENT, null)));
+        final var consistent   = inconsistent.apply(new PrpUpdateEvent(update(Type.CONSISTENT, null)));
+        verify(orderStrategy, times(2)).createPredicateOrder(any());
+        assertFalse(inconsistent.isConsistent());
+        assertTrue(consistent.isConsistent());
+        assertThat(consistent.allDocuments(), hasSize(1));
+    }
+
     private Update update(Type type, String name) {
         return new Update(type, INTERPERETER.parseDocument("policy \"" + name + "\" permit"));
     }
@@ -89,7 +89,7 @@ void skip_predicates_without_candidate_references() {
                             .thenAnswer(invocation -> matchingCtx
                                     .isPredicateReferencedInCandidates(invocation.getArgument(0, Predicate.class))))) {
 
-                final var result = CanonicalIndexAlgorithm.match(dataContainer).block();
+                final var result = CanonicalIndexAlgorithm.matchCollectorNewest(dataContainer).block();
 
                 assertThat(result, notNullValue());
 
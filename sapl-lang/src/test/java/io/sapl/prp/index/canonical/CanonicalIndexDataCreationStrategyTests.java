@@ -18,6 +18,7 @@
 package io.sapl.prp.index.canonical;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 
@@ -29,6 +30,8 @@
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 
+import io.sapl.prp.Document;
+
 class CanonicalIndexDataCreationStrategyTests {
 
     @Test
@@ -74,4 +77,29 @@ void testCreatePredicateInfo() {
         assertThat(boolToPredicateInfo.get(bool).getGroupedNumberOfNegatives(), is(1));
     }
 
+    @Test
+    void when_documentSetIsUpdated_then_mappingsEqualThoseOfNewlyConstructedIndexData() {
+        final var strategy = new CanonicalIndexDataCreationStrategy();
+        final var shared   = new DisjunctiveFormula(new ConjunctiveClause(new Literal(new Bool(true))));
+        final var other    = new DisjunctiveFormula(new ConjunctiveClause(new Literal(new Bool(false))),
+                new ConjunctiveClause(new Literal(new Bool(true), true)));
+        final var d1       = new Document("1", "p1", null, null, null);
+        final var d2       = new Document("2", "p2", null, null, null);
+        final var d3       = new Document("3", "p3", null, null, null);
+
+        final var previous = strategy.constructNew(Map.of("p1", d1, "p2", d2), Map.of("p1", shared, "p2", shared));
+        final var updated  = strategy.constructUpdated(previous, Map.of(d1, shared), Map.of(d3, other));
+        final var expected = strategy.constructNew(Map.of("p2", d2, "p3", d3), Map.of("p2", shared, "p3", other));
+
+        assertThat(updated.getFormulaToDocuments(), is(expected.getFormulaToDocuments()));
+        assertThat(updated.getClauseToFormulas(), is(expected.getClauseToFormulas()));
+        assertThat(updated.getNumberOfConjunctions(), is(expected.getNumberOfConjunctions()));
+        assertThat(previous.getFormulaToDocuments().get(shared), hasSize(2));
+
+        final var reduced = strategy.constructUpdated(updated, Map.of(d2, shared), Map.of());
+        assertThat(reduced.getFormulaToDocuments().keySet(), Matchers.contains(other));
+        assertThat(reduced.getClauseToFormulas().keySet(), hasSize(2));
+        assertThat(updated.getFormulaToDocuments().keySet(), hasSize(2));
+    }
+
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.prp.Document;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+class CanonicalIndexSynchronousMatcherTests {
+
+    @Test
+    void when_predicateIsSynchronous_then_matchWithoutReactivePipeline() {
+        final var document      = mock(Document.class);
+        final var dataContainer = singleConjunctionContainer(new Predicate(new Bool(true)), document);
+
+        final var result = CanonicalIndexSynchronousMatcher.match(dataContainer, Context.empty());
+
+        assertThat(result.getMatchingDocuments(), hasSize(1));
+        assertThat(result.getMatchingDocuments().get(0).document(), is(document));
+        assertThat(result.isRetrievalWithErrors(), is(false));
+    }
+
+    @Test
+    void when_predicateIsFalse_then_noMatch() {
+        final var dataContainer = singleConjunctionContainer(new Predicate(new Bool(false)), mock(Document.class));
+
+        final var result = CanonicalIndexSynchronousMatcher.match(dataContainer, Context.empty());
+
+        assertThat(result.getMatchingDocuments(), hasSize(0));
+    }
+
+    @Test
+    void when_predicateIsAsynchronous_then_fallBackToReactiveMatching() {
+        final var bool = mock(Bool.class);
+        when(bool.evaluateExpression()).thenReturn(Mono.just(Val.TRUE).delayElement(Duration.ofMillis(10L)));
+        final var document      = mock(Document.class);
+        final var dataContainer = singleConjunctionContainer(new Predicate(bool), document);
+
+        assertThat(CanonicalIndexSynchronousMatcher.match(dataContainer, Context.empty()), nullValue());
+
+        final var result = CanonicalIndexAlgorithm.match(dataContainer).block();
+        assertThat(result.getMatchingDocuments(), hasSize(1));
+        assertThat(result.getMatchingDocuments().get(0).document(), is(document));
+    }
+
+    private static CanonicalIndexDataContainer singleConjunctionContainer(Predicate predicate, Document document) {
+        predicate.getConjunctions().set(0);
+        predicate.getFalseForFalsePredicate().set(0);
+        final var formula       = mock(DisjunctiveFormula.class);
+        final var dataContainer = mock(CanonicalIndexDataContainer.class);
+        when(dataContainer.getPredicateOrder()).thenReturn(ImmutableList.of(predicate));
+        when(dataContainer.getNumberOfConjunctions()).thenReturn(1);
+        when(dataContainer.getNumberOfLiteralsInConjunction(0)).thenReturn(1);
+        when(dataContainer.getNumberOfFormulasWithConjunction(0)).thenReturn(1);
+        when(dataContainer.getConjunctionsInFormulasReferencingConjunction(0)).thenReturn(Set.of());
+        when(dataContainer.getRelatedFormulas(0)).thenReturn(Set.of(formula));
+        when(dataContainer.getPoliciesIncludingFormula(formula)).thenReturn(Set.of(document));
+        return dataContainer;
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.SAPLInterpreter;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.prp.Document;
+import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.PrpUpdateEvent.Type;
+import io.sapl.prp.PrpUpdateEvent.Update;
+import io.sapl.prp.index.UpdateEventDrivenPolicyRetrievalPoint;
+import io.sapl.prp.index.canonical.ordering.DefaultPredicateOrderStrategy;
+import io.sapl.prp.index.naive.NaiveImmutableParsedDocumentIndex;
+import reactor.core.publisher.Mono;
+
+class EqualityPartitionTests {
+
+    private static final SAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
+    private static final List<Document> DOCUMENTS = Stream.of(
+            "policy \"getInvoice\" permit action == \"GET\" & resource.type == \"invoice\"",
+            "policy \"postInvoice\" permit action == \"POST\" & resource.type == \"invoice\"",
+            "policy \"getOrder\" permit action == \"GET\" & resource.'type' == \"order\"",
+            "policy \"notGet\" permit !(action == \"GET\")",
+            "policy \"numberType\" permit resource.type == 1",
+            "policy \"swapped\" permit \"GET\" == action",
+            "policy \"getOrDelete\" permit action == \"GET\" | action == \"DELETE\"",
+            "policy \"getAndPost\" permit action == \"GET\" & action == \"POST\"",
+            "policy \"nullType\" permit resource.type == null & !(action == \"POST\")")
+            .map(INTERPRETER::parseDocument).toList();
+
+    private static Stream<Arguments> provideSubscriptions() {
+        return Stream.of(Arguments.of("\"GET\"", "{ \"type\" : \"invoice\" }"),
+                Arguments.of("\"POST\"", "{ \"type\" : \"invoice\" }"), Arguments.of("\"GET\"", "{ \"type\" : 1.0 }"),
+                Arguments.of("\"DELETE\"", "{ \"type\" : null }"), Arguments.of("null", "{ }"),
+                Arguments.of("\"GET\"", "\"no object\""), Arguments.of("[ \"GET\" ]", "{ \"type\" : \"order\" }"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSubscriptions")
+    void when_lookup_then_sameDocumentsAsNaiveIndex(String action, String resource) throws JsonProcessingException {
+        final var subscription = new AuthorizationSubscription(Val.NULL.get(), Val.ofJson(action).get(),
+                Val.ofJson(resource).get(), Val.NULL.get());
+        final var canonical    = publish(new CanonicalImmutableParsedDocumentIndex(new AnnotationAttributeContext(),
+                new AnnotationFunctionContext()));
+        final var naive        = publish(new NaiveImmutableParsedDocumentIndex());
+
+        final var canonicalResult = retrieve(canonical, subscription);
+        final var naiveResult     = retrieve(naive, subscription);
+
+        assertThat(canonicalResult.isRetrievalWithErrors()).isEqualTo(naiveResult.isRetrievalWithErrors());
+        assertThat(names(canonicalResult)).containsExactlyInAnyOrderElementsOf(names(naiveResult));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSubscriptions")
+    void when_partitioningIsDisabled_then_sameDocumentsAsWithPartitioning(String action, String resource)
+            throws JsonProcessingException {
+        final var subscription  = new AuthorizationSubscription(Val.NULL.get(), Val.ofJson(action).get(),
+                Val.ofJson(resource).get(), Val.NULL.get());
+        final var partitioned   = publish(new CanonicalImmutableParsedDocumentIndex(new AnnotationAttributeContext(),
+                new AnnotationFunctionContext()));
+        final var unpartitioned = publish(new CanonicalImmutableParsedDocumentIndex(
+                new DefaultPredicateOrderStrategy(), false, new AnnotationAttributeContext(),
+                new AnnotationFunctionContext()));
+
+        assertThat(names(retrieve(unpartitioned, subscription)))
+                .containsExactlyInAnyOrderElementsOf(names(retrieve(partitioned, subscription)));
+    }
+
+    @Test
+    void when_getInvoice_then_matchingDocumentsAreFound() throws JsonProcessingException {
+        final var subscription = new AuthorizationSubscription(Val.NULL.get(), Val.of("GET").get(),
+                Val.ofJson("{ \"type\" : \"invoice\" }").get(), Val.NULL.get());
+        final var canonical    = publish(new CanonicalImmutableParsedDocumentIndex(new AnnotationAttributeContext(),
+                new AnnotationFunctionContext()));
+
+        assertThat(names(retrieve(canonical, subscription))).containsExactlyInAnyOrder("getInvoice", "swapped",
+                "getOrDelete");
+    }
+
+    @Test
+    void when_indexIsCreated_then_equalityPredicatesArePartitionedByPath() {
+        final var documents = new HashMap<String, Document>();
+        final var targets   = new HashMap<String, DisjunctiveFormula>();
+        for (var document : DOCUMENTS) {
+            final var name = document.sapl().getPolicyElement().getSaplName();
+            documents.put(name, document);
+            targets.put(name, TreeWalker.walk(document.sapl().getImplicitTargetExpression(), Map.of()));
+        }
+
+        final var dataContainer = new CanonicalIndexDataCreationStrategy().constructNew(documents, targets);
+
+        // action: GET, POST, DELETE; resource.type: invoice, order, 1, null
+        assertThat(dataContainer.getEqualityPartitions()).hasSize(2);
+        assertThat(dataContainer.getPredicateOrder()).filteredOn(p -> null != p.getEqualityPartition()).hasSize(7);
+    }
+
+    @Test
+    void when_partitioningIsDisabled_then_noPartitionsAreCreated() {
+        final var documents = new HashMap<String, Document>();
+        final var targets   = new HashMap<String, DisjunctiveFormula>();
+        for (var document : DOCUMENTS) {
+            final var name = document.sapl().getPolicyElement().getSaplName();
+            documents.put(name, document);
+            targets.put(name, TreeWalker.walk(document.sapl().getImplicitTargetExpression(), Map.of()));
+        }
+
+        final var dataContainer = new CanonicalIndexDataCreationStrategy(new DefaultPredicateOrderStrategy(), false)
+                .constructNew(documents, targets);
+
+        assertThat(dataContainer.getEqualityPartitions()).isEmpty();
+        assertThat(dataContainer.getPredicateOrder()).allMatch(p -> null == p.getEqualityPartition());
+    }
+
+    private static UpdateEventDrivenPolicyRetrievalPoint publish(UpdateEventDrivenPolicyRetrievalPoint index) {
+        final var updates = DOCUMENTS.stream().map(document -> new Update(Type.PUBLISH, document))
+                .toArray(Update[]::new);
+        return index.apply(new PrpUpdateEvent(updates));
+    }
+
+    private static PolicyRetrievalResult retrieve(UpdateEventDrivenPolicyRetrievalPoint index,
+            AuthorizationSubscription subscription) {
+        return index.retrievePolicies().contextWrite(ctx -> {
+            ctx = AuthorizationContext.setAttributeContext(ctx, new AnnotationAttributeContext());
+            ctx = AuthorizationContext.setFunctionContext(ctx, new AnnotationFunctionContext());
+            ctx = AuthorizationContext.setVariables(ctx, Map.of());
+            ctx = AuthorizationContext.setSubscriptionVariables(ctx, subscription);
+            return ctx;
+        }).switchIfEmpty(Mono.error(new IllegalStateException())).block();
+    }
+
+    private static List<String> names(PolicyRetrievalResult result) {
+        return result.getMatchingDocuments().stream()
+                .map(match -> match.document().sapl().getPolicyElement().getSaplName()).toList();
+    }
+
+}
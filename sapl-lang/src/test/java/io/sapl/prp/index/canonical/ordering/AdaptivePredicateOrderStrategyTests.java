@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical.ordering;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.prp.Document;
+import io.sapl.prp.index.canonical.Bool;
+import io.sapl.prp.index.canonical.CanonicalIndexAlgorithm;
+import io.sapl.prp.index.canonical.CanonicalIndexDataCreationStrategy;
+import io.sapl.prp.index.canonical.ConjunctiveClause;
+import io.sapl.prp.index.canonical.DisjunctiveFormula;
+import io.sapl.prp.index.canonical.Literal;
+import io.sapl.prp.index.canonical.Predicate;
+import io.sapl.prp.index.canonical.PredicateInfo;
+import reactor.core.scheduler.Schedulers;
+
+class AdaptivePredicateOrderStrategyTests {
+
+    private static final AdaptivePredicateOrderStrategy STRATEGY = new AdaptivePredicateOrderStrategy(Duration.ZERO,
+            10L, Schedulers.immediate());
+
+    @Test
+    void when_invalidParameters_then_throw() {
+        final var scheduler = Schedulers.immediate();
+        assertThatThrownBy(() -> new AdaptivePredicateOrderStrategy(Duration.ofSeconds(-1L), 1L, scheduler))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptivePredicateOrderStrategy(Duration.ZERO, 0L, scheduler))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void when_expensivePredicate_then_orderedLast() {
+        final var expensive = positivePredicateInfo(new Bool(true));
+        final var cheap     = positivePredicateInfo(new Bool(false));
+        record(expensive.getPredicate(), 10_000L, Val.FALSE, 10);
+        record(cheap.getPredicate(), 10L, Val.FALSE, 10);
+
+        assertThat(STRATEGY.createPredicateOrder(List.of(expensive, cheap))).containsExactly(cheap.getPredicate(),
+                expensive.getPredicate());
+    }
+
+    @Test
+    void when_predicateRarelyEliminatesCandidates_then_orderedLast() {
+        final var unselective = positivePredicateInfo(new Bool(true));
+        final var selective   = positivePredicateInfo(new Bool(false));
+        record(unselective.getPredicate(), 10L, Val.TRUE, 10);
+        record(selective.getPredicate(), 10L, Val.FALSE, 10);
+
+        assertThat(STRATEGY.createPredicateOrder(List.of(unselective, selective)))
+                .containsExactly(selective.getPredicate(), unselective.getPredicate());
+    }
+
+    @Test
+    void when_tooFewSamples_then_statisticsAreIgnored() {
+        final var expensive = positivePredicateInfo(new Bool(true));
+        final var cheap     = positivePredicateInfo(new Bool(false));
+        expensive.incGroupedNumberOfPositives();
+        record(expensive.getPredicate(), 10_000L, Val.FALSE, 10);
+        record(cheap.getPredicate(), 10L, Val.FALSE, 9);
+
+        assertThat(STRATEGY.createPredicateOrder(List.of(cheap, expensive))).containsExactly(expensive.getPredicate(),
+                cheap.getPredicate());
+    }
+
+    @Test
+    void when_indexIsLookedUp_then_predicatesAreReordered() {
+        final var strategy      = new AdaptivePredicateOrderStrategy(Duration.ZERO, 1L, Schedulers.immediate());
+        final var alwaysTrue    = new DisjunctiveFormula(new ConjunctiveClause(new Literal(new Bool(true))));
+        final var alwaysFalse   = new DisjunctiveFormula(new ConjunctiveClause(new Literal(new Bool(false))));
+        final var document      = mock(Document.class);
+        final var dataContainer = new CanonicalIndexDataCreationStrategy(strategy).constructNew(
+                Map.of("a", document, "b", mock(Document.class)), Map.of("a", alwaysTrue, "b", alwaysFalse));
+
+        final var result = CanonicalIndexAlgorithm.match(dataContainer).block();
+
+        assertThat(result.getMatchingDocuments()).hasSize(1);
+        assertThat(result.getMatchingDocuments().get(0).document()).isSameAs(document);
+        assertThat(dataContainer.getPredicateOrder()).hasSize(2);
+        assertThat(dataContainer.getPredicateOrder().get(0).getBool()).isEqualTo(new Bool(false));
+        assertThat(dataContainer.getPredicateOrder()).allMatch(p -> p.getStatistics().getNumberOfEvaluations() == 1L);
+    }
+
+    private static PredicateInfo positivePredicateInfo(Bool bool) {
+        final var predicateInfo = new PredicateInfo(new Predicate(bool));
+        predicateInfo.incGroupedNumberOfPositives();
+        predicateInfo.setRelevance(1.0D);
+        return predicateInfo;
+    }
+
+    private static void record(Predicate predicate, long nanos, Val result, int times) {
+        for (int i = 0; i < times; i++) {
+            predicate.getStatistics().record(nanos, result);
+        }
+    }
+
+}
@@ -89,7 +89,7 @@ public static Context setUpAuthorizationContext(Context ctx, AuthorizationSubscr
     }
 
     @UtilityClass
-    @FunctionLibrary(name = "mock")
+    @FunctionLibrary(name = "mock", pure = true)
     public static class TestFunctionLibrary {
 
         @Function
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.api.pdp;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.sapl.api.SaplVersion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import reactor.core.publisher.Flux;
+
+/**
+ * A delta-encoded element of a stream of {@link MultiAuthorizationDecision
+ * multi-decisions}.
+ * <p>
+ * The first element of a stream is a snapshot containing the decisions for all
+ * authorization subscriptions. Each following element only contains the
+ * decisions which changed since the preceding element. A new snapshot is sent
+ * whenever the set of subscription IDs changes, e.g., if the PDP answers with
+ * an INDETERMINATE multi-decision after an error. Elements are numbered
+ * consecutively starting with 0, which allows the receiver to detect lost
+ * elements.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiAuthorizationDecisionDelta implements Serializable {
+
+    private static final long serialVersionUID = SaplVersion.VERISION_UID;
+
+    @JsonProperty(required = true)
+    long sequenceNumber;
+
+    @JsonProperty(required = true)
+    boolean snapshot;
+
+    ArrayList<IdentifiableAuthorizationDecision> authorizationDecisions = new ArrayList<>();
+
+    /**
+     * Delta-encodes a stream of multi-decisions. Multi-decisions not containing
+     * any change are dropped.
+     *
+     * @param multiDecisions a stream of multi-decisions for the same
+     * multi-subscription
+     * @return the stream of deltas
+     */
+    public static Flux<MultiAuthorizationDecisionDelta> deltasOf(Flux<MultiAuthorizationDecision> multiDecisions) {
+        return Flux.defer(() -> {
+            final var previous       = new AtomicReference<HashMap<String, AuthorizationDecision>>();
+            final var sequenceNumber = new AtomicLong();
+            return multiDecisions.handle((multiDecision, sink) -> {
+                final var current = new HashMap<>(multiDecision.getAuthorizationDecisions());
+                final var delta   = delta(previous.getAndSet(current), current);
+                if (delta.snapshot || !delta.authorizationDecisions.isEmpty()) {
+                    delta.sequenceNumber = sequenceNumber.getAndIncrement();
+                    sink.next(delta);
+                }
+            });
+        });
+    }
+
+    private static MultiAuthorizationDecisionDelta delta(Map<String, AuthorizationDecision> previous,
+            Map<String, AuthorizationDecision> current) {
+        final var delta = new MultiAuthorizationDecisionDelta();
+        delta.snapshot = null == previous || !previous.keySet().equals(current.keySet());
+        for (var entry : current.entrySet()) {
+            if (delta.snapshot || !entry.getValue().equals(previous.get(entry.getKey()))) {
+                delta.authorizationDecisions
+                        .add(new IdentifiableAuthorizationDecision(entry.getKey(), entry.getValue()));
+            }
+        }
+        return delta;
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.api.pdp;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.sapl.api.SaplVersion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * A command sent by a client over a multiplexed subscription channel. Many
+ * authorization subscriptions share one channel and are distinguished by their
+ * IDs. The PDP answers with {@link IdentifiableAuthorizationDecision
+ * identifiable decisions} carrying the ID of the related subscription, or with
+ * a {@link SubscriptionChannelRejection rejection} if it does not accept a
+ * subscription.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(NON_NULL)
+public class SubscriptionChannelCommand implements Serializable {
+
+    private static final long serialVersionUID = SaplVersion.VERISION_UID;
+
+    /**
+     * The kinds of commands.
+     */
+    public enum Type {
+        /**
+         * Starts streaming the decisions for an authorization subscription.
+         */
+        SUBSCRIBE,
+        /**
+         * Stops streaming the decisions for an authorization subscription.
+         */
+        UNSUBSCRIBE
+    }
+
+    @JsonProperty(required = true)
+    Type type;
+
+    @JsonProperty(required = true)
+    String authorizationSubscriptionId;
+
+    AuthorizationSubscription authorizationSubscription;
+
+    /**
+     * @param subscriptionId the ID of the subscription within the channel
+     * @param authzSubscription the authorization subscription
+     * @return a command starting the subscription
+     */
+    public static SubscriptionChannelCommand subscribe(@NonNull String subscriptionId,
+            @NonNull AuthorizationSubscription authzSubscription) {
+        return new SubscriptionChannelCommand(Type.SUBSCRIBE, subscriptionId, authzSubscription);
+    }
+
+    /**
+     * @param subscriptionId the ID of the subscription within the channel
+     * @return a command ending the subscription
+     */
+    public static SubscriptionChannelCommand unsubscribe(@NonNull String subscriptionId) {
+        return new SubscriptionChannelCommand(Type.UNSUBSCRIBE, subscriptionId, null);
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.api.pdp;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.sapl.api.SaplVersion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A frame sent by the PDP over a multiplexed subscription channel instead of
+ * decisions, if it does not accept a {@link SubscriptionChannelCommand
+ * subscribe command}. The rejected subscription is not registered with the
+ * channel, and the other subscriptions of the channel are not affected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionChannelRejection implements Serializable {
+
+    private static final long serialVersionUID = SaplVersion.VERISION_UID;
+
+    /**
+     * The name of the property distinguishing rejections from decisions.
+     */
+    public static final String REJECTION = "rejection";
+
+    /**
+     * The reasons for rejecting a subscription.
+     */
+    public enum Reason {
+        /**
+         * The channel already holds the maximal number of subscriptions. The
+         * subscription may be retried once other subscriptions have ended.
+         */
+        SUBSCRIPTION_LIMIT_EXCEEDED(true),
+        /**
+         * The command did not contain an authorization subscription. Retrying the
+         * same command is rejected again.
+         */
+        MISSING_AUTHORIZATION_SUBSCRIPTION(false);
+
+        private final boolean retryable;
+
+        Reason(boolean retryable) {
+            this.retryable = retryable;
+        }
+
+        /**
+         * @return true, if the same subscription may succeed later
+         */
+        public boolean isRetryable() {
+            return retryable;
+        }
+    }
+
+    @JsonProperty(required = true)
+    String authorizationSubscriptionId;
+
+    @JsonProperty(value = REJECTION, required = true)
+    Reason rejection;
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.api.pdp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * Immutable canonical form of an authorization subscription, used to look up
+ * shared decision streams and cached decisions. Numbers are compared by their
+ * numeric value, i.e., numerically equal subscriptions are equal keys.
+ *
+ * @param subject the canonical subject
+ * @param action the canonical action
+ * @param resource the canonical resource
+ * @param environment the canonical environment, or null if there is none
+ */
+public record SubscriptionKey(JsonNode subject, JsonNode action, JsonNode resource, JsonNode environment) {
+
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+
+    /**
+     * Creates the key of a subscription. The subscription is copied, so later
+     * changes to it do not affect the key.
+     *
+     * @param subscription an authorization subscription
+     * @return the canonical key of the subscription
+     */
+    public static SubscriptionKey of(AuthorizationSubscription subscription) {
+        return new SubscriptionKey(canonical(subscription.getSubject()), canonical(subscription.getAction()),
+                canonical(subscription.getResource()), canonical(subscription.getEnvironment()));
+    }
+
+    private static JsonNode canonical(JsonNode node) {
+        if (null == node) {
+            return null;
+        }
+        if (node.isNumber()) {
+            if (node.isFloatingPointNumber() && !Double.isFinite(node.doubleValue())) {
+                return node;
+            }
+            return JSON.numberNode(node.decimalValue().stripTrailingZeros());
+        }
+        if (node.isObject()) {
+            final var object = JSON.objectNode();
+            node.fields().forEachRemaining(field -> object.set(field.getKey(), canonical(field.getValue())));
+            return object;
+        }
+        if (node.isArray()) {
+            final var array = JSON.arrayNode(node.size());
+            node.forEach(element -> array.add(canonical(element)));
+            return array;
+        }
+        return node.deepCopy();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.api.pdp;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class MultiAuthorizationDecisionDeltaTests {
+
+    @Test
+    void firstMultiDecisionIsSentAsSnapshot() {
+        final var multiDecision = multiDecision(AuthorizationDecision.PERMIT, AuthorizationDecision.DENY);
+
+        StepVerifier.create(MultiAuthorizationDecisionDelta.deltasOf(Flux.just(multiDecision)))
+                .assertNext(delta -> assertAll(() -> assertThat(delta.getSequenceNumber(), is(0L)),
+                        () -> assertThat(delta.isSnapshot(), is(true)),
+                        () -> assertThat(delta.getAuthorizationDecisions(), containsInAnyOrder(
+                                new IdentifiableAuthorizationDecision("a", AuthorizationDecision.PERMIT),
+                                new IdentifiableAuthorizationDecision("b", AuthorizationDecision.DENY)))))
+                .verifyComplete();
+    }
+
+    @Test
+    void onlyChangedDecisionsAreSentAndUnchangedMultiDecisionsAreDropped() {
+        final var multiDecisions = Flux.just(multiDecision(AuthorizationDecision.PERMIT, AuthorizationDecision.DENY),
+                multiDecision(AuthorizationDecision.PERMIT, AuthorizationDecision.DENY),
+                multiDecision(AuthorizationDecision.PERMIT, AuthorizationDecision.NOT_APPLICABLE));
+
+        StepVerifier.create(MultiAuthorizationDecisionDelta.deltasOf(multiDecisions))
+                .expectNextMatches(MultiAuthorizationDecisionDelta::isSnapshot)
+                .assertNext(delta -> assertAll(() -> assertThat(delta.getSequenceNumber(), is(1L)),
+                        () -> assertThat(delta.isSnapshot(), is(false)),
+                        () -> assertThat(delta.getAuthorizationDecisions(), containsInAnyOrder(
+                                new IdentifiableAuthorizationDecision("b", AuthorizationDecision.NOT_APPLICABLE)))))
+                .verifyComplete();
+    }
+
+    @Test
+    void changedSubscriptionIdsAreSentAsSnapshot() {
+        final var multiDecisions = Flux.just(multiDecision(AuthorizationDecision.PERMIT, AuthorizationDecision.DENY),
+                MultiAuthorizationDecision.indeterminate());
+
+        StepVerifier.create(MultiAuthorizationDecisionDelta.deltasOf(multiDecisions))
+                .expectNextMatches(MultiAuthorizationDecisionDelta::isSnapshot)
+                .assertNext(delta -> assertAll(() -> assertThat(delta.getSequenceNumber(), is(1L)),
+                        () -> assertThat(delta.isSnapshot(), is(true)),
+                        () -> assertThat(delta.getAuthorizationDecisions(), containsInAnyOrder(
+                                new IdentifiableAuthorizationDecision("", AuthorizationDecision.INDETERMINATE)))))
+                .verifyComplete();
+    }
+
+    private static MultiAuthorizationDecision multiDecision(AuthorizationDecision a, AuthorizationDecision b) {
+        final var multiDecision = new MultiAuthorizationDecision();
+        multiDecision.setAuthorizationDecisionForSubscriptionWithId("a", a);
+        multiDecision.setAuthorizationDecisionForSubscriptionWithId("b", b);
+        return multiDecision;
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.api.pdp;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+class SubscriptionKeyTests {
+
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+
+    @Test
+    void whenSubscriptionsAreNumericallyEqual_thenKeysAreEqual() {
+        final var subject = JSON.objectNode().put("age", 18);
+        subject.putArray("levels").add(1).add(2.50D);
+        final var equal = JSON.objectNode().put("age", 18.0D);
+        equal.putArray("levels").add(1.0D).add(2.5D);
+
+        final var key      = SubscriptionKey.of(AuthorizationSubscription.of(subject, "read", "resource"));
+        final var equalKey = SubscriptionKey.of(AuthorizationSubscription.of(equal, "read", "resource"));
+
+        assertAll(() -> assertThat(key, is(equalKey)), () -> assertThat(key.hashCode(), is(equalKey.hashCode())));
+    }
+
+    @Test
+    void whenSubscriptionsDiffer_thenKeysDiffer() {
+        final var key   = SubscriptionKey.of(AuthorizationSubscription.of("subject", "read", "resource"));
+        final var other = SubscriptionKey.of(AuthorizationSubscription.of("subject", "write", "resource"));
+
+        assertThat(key, is(not(other)));
+    }
+
+    @Test
+    void whenSubscriptionIsModified_thenKeyIsUnchanged() {
+        final var subscription = AuthorizationSubscription.of(JSON.objectNode().put("name", "alice"), "read",
+                "resource");
+        final var key          = SubscriptionKey.of(subscription);
+
+        ((ObjectNode) subscription.getSubject()).put("name", "bob");
+
+        assertThat(key.subject().get("name").asText(), is("alice"));
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.SubscriptionKey;
+import io.sapl.interpreter.CombinedDecision;
+import io.sapl.interpreter.combinators.PolicyDocumentCombiningAlgorithm;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.pip.AttributeContext;
+import io.sapl.pdp.config.PDPConfiguration;
+import io.sapl.prp.DocumentMatch;
+import io.sapl.prp.PolicyRetrievalPoint;
+import io.sapl.prp.PolicyRetrievalResult;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches the decisions of one-shot authorization subscriptions.
+ * <p>
+ * If none of the matching documents accesses attributes and all functions they
+ * call are declared pure by their libraries, the decision is a function of the
+ * subscription and the PDP configuration only. Such decisions
+ * are cached by the canonical subscription and the generation of the PDP
+ * configuration. The generation is incremented whenever the policy retrieval
+ * point, the variables, the combining algorithm, or the libraries change, and
+ * all cached decisions of previous generations are dropped. Subscriptions
+ * matching documents which access attributes, or call functions which are
+ * time-dependent, non-deterministic, have side effects like logging, or are
+ * simply not known to be pure, bypass the cache.
+ * <p>
+ * Decisions contain mutable JSON nodes and are handed out to callers. Thus, the
+ * cache stores a copy of the authorization decision and builds a new decision
+ * with a fresh copy, the current subscription, and the current time for every
+ * hit. The trace of a cached decision does not list the evaluated documents.
+ */
+public class DecisionCache {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000L;
+
+    private final Cache<CacheKey, CachedDecision>  decisions;
+    private final AtomicReference<GenerationState> generation = new AtomicReference<>(GenerationState.INITIAL);
+    private final LongAdder                        bypasses   = new LongAdder();
+
+    /**
+     * Creates a decision cache with the default maximum size.
+     */
+    public DecisionCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a decision cache.
+     *
+     * @param maximumSize the maximal number of cached decisions
+     */
+    public DecisionCache(long maximumSize) {
+        decisions = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    /**
+     * Looks up the decision for a subscription or evaluates and caches it.
+     *
+     * @param pdpConfiguration the configuration the decision is made with
+     * @param authorizationSubscription the subscription as received by the PDP.
+     * The documents are evaluated for this subscription, interceptors only change
+     * the subscription reported in the decision.
+     * @param interceptedSubscription the subscription after interception, which
+     * is reported in the decision
+     * @param policyRetrievalResult the documents retrieved for the subscription
+     * @param evaluation evaluates the subscription if it is not cached
+     * @return the decision
+     */
+    public Mono<PDPDecision> decide(PDPConfiguration pdpConfiguration,
+            AuthorizationSubscription authorizationSubscription, AuthorizationSubscription interceptedSubscription,
+            PolicyRetrievalResult policyRetrievalResult, Supplier<Mono<PDPDecision>> evaluation) {
+        if (!isCacheable(pdpConfiguration, policyRetrievalResult)) {
+            bypasses.increment();
+            return evaluation.get();
+        }
+        final var key    = new CacheKey(SubscriptionKey.of(authorizationSubscription),
+                generationOf(pdpConfiguration));
+        final var cached = decisions.getIfPresent(key);
+        if (null != cached) {
+            return Mono.fromSupplier(() -> PDPDecision.of(interceptedSubscription,
+                    CombinedDecision.of(copyOf(cached.authorizationDecision()), cached.combiningAlgorithm()),
+                    policyRetrievalResult));
+        }
+        return evaluation.get().doOnNext(decision -> decisions.put(key, new CachedDecision(
+                copyOf(decision.getCombinedDecision().getAuthorizationDecision()),
+                pdpConfiguration.documentsCombinator())));
+    }
+
+    private static AuthorizationDecision copyOf(AuthorizationDecision decision) {
+        return new AuthorizationDecision(decision.getDecision(), decision.getResource().map(JsonNode::deepCopy),
+                decision.getObligations().map(ArrayNode::deepCopy), decision.getAdvice().map(ArrayNode::deepCopy));
+    }
+
+    private static boolean isCacheable(PDPConfiguration pdpConfiguration,
+            PolicyRetrievalResult policyRetrievalResult) {
+        if (!pdpConfiguration.policyRetrievalPoint().isConsistent() || policyRetrievalResult.isPrpInconsistent()
+                || policyRetrievalResult.isRetrievalWithErrors()) {
+            return false;
+        }
+        for (var match : policyRetrievalResult.getMatchingDocuments()) {
+            if (isAttributeDependent(match) || !match.document()
+                    .callsOnlyPureFunctions(pdpConfiguration.attributeContext(), pdpConfiguration.functionContext())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAttributeDependent(DocumentMatch match) {
+        final var purity = match.document().purity();
+        return null == purity || purity.attributeDependent();
+    }
+
+    private long generationOf(PDPConfiguration pdpConfiguration) {
+        final var configuration = ConfigurationKey.of(pdpConfiguration);
+        final var current       = generation.get();
+        if (configuration.equals(current.configuration())) {
+            return current.generation();
+        }
+        final var next = generation.updateAndGet(state -> configuration.equals(state.configuration()) ? state
+                : new GenerationState(configuration, state.generation() + 1L));
+        decisions.asMap().keySet().removeIf(key -> key.generation() < next.generation());
+        return next.generation();
+    }
+
+    /**
+     * @return the current generation of the PDP configuration.
+     */
+    public long getGeneration() {
+        return generation.get().generation();
+    }
+
+    /**
+     * @return the number of decisions served from the cache.
+     */
+    public long getHits() {
+        return decisions.stats().hitCount();
+    }
+
+    /**
+     * @return the number of cacheable decisions which had to be evaluated.
+     */
+    public long getMisses() {
+        return decisions.stats().missCount();
+    }
+
+    /**
+     * @return the number of decisions evicted because the cache was full.
+     */
+    public long getEvictions() {
+        return decisions.stats().evictionCount();
+    }
+
+    /**
+     * @return the number of decisions which were not cacheable.
+     */
+    public long getBypasses() {
+        return bypasses.sum();
+    }
+
+    /**
+     * @return the number of currently cached decisions.
+     */
+    public long size() {
+        return decisions.size();
+    }
+
+    private record CacheKey(SubscriptionKey subscription, long generation) {}
+
+    private record CachedDecision(AuthorizationDecision authorizationDecision,
+            PolicyDocumentCombiningAlgorithm combiningAlgorithm) {}
+
+    private record GenerationState(ConfigurationKey configuration, long generation) {
+        static final GenerationState INITIAL = new GenerationState(null, 0L);
+    }
+
+    /*
+     * Policy retrieval points and contexts have no value semantics and are
+     * compared by identity.
+     */
+    private record ConfigurationKey(PolicyRetrievalPoint policyRetrievalPoint, AttributeContext attributeContext,
+            FunctionContext functionContext, Map<String, Val> variables,
+            PolicyDocumentCombiningAlgorithm documentsCombinator) {
+
+        static ConfigurationKey of(PDPConfiguration pdpConfiguration) {
+            return new ConfigurationKey(pdpConfiguration.policyRetrievalPoint(), pdpConfiguration.attributeContext(),
+                    pdpConfiguration.functionContext(), pdpConfiguration.variables(),
+                    pdpConfiguration.documentsCombinator());
+        }
+    }
+
+}
@@ -19,10 +19,10 @@
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
-import org.reactivestreams.Publisher;
-
+import io.sapl.api.interpreter.Val;
 import io.sapl.api.pdp.AuthorizationDecision;
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
@@ -31,20 +31,53 @@
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import io.sapl.api.pdp.TracedDecision;
+import io.sapl.grammar.sapl.impl.util.RegexPatternCache;
 import io.sapl.interpreter.CombinedDecision;
 import io.sapl.interpreter.combinators.CombiningAlgorithmFactory;
+import io.sapl.interpreter.combinators.ParallelDocumentEvaluation;
+import io.sapl.interpreter.combinators.PolicyDocumentCombiningAlgorithm;
 import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.pip.AttributeContext;
 import io.sapl.pdp.config.PDPConfiguration;
 import io.sapl.pdp.config.PDPConfigurationProvider;
+import io.sapl.prp.Document;
 import io.sapl.prp.PolicyRetrievalResult;
-import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.util.context.Context;
 
-@RequiredArgsConstructor
 public class EmbeddedPolicyDecisionPoint implements PolicyDecisionPoint {
 
-    private final PDPConfigurationProvider configurationProvider;
+    private final PDPConfigurationProvider   configurationProvider;
+    private final SubscriptionMultiplexer    subscriptionMultiplexer;
+    private final ParallelDocumentEvaluation parallelDocumentEvaluation;
+    private final DecisionCache              decisionCache;
+    private final boolean                    tracingEnabled;
+    private final boolean                    lazyDocumentCombining;
+    private final RegexPatternCache          regexPatternCache;
+
+    public EmbeddedPolicyDecisionPoint(PDPConfigurationProvider configurationProvider) {
+        this(builder(configurationProvider));
+    }
+
+    private EmbeddedPolicyDecisionPoint(EmbeddedPolicyDecisionPointBuilder builder) {
+        this.configurationProvider      = builder.configurationProvider;
+        this.subscriptionMultiplexer    = builder.subscriptionMultiplexer;
+        this.parallelDocumentEvaluation = builder.parallelDocumentEvaluation;
+        this.decisionCache              = builder.decisionCache;
+        this.tracingEnabled             = builder.tracingEnabled;
+        this.lazyDocumentCombining      = builder.lazyDocumentCombining;
+        this.regexPatternCache          = builder.regexPatternCache;
+    }
+
+    /**
+     * @param configurationProvider the PDP configuration
+     * @return a builder for a PDP with optional evaluation features
+     */
+    public static EmbeddedPolicyDecisionPointBuilder builder(PDPConfigurationProvider configurationProvider) {
+        return new EmbeddedPolicyDecisionPointBuilder(configurationProvider);
+    }
 
     @Override
     public Flux<AuthorizationDecision> decide(AuthorizationSubscription authorizationSubscription) {
@@ -52,16 +85,56 @@ public Flux<AuthorizationDecision> decide(AuthorizationSubscription authorizatio
                 .distinctUntilChanged();
     }
 
+    @Override
+    public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authorizationSubscription) {
+        if (null == decisionCache) {
+            return PolicyDecisionPoint.super.decideOnce(authorizationSubscription);
+        }
+        return configurationProvider.pdpConfiguration().next()
+                .flatMap(pdpConfiguration -> retrieveDocuments(authorizationSubscription).apply(pdpConfiguration))
+                .flatMap(retrieval -> decisionCache
+                        .decide(retrieval.configuration(), authorizationSubscription, retrieval.subscription(),
+                                retrieval.policyRetrievalResult(), () -> combineDocuments(retrieval).next())
+                        .map(retrieval.configuration().decisionInterceptorChain())
+                        .contextWrite(buildSubscriptionScopedContext(retrieval.configuration(),
+                                authorizationSubscription)))
+                .map(TracedDecision::getAuthorizationDecision);
+    }
+
     public Flux<TracedDecision> decideTraced(AuthorizationSubscription authorizationSubscription) {
-        return configurationProvider.pdpConfiguration().switchMap(decideSubscription(authorizationSubscription));
+        if (null != subscriptionMultiplexer) {
+            return subscriptionMultiplexer.decide(authorizationSubscription, this::evaluateSubscription);
+        }
+        return evaluateSubscription(authorizationSubscription);
     }
 
-    private Function<? super PDPConfiguration, Publisher<? extends TracedDecision>> decideSubscription(
+    /*
+     * A new PDP configuration is emitted whenever variables, the combining
+     * algorithm, or a single document change. The decision is only re-evaluated
+     * if the inputs of this subscription's evaluation changed, i.e., documents
+     * are updated in place for all subscriptions they do not match. Unchanged
+     * documents are retained by the index, so they are compared by identity.
+     */
+    private Flux<TracedDecision> evaluateSubscription(AuthorizationSubscription authorizationSubscription) {
+        return configurationProvider.pdpConfiguration().switchMap(retrieveDocuments(authorizationSubscription))
+                .distinctUntilChanged(DocumentRetrieval::evaluationKey)
+                .switchMap(retrieval -> combineDocuments(retrieval).map(retrieval.configuration()
+                        .decisionInterceptorChain())
+                        .contextWrite(buildSubscriptionScopedContext(retrieval.configuration(),
+                                authorizationSubscription)));
+    }
+
+    private Function<PDPConfiguration, Mono<DocumentRetrieval>> retrieveDocuments(
             AuthorizationSubscription authorizationSubscription) {
         return pdpConfiguration -> {
             final var subscription = pdpConfiguration.subscriptionInterceptorChain().apply(authorizationSubscription);
-            return retrieveAndCombineDocuments(pdpConfiguration, subscription)
-                    .map(pdpConfiguration.decisionInterceptorChain())
+            if (!pdpConfiguration.policyRetrievalPoint().isConsistent()) {
+                return Mono.just(new DocumentRetrieval(pdpConfiguration, subscription,
+                        PolicyRetrievalResult.invalidPrpResult()));
+            }
+            return pdpConfiguration.policyRetrievalPoint().retrievePolicies()
+                    .map(policyRetrievalResult -> new DocumentRetrieval(pdpConfiguration, subscription,
+                            policyRetrievalResult))
                     .contextWrite(buildSubscriptionScopedContext(pdpConfiguration, authorizationSubscription));
         };
     }
@@ -73,39 +146,70 @@ private Function<Context, Context> buildSubscriptionScopedContext(PDPConfigurati
             ctx = AuthorizationContext.setFunctionContext(ctx, pdpConfiguration.functionContext());
             ctx = AuthorizationContext.setVariables(ctx, pdpConfiguration.variables());
             ctx = AuthorizationContext.setSubscriptionVariables(ctx, authorizationSubscription);
+            if (null != parallelDocumentEvaluation) {
+                ctx = AuthorizationContext.setParallelDocumentEvaluation(ctx, parallelDocumentEvaluation);
+            }
+            if (!tracingEnabled) {
+                ctx = AuthorizationContext.setTracingEnabled(ctx, false);
+            }
+            if (lazyDocumentCombining) {
+                ctx = AuthorizationContext.setLazyDocumentCombining(ctx, true);
+            }
+            if (null != regexPatternCache) {
+                ctx = AuthorizationContext.setRegexPatternCache(ctx, regexPatternCache);
+            }
             return ctx;
         };
     }
 
-    private Flux<PDPDecision> retrieveAndCombineDocuments(PDPConfiguration pdpConfiguration,
-            AuthorizationSubscription authorizationSubscription) {
-        if (pdpConfiguration.policyRetrievalPoint().isConsistent()) {
-            return pdpConfiguration.policyRetrievalPoint().retrievePolicies()
-                    .flatMapMany(combineDocuments(pdpConfiguration, authorizationSubscription));
+    private Flux<PDPDecision> combineDocuments(DocumentRetrieval retrieval) {
+        final var pdpConfiguration          = retrieval.configuration();
+        final var authorizationSubscription = retrieval.subscription();
+        final var policyRetrievalResult     = retrieval.policyRetrievalResult();
+        if (!pdpConfiguration.policyRetrievalPoint().isConsistent()) {
+            return Flux.just(PDPDecision.of(authorizationSubscription,
+                    CombinedDecision.error(pdpConfiguration.documentsCombinator(),
+                            "Policy Retrieval Point in inconsistent state."),
+                    policyRetrievalResult));
         }
-        return Flux
-                .just(PDPDecision.of(authorizationSubscription,
-                        CombinedDecision.error(pdpConfiguration.documentsCombinator(),
-                                "Policy Retrieval Point in inconsistent state."),
-                        PolicyRetrievalResult.invalidPrpResult()));
+        if (policyRetrievalResult.isPrpInconsistent() || policyRetrievalResult.isRetrievalWithErrors()) {
+            final var combinedDecision = CombinedDecision.of(AuthorizationDecision.INDETERMINATE,
+                    pdpConfiguration.documentsCombinator());
+            return Flux.just(PDPDecision.of(authorizationSubscription, combinedDecision, policyRetrievalResult));
+        }
+        final var matchingDocuments  = policyRetrievalResult.getMatchingDocuments();
+        final var combiningAlgorithm = CombiningAlgorithmFactory
+                .documentsCombiningAlgorithm(pdpConfiguration.documentsCombinator());
+        return combiningAlgorithm.combinePreMatchedDocuments(matchingDocuments).map(
+                combinedDecision -> PDPDecision.of(authorizationSubscription, combinedDecision, policyRetrievalResult));
     }
 
-    private Function<PolicyRetrievalResult, Flux<PDPDecision>> combineDocuments(PDPConfiguration pdpConfiguration,
-            AuthorizationSubscription authorizationSubscription) {
-        return policyRetrievalResult -> {
-            if (policyRetrievalResult.isPrpInconsistent() || policyRetrievalResult.isRetrievalWithErrors()) {
-                final var combinedDecision = CombinedDecision.of(AuthorizationDecision.INDETERMINATE,
-                        pdpConfiguration.documentsCombinator());
-                return Flux.just(PDPDecision.of(authorizationSubscription, combinedDecision, policyRetrievalResult));
+    private record DocumentRetrieval(PDPConfiguration configuration, AuthorizationSubscription subscription,
+            PolicyRetrievalResult policyRetrievalResult) {
+
+        EvaluationKey evaluationKey() {
+            final var matchingDocuments = new ArrayList<Document>();
+            for (var match : policyRetrievalResult.getMatchingDocuments()) {
+                matchingDocuments.add(match.document());
             }
-            final var matchingDocuments  = policyRetrievalResult.getMatchingDocuments();
-            final var combiningAlgorithm = CombiningAlgorithmFactory
-                    .documentsCombiningAlgorithm(pdpConfiguration.documentsCombinator());
-            return combiningAlgorithm.combinePreMatchedDocuments(matchingDocuments).map(combinedDecision -> PDPDecision
-                    .of(authorizationSubscription, combinedDecision, policyRetrievalResult));
-        };
+            return new EvaluationKey(configuration.configurationId(), configuration.attributeContext(),
+                    configuration.functionContext(), configuration.variables(),
+                    configuration.documentsCombinator(), configuration.policyRetrievalPoint().isConsistent(),
+                    subscription, policyRetrievalResult.isPrpInconsistent(),
+                    policyRetrievalResult.isRetrievalWithErrors(), matchingDocuments);
+        }
     }
 
+    /*
+     * Contexts and documents have no value semantics. Thus, they are compared by
+     * identity.
+     */
+    private record EvaluationKey(String configurationId, AttributeContext attributeContext,
+            FunctionContext functionContext, Map<String, Val> variables,
+            PolicyDocumentCombiningAlgorithm documentsCombinator, boolean prpConsistent,
+            AuthorizationSubscription subscription, boolean prpInconsistent, boolean retrievalWithErrors,
+            List<Document> matchingDocuments) {}
+
     @Override
     public Flux<IdentifiableAuthorizationDecision> decide(
             MultiAuthorizationSubscription multiAuthorizationSubscription) {
@@ -157,4 +261,107 @@ private MultiAuthorizationDecision collectAuthorizationDecisions(Object[] values
     public void destroy() {
         configurationProvider.destroy();
     }
+
+    /**
+     * Builds an embedded PDP. All optional features are disabled unless set.
+     * Evaluation traces are recorded unless disabled.
+     */
+    public static class EmbeddedPolicyDecisionPointBuilder {
+        private final PDPConfigurationProvider configurationProvider;
+        private SubscriptionMultiplexer        subscriptionMultiplexer;
+        private ParallelDocumentEvaluation     parallelDocumentEvaluation;
+        private DecisionCache                  decisionCache;
+        private boolean                        tracingEnabled = true;
+        private boolean                        lazyDocumentCombining;
+        private RegexPatternCache              regexPatternCache;
+
+        private EmbeddedPolicyDecisionPointBuilder(PDPConfigurationProvider configurationProvider) {
+            this.configurationProvider = configurationProvider;
+        }
+
+        /**
+         * Shares one evaluation pipeline between all callers sending identical
+         * authorization subscriptions.
+         *
+         * @param subscriptionMultiplexer multiplexer deduplicating subscriptions
+         * @return this builder
+         */
+        public EmbeddedPolicyDecisionPointBuilder subscriptionMultiplexer(
+                SubscriptionMultiplexer subscriptionMultiplexer) {
+            this.subscriptionMultiplexer = subscriptionMultiplexer;
+            return this;
+        }
+
+        /**
+         * Evaluates large numbers of matching documents in parallel.
+         *
+         * @param parallelDocumentEvaluation the parallel evaluation of matching
+         * documents
+         * @return this builder
+         */
+        public EmbeddedPolicyDecisionPointBuilder parallelDocumentEvaluation(
+                ParallelDocumentEvaluation parallelDocumentEvaluation) {
+            this.parallelDocumentEvaluation = parallelDocumentEvaluation;
+            return this;
+        }
+
+        /**
+         * Caches the decisions of
+         * {@link EmbeddedPolicyDecisionPoint#decideOnce(AuthorizationSubscription)}.
+         *
+         * @param decisionCache the cache for decisions of one-shot subscriptions
+         * @return this builder
+         */
+        public EmbeddedPolicyDecisionPointBuilder decisionCache(DecisionCache decisionCache) {
+            this.decisionCache = decisionCache;
+            return this;
+        }
+
+        /**
+         * Enables or disables the recording of evaluation traces for all
+         * subscriptions of this PDP. Without traces, the hot paths of the
+         * evaluation skip assembling trace arguments. Decisions are unaffected,
+         * but traced decisions only contain incomplete evaluation traces.
+         *
+         * @param tracingEnabled true to record evaluation traces (default), false
+         * for the trace-free production mode
+         * @return this builder
+         */
+        public EmbeddedPolicyDecisionPointBuilder tracingEnabled(boolean tracingEnabled) {
+            this.tracingEnabled = tracingEnabled;
+            return this;
+        }
+
+        /**
+         * Defers documents which cannot yield the overriding decision of the
+         * combining algorithm until no other document yields it. Deferred
+         * documents with attributes are then never subscribed to while the
+         * decision is determined. Decisions are unaffected, but combined
+         * decisions only list the evaluated documents.
+         *
+         * @param lazyDocumentCombining true to combine documents lazily
+         * @return this builder
+         */
+        public EmbeddedPolicyDecisionPointBuilder lazyDocumentCombining(boolean lazyDocumentCombining) {
+            this.lazyDocumentCombining = lazyDocumentCombining;
+            return this;
+        }
+
+        /**
+         * Uses a cache of compiled regular expressions of the {@code =~} operator
+         * with its own limits instead of the cache shared by all PDPs.
+         *
+         * @param regexPatternCache the cache, its maximum pattern length, and the
+         * time budget of a single match
+         * @return this builder
+         */
+        public EmbeddedPolicyDecisionPointBuilder regexPatternCache(RegexPatternCache regexPatternCache) {
+            this.regexPatternCache = regexPatternCache;
+            return this;
+        }
+
+        public EmbeddedPolicyDecisionPoint build() {
+            return new EmbeddedPolicyDecisionPoint(this);
+        }
+    }
 }
@@ -105,6 +105,19 @@ public TracedDecision modified(AuthorizationDecision authzDecision, String expla
         return modified;
     }
 
+    @Override
+    public TracedDecision copy() {
+        final var copiedModifications = new ArrayList<Modification>(modifications.size());
+        for (var modification : modifications) {
+            copiedModifications.add(new Modification(modification.authorizationDecision().deepCopy(),
+                    modification.explanation()));
+        }
+        final var copiedCombinedDecision = combinedDecision
+                .withAuthorizationDecision(combinedDecision.getAuthorizationDecision().deepCopy());
+        return new PDPDecision(authorizationSubscription, prpResult, copiedCombinedDecision, timestamp,
+                copiedModifications, metadata);
+    }
+
     @Override
     public JsonNode getTrace() {
         final var trace = Val.JSON.objectNode();
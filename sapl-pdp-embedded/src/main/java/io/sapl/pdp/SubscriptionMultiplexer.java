@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.SubscriptionKey;
+import io.sapl.api.pdp.TracedDecision;
+import reactor.core.publisher.Flux;
+
+/**
+ * Shares the decision stream of identical authorization subscriptions.
+ * <p>
+ * Subscriptions are canonicalized into an immutable {@link SubscriptionKey},
+ * i.e., numerically equal subscriptions share one key. For each distinct key,
+ * exactly one evaluation pipeline is active. All callers sending an identical
+ * subscription are attached to this pipeline and receive the latest decision
+ * immediately. Each caller receives a copy of the shared decision. The
+ * pipeline is cancelled as soon as the last caller left.
+ */
+public class SubscriptionMultiplexer {
+
+    private final Map<SubscriptionKey, Flux<TracedDecision>> activeSubscriptions = new ConcurrentHashMap<>();
+    private final LongAdder                                  hits                = new LongAdder();
+    private final LongAdder                                  misses              = new LongAdder();
+
+    /**
+     * Looks up the shared decision stream for the subscription or creates a new
+     * one.
+     *
+     * @param authorizationSubscription an authorization subscription
+     * @param decide creates the evaluation pipeline for a subscription not yet
+     * active
+     * @return the shared decision stream
+     */
+    public Flux<TracedDecision> decide(AuthorizationSubscription authorizationSubscription,
+            Function<AuthorizationSubscription, Flux<TracedDecision>> decide) {
+        final var key = SubscriptionKey.of(authorizationSubscription);
+        return Flux.defer(() -> {
+            final var existing = activeSubscriptions.get(key);
+            if (null != existing) {
+                hits.increment();
+                return existing;
+            }
+            return activeSubscriptions.computeIfAbsent(key, k -> {
+                misses.increment();
+                return share(k, decide.apply(authorizationSubscription));
+            });
+        });
+    }
+
+    private Flux<TracedDecision> share(SubscriptionKey key, Flux<TracedDecision> decisions) {
+        final var shared = new AtomicReference<Flux<TracedDecision>>();
+        // each subscriber gets its own copy, as the JSON of a decision is mutable
+        shared.set(decisions.doFinally(signal -> activeSubscriptions.remove(key, shared.get())).replay(1).refCount()
+                .map(TracedDecision::copy));
+        return shared.get();
+    }
+
+    /**
+     * @return number of subscriptions attached to an already active pipeline.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of subscriptions for which a new pipeline was created.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of currently active distinct subscriptions.
+     */
+    public int getNumberOfActiveSubscriptions() {
+        return activeSubscriptions.size();
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.Decision;
+import io.sapl.functions.LoggingFunctionLibrary;
+import io.sapl.functions.StandardFunctionLibrary;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.interpreter.combinators.PolicyDocumentCombiningAlgorithm;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.pdp.config.PDPConfiguration;
+import io.sapl.pdp.config.PDPConfigurationProvider;
+import io.sapl.prp.Document;
+import io.sapl.prp.DocumentMatch;
+import io.sapl.prp.PolicyRetrievalPoint;
+import io.sapl.prp.PolicyRetrievalResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class DecisionCacheTests {
+
+    private static final JsonNodeFactory        JSON        = JsonNodeFactory.instance;
+    private static final DefaultSAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
+    private final AnnotationAttributeContext attributeContext = new AnnotationAttributeContext();
+    private final AnnotationFunctionContext  functionContext  = new AnnotationFunctionContext();
+
+    @BeforeEach
+    void setUp() throws InitializationException {
+        functionContext.loadLibrary(StandardFunctionLibrary.class);
+        functionContext.loadLibrary(LoggingFunctionLibrary.class);
+    }
+
+    @Test
+    void when_documentsArePure_then_secondDecisionIsServedFromCache() {
+        final var configuration = new AtomicReference<>(configurationMatching("policy \"p\" permit"));
+        final var cache         = new DecisionCache();
+        final var pdp           = EmbeddedPolicyDecisionPoint.builder(provider(configuration)).decisionCache(cache)
+                .build();
+
+        StepVerifier.create(pdp.decideOnce(subscription("willi")))
+                .expectNextMatches(decision -> decision.getDecision() == Decision.PERMIT).verifyComplete();
+        StepVerifier.create(pdp.decideOnce(subscription("willi")))
+                .expectNextMatches(decision -> decision.getDecision() == Decision.PERMIT).verifyComplete();
+
+        assertThat(cache.getMisses()).isEqualTo(1L);
+        assertThat(cache.getHits()).isEqualTo(1L);
+        assertThat(cache.size()).isEqualTo(1L);
+    }
+
+    @Test
+    void when_documentCallsOnlyPureFunctions_then_decisionIsCached() {
+        final var configuration = new AtomicReference<>(configurationMatching(
+                "import standard.length policy \"p\" permit where length(subject) == 5 && standard.length([]) == 0;"));
+        final var cache         = new DecisionCache();
+        final var pdp           = EmbeddedPolicyDecisionPoint.builder(provider(configuration)).decisionCache(cache)
+                .build();
+
+        pdp.decideOnce(subscription("willi")).block();
+        pdp.decideOnce(subscription("willi")).block();
+
+        assertThat(cache.getBypasses()).isZero();
+        assertThat(cache.getHits()).isEqualTo(1L);
+    }
+
+    @Test
+    void when_documentCallsFunctionWithSideEffects_then_cacheIsBypassed() {
+        final var configuration = new AtomicReference<>(configurationMatching(
+                "policy \"p\" permit where log.infoSpy(\"subject\", subject) == \"willi\";"));
+        final var cache         = new DecisionCache();
+        final var pdp           = EmbeddedPolicyDecisionPoint.builder(provider(configuration)).decisionCache(cache)
+                .build();
+
+        pdp.decideOnce(subscription("willi")).block();
+        pdp.decideOnce(subscription("willi")).block();
+
+        assertThat(cache.getBypasses()).isEqualTo(2L);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void when_subscriptionsDiffer_then_decisionsAreCachedSeparately() {
+        final var configuration = new AtomicReference<>(configurationMatching("policy \"p\" permit"));
+        final var cache         = new DecisionCache();
+        final var pdp           = EmbeddedPolicyDecisionPoint.builder(provider(configuration)).decisionCache(cache)
+                .build();
+
+        pdp.decideOnce(subscription("willi")).block();
+        pdp.decideOnce(subscription("alice")).block();
+
+        assertThat(cache.getMisses()).isEqualTo(2L);
+        assertThat(cache.getHits()).isZero();
+        assertThat(cache.size()).isEqualTo(2L);
+    }
+
+    @Test
+    void when_documentAccessesAttributes_then_cacheIsBypassed() {
+        final var configuration = new AtomicReference<>(
+                configurationMatching("policy \"p\" permit where subject.<test.attribute> == 1;"));
+        final var cache         = new DecisionCache();
+        final var pdp           = EmbeddedPolicyDecisionPoint.builder(provider(configuration)).decisionCache(cache)
+                .build();
+
+        pdp.decideOnce(subscription("willi")).block();
+        pdp.decideOnce(subscription("willi")).block();
+
+        assertThat(cache.getBypasses()).isEqualTo(2L);
+        assertThat(cache.getHits()).isZero();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void when_configurationChanges_then_cachedDecisionsAreDropped() {
+        final var configuration = new AtomicReference<>(configurationMatching("policy \"p\" permit"));
+        final var cache         = new DecisionCache();
+        final var pdp           = EmbeddedPolicyDecisionPoint.builder(provider(configuration)).decisionCache(cache)
+                .build();
+
+        pdp.decideOnce(subscription("willi")).block();
+        final var generation = cache.getGeneration();
+        configuration.set(configurationMatching("policy \"p\" deny"));
+
+        StepVerifier.create(pdp.decideOnce(subscription("willi")))
+                .expectNextMatches(decision -> decision.getDecision() == Decision.DENY).verifyComplete();
+        assertThat(cache.getGeneration()).isEqualTo(generation + 1L);
+        assertThat(cache.getMisses()).isEqualTo(2L);
+        assertThat(cache.size()).isEqualTo(1L);
+    }
+
+    @Test
+    void when_cacheIsFull_then_decisionsAreEvicted() {
+        final var configuration = new AtomicReference<>(configurationMatching("policy \"p\" permit"));
+        final var cache         = new DecisionCache(1L);
+        final var pdp           = EmbeddedPolicyDecisionPoint.builder(provider(configuration)).decisionCache(cache)
+                .build();
+
+        pdp.decideOnce(subscription("willi")).block();
+        pdp.decideOnce(subscription("alice")).block();
+
+        assertThat(cache.getEvictions()).isEqualTo(1L);
+        assertThat(cache.size()).isEqualTo(1L);
+    }
+
+    @Test
+    void when_returnedDecisionIsModified_then_cachedDecisionIsUnchanged() {
+        final var configuration = new AtomicReference<>(
+                configurationMatching("policy \"p\" permit obligation { \"type\": \"log\" }"));
+        final var cache         = new DecisionCache();
+        final var pdp           = EmbeddedPolicyDecisionPoint.builder(provider(configuration)).decisionCache(cache)
+                .build();
+
+        final var evaluated = pdp.decideOnce(subscription("willi")).block();
+        ((ObjectNode) evaluated.getObligations().orElseThrow().get(0)).put("type", "modified");
+        final var cached = pdp.decideOnce(subscription("willi")).block();
+        ((ObjectNode) cached.getObligations().orElseThrow().get(0)).put("type", "modified");
+
+        StepVerifier.create(pdp.decideOnce(subscription("willi")))
+                .expectNextMatches(decision -> "log"
+                        .equals(decision.getObligations().orElseThrow().get(0).get("type").asText()))
+                .verifyComplete();
+        assertThat(cache.getHits()).isEqualTo(2L);
+    }
+
+    @Test
+    void when_subscriptionInterceptorRewritesSubscriptions_then_cacheIsKeyedOnEvaluatedSubscription() {
+        final var anonymous     = subscription("anonymous");
+        final var configuration = new AtomicReference<>(configurationMatching(subscription -> anonymous,
+                "policy \"p\" permit where subject == \"willi\";"));
+        final var cache         = new DecisionCache();
+        final var pdp           = EmbeddedPolicyDecisionPoint.builder(provider(configuration)).decisionCache(cache)
+                .build();
+
+        StepVerifier.create(pdp.decideOnce(subscription("willi")))
+                .expectNextMatches(decision -> decision.getDecision() == Decision.PERMIT).verifyComplete();
+        StepVerifier.create(pdp.decideOnce(subscription("alice")))
+                .expectNextMatches(decision -> decision.getDecision() == Decision.NOT_APPLICABLE).verifyComplete();
+
+        assertThat(cache.getMisses()).isEqualTo(2L);
+        assertThat(cache.size()).isEqualTo(2L);
+    }
+
+    private static PDPConfigurationProvider provider(AtomicReference<PDPConfiguration> configuration) {
+        final var provider = mock(PDPConfigurationProvider.class);
+        when(provider.pdpConfiguration()).thenAnswer(invocation -> Flux.just(configuration.get()));
+        return provider;
+    }
+
+    private PDPConfiguration configurationMatching(String... documentSources) {
+        return configurationMatching(UnaryOperator.identity(), documentSources);
+    }
+
+    private PDPConfiguration configurationMatching(UnaryOperator<AuthorizationSubscription> subscriptionInterceptor,
+            String... documentSources) {
+        final var matches = new ArrayList<DocumentMatch>();
+        for (var source : documentSources) {
+            final Document document = INTERPRETER.parseDocument(source);
+            matches.add(new DocumentMatch(document, Val.TRUE));
+        }
+        final var prp = mock(PolicyRetrievalPoint.class);
+        when(prp.isConsistent()).thenReturn(Boolean.TRUE);
+        when(prp.retrievePolicies()).thenReturn(Mono.fromSupplier(() -> new PolicyRetrievalResult(matches, false)));
+        return new PDPConfiguration("", attributeContext, functionContext, Map.of(),
+                PolicyDocumentCombiningAlgorithm.DENY_OVERRIDES, UnaryOperator.identity(), subscriptionInterceptor,
+                prp);
+    }
+
+    private static AuthorizationSubscription subscription(String subject) {
+        return new AuthorizationSubscription(JSON.textNode(subject), JSON.textNode("read"), JSON.textNode("book"),
+                JSON.nullNode());
+    }
+
+}
@@ -17,13 +17,17 @@
  */
 package io.sapl.pdp;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.UnaryOperator;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -32,6 +36,7 @@
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 
+import io.sapl.api.interpreter.Val;
 import io.sapl.api.pdp.AuthorizationDecision;
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.Decision;
@@ -39,7 +44,10 @@
 import io.sapl.api.pdp.MultiAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
+import io.sapl.api.pip.EnvironmentAttribute;
+import io.sapl.api.pip.PolicyInformationPoint;
 import io.sapl.grammar.sapl.CombiningAlgorithm;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
 import io.sapl.interpreter.combinators.PolicyDocumentCombiningAlgorithm;
 import io.sapl.interpreter.functions.AnnotationFunctionContext;
 import io.sapl.interpreter.functions.FunctionContext;
@@ -50,11 +58,14 @@
 import io.sapl.pdp.config.filesystem.FileSystemVariablesAndCombinatorSource;
 import io.sapl.pdp.config.fixed.FixedFunctionsAndAttributesPDPConfigurationProvider;
 import io.sapl.pdp.interceptors.ReportingDecisionInterceptor;
+import io.sapl.prp.Document;
+import io.sapl.prp.DocumentMatch;
 import io.sapl.prp.PolicyRetrievalPoint;
 import io.sapl.prp.PolicyRetrievalPointSource;
 import io.sapl.prp.PolicyRetrievalResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
 class EmbeddedPolicyDecisionPointTests {
@@ -286,4 +297,110 @@ void when_errorsInTarget_then_returnError() {
                 .expectNextMatches(combinedDecision -> combinedDecision.getDecision() == Decision.INDETERMINATE)
                 .verifyComplete();
     }
+
+    @Test
+    void when_configurationChangesWithoutAffectingMatchingDocuments_then_noReEvaluation() {
+        final var interpreter      = new DefaultSAPLInterpreter();
+        final var permit           = interpreter.parseDocument("policy \"permit\" permit");
+        final var deny             = interpreter.parseDocument("policy \"deny\" deny");
+        final var attributeContext = new AnnotationAttributeContext();
+        final var functionContext  = new AnnotationFunctionContext();
+        final var configurations   = Sinks.many().replay().<PDPConfiguration>latest();
+        final var configProvider   = mock(PDPConfigurationProvider.class);
+        when(configProvider.pdpConfiguration()).thenReturn(configurations.asFlux());
+
+        final var subscription = new AuthorizationSubscription(JSON.textNode("willi"), JSON.textNode("read"),
+                JSON.textNode("something"), JSON.nullNode());
+        final var sut          = new EmbeddedPolicyDecisionPoint(configProvider);
+        StepVerifier.create(sut.decideTraced(subscription))
+                .then(() -> configurations.tryEmitNext(
+                        configurationMatching(attributeContext, functionContext, Map.of(), permit)))
+                .expectNextMatches(decision -> decision.getAuthorizationDecision().getDecision() == Decision.PERMIT)
+                .then(() -> configurations.tryEmitNext(
+                        configurationMatching(attributeContext, functionContext, Map.of(), permit)))
+                .expectNoEvent(Duration.ofMillis(100L))
+                .then(() -> configurations.tryEmitNext(
+                        configurationMatching(attributeContext, functionContext, Map.of(), permit, deny)))
+                .expectNextMatches(decision -> decision.getAuthorizationDecision().getDecision() == Decision.DENY)
+                .then(() -> configurations.tryEmitNext(configurationMatching(attributeContext, functionContext,
+                        Map.of("x", Val.of(1)), permit, deny)))
+                .expectNextMatches(decision -> decision.getAuthorizationDecision().getDecision() == Decision.DENY)
+                .thenCancel().verify();
+    }
+
+    @Test
+    void when_tracingIsDisabledForOnePdp_then_onlyItsDecisionsAreUntraced() {
+        final var policy           = new DefaultSAPLInterpreter()
+                .parseDocument("policy \"obligation\" permit obligation subject.name");
+        final var attributeContext = new AnnotationAttributeContext();
+        final var functionContext  = new AnnotationFunctionContext();
+        final var configProvider   = mock(PDPConfigurationProvider.class);
+        when(configProvider.pdpConfiguration())
+                .thenReturn(Flux.just(configurationMatching(attributeContext, functionContext, Map.of(), policy)));
+
+        final var subscription = new AuthorizationSubscription(JSON.objectNode().put("name", "willi"),
+                JSON.textNode("read"), JSON.textNode("something"), JSON.nullNode());
+        final var untraced     = EmbeddedPolicyDecisionPoint.builder(configProvider).tracingEnabled(false).build();
+        final var traced       = new EmbeddedPolicyDecisionPoint(configProvider);
+        StepVerifier.create(untraced.decideTraced(subscription))
+                .expectNextMatches(decision -> decision.getAuthorizationDecision().getDecision() == Decision.PERMIT
+                        && !decision.getTrace().toString().contains("KeyStep"))
+                .verifyComplete();
+        StepVerifier.create(traced.decideTraced(subscription))
+                .expectNextMatches(decision -> decision.getAuthorizationDecision().getDecision() == Decision.PERMIT
+                        && decision.getTrace().toString().contains("KeyStep"))
+                .verifyComplete();
+    }
+
+    @Test
+    void when_lazyAndEarlierDocumentDecides_then_documentWithAttributesIsNeverSubscribed() throws Exception {
+        final var interpreter      = new DefaultSAPLInterpreter();
+        final var deny             = interpreter.parseDocument("policy \"cheap\" deny");
+        final var permit           = interpreter.parseDocument("policy \"expensive\" permit where <counting.value>;");
+        final var pip              = new CountingPolicyInformationPoint();
+        final var attributeContext = new AnnotationAttributeContext();
+        attributeContext.loadPolicyInformationPoint(pip);
+        final var configProvider = mock(PDPConfigurationProvider.class);
+        when(configProvider.pdpConfiguration()).thenReturn(Flux.just(
+                configurationMatching(attributeContext, new AnnotationFunctionContext(), Map.of(), deny, permit)));
+
+        final var subscription = new AuthorizationSubscription(JSON.textNode("willi"), JSON.textNode("read"),
+                JSON.textNode("something"), JSON.nullNode());
+        final var lazy         = EmbeddedPolicyDecisionPoint.builder(configProvider).lazyDocumentCombining(true)
+                .build();
+        StepVerifier.create(lazy.decide(subscription).map(AuthorizationDecision::getDecision))
+                .expectNext(Decision.DENY).verifyComplete();
+        assertThat(pip.subscriptions.get()).isZero();
+
+        final var eager = new EmbeddedPolicyDecisionPoint(configProvider);
+        StepVerifier.create(eager.decide(subscription).map(AuthorizationDecision::getDecision))
+                .expectNext(Decision.DENY).verifyComplete();
+        assertThat(pip.subscriptions.get()).isEqualTo(1);
+    }
+
+    @PolicyInformationPoint(name = "counting")
+    public static class CountingPolicyInformationPoint {
+
+        final AtomicInteger subscriptions = new AtomicInteger();
+
+        @EnvironmentAttribute
+        public Flux<Val> value(Map<String, Val> variables) {
+            return Flux.just(Val.TRUE).doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+        }
+
+    }
+
+    private static PDPConfiguration configurationMatching(AttributeContext attributeContext,
+            FunctionContext functionContext, Map<String, Val> variables, Document... documents) {
+        final var prp     = mock(PolicyRetrievalPoint.class);
+        final var matches = new ArrayList<DocumentMatch>();
+        for (var document : documents) {
+            matches.add(new DocumentMatch(document, Val.TRUE));
+        }
+        when(prp.isConsistent()).thenReturn(Boolean.TRUE);
+        when(prp.retrievePolicies()).thenReturn(Mono.fromSupplier(() -> new PolicyRetrievalResult(matches, false)));
+        return new PDPConfiguration("", attributeContext, functionContext, variables,
+                PolicyDocumentCombiningAlgorithm.DENY_OVERRIDES, UnaryOperator.identity(), UnaryOperator.identity(),
+                prp);
+    }
 }
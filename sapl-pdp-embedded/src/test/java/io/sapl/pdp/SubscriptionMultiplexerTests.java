@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.Decision;
+import io.sapl.api.pdp.TracedDecision;
+import io.sapl.interpreter.CombinedDecision;
+import io.sapl.interpreter.combinators.PolicyDocumentCombiningAlgorithm;
+import io.sapl.pdp.config.PDPConfiguration;
+import io.sapl.pdp.config.PDPConfigurationProvider;
+import io.sapl.prp.PolicyRetrievalPoint;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class SubscriptionMultiplexerTests {
+
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+
+    @Test
+    void when_identicalSubscriptions_then_onePipelineIsShared() {
+        final var prp          = mock(PolicyRetrievalPoint.class);
+        final var config       = new PDPConfiguration("", mock(), mock(), Map.of(),
+                PolicyDocumentCombiningAlgorithm.DENY_OVERRIDES, UnaryOperator.identity(), UnaryOperator.identity(),
+                prp);
+        final var providerMock = mock(PDPConfigurationProvider.class);
+        when(providerMock.pdpConfiguration())
+                .thenReturn(Flux.<PDPConfiguration>just(config).concatWith(Flux.never()));
+        when(prp.isConsistent()).thenReturn(Boolean.FALSE);
+
+        final var multiplexer = new SubscriptionMultiplexer();
+        final var pdp         = EmbeddedPolicyDecisionPoint.builder(providerMock).subscriptionMultiplexer(multiplexer)
+                .build();
+        final var first       = new AuthorizationSubscription(JSON.textNode("willi"), JSON.textNode("read"),
+                JSON.textNode("something"), JSON.nullNode());
+        final var second      = new AuthorizationSubscription(JSON.textNode("willi"), JSON.textNode("read"),
+                JSON.textNode("something"), JSON.nullNode());
+
+        StepVerifier.create(Flux.merge(pdp.decide(first), pdp.decide(second)).take(2))
+                .expectNextMatches(decision -> decision.getDecision() == Decision.INDETERMINATE)
+                .expectNextMatches(decision -> decision.getDecision() == Decision.INDETERMINATE).verifyComplete();
+        verify(providerMock, times(1)).pdpConfiguration();
+        assertThat(multiplexer.getMisses()).isEqualTo(1L);
+        assertThat(multiplexer.getHits()).isEqualTo(1L);
+        assertThat(multiplexer.getNumberOfActiveSubscriptions()).isZero();
+    }
+
+    @Test
+    void when_numericallyEqualSubscriptions_then_theyAreDeduplicated() {
+        final var multiplexer = new SubscriptionMultiplexer();
+        final var evaluations = new AtomicInteger();
+        final var first       = new AuthorizationSubscription(JSON.numberNode(1), JSON.textNode("read"),
+                JSON.objectNode().put("a", 1).put("b", 2), null);
+        final var second      = new AuthorizationSubscription(JSON.numberNode(1.0D), JSON.textNode("read"),
+                JSON.objectNode().put("b", 2).put("a", 1), null);
+
+        final var disposable1 = multiplexer.decide(first, countingEvaluation(evaluations)).subscribe();
+        final var disposable2 = multiplexer.decide(second, countingEvaluation(evaluations)).subscribe();
+
+        assertThat(evaluations.get()).isEqualTo(1);
+        assertThat(multiplexer.getNumberOfActiveSubscriptions()).isEqualTo(1);
+        disposable1.dispose();
+        disposable2.dispose();
+        assertThat(multiplexer.getNumberOfActiveSubscriptions()).isZero();
+    }
+
+    @Test
+    void when_differentSubscriptions_then_separatePipelines() {
+        final var multiplexer = new SubscriptionMultiplexer();
+        final var first       = new AuthorizationSubscription(JSON.textNode("alice"), JSON.textNode("read"),
+                JSON.nullNode(), null);
+        final var second      = new AuthorizationSubscription(JSON.textNode("bob"), JSON.textNode("read"),
+                JSON.nullNode(), null);
+
+        final var disposable1 = multiplexer.decide(first, subscription -> Flux.never()).subscribe();
+        final var disposable2 = multiplexer.decide(second, subscription -> Flux.never()).subscribe();
+
+        assertThat(multiplexer.getMisses()).isEqualTo(2L);
+        assertThat(multiplexer.getHits()).isZero();
+        assertThat(multiplexer.getNumberOfActiveSubscriptions()).isEqualTo(2);
+        disposable1.dispose();
+        disposable2.dispose();
+    }
+
+    @Test
+    void when_subscriberModifiesObligations_then_otherSubscribersDoNotSeeTheModification() {
+        final var multiplexer  = new SubscriptionMultiplexer();
+        final var subscription = new AuthorizationSubscription(JSON.textNode("alice"), JSON.textNode("read"),
+                JSON.nullNode(), null);
+        final var obligations  = JSON.arrayNode().add(JSON.objectNode().put("type", "log"));
+        final var decision     = PDPDecision.of(subscription,
+                CombinedDecision.of(AuthorizationDecision.PERMIT.withObligations(obligations),
+                        PolicyDocumentCombiningAlgorithm.DENY_OVERRIDES));
+        final var received     = new ArrayList<TracedDecision>();
+
+        final var disposable1 = multiplexer
+                .decide(subscription, s -> Flux.<TracedDecision>just(decision).concatWith(Flux.never()))
+                .subscribe(received::add);
+
+        final var firstObligation = (ObjectNode) received.get(0).getAuthorizationDecision().getObligations()
+                .orElseThrow().get(0);
+        firstObligation.put("type", "modified");
+        final var disposable2 = multiplexer.decide(subscription, s -> Flux.never()).subscribe(received::add);
+
+        assertThat(multiplexer.getHits()).isEqualTo(1L);
+        assertThat(received).hasSize(2);
+        assertThat(received.get(1).getAuthorizationDecision().getObligations().orElseThrow().get(0).get("type")
+                .asText()).isEqualTo("log");
+        assertThat(obligations.get(0).get("type").asText()).isEqualTo("log");
+        disposable1.dispose();
+        disposable2.dispose();
+    }
+
+    private static Function<AuthorizationSubscription, Flux<TracedDecision>> countingEvaluation(
+            AtomicInteger evaluations) {
+        return subscription -> {
+            evaluations.incrementAndGet();
+            return Flux.never();
+        };
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationSubscription;
+import lombok.NonNull;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Coalesces concurrent decideOnce calls into batches.
+ * <p>
+ * Authorization subscriptions are collected until either the maximal batch
+ * size is reached or the maximal delay since the first subscription of the
+ * batch has passed. The batch is then sent as one multi-subscription and the
+ * decisions of the resulting multi-decision are handed back to the individual
+ * callers. Subscriptions without a decision in the response are answered with
+ * INDETERMINATE. If the batch request fails, the error is propagated to all
+ * callers of the batch. Subscriptions cancelled before their batch is sent are
+ * removed from the batch, and a batch left empty is not sent at all.
+ */
+class DecideOnceBatcher {
+
+    private final int                                                                        maxBatchSize;
+    private final Duration                                                                   maxDelay;
+    private final Function<MultiAuthorizationSubscription, Mono<MultiAuthorizationDecision>> sendBatch;
+    private final Scheduler                                                                  scheduler;
+
+    private List<PendingDecision> pendingDecisions = new ArrayList<>();
+
+    /**
+     * Creates a batcher using the parallel scheduler to flush batches after the
+     * maximal delay.
+     *
+     * @param maxBatchSize the maximal number of subscriptions in one batch
+     * @param maxDelay the maximal time a subscription waits for its batch to be
+     * sent
+     * @param sendBatch sends a batch and returns the resulting multi-decision
+     */
+    DecideOnceBatcher(int maxBatchSize, Duration maxDelay,
+            Function<MultiAuthorizationSubscription, Mono<MultiAuthorizationDecision>> sendBatch) {
+        this(maxBatchSize, maxDelay, sendBatch, Schedulers.parallel());
+    }
+
+    /**
+     * Creates a batcher.
+     *
+     * @param maxBatchSize the maximal number of subscriptions in one batch
+     * @param maxDelay the maximal time a subscription waits for its batch to be
+     * sent
+     * @param sendBatch sends a batch and returns the resulting multi-decision
+     * @param scheduler the scheduler used to flush batches after the maximal
+     * delay
+     */
+    DecideOnceBatcher(int maxBatchSize, @NonNull Duration maxDelay,
+            @NonNull Function<MultiAuthorizationSubscription, Mono<MultiAuthorizationDecision>> sendBatch,
+            @NonNull Scheduler scheduler) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("The maximal batch size must be positive. Was: " + maxBatchSize);
+        }
+        if (maxDelay.isNegative()) {
+            throw new IllegalArgumentException("The maximal delay must not be negative. Was: " + maxDelay);
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay     = maxDelay;
+        this.sendBatch    = sendBatch;
+        this.scheduler    = scheduler;
+    }
+
+    /**
+     * Enqueues an authorization subscription into the current batch.
+     *
+     * @param authzSubscription an authorization subscription
+     * @return a Mono emitting the decision for the subscription once the batch
+     * has been answered.
+     */
+    Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authzSubscription) {
+        return Mono.create(sink -> {
+            final var pendingDecision = new PendingDecision(authzSubscription, sink);
+            sink.onCancel(() -> remove(pendingDecision));
+            enqueue(pendingDecision);
+        });
+    }
+
+    private synchronized void remove(PendingDecision pendingDecision) {
+        // once the batch has been handed over for sending, it is no longer pending
+        // and the late decision is dropped by the cancelled sink
+        pendingDecisions.remove(pendingDecision);
+    }
+
+    private void enqueue(PendingDecision pendingDecision) {
+        final List<PendingDecision> batch;
+        final boolean               firstOfBatch;
+        final boolean               fullBatch;
+        synchronized (this) {
+            batch = pendingDecisions;
+            batch.add(pendingDecision);
+            firstOfBatch = batch.size() == 1;
+            fullBatch    = batch.size() >= maxBatchSize;
+            if (fullBatch) {
+                pendingDecisions = new ArrayList<>();
+            }
+        }
+        if (fullBatch) {
+            send(batch);
+        } else if (firstOfBatch) {
+            scheduler.schedule(() -> flush(batch), maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flush(List<PendingDecision> batch) {
+        synchronized (this) {
+            if (pendingDecisions != batch) {
+                // the batch has already been sent because it reached the maximal size
+                return;
+            }
+            pendingDecisions = new ArrayList<>();
+        }
+        send(batch);
+    }
+
+    private void send(List<PendingDecision> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        final var multiSubscription = new MultiAuthorizationSubscription();
+        for (int i = 0; i < batch.size(); i++) {
+            multiSubscription.addAuthorizationSubscription(String.valueOf(i), batch.get(i).authzSubscription());
+        }
+        Mono.defer(() -> sendBatch.apply(multiSubscription)).defaultIfEmpty(new MultiAuthorizationDecision())
+                .subscribe(multiDecision -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        final var decision = multiDecision.getAuthorizationDecisionForSubscriptionWithId(
+                                String.valueOf(i));
+                        batch.get(i).sink()
+                                .success(null == decision ? AuthorizationDecision.INDETERMINATE : decision);
+                    }
+                }, error -> batch.forEach(pendingDecision -> pendingDecision.sink().error(error)));
+    }
+
+    private record PendingDecision(AuthorizationSubscription authzSubscription,
+            MonoSink<AuthorizationDecision> sink) {}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationDecisionDelta;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reassembles full multi-decisions from a stream of
+ * {@link MultiAuthorizationDecisionDelta deltas}.
+ * <p>
+ * Each delta is applied to the multi-decision assembled so far and a copy of
+ * the result is emitted. If an element of the stream was lost, i.e., the
+ * sequence numbers are not consecutive, or if the stream does not start with a
+ * snapshot, the stream terminates with an error. Remote PDPs then reconnect and
+ * start over with a new snapshot.
+ */
+class MultiAuthorizationDecisionReassembler {
+
+    private MultiAuthorizationDecision multiDecision;
+    private long                       expectedSequenceNumber;
+
+    /**
+     * @param deltas a stream of delta-encoded multi-decisions
+     * @return the stream of full multi-decisions
+     */
+    static Flux<MultiAuthorizationDecision> reassemble(Flux<MultiAuthorizationDecisionDelta> deltas) {
+        return Flux.defer(() -> {
+            final var reassembler = new MultiAuthorizationDecisionReassembler();
+            return deltas.map(reassembler::apply);
+        });
+    }
+
+    MultiAuthorizationDecision apply(MultiAuthorizationDecisionDelta delta) {
+        if (delta.isSnapshot()) {
+            multiDecision = new MultiAuthorizationDecision();
+        } else if (null == multiDecision) {
+            throw new IllegalStateException("Delta-encoded multi-decisions must start with a snapshot.");
+        } else if (delta.getSequenceNumber() != expectedSequenceNumber) {
+            throw new IllegalStateException(String.format(
+                    "Lost delta-encoded multi-decisions. Expected sequence number %d but got %d.",
+                    expectedSequenceNumber, delta.getSequenceNumber()));
+        }
+        expectedSequenceNumber = delta.getSequenceNumber() + 1;
+        final var assembled = new MultiAuthorizationDecision();
+        assembled.getAuthorizationDecisions().putAll(multiDecision.getAuthorizationDecisions());
+        for (var decision : delta.getAuthorizationDecisions()) {
+            assembled.setAuthorizationDecisionForSubscriptionWithId(decision.getAuthorizationSubscriptionId(),
+                    decision.getAuthorizationDecision());
+        }
+        multiDecision = assembled;
+        return assembled;
+    }
+
+}
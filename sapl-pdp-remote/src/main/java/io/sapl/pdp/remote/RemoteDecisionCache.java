@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.SubscriptionKey;
+import lombok.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Caches the decisions of one-shot authorization subscriptions sent to a
+ * remote PDP.
+ * <p>
+ * On a cache miss, the client opens a decision stream for the subscription
+ * instead of requesting a single decision. The server pushes every change of
+ * the decision on this stream, so the latest received decision is always
+ * coherent with the server and is handed out to all later one-shot requests
+ * for an equal subscription. Subscriptions are compared by their
+ * {@link SubscriptionKey}. The stream is kept open as long as the subscription
+ * is requested at least once per idle timeout. It is closed and the entry is
+ * dropped after the idle timeout, or if the stream terminates or fails. If the
+ * maximal number of entries is reached, the least recently used entry is
+ * evicted and its stream is closed. A request whose entry is closed before it
+ * received a decision falls back to a single decision request.
+ */
+public class RemoteDecisionCache {
+
+    public static final long     DEFAULT_MAXIMUM_SIZE = 1_000L;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(1L);
+
+    private final Duration                           idleTimeout;
+    private final Cache<SubscriptionKey, CacheEntry> entries;
+    private final LongAdder                          hits      = new LongAdder();
+    private final LongAdder                          misses    = new LongAdder();
+    private final LongAdder                          evictions = new LongAdder();
+
+    /**
+     * Creates a cache with the default maximum size and idle timeout.
+     */
+    public RemoteDecisionCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize the maximal number of cached subscriptions
+     * @param idleTimeout the time the decision stream of a subscription is kept
+     * open after it was last requested
+     */
+    public RemoteDecisionCache(long maximumSize, @NonNull Duration idleTimeout) {
+        if (maximumSize < 1L) {
+            throw new IllegalArgumentException("The maximum size must be positive. Was: " + maximumSize);
+        }
+        if (idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("The idle timeout must not be negative. Was: " + idleTimeout);
+        }
+        this.idleTimeout = idleTimeout;
+        this.entries     = CacheBuilder.newBuilder().maximumSize(maximumSize)
+                .<SubscriptionKey, CacheEntry>removalListener(this::onRemoval).build();
+    }
+
+    /**
+     * Returns the cached decision for the subscription or opens a decision stream
+     * for it.
+     *
+     * @param authzSubscription an authorization subscription
+     * @param decisionStream opens the decision stream of a subscription at the
+     * remote PDP. The stream must not retry on errors.
+     * @param decideOnce requests a single decision if the decision stream of the
+     * subscription is closed before it delivered a decision
+     * @return the current decision for the subscription
+     */
+    public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authzSubscription,
+            Function<AuthorizationSubscription, Flux<AuthorizationDecision>> decisionStream,
+            Function<AuthorizationSubscription, Mono<AuthorizationDecision>> decideOnce) {
+        final var key = SubscriptionKey.of(authzSubscription);
+        return Mono.defer(() -> {
+            var entry = entries.getIfPresent(key);
+            if (null != entry) {
+                hits.increment();
+            } else {
+                entry = entries.asMap().computeIfAbsent(key, k -> {
+                    misses.increment();
+                    return share(k, decisionStream.apply(authzSubscription));
+                });
+            }
+            return entry.decisions().next().switchIfEmpty(Mono.defer(() -> decideOnce.apply(authzSubscription)));
+        });
+    }
+
+    private CacheEntry share(SubscriptionKey key, Flux<AuthorizationDecision> decisions) {
+        final var closed = Sinks.<Void>empty();
+        final var shared = new AtomicReference<CacheEntry>();
+        shared.set(new CacheEntry(decisions.takeUntilOther(closed.asMono())
+                .doFinally(signal -> entries.asMap().remove(key, shared.get())).replay(1).refCount(1, idleTimeout),
+                closed));
+        return shared.get();
+    }
+
+    private void onRemoval(RemovalNotification<SubscriptionKey, CacheEntry> notification) {
+        if (notification.wasEvicted()) {
+            evictions.increment();
+        }
+        notification.getValue().closed().tryEmitEmpty();
+    }
+
+    /**
+     * @return number of decisions served from an open decision stream.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of subscriptions for which a decision stream was opened.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of entries evicted from the full cache.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the ratio of hits to all requests, or 0 if there were no requests.
+     */
+    public double getHitRatio() {
+        final var hitCount = getHits();
+        final var requests = hitCount + getMisses();
+        return 0L == requests ? 0.0D : (double) hitCount / requests;
+    }
+
+    /**
+     * @return the number of currently open decision streams.
+     */
+    public long size() {
+        return entries.size();
+    }
+
+    private record CacheEntry(Flux<AuthorizationDecision> decisions, Sinks.Empty<Void> closed) {}
+
+}
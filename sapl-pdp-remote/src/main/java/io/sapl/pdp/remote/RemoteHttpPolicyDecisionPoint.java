@@ -18,15 +18,19 @@
 package io.sapl.pdp.remote;
 
 import java.time.Duration;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
 import javax.net.ssl.SSLException;
 
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
 import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.InMemoryReactiveOAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
@@ -41,6 +45,7 @@
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationDecisionDelta;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import lombok.Getter;
@@ -61,12 +66,24 @@ public class RemoteHttpPolicyDecisionPoint implements PolicyDecisionPoint {
 
     private static final String DECIDE_ONCE = "/api/pdp/decide-once";
 
+    private static final String DECIDE_ONCE_BATCH = "/api/pdp/decide-once-batch";
+
     private static final String MULTI_DECIDE = "/api/pdp/multi-decide";
 
     private static final String MULTI_DECIDE_ALL = "/api/pdp/multi-decide-all";
 
+    private static final String MULTI_DECIDE_ALL_DELTA = "/api/pdp/multi-decide-all-delta";
+
     private final WebClient client;
 
+    private DecideOnceBatcher batcher;
+
+    private SubscriptionChannel subscriptionChannel;
+
+    private MediaType contentType = MediaType.APPLICATION_JSON;
+
+    private boolean deltaEncoding;
+
     @Setter
     @Getter
     private int firstBackoffMillis = 500;
@@ -105,17 +122,42 @@ private Repeat<?> repeat() {
 
     @Override
     public Flux<AuthorizationDecision> decide(AuthorizationSubscription authzSubscription) {
+        return decisionStream(authzSubscription).onErrorResume(RemoteHttpPolicyDecisionPoint::indeterminate)
+                .repeatWhen(repeat()).distinctUntilChanged();
+    }
+
+    private static Flux<AuthorizationDecision> indeterminate(Throwable error) {
+        final var indeterminate = Flux.just(AuthorizationDecision.INDETERMINATE);
+        if (error instanceof SubscriptionRejectedException rejection && !rejection.isRetryable()) {
+            // terminating with the error ends the stream instead of repeating it
+            return indeterminate.concatWith(Flux.error(error));
+        }
+        return indeterminate;
+    }
+
+    private Flux<AuthorizationDecision> decisionStream(AuthorizationSubscription authzSubscription) {
+        if (null != subscriptionChannel) {
+            return subscriptionChannel.decide(authzSubscription)
+                    .doOnError(error -> log.error("Error : {}", error.getMessage()));
+        }
         final var type = new ParameterizedTypeReference<ServerSentEvent<AuthorizationDecision>>() {};
-        return decide(DECIDE, type, authzSubscription)
-                .onErrorResume(error -> Flux.just(AuthorizationDecision.INDETERMINATE)).repeatWhen(repeat())
-                .distinctUntilChanged();
+        return decide(DECIDE, type, authzSubscription);
     }
 
     @Override
     public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authzSubscription) {
+        if (null != batcher) {
+            return batcher.decideOnce(authzSubscription);
+        }
         final var type = new ParameterizedTypeReference<AuthorizationDecision>() {};
-        return client.post().uri(DECIDE_ONCE).accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(authzSubscription).retrieve().bodyToMono(type)
+        return client.post().uri(DECIDE_ONCE).accept(contentType).contentType(contentType).bodyValue(authzSubscription)
+                .retrieve().bodyToMono(type).doOnError(error -> log.error("Error : {}", error.getMessage()));
+    }
+
+    private Mono<MultiAuthorizationDecision> decideOnceBatch(MultiAuthorizationSubscription multiAuthzSubscription) {
+        final var type = new ParameterizedTypeReference<MultiAuthorizationDecision>() {};
+        return client.post().uri(DECIDE_ONCE_BATCH).accept(contentType).contentType(contentType)
+                .bodyValue(multiAuthzSubscription).retrieve().bodyToMono(type)
                 .doOnError(error -> log.error("Error : {}", error.getMessage()));
     }
 
@@ -129,15 +171,25 @@ public Flux<IdentifiableAuthorizationDecision> decide(MultiAuthorizationSubscrip
 
     @Override
     public Flux<MultiAuthorizationDecision> decideAll(MultiAuthorizationSubscription multiAuthzSubscription) {
-        final var type = new ParameterizedTypeReference<ServerSentEvent<MultiAuthorizationDecision>>() {};
-        return decide(MULTI_DECIDE_ALL, type, multiAuthzSubscription)
+        return decideAllMultiDecisions(multiAuthzSubscription)
                 .onErrorResume(error -> Flux.just(MultiAuthorizationDecision.indeterminate())).repeatWhen(repeat())
                 .distinctUntilChanged();
     }
 
+    private Flux<MultiAuthorizationDecision> decideAllMultiDecisions(
+            MultiAuthorizationSubscription multiAuthzSubscription) {
+        if (deltaEncoding) {
+            final var type = new ParameterizedTypeReference<ServerSentEvent<MultiAuthorizationDecisionDelta>>() {};
+            return MultiAuthorizationDecisionReassembler
+                    .reassemble(decide(MULTI_DECIDE_ALL_DELTA, type, multiAuthzSubscription));
+        }
+        final var type = new ParameterizedTypeReference<ServerSentEvent<MultiAuthorizationDecision>>() {};
+        return decide(MULTI_DECIDE_ALL, type, multiAuthzSubscription);
+    }
+
     private <T> Flux<T> decide(String path, ParameterizedTypeReference<ServerSentEvent<T>> type,
             Object authzSubscription) {
-        return client.post().uri(path).accept(MediaType.APPLICATION_NDJSON).contentType(MediaType.APPLICATION_JSON)
+        return client.post().uri(path).accept(MediaType.APPLICATION_NDJSON).contentType(contentType)
                 .bodyValue(authzSubscription).retrieve().bodyToFlux(type).mapNotNull(ServerSentEvent::data)
                 .doOnError(error -> log.error("Error : {}", error.getMessage()));
     }
@@ -151,6 +203,12 @@ public static class RemoteHttpPolicyDecisionPointBuilder {
         private String                                         baseUrl    = "https://localhost:8443";
         private HttpClient                                     httpClient = HttpClient.create();
         private Function<WebClient.Builder, WebClient.Builder> authenticationCustomizer;
+        private Consumer<HttpHeaders>                          authenticationHeaders;
+        private int                                            maxBatchSize;
+        private Duration                                       maxBatchDelay;
+        private boolean                                        cbor;
+        private boolean                                        deltaEncoding;
+        private boolean                                        multiplexedSubscriptions;
 
         public RemoteHttpPolicyDecisionPointBuilder withUnsecureSSL() throws SSLException {
             log.warn("------------------------------------------------------------------");
@@ -186,6 +244,60 @@ public <O> RemoteHttpPolicyDecisionPointBuilder option(ChannelOption<O> key, @Nu
             return this;
         }
 
+        /**
+         * Enables batching of decideOnce calls. Concurrent calls are collected and
+         * sent to the PDP server in one request as soon as the batch reached the
+         * maximal size or the maximal delay since the first call of the batch has
+         * passed.
+         *
+         * @param maxBatchSize the maximal number of subscriptions in one request
+         * @param maxBatchDelay the maximal time a decideOnce call is delayed
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder batchDecideOnce(int maxBatchSize, Duration maxBatchDelay) {
+            this.maxBatchSize  = maxBatchSize;
+            this.maxBatchDelay = maxBatchDelay;
+            return this;
+        }
+
+        /**
+         * Uses the binary CBOR encoding instead of JSON for authorization
+         * subscriptions and single decisions. Streamed decisions are still received
+         * as NDJSON.
+         *
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder cbor() {
+            this.cbor = true;
+            return this;
+        }
+
+        /**
+         * Requests delta-encoded multi-decisions for decideAll. The server only
+         * transmits the changed decisions and the full multi-decisions are
+         * reassembled by the client.
+         *
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder deltaEncodedDecideAll() {
+            this.deltaEncoding = true;
+            return this;
+        }
+
+        /**
+         * Multiplexes all streaming single subscriptions over one WebSocket
+         * connection to the PDP server instead of opening one HTTP request per
+         * subscription. Subscriptions are added to and removed from the open
+         * connection on demand. Only basic and API key authentication are supported
+         * for the connection.
+         *
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder multiplexedSubscriptions() {
+            this.multiplexedSubscriptions = true;
+            return this;
+        }
+
         private void setApplyAuthenticationFunction(UnaryOperator<WebClient.Builder> applyFunction) {
             if (this.authenticationCustomizer == null) {
                 this.authenticationCustomizer = applyFunction;
@@ -195,14 +307,16 @@ private void setApplyAuthenticationFunction(UnaryOperator<WebClient.Builder> app
         }
 
         public RemoteHttpPolicyDecisionPointBuilder basicAuth(String clientKey, String clientSecret) {
-            setApplyAuthenticationFunction(
-                    builder -> builder.defaultHeaders(header -> header.setBasicAuth(clientKey, clientSecret)));
+            final Consumer<HttpHeaders> headers = header -> header.setBasicAuth(clientKey, clientSecret);
+            setApplyAuthenticationFunction(builder -> builder.defaultHeaders(headers));
+            this.authenticationHeaders = headers;
             return this;
         }
 
         public RemoteHttpPolicyDecisionPointBuilder apiKey(String apikey) {
-            setApplyAuthenticationFunction(
-                    builder -> builder.defaultHeaders(header -> header.add("Authorization", "Bearer " + apikey)));
+            final Consumer<HttpHeaders> headers = header -> header.add("Authorization", "Bearer " + apikey);
+            setApplyAuthenticationFunction(builder -> builder.defaultHeaders(headers));
+            this.authenticationHeaders = headers;
             return this;
         }
 
@@ -226,7 +340,32 @@ public RemoteHttpPolicyDecisionPoint build() {
             if (this.authenticationCustomizer != null) {
                 builder = authenticationCustomizer.apply(builder);
             }
-            return new RemoteHttpPolicyDecisionPoint(builder.build());
+            if (cbor) {
+                builder = builder.codecs(configurer -> {
+                    configurer.customCodecs().register(new Jackson2CborEncoder());
+                    configurer.customCodecs().register(new Jackson2CborDecoder());
+                });
+            }
+            final var pdp = new RemoteHttpPolicyDecisionPoint(builder.build());
+            if (cbor) {
+                pdp.contentType = MediaType.APPLICATION_CBOR;
+            }
+            pdp.deltaEncoding = deltaEncoding;
+            if (null != maxBatchDelay) {
+                pdp.batcher = new DecideOnceBatcher(maxBatchSize, maxBatchDelay, pdp::decideOnceBatch);
+            }
+            if (multiplexedSubscriptions) {
+                if (null != authenticationCustomizer && null == authenticationHeaders) {
+                    throw new IllegalStateException(this.getClass().getName()
+                            + ": multiplexed subscriptions require basic or apiKey authentication");
+                }
+                final var headers = new HttpHeaders();
+                if (null != authenticationHeaders) {
+                    authenticationHeaders.accept(headers);
+                }
+                pdp.subscriptionChannel = new SubscriptionChannel(httpClient, baseUrl, headers);
+            }
+            return pdp;
         }
     }
 }
@@ -24,6 +24,9 @@
 import javax.net.ssl.SSLException;
 
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
 import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.http.codec.json.Jackson2JsonEncoder;
 import org.springframework.messaging.rsocket.RSocketRequester;
@@ -50,6 +53,7 @@
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationDecisionDelta;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import io.sapl.pdp.remote.metadata.SimpleAuthenticationEncoder;
@@ -68,12 +72,18 @@ public class RemoteRsocketPolicyDecisionPoint implements PolicyDecisionPoint {
 
     private static final String DECIDE = "decide";
 
-    private static final String DECIDE_ONCE      = "decide-once";
-    private static final String MULTI_DECIDE     = "multi-decide";
-    private static final String MULTI_DECIDE_ALL = "multi-decide-all";
+    private static final String DECIDE_ONCE            = "decide-once";
+    private static final String MULTI_DECIDE           = "multi-decide";
+    private static final String MULTI_DECIDE_ALL       = "multi-decide-all";
+    private static final String MULTI_DECIDE_ALL_DELTA = "multi-decide-all-delta";
 
     private final RSocketRequester rSocketRequester;
 
+    private boolean deltaEncoding;
+
+    @Getter
+    private RemoteDecisionCache decisionCache;
+
     @Setter
     @Getter
     private int firstBackoffMillis = 500;
@@ -107,6 +117,18 @@ public Flux<AuthorizationDecision> decide(AuthorizationSubscription authzSubscri
 
     @Override
     public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authzSubscription) {
+        if (null != decisionCache) {
+            return decisionCache.decideOnce(authzSubscription, this::decisionStream, this::requestDecision);
+        }
+        return requestDecision(authzSubscription);
+    }
+
+    private Flux<AuthorizationDecision> decisionStream(AuthorizationSubscription authzSubscription) {
+        final var type = new ParameterizedTypeReference<AuthorizationDecision>() {};
+        return decide(DECIDE, type, authzSubscription).distinctUntilChanged();
+    }
+
+    private Mono<AuthorizationDecision> requestDecision(AuthorizationSubscription authzSubscription) {
         final var type = new ParameterizedTypeReference<AuthorizationDecision>() {};
         return rSocketRequester.route(DECIDE_ONCE).data(authzSubscription).retrieveMono(type)
                 .doOnError(error -> log.error("RSocket connection error: {}", error.getMessage(), error));
@@ -122,12 +144,22 @@ public Flux<IdentifiableAuthorizationDecision> decide(MultiAuthorizationSubscrip
 
     @Override
     public Flux<MultiAuthorizationDecision> decideAll(MultiAuthorizationSubscription multiAuthzSubscription) {
-        final var type = new ParameterizedTypeReference<MultiAuthorizationDecision>() {};
-        return decide(MULTI_DECIDE_ALL, type, multiAuthzSubscription)
+        return decideAllMultiDecisions(multiAuthzSubscription)
                 .onErrorResume(error -> Flux.just(MultiAuthorizationDecision.indeterminate())).repeatWhen(repeat())
                 .distinctUntilChanged();
     }
 
+    private Flux<MultiAuthorizationDecision> decideAllMultiDecisions(
+            MultiAuthorizationSubscription multiAuthzSubscription) {
+        if (deltaEncoding) {
+            final var type = new ParameterizedTypeReference<MultiAuthorizationDecisionDelta>() {};
+            return MultiAuthorizationDecisionReassembler
+                    .reassemble(decide(MULTI_DECIDE_ALL_DELTA, type, multiAuthzSubscription));
+        }
+        final var type = new ParameterizedTypeReference<MultiAuthorizationDecision>() {};
+        return decide(MULTI_DECIDE_ALL, type, multiAuthzSubscription);
+    }
+
     private <T> Flux<T> decide(String path, ParameterizedTypeReference<T> type, Object authzSubscription) {
         return rSocketRequester.route(path).data(authzSubscription).retrieveFlux(type)
                 .doOnError(error -> log.error("RSocket connect error: {}", error.getMessage(), error));
@@ -146,6 +178,9 @@ public static class RemoteRsocketPolicyDecisionPointBuilder {
         private Function<RSocketRequester.Builder, RSocketRequester.Builder> authenticationCustomizer;
         private Duration                                                     keepAlive   = Duration.ofSeconds(20);
         private Duration                                                     maxLifeTime = Duration.ofSeconds(90);
+        private boolean                                                      cbor;
+        private boolean                                                      deltaEncoding;
+        private RemoteDecisionCache                                          decisionCache;
 
         public RemoteRsocketPolicyDecisionPointBuilder() {
             tcpClient = TcpClient.create();
@@ -249,11 +284,52 @@ public RemoteRsocketPolicyDecisionPointBuilder keepAlive(Duration keepAlive, Dur
             return this;
         }
 
+        /**
+         * Uses the binary CBOR encoding instead of JSON as the data mime type of the
+         * connection.
+         *
+         * @return RemoteRsocketPolicyDecisionPoint
+         */
+        public RemoteRsocketPolicyDecisionPointBuilder cbor() {
+            this.cbor = true;
+            return this;
+        }
+
+        /**
+         * Requests delta-encoded multi-decisions for decideAll. The server only
+         * transmits the changed decisions and the full multi-decisions are
+         * reassembled by the client.
+         *
+         * @return RemoteRsocketPolicyDecisionPoint
+         */
+        public RemoteRsocketPolicyDecisionPointBuilder deltaEncodedDecideAll() {
+            this.deltaEncoding = true;
+            return this;
+        }
+
+        /**
+         * Caches the decisions of decideOnce calls. The cache keeps a decision
+         * stream open for each cached subscription, so the server pushes every
+         * change of the decision to the client.
+         *
+         * @param decisionCache the cache, which also provides the hit ratio
+         * @return RemoteRsocketPolicyDecisionPoint
+         * @see RemoteDecisionCache
+         */
+        public RemoteRsocketPolicyDecisionPointBuilder decisionCache(RemoteDecisionCache decisionCache) {
+            this.decisionCache = decisionCache;
+            return this;
+        }
+
         public RemoteRsocketPolicyDecisionPoint build() {
             RSocketStrategies rSocketStrategies = RSocketStrategies.builder().encoder(new Jackson2JsonEncoder())
-                    .encoder(new SimpleAuthenticationEncoder()).decoder(new Jackson2JsonDecoder()).build();
+                    .encoder(new Jackson2CborEncoder()).encoder(new SimpleAuthenticationEncoder())
+                    .decoder(new Jackson2JsonDecoder()).decoder(new Jackson2CborDecoder()).build();
 
             var builder = RSocketRequester.builder().rsocketStrategies(rSocketStrategies);
+            if (cbor) {
+                builder = builder.dataMimeType(MediaType.APPLICATION_CBOR);
+            }
             // apply auhentication settings if required
             if (authenticationCustomizer != null) {
                 builder = authenticationCustomizer.apply(builder);
@@ -262,7 +338,10 @@ public RemoteRsocketPolicyDecisionPoint build() {
             // set keepalive and return pdp
             builder.rsocketConnector(connector -> connector.keepAlive(keepAlive, maxLifeTime));
             final var rSocketRequester = builder.transport(TcpClientTransport.create(tcpClient));
-            return new RemoteRsocketPolicyDecisionPoint(rSocketRequester);
+            final var pdp              = new RemoteRsocketPolicyDecisionPoint(rSocketRequester);
+            pdp.deltaEncoding = deltaEncoding;
+            pdp.decisionCache = decisionCache;
+            return pdp;
         }
     }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
+import io.sapl.api.pdp.SubscriptionChannelCommand;
+import io.sapl.api.pdp.SubscriptionChannelRejection;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Multiplexes the streaming authorization subscriptions of a
+ * {@link RemoteHttpPolicyDecisionPoint} over a single WebSocket connection.
+ * <p>
+ * The connection is opened with the first subscription and shared by all
+ * subsequent ones. Subscriptions are added and removed by sending
+ * {@link SubscriptionChannelCommand commands} over the connection, and the
+ * decisions received are routed to the subscribers by the subscription ID. If
+ * the connection fails, all its subscriptions terminate with an error and the
+ * next subscription opens a new connection. The connection is closed as soon
+ * as its last subscription ends. A subscription rejected by the PDP terminates
+ * with a {@link SubscriptionRejectedException} telling whether it may be
+ * retried. Frames which cannot be read as decisions or rejections are logged
+ * and dropped.
+ */
+@Slf4j
+class SubscriptionChannel {
+
+    static final String PATH = "/api/pdp/subscription-channel";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new Jdk8Module());
+
+    private final WebSocketClient client;
+    private final URI             uri;
+    private final HttpHeaders     headers;
+    private final AtomicLong      subscriptionIds = new AtomicLong();
+    private Connection            connection;
+
+    SubscriptionChannel(HttpClient httpClient, String baseUrl, HttpHeaders headers) {
+        this.client  = new ReactorNettyWebSocketClient(httpClient);
+        this.uri     = URI.create(baseUrl.replaceFirst("^http", "ws").replaceFirst("/$", "") + PATH);
+        this.headers = headers;
+    }
+
+    Flux<AuthorizationDecision> decide(AuthorizationSubscription authzSubscription) {
+        return Flux.defer(() -> register(Long.toString(subscriptionIds.incrementAndGet()), authzSubscription));
+    }
+
+    private synchronized Flux<AuthorizationDecision> register(String subscriptionId,
+            AuthorizationSubscription authzSubscription) {
+        if (null == connection || connection.terminated) {
+            connection = new Connection();
+            connection.connect();
+        }
+        return connection.subscribe(subscriptionId, authzSubscription);
+    }
+
+    private synchronized void closeIfIdle(Connection idleConnection) {
+        if (idleConnection.subscriptions.isEmpty()) {
+            idleConnection.terminate(new IllegalStateException("Subscription channel has no subscriptions left."));
+        }
+    }
+
+    private final class Connection {
+
+        private final Sinks.Many<String>                            outbound      = Sinks.many().unicast()
+                .onBackpressureBuffer();
+        private final Map<String, Sinks.Many<AuthorizationDecision>> subscriptions = new ConcurrentHashMap<>();
+        private volatile boolean                                     terminated;
+
+        private void connect() {
+            client.execute(uri, headers,
+                    session -> session.send(outbound.asFlux().map(session::textMessage))
+                            .then(Mono.defer(session::close))
+                            .and(session.receive().map(WebSocketMessage::getPayloadAsText).doOnNext(this::dispatch)
+                                    .doOnComplete(() -> terminate(
+                                            new IllegalStateException("Subscription channel closed by the PDP.")))))
+                    .subscribe(null, this::terminate);
+        }
+
+        private Flux<AuthorizationDecision> subscribe(String subscriptionId,
+                AuthorizationSubscription authzSubscription) {
+            final var decisions = Sinks.many().unicast().<AuthorizationDecision>onBackpressureBuffer();
+            subscriptions.put(subscriptionId, decisions);
+            if (terminated) {
+                subscriptions.remove(subscriptionId);
+                return Flux.error(new IllegalStateException("Subscription channel closed."));
+            }
+            send(SubscriptionChannelCommand.subscribe(subscriptionId, authzSubscription));
+            return decisions.asFlux().doFinally(signal -> {
+                if (null != subscriptions.remove(subscriptionId)) {
+                    send(SubscriptionChannelCommand.unsubscribe(subscriptionId));
+                    closeIfIdle(this);
+                }
+            });
+        }
+
+        private void dispatch(String json) {
+            try {
+                final var frame = MAPPER.readTree(json);
+                if (frame.has(SubscriptionChannelRejection.REJECTION)) {
+                    reject(MAPPER.treeToValue(frame, SubscriptionChannelRejection.class));
+                } else {
+                    route(MAPPER.treeToValue(frame, IdentifiableAuthorizationDecision.class));
+                }
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                log.warn("Dropping unreadable frame received on subscription channel: {}", e.getMessage());
+            }
+        }
+
+        private void route(IdentifiableAuthorizationDecision decision) {
+            final var decisions = subscriptions.get(decision.getAuthorizationSubscriptionId());
+            if (null != decisions) {
+                decisions.tryEmitNext(decision.getAuthorizationDecision());
+            }
+        }
+
+        private void reject(SubscriptionChannelRejection rejection) {
+            // the PDP did not register the subscription, so no unsubscribe is sent
+            final var decisions = subscriptions.remove(rejection.getAuthorizationSubscriptionId());
+            if (null != decisions) {
+                decisions.tryEmitError(new SubscriptionRejectedException(rejection.getRejection()));
+                closeIfIdle(this);
+            }
+        }
+
+        private void send(SubscriptionChannelCommand command) {
+            final String json;
+            try {
+                json = MAPPER.writeValueAsString(command);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize subscription channel command.", e);
+            }
+            synchronized (outbound) {
+                outbound.tryEmitNext(json);
+            }
+        }
+
+        private void terminate(Throwable error) {
+            synchronized (outbound) {
+                if (terminated) {
+                    return;
+                }
+                terminated = true;
+                outbound.tryEmitComplete();
+            }
+            log.debug("Subscription channel terminated: {}", error.getMessage());
+            for (var subscriptionId : subscriptions.keySet()) {
+                final var decisions = subscriptions.remove(subscriptionId);
+                if (null != decisions) {
+                    decisions.tryEmitError(error);
+                }
+            }
+        }
+
+    }
+
+}
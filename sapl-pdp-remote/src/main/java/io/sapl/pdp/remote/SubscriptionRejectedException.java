@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import io.sapl.api.SaplVersion;
+import io.sapl.api.pdp.SubscriptionChannelRejection.Reason;
+
+/**
+ * Terminates the decisions of a subscription rejected by the subscription
+ * channel of the PDP server.
+ */
+class SubscriptionRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = SaplVersion.VERISION_UID;
+
+    private final Reason reason;
+
+    SubscriptionRejectedException(Reason reason) {
+        super("Subscription rejected by the PDP: " + reason);
+        this.reason = reason;
+    }
+
+    /**
+     * @return true, if the subscription may be accepted when retried later
+     */
+    boolean isRetryable() {
+        return reason.isRetryable();
+    }
+
+}
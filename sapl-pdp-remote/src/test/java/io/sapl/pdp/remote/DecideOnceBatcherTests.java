@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationSubscription;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class DecideOnceBatcherTests {
+
+    private static final AuthorizationSubscription READ  = AuthorizationSubscription.of("subject", "read", "resource");
+    private static final AuthorizationSubscription WRITE = AuthorizationSubscription.of("subject", "write",
+            "resource");
+
+    private final List<MultiAuthorizationSubscription> sentBatches = new CopyOnWriteArrayList<>();
+
+    @Test
+    void whenSubscriptionIsCancelledBeforeSending_thenItIsRemovedFromTheBatch() {
+        final var batcher = new DecideOnceBatcher(10, Duration.ofMillis(100L), this::permitAll);
+
+        batcher.decideOnce(READ).subscribe().dispose();
+        StepVerifier.create(batcher.decideOnce(WRITE)).expectNext(AuthorizationDecision.PERMIT).expectComplete()
+                .verify(Duration.ofSeconds(10L));
+
+        assertThat(sentBatches.size(), is(1));
+        assertThat(sentBatches.get(0).getAuthorizationSubscriptionWithId("0"), is(WRITE));
+        assertThat(sentBatches.get(0).getAuthorizationSubscriptionWithId("1"), is(nullValue()));
+    }
+
+    @Test
+    void whenAllSubscriptionsAreCancelled_thenNoBatchIsSent() throws InterruptedException {
+        final var batcher = new DecideOnceBatcher(10, Duration.ofMillis(50L), this::permitAll);
+
+        batcher.decideOnce(READ).subscribe().dispose();
+        batcher.decideOnce(WRITE).subscribe().dispose();
+        Thread.sleep(200L);
+
+        assertThat(sentBatches.isEmpty(), is(true));
+    }
+
+    private Mono<MultiAuthorizationDecision> permitAll(MultiAuthorizationSubscription batch) {
+        sentBatches.add(batch);
+        final var multiDecision = new MultiAuthorizationDecision();
+        for (var subscription : batch) {
+            multiDecision.setAuthorizationDecisionForSubscriptionWithId(subscription.authorizationSubscriptionId(),
+                    AuthorizationDecision.PERMIT);
+        }
+        return Mono.just(multiDecision);
+    }
+
+}
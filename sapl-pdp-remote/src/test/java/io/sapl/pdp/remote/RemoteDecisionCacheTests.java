@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import org.springframework.stereotype.Controller;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.rsocket.core.RSocketServer;
+import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class RemoteDecisionCacheTests {
+
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+
+    private static CloseableChannel                   server;
+    private static AnnotationConfigApplicationContext context;
+
+    @BeforeAll
+    static void startServer() {
+        context = new AnnotationConfigApplicationContext(ServerConfig.class);
+        final var messageHandler = context.getBean(RSocketMessageHandler.class);
+        server = RSocketServer.create(messageHandler.responder()).payloadDecoder(PayloadDecoder.ZERO_COPY)
+                .bind(TcpServerTransport.create("localhost", 0)).block();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.dispose();
+        context.close();
+    }
+
+    @Test
+    void whenSameSubscriptionIsRequestedAgain_thenDecisionIsServedFromCache() {
+        final var cache = new RemoteDecisionCache();
+        final var pdp   = RemotePolicyDecisionPoint.builder().rsocket().host("localhost")
+                .port(server.address().getPort()).decisionCache(cache).build();
+        final var sink  = ServerController.decisionsFor("cached");
+        sink.tryEmitNext(AuthorizationDecision.PERMIT);
+
+        final var subscription = AuthorizationSubscription.of(JSON.objectNode().put("age", 18), "cached",
+                "resource");
+        final var equal        = AuthorizationSubscription.of(JSON.objectNode().put("age", 18.0D), "cached",
+                "resource");
+
+        StepVerifier.create(pdp.decideOnce(subscription)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        StepVerifier.create(pdp.decideOnce(equal)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+
+        assertAll(() -> assertThat(ServerController.subscriptions("cached"), is(1)),
+                () -> assertThat(cache.getMisses(), is(1L)), () -> assertThat(cache.getHits(), is(1L)),
+                () -> assertThat(cache.getHitRatio(), is(0.5D)), () -> assertThat(cache.size(), is(1L)));
+        pdp.dispose();
+    }
+
+    @Test
+    void whenServerPushesChangedDecision_thenCacheServesNewDecision() {
+        final var cache = new RemoteDecisionCache();
+        final var pdp   = RemotePolicyDecisionPoint.builder().rsocket().host("localhost")
+                .port(server.address().getPort()).decisionCache(cache).build();
+        final var sink  = ServerController.decisionsFor("changing");
+        sink.tryEmitNext(AuthorizationDecision.PERMIT);
+
+        final var subscription = AuthorizationSubscription.of("subject", "changing", "resource");
+
+        StepVerifier.create(pdp.decideOnce(subscription)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        sink.tryEmitNext(AuthorizationDecision.DENY);
+        StepVerifier.create(Flux.interval(Duration.ofMillis(10L)).concatMap(i -> pdp.decideOnce(subscription))
+                .takeUntil(AuthorizationDecision.DENY::equals).last().timeout(Duration.ofSeconds(5L)))
+                .expectNext(AuthorizationDecision.DENY).verifyComplete();
+
+        assertThat(ServerController.subscriptions("changing"), is(1));
+        pdp.dispose();
+    }
+
+    @Test
+    void whenStreamIsIdle_thenItIsClosedAndEntryDropped() {
+        final var cancelled = new AtomicInteger();
+        final var cache     = new RemoteDecisionCache(10L, Duration.ZERO);
+
+        StepVerifier
+                .create(cache.decideOnce(AuthorizationSubscription.of("subject", "action", "resource"),
+                        s -> Flux.concat(Flux.just(AuthorizationDecision.PERMIT), Flux.<AuthorizationDecision>never())
+                                .doOnCancel(cancelled::incrementAndGet),
+                        s -> Mono.error(new IllegalStateException())))
+                .expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+
+        StepVerifier.create(Flux.interval(Duration.ofMillis(10L)).takeUntil(i -> cache.size() == 0)
+                .timeout(Duration.ofSeconds(5L)).then()).verifyComplete();
+        assertThat(cancelled.get(), is(1));
+    }
+
+    @Test
+    void whenStreamFails_thenEntryIsDropped() {
+        final var cache = new RemoteDecisionCache();
+
+        StepVerifier.create(cache.decideOnce(AuthorizationSubscription.of("subject", "action", "resource"),
+                s -> Flux.error(new IllegalStateException()), s -> Mono.empty()))
+                .verifyError(IllegalStateException.class);
+        assertThat(cache.size(), is(0L));
+    }
+
+    @Test
+    void whenCacheIsFull_thenLeastRecentlyUsedStreamIsEvictedAndClosed() {
+        final var cancelled = new AtomicInteger();
+        final var cache     = new RemoteDecisionCache(1L, Duration.ofMinutes(1L));
+
+        StepVerifier.create(cache.decideOnce(AuthorizationSubscription.of("subject", "first", "resource"),
+                s -> Flux.concat(Flux.just(AuthorizationDecision.PERMIT), Flux.<AuthorizationDecision>never())
+                        .doOnCancel(cancelled::incrementAndGet),
+                s -> Mono.error(new IllegalStateException()))).expectNext(AuthorizationDecision.PERMIT)
+                .verifyComplete();
+        StepVerifier.create(cache.decideOnce(AuthorizationSubscription.of("subject", "second", "resource"),
+                s -> Flux.concat(Flux.just(AuthorizationDecision.DENY), Flux.<AuthorizationDecision>never()),
+                s -> Mono.error(new IllegalStateException()))).expectNext(AuthorizationDecision.DENY)
+                .verifyComplete();
+
+        StepVerifier.create(Flux.interval(Duration.ofMillis(10L)).takeUntil(i -> cancelled.get() == 1)
+                .timeout(Duration.ofSeconds(5L)).then()).verifyComplete();
+        assertAll(() -> assertThat(cache.getEvictions(), is(1L)), () -> assertThat(cache.size(), is(1L)));
+    }
+
+    @Test
+    void whenStreamEndsWithoutDecision_thenSingleDecisionIsRequested() {
+        final var cache = new RemoteDecisionCache();
+
+        StepVerifier.create(cache.decideOnce(AuthorizationSubscription.of("subject", "action", "resource"),
+                s -> Flux.empty(), s -> Mono.just(AuthorizationDecision.DENY)))
+                .expectNext(AuthorizationDecision.DENY).verifyComplete();
+        assertThat(cache.size(), is(0L));
+    }
+
+    @Test
+    void invalidArguments() {
+        final var idleTimeout = Duration.ofSeconds(-1L);
+        assertAll(() -> assertThrows(IllegalArgumentException.class, () -> new RemoteDecisionCache(0L, Duration.ZERO)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new RemoteDecisionCache(1L, idleTimeout)));
+    }
+
+    /**
+     * Stand-in for the RSocket PDP endpoint. The decisions of a subscription are
+     * pushed through a sink selected by the action of the subscription.
+     */
+    @Controller
+    static class ServerController {
+        private static final Map<String, Sinks.Many<AuthorizationDecision>> SINKS         = new ConcurrentHashMap<>();
+        private static final Map<String, AtomicInteger>                     SUBSCRIPTIONS = new ConcurrentHashMap<>();
+
+        static Sinks.Many<AuthorizationDecision> decisionsFor(String action) {
+            return SINKS.computeIfAbsent(action, a -> Sinks.many().replay().latest());
+        }
+
+        static int subscriptions(String action) {
+            return SUBSCRIPTIONS.computeIfAbsent(action, a -> new AtomicInteger()).get();
+        }
+
+        @MessageMapping("decide")
+        Flux<AuthorizationDecision> decide(AuthorizationSubscription subscription) {
+            final var action = subscription.getAction().asText();
+            return decisionsFor(action).asFlux().doOnSubscribe(
+                    s -> SUBSCRIPTIONS.computeIfAbsent(action, a -> new AtomicInteger()).incrementAndGet());
+        }
+
+        @MessageMapping("decide-once")
+        Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription subscription) {
+            return decide(subscription).next();
+        }
+    }
+
+    @TestConfiguration
+    @edu.umd.cs.findbugs.annotations.SuppressFBWarnings(value = "WI_MANUALLY_ALLOCATING_AN_AUTOWIRED_BEAN")
+    static class ServerConfig {
+
+        @Bean
+        ServerController serverController() {
+            return new ServerController();
+        }
+
+        @Bean
+        RSocketMessageHandler serverMessageHandler() {
+            final var handler = new RSocketMessageHandler();
+            handler.setRSocketStrategies(RSocketStrategies.builder().encoder(new Jackson2JsonEncoder())
+                    .decoder(new Jackson2JsonDecoder()).build());
+            return handler;
+        }
+    }
+
+}
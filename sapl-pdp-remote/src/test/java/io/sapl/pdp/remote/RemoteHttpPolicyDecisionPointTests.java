@@ -23,6 +23,9 @@
 import static org.junit.jupiter.api.Assertions.assertAll;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.net.ssl.SSLException;
 
@@ -38,6 +41,7 @@
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 
 import io.netty.handler.ssl.SslContextBuilder;
@@ -46,9 +50,12 @@
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationDecisionDelta;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 import reactor.test.StepVerifier;
 
@@ -63,6 +70,7 @@ class RemoteHttpPolicyDecisionPointTests {
     private static final String SUBJECT = "subject";
 
     private static final ObjectMapper    MAPPER = new ObjectMapper().registerModule(new Jdk8Module());
+    private static final ObjectMapper    CBOR   = new CBORMapper().registerModule(new Jdk8Module());
     private static final JsonNodeFactory JSON   = JsonNodeFactory.instance;
 
     private MockWebServer server;
@@ -133,6 +141,45 @@ void whenSubscribingMultiDecideAll_thenGetResults() throws JsonProcessingExcepti
                 .expectNext(decision1, decision2, indeterminate, decision1, decision2).thenCancel().verify();
     }
 
+    @Test
+    void whenSubscribingDeltaEncodedMultiDecideAll_thenDecisionsAreReassembled()
+            throws JsonProcessingException, InterruptedException {
+        final var deltaPdp = RemotePolicyDecisionPoint.builder().http().baseUrl(this.server.url("/").toString())
+                .withHttpClient(HttpClient.create()).basicAuth("secret", "key").deltaEncodedDecideAll().build();
+        deltaPdp.setFirstBackoffMillis(100);
+        deltaPdp.setMaxBackOffMillis(200);
+
+        final var snapshot = delta(0L, true, new IdentifiableAuthorizationDecision(ID, AuthorizationDecision.PERMIT),
+                new IdentifiableAuthorizationDecision("id2", AuthorizationDecision.DENY));
+        final var change   = delta(1L, false, new IdentifiableAuthorizationDecision(ID, AuthorizationDecision.DENY));
+        final var gap      = delta(3L, false, new IdentifiableAuthorizationDecision(ID, AuthorizationDecision.PERMIT));
+        prepareDecisions(new MultiAuthorizationDecisionDelta[] { snapshot, change, gap });
+        prepareDecisions(new MultiAuthorizationDecisionDelta[] { snapshot });
+
+        final var permitDeny = new MultiAuthorizationDecision();
+        permitDeny.setAuthorizationDecisionForSubscriptionWithId(ID, AuthorizationDecision.PERMIT);
+        permitDeny.setAuthorizationDecisionForSubscriptionWithId("id2", AuthorizationDecision.DENY);
+        final var denyDeny = new MultiAuthorizationDecision();
+        denyDeny.setAuthorizationDecisionForSubscriptionWithId(ID, AuthorizationDecision.DENY);
+        denyDeny.setAuthorizationDecisionForSubscriptionWithId("id2", AuthorizationDecision.DENY);
+
+        final var subscription = new MultiAuthorizationSubscription()
+                .addAuthorizationSubscription(ID, JSON.textNode(SUBJECT), JSON.textNode(ACTION),
+                        JSON.textNode(RESOURCE))
+                .addAuthorizationSubscription("id2", JSON.textNode(SUBJECT), JSON.textNode(ACTION),
+                        JSON.textNode("other resource"));
+
+        StepVerifier.create(deltaPdp.decideAll(subscription))
+                .expectNext(permitDeny, denyDeny, MultiAuthorizationDecision.indeterminate(), permitDeny)
+                .thenCancel().verify();
+        assertThat(server.takeRequest().getPath(), is("/api/pdp/multi-decide-all-delta"));
+    }
+
+    private static MultiAuthorizationDecisionDelta delta(long sequenceNumber, boolean snapshot,
+            IdentifiableAuthorizationDecision... decisions) {
+        return new MultiAuthorizationDecisionDelta(sequenceNumber, snapshot, new ArrayList<>(List.of(decisions)));
+    }
+
     @Test
     void whenSubscribingMultiDecide_thenGetResults() throws JsonProcessingException {
         final var decision1     = new IdentifiableAuthorizationDecision(ID, AuthorizationDecision.PERMIT);
@@ -149,6 +196,88 @@ void whenSubscribingMultiDecide_thenGetResults() throws JsonProcessingException
                 .expectNext(decision1, decision2, indeterminate, decision1, decision2).thenCancel().verify();
     }
 
+    @Test
+    void whenBatchingDecideOnce_thenConcurrentCallsAreSentInOneRequest() throws JsonProcessingException {
+        final var batchingPdp   = RemotePolicyDecisionPoint.builder().http().baseUrl(this.server.url("/").toString())
+                .withHttpClient(HttpClient.create()).basicAuth("secret", "key")
+                .batchDecideOnce(10, Duration.ofMillis(50L)).build();
+        final var multiDecision = new MultiAuthorizationDecision();
+        multiDecision.setAuthorizationDecisionForSubscriptionWithId("0", AuthorizationDecision.PERMIT);
+        multiDecision.setAuthorizationDecisionForSubscriptionWithId("1", AuthorizationDecision.DENY);
+        server.enqueue(new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setResponseCode(HttpStatus.OK.value()).setBody(MAPPER.writeValueAsString(multiDecision)));
+
+        final var first  = AuthorizationSubscription.of(SUBJECT, "read", RESOURCE);
+        final var second = AuthorizationSubscription.of(SUBJECT, "write", RESOURCE);
+        final var third  = AuthorizationSubscription.of(SUBJECT, "delete", RESOURCE);
+
+        StepVerifier
+                .create(Mono.zip(batchingPdp.decideOnce(first), batchingPdp.decideOnce(second),
+                        batchingPdp.decideOnce(third)))
+                .expectNextMatches(decisions -> decisions.getT1().equals(AuthorizationDecision.PERMIT)
+                        && decisions.getT2().equals(AuthorizationDecision.DENY)
+                        && decisions.getT3().equals(AuthorizationDecision.INDETERMINATE))
+                .verifyComplete();
+
+        assertThat(server.getRequestCount(), is(1));
+    }
+
+    @Test
+    void whenBatchIsFull_thenItIsSentWithoutDelay() throws JsonProcessingException, InterruptedException {
+        final var batchingPdp   = RemotePolicyDecisionPoint.builder().http().baseUrl(this.server.url("/").toString())
+                .withHttpClient(HttpClient.create()).basicAuth("secret", "key")
+                .batchDecideOnce(1, Duration.ofHours(1L)).build();
+        final var multiDecision = new MultiAuthorizationDecision();
+        multiDecision.setAuthorizationDecisionForSubscriptionWithId("0", AuthorizationDecision.PERMIT);
+        server.enqueue(new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setResponseCode(HttpStatus.OK.value()).setBody(MAPPER.writeValueAsString(multiDecision)));
+
+        final var subscription = AuthorizationSubscription.of(SUBJECT, ACTION, RESOURCE);
+
+        StepVerifier.create(batchingPdp.decideOnce(subscription)).expectNext(AuthorizationDecision.PERMIT)
+                .expectComplete().verify(Duration.ofSeconds(10L));
+
+        final var request = server.takeRequest();
+        assertThat(request.getPath(), is("/api/pdp/decide-once-batch"));
+    }
+
+    @Test
+    void whenBatchRequestFails_thenAllCallersReceiveTheError() {
+        final var batchingPdp = RemotePolicyDecisionPoint.builder().http().baseUrl(this.server.url("/").toString())
+                .withHttpClient(HttpClient.create()).basicAuth("secret", "key")
+                .batchDecideOnce(2, Duration.ofMillis(50L)).build();
+        server.enqueue(new MockResponse().setResponseCode(HttpStatus.INTERNAL_SERVER_ERROR.value()));
+
+        final var first  = batchingPdp.decideOnce(AuthorizationSubscription.of(SUBJECT, "read", RESOURCE));
+        final var second = batchingPdp.decideOnce(AuthorizationSubscription.of(SUBJECT, "write", RESOURCE));
+
+        StepVerifier.create(Mono.zip(first.materialize(), second.materialize()))
+                .expectNextMatches(signals -> signals.getT1().isOnError() && signals.getT2().isOnError())
+                .verifyComplete();
+    }
+
+    @Test
+    void whenUsingCbor_thenSubscriptionAndDecisionAreBinaryEncoded() throws IOException, InterruptedException {
+        final var cborPdp  = RemotePolicyDecisionPoint.builder().http().baseUrl(this.server.url("/").toString())
+                .withHttpClient(HttpClient.create()).basicAuth("secret", "key").cbor().build();
+        final var decision = AuthorizationDecision.PERMIT
+                .withObligations(JSON.arrayNode().add(JSON.objectNode().put("type", "log").put("level", 3)));
+        server.enqueue(new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE)
+                .setResponseCode(HttpStatus.OK.value()).setBody(new Buffer().write(CBOR.writeValueAsBytes(decision))));
+
+        final var subscription = AuthorizationSubscription.of(JSON.objectNode().put("name", "alice"), ACTION,
+                JSON.objectNode().put("id", 42));
+
+        StepVerifier.create(cborPdp.decideOnce(subscription)).expectNext(decision).expectComplete()
+                .verify(Duration.ofSeconds(10L));
+
+        final var request = server.takeRequest();
+        assertAll(() -> assertThat(request.getHeader(HttpHeaders.CONTENT_TYPE), is(MediaType.APPLICATION_CBOR_VALUE)),
+                () -> assertThat(request.getHeader(HttpHeaders.ACCEPT), is(MediaType.APPLICATION_CBOR_VALUE)),
+                () -> assertThat(CBOR.readValue(request.getBody().readByteArray(), AuthorizationSubscription.class),
+                        is(subscription)));
+    }
+
     private void prepareDecisions(Object[] decisions) throws JsonProcessingException {
         StringBuilder body = new StringBuilder();
         for (var decision : decisions) {
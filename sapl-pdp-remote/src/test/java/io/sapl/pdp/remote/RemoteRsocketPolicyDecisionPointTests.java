@@ -23,7 +23,9 @@
 import static org.junit.jupiter.api.Assertions.assertAll;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
 import javax.net.ssl.SSLException;
@@ -34,6 +36,8 @@
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
 import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.http.codec.json.Jackson2JsonEncoder;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -53,6 +57,7 @@
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationDecisionDelta;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.pdp.remote.metadata.SimpleAuthenticationEncoder;
 import reactor.core.publisher.Flux;
@@ -138,6 +143,42 @@ void whenSubscribingMultiDecideAll_thenGetResults() {
                 .expectNext(decision1, decision2, indeterminate, decision1, decision2).thenCancel().verify();
     }
 
+    @Test
+    void whenSubscribingDeltaEncodedMultiDecideAll_thenDecisionsAreReassembled() {
+        final var deltaPdp = RemotePolicyDecisionPoint.builder().rsocket().host("localhost")
+                .port(server.address().getPort()).deltaEncodedDecideAll().build();
+
+        final var snapshot = delta(0L, true, new IdentifiableAuthorizationDecision(ID, AuthorizationDecision.PERMIT),
+                new IdentifiableAuthorizationDecision("id2", AuthorizationDecision.DENY));
+        final var change   = delta(1L, false, new IdentifiableAuthorizationDecision(ID, AuthorizationDecision.DENY));
+        final var gap      = delta(3L, false, new IdentifiableAuthorizationDecision(ID, AuthorizationDecision.PERMIT));
+        prepareDecisions(new MultiAuthorizationDecisionDelta[] { snapshot, change, gap });
+        prepareDecisions(new MultiAuthorizationDecisionDelta[] { snapshot });
+
+        final var permitDeny = new MultiAuthorizationDecision();
+        permitDeny.setAuthorizationDecisionForSubscriptionWithId(ID, AuthorizationDecision.PERMIT);
+        permitDeny.setAuthorizationDecisionForSubscriptionWithId("id2", AuthorizationDecision.DENY);
+        final var denyDeny = new MultiAuthorizationDecision();
+        denyDeny.setAuthorizationDecisionForSubscriptionWithId(ID, AuthorizationDecision.DENY);
+        denyDeny.setAuthorizationDecisionForSubscriptionWithId("id2", AuthorizationDecision.DENY);
+
+        final var subscription = new MultiAuthorizationSubscription()
+                .addAuthorizationSubscription(ID, JSON.textNode(SUBJECT), JSON.textNode(ACTION),
+                        JSON.textNode(RESOURCE))
+                .addAuthorizationSubscription("id2", JSON.textNode(SUBJECT), JSON.textNode(ACTION),
+                        JSON.textNode("other resource"));
+
+        StepVerifier.create(deltaPdp.decideAll(subscription))
+                .expectNext(permitDeny, denyDeny, MultiAuthorizationDecision.indeterminate(), permitDeny)
+                .thenCancel().verify();
+        deltaPdp.dispose();
+    }
+
+    private static MultiAuthorizationDecisionDelta delta(long sequenceNumber, boolean snapshot,
+            IdentifiableAuthorizationDecision... decisions) {
+        return new MultiAuthorizationDecisionDelta(sequenceNumber, snapshot, new ArrayList<>(List.of(decisions)));
+    }
+
     @Test
     void whenSubscribingMultiDecide_thenGetResults() {
         final var decision1     = new IdentifiableAuthorizationDecision(ID, AuthorizationDecision.PERMIT);
@@ -154,6 +195,23 @@ void whenSubscribingMultiDecide_thenGetResults() {
                 .expectNext(decision1, decision2, indeterminate, decision1, decision2).thenCancel().verify();
     }
 
+    @Test
+    void whenUsingCbor_thenDecisionsAreDecoded() {
+        final var cborPdp  = RemotePolicyDecisionPoint.builder().rsocket().host("localhost").cbor()
+                .port(server.address().getPort()).build();
+        final var decision = AuthorizationDecision.PERMIT
+                .withObligations(JSON.arrayNode().add(JSON.objectNode().put("type", "log").put("level", 3)));
+
+        prepareDecisions(new AuthorizationDecision[] { decision, AuthorizationDecision.DENY });
+
+        final var subscription = AuthorizationSubscription.of(JSON.objectNode().put("name", "alice"), ACTION,
+                JSON.objectNode().put("id", 42));
+
+        StepVerifier.create(cborPdp.decide(subscription)).expectNext(decision, AuthorizationDecision.DENY)
+                .thenCancel().verify();
+        cborPdp.dispose();
+    }
+
     /**
      * Fake Spring @Controller class which is a stand-in 'test rig' for our real
      * server. It contains a custom @ConnectMapping that tests if our ClientHandler
@@ -182,6 +240,11 @@ public Flux<MultiAuthorizationDecision> fakeMultiDecideAll() {
             return Flux.fromArray((MultiAuthorizationDecision[]) decisionsQueue.remove());
         }
 
+        @MessageMapping("multi-decide-all-delta")
+        public Flux<MultiAuthorizationDecisionDelta> fakeMultiDecideAllDelta() {
+            return Flux.fromArray((MultiAuthorizationDecisionDelta[]) decisionsQueue.remove());
+        }
+
     }
 
     /**
@@ -202,7 +265,8 @@ ServerController serverController() {
         RSocketMessageHandler serverMessageHandler() {
             RSocketMessageHandler handler    = new RSocketMessageHandler();
             final var             strategies = RSocketStrategies.builder().encoder(new Jackson2JsonEncoder())
-                    .encoder(new SimpleAuthenticationEncoder()).decoder(new Jackson2JsonDecoder()).build();
+                    .encoder(new Jackson2CborEncoder()).encoder(new SimpleAuthenticationEncoder())
+                    .decoder(new Jackson2JsonDecoder()).decoder(new Jackson2CborDecoder()).build();
             handler.setRSocketStrategies(strategies);
             return handler;
         }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
+import io.sapl.api.pdp.SubscriptionChannelCommand;
+import io.sapl.api.pdp.SubscriptionChannelRejection;
+import io.sapl.api.pdp.SubscriptionChannelRejection.Reason;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+class SubscriptionChannelTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new Jdk8Module());
+
+    private static final AtomicInteger           CONNECTIONS   = new AtomicInteger();
+    private static final AtomicInteger           CLOSED        = new AtomicInteger();
+    private static final AtomicInteger           REJECTED      = new AtomicInteger();
+    private static final AtomicReference<String> AUTHORIZATION = new AtomicReference<>();
+    private static final Set<String>             UNSUBSCRIBED  = ConcurrentHashMap.newKeySet();
+
+    private static DisposableServer server;
+
+    @BeforeAll
+    static void startServer() {
+        server = HttpServer.create().host("localhost").port(0)
+                .route(routes -> routes.ws(SubscriptionChannel.PATH, (in, out) -> {
+                    CONNECTIONS.incrementAndGet();
+                    AUTHORIZATION.set(in.headers().get(HttpHeaderNames.AUTHORIZATION));
+                    return out.sendString(in.receive().asString().doOnComplete(CLOSED::incrementAndGet)
+                            .concatMap(SubscriptionChannelTests::answer));
+                })).bindNow();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @BeforeEach
+    void resetServer() {
+        CONNECTIONS.set(0);
+        CLOSED.set(0);
+        REJECTED.set(0);
+        AUTHORIZATION.set(null);
+        UNSUBSCRIBED.clear();
+    }
+
+    @Test
+    void whenManySubscriptions_thenTheyShareOneConnection() {
+        final var pdp = RemotePolicyDecisionPoint.builder().http().baseUrl("http://localhost:" + server.port())
+                .basicAuth("key", "secret").multiplexedSubscriptions().build();
+
+        final var decisionsRoutedCorrectly = Flux.range(0, 100).flatMap(i -> {
+            final var action   = i % 2 == 0 ? "read" : "write";
+            final var expected = i % 2 == 0 ? AuthorizationDecision.PERMIT : AuthorizationDecision.DENY;
+            return pdp.decide(AuthorizationSubscription.of("subject", action, "resource")).next()
+                    .map(expected::equals);
+        }).all(Boolean::booleanValue);
+
+        StepVerifier.create(decisionsRoutedCorrectly).expectNext(true).expectComplete()
+                .verify(Duration.ofSeconds(10L));
+        final var expectedAuthorization = "Basic " + Base64.getEncoder().encodeToString("key:secret".getBytes());
+        assertAll(() -> assertThat(CONNECTIONS.get(), is(1)),
+                () -> assertThat(AUTHORIZATION.get(), is(expectedAuthorization)));
+        StepVerifier.create(Flux.interval(Duration.ofMillis(10L)).takeUntil(i -> UNSUBSCRIBED.size() == 100)
+                .timeout(Duration.ofSeconds(5L)).then()).verifyComplete();
+    }
+
+    @Test
+    void whenTenThousandSubscriptionsAreOpen_thenStubServerSeesOneConnection() {
+        final var pdp = RemotePolicyDecisionPoint.builder().http().baseUrl("http://localhost:" + server.port())
+                .multiplexedSubscriptions().build();
+
+        final var decisions = Flux.range(0, 10_000)
+                .flatMap(i -> pdp.decide(AuthorizationSubscription.of("subject", "read", "resource")).take(1), 10_000)
+                .filter(AuthorizationDecision.PERMIT::equals).count();
+
+        StepVerifier.create(decisions).expectNext(10_000L).expectComplete().verify(Duration.ofSeconds(30L));
+        assertThat(CONNECTIONS.get(), is(1));
+        StepVerifier.create(Flux.interval(Duration.ofMillis(10L)).takeUntil(i -> UNSUBSCRIBED.size() == 10_000)
+                .timeout(Duration.ofSeconds(10L)).then()).verifyComplete();
+    }
+
+    @Test
+    void whenLastSubscriptionEnds_thenConnectionIsClosedAndReopenedOnDemand() {
+        final var pdp = RemotePolicyDecisionPoint.builder().http().baseUrl("http://localhost:" + server.port())
+                .multiplexedSubscriptions().build();
+
+        StepVerifier.create(pdp.decide(AuthorizationSubscription.of("subject", "read", "resource")).take(1))
+                .expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        StepVerifier.create(Flux.interval(Duration.ofMillis(10L)).takeUntil(i -> CLOSED.get() == 1)
+                .timeout(Duration.ofSeconds(5L)).then()).verifyComplete();
+        StepVerifier.create(pdp.decide(AuthorizationSubscription.of("subject", "write", "resource")).take(1))
+                .expectNext(AuthorizationDecision.DENY).verifyComplete();
+        assertThat(CONNECTIONS.get(), is(2));
+    }
+
+    @Test
+    void whenUnreadableFrameIsReceived_thenItIsDroppedAndSubscriptionContinues() {
+        final var pdp = RemotePolicyDecisionPoint.builder().http().baseUrl("http://localhost:" + server.port())
+                .multiplexedSubscriptions().build();
+
+        StepVerifier.create(pdp.decide(AuthorizationSubscription.of("subject", "garble", "resource")).take(1))
+                .expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        assertThat(CONNECTIONS.get(), is(1));
+    }
+
+    @Test
+    void whenSubscriptionIsCancelled_thenItIsRemovedFromTheChannel() {
+        final var pdp = RemotePolicyDecisionPoint.builder().http().baseUrl("http://localhost:" + server.port())
+                .multiplexedSubscriptions().build();
+
+        StepVerifier.create(pdp.decide(AuthorizationSubscription.of("subject", "read", "resource")).take(1))
+                .expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        StepVerifier.create(Flux.interval(Duration.ofMillis(10L)).takeUntil(i -> UNSUBSCRIBED.contains("1"))
+                .timeout(Duration.ofSeconds(5L)).then()).verifyComplete();
+    }
+
+    @Test
+    void whenSubscriptionLimitIsExceeded_thenSubscriptionIsRetriedAfterIndeterminate() {
+        final var pdp = RemotePolicyDecisionPoint.builder().http().baseUrl("http://localhost:" + server.port())
+                .multiplexedSubscriptions().build();
+
+        StepVerifier.create(pdp.decide(AuthorizationSubscription.of("subject", "overload", "resource")).take(2))
+                .expectNext(AuthorizationDecision.INDETERMINATE, AuthorizationDecision.PERMIT).expectComplete()
+                .verify(Duration.ofSeconds(10L));
+        assertAll(() -> assertThat(REJECTED.get(), is(1)), () -> assertThat(UNSUBSCRIBED.contains("1"), is(false)));
+    }
+
+    @Test
+    void whenSubscriptionIsRejectedAsInvalid_thenIndeterminateIsFollowedByError() {
+        final var pdp = RemotePolicyDecisionPoint.builder().http().baseUrl("http://localhost:" + server.port())
+                .multiplexedSubscriptions().build();
+
+        StepVerifier.create(pdp.decide(AuthorizationSubscription.of("subject", "invalid", "resource")))
+                .expectNext(AuthorizationDecision.INDETERMINATE).expectError(SubscriptionRejectedException.class)
+                .verify(Duration.ofSeconds(10L));
+        assertThat(REJECTED.get(), is(1));
+    }
+
+    @Test
+    void whenOauth2IsUsed_thenMultiplexedSubscriptionsAreRejected() {
+        final var builder = RemotePolicyDecisionPoint.builder().http()
+                .oauth2(mock(ReactiveClientRegistrationRepository.class), "registration").multiplexedSubscriptions();
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    /**
+     * Stand-in for the subscription channel of the PDP server. Each subscription
+     * is answered with a single decision derived from its action. The action
+     * "garble" is preceded by a frame which is not a decision. The first
+     * subscription with the action "overload" is rejected as exceeding the
+     * subscription limit, and all subscriptions with the action "invalid" are
+     * rejected as not retryable.
+     */
+    private static Flux<String> answer(String json) {
+        return Mono.fromCallable(() -> MAPPER.readValue(json, SubscriptionChannelCommand.class))
+                .flatMapMany(command -> {
+                    if (command.getType() == SubscriptionChannelCommand.Type.UNSUBSCRIBE) {
+                        UNSUBSCRIBED.add(command.getAuthorizationSubscriptionId());
+                        return Flux.<String>empty();
+                    }
+                    final var action   = command.getAuthorizationSubscription().getAction().asText();
+                    final var id       = command.getAuthorizationSubscriptionId();
+                    if ("invalid".equals(action) || ("overload".equals(action) && REJECTED.get() == 0)) {
+                        REJECTED.incrementAndGet();
+                        final var reason = "invalid".equals(action) ? Reason.MISSING_AUTHORIZATION_SUBSCRIPTION
+                                : Reason.SUBSCRIPTION_LIMIT_EXCEEDED;
+                        return Mono.fromCallable(
+                                () -> MAPPER.writeValueAsString(new SubscriptionChannelRejection(id, reason))).flux();
+                    }
+                    final var decision = "write".equals(action) ? AuthorizationDecision.DENY
+                            : AuthorizationDecision.PERMIT;
+                    final var answer   = Mono.fromCallable(() -> MAPPER.writeValueAsString(
+                            new IdentifiableAuthorizationDecision(id, decision)));
+                    return "garble".equals(action) ? Flux.concat(Mono.just("not a decision"), answer) : answer.flux();
+                });
+    }
+
+}
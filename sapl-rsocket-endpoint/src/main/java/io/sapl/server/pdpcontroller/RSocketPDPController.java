@@ -24,6 +24,7 @@
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationDecisionDelta;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import lombok.RequiredArgsConstructor;
@@ -62,6 +63,31 @@ public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authzSub
                 .next();
     }
 
+    /**
+     * Delegates to {@link PolicyDecisionPoint#decideOnce(AuthorizationSubscription)}
+     * for each of the authorization subscriptions contained in the given
+     * multi-subscription. Clients use this endpoint to transmit a batch of
+     * independent decideOnce calls in a single request.
+     *
+     * @param multiAuthzSubscription the batch of authorization subscriptions to be
+     * processed by the PDP.
+     * @return a Mono emitting a multi-decision containing the initial decision for
+     * each of the individual authorization subscriptions.
+     * @see PolicyDecisionPoint#decideOnce(AuthorizationSubscription)
+     */
+    @MessageMapping("decide-once-batch")
+    public Mono<MultiAuthorizationDecision> decideOnceBatch(MultiAuthorizationSubscription multiAuthzSubscription) {
+        return Flux.fromIterable(multiAuthzSubscription)
+                .flatMap(subscription -> pdp.decideOnce(subscription.authorizationSubscription())
+                        .onErrorResume(error -> Mono.just(AuthorizationDecision.INDETERMINATE))
+                        .defaultIfEmpty(AuthorizationDecision.INDETERMINATE)
+                        .map(decision -> new IdentifiableAuthorizationDecision(
+                                subscription.authorizationSubscriptionId(), decision)))
+                .collect(MultiAuthorizationDecision::new,
+                        (multiDecision, decision) -> multiDecision.setAuthorizationDecisionForSubscriptionWithId(
+                                decision.getAuthorizationSubscriptionId(), decision.getAuthorizationDecision()));
+    }
+
     /**
      * Delegates to
      * {@link PolicyDecisionPoint#decide(MultiAuthorizationSubscription)}.
@@ -96,6 +122,23 @@ public Flux<MultiAuthorizationDecision> decideAll(MultiAuthorizationSubscription
                 .onErrorResume(error -> Flux.just(MultiAuthorizationDecision.indeterminate()));
     }
 
+    /**
+     * Delegates to
+     * {@link PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)} and
+     * delta-encodes the resulting multi-decisions.
+     *
+     * @param multiAuthzSubscription the authorization multi-subscription to be
+     * processed by the PDP.
+     * @return a flux emitting a snapshot of all authorization decisions followed
+     * by deltas only containing the changed decisions.
+     * @see MultiAuthorizationDecisionDelta#deltasOf(Flux)
+     */
+    @MessageMapping("multi-decide-all-delta")
+    public Flux<MultiAuthorizationDecisionDelta> decideAllDelta(MultiAuthorizationSubscription multiAuthzSubscription) {
+        return MultiAuthorizationDecisionDelta.deltasOf(pdp.decideAll(multiAuthzSubscription)
+                .onErrorResume(error -> Flux.just(MultiAuthorizationDecision.indeterminate())));
+    }
+
     /**
      * Delegates to
      * {@link PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)}.
@@ -22,12 +22,17 @@
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
 import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.http.codec.json.Jackson2JsonEncoder;
 import org.springframework.messaging.rsocket.RSocketRequester;
@@ -48,11 +53,13 @@
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationDecisionDelta;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import io.sapl.server.pdpcontroller.RSocketPDPController;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.netty.tcp.TcpClient;
 import reactor.test.StepVerifier;
 
@@ -71,7 +78,8 @@ class RsocketPDPControllerTests {
     private PolicyDecisionPoint pdp;
 
     final RSocketStrategies  rSocketStrategies = RSocketStrategies.builder().encoder(new Jackson2JsonEncoder())
-            .decoder(new Jackson2JsonDecoder()).build();
+            .encoder(new Jackson2CborEncoder()).decoder(new Jackson2JsonDecoder()).decoder(new Jackson2CborDecoder())
+            .build();
     private RSocketRequester requester;
 
     @BeforeAll
@@ -120,6 +128,26 @@ void decideOnceValidPayload() {
         verify(pdp, times(1)).decide(subscription);
     }
 
+    @Test
+    void decideOnceWithCborPayload() {
+        final var decision = AuthorizationDecision.PERMIT
+                .withObligations(JSON.arrayNode().add(JSON.objectNode().put("type", "log").put("level", 3)));
+        when(pdp.decide(any(AuthorizationSubscription.class))).thenReturn(Flux.just(decision));
+
+        final var cborRequester = RSocketRequester.builder().rsocketStrategies(rSocketStrategies)
+                .dataMimeType(MediaType.APPLICATION_CBOR)
+                .transport(TcpClientTransport.create(TcpClient.create().port(serverPort)));
+        final var subscription  = AuthorizationSubscription.of(JSON.objectNode().put("name", "alice"), "read",
+                JSON.objectNode().put("id", 42));
+        final var result        = cborRequester.route("decide-once").data(subscription)
+                .retrieveMono(AuthorizationDecision.class);
+
+        StepVerifier.create(result).expectNext(decision).verifyComplete();
+
+        verify(pdp, times(1)).decide(subscription);
+        cborRequester.dispose();
+    }
+
     @Test
     void decideWithValidProcessingError() {
         when(pdp.decide(any(AuthorizationSubscription.class))).thenReturn(Flux.error(new RuntimeException()));
@@ -219,6 +247,35 @@ void subscribeToMultiAllDecisions() {
         verify(pdp, times(1)).decideAll(multiAuthzSubscription);
     }
 
+    @Test
+    void subscribeToMultiAllDecisionsDeltaEncoded() {
+        final var first  = new MultiAuthorizationDecision();
+        first.setAuthorizationDecisionForSubscriptionWithId("id1", AuthorizationDecision.PERMIT);
+        first.setAuthorizationDecisionForSubscriptionWithId("id2", AuthorizationDecision.DENY);
+        final var second = new MultiAuthorizationDecision();
+        second.setAuthorizationDecisionForSubscriptionWithId("id1", AuthorizationDecision.PERMIT);
+        second.setAuthorizationDecisionForSubscriptionWithId("id2", AuthorizationDecision.PERMIT);
+        when(pdp.decideAll(any(MultiAuthorizationSubscription.class))).thenReturn(Flux.just(first, second));
+
+        final var multiAuthzSubscription = new MultiAuthorizationSubscription().addAuthorizationSubscription("id1",
+                JSON.textNode("subject"), JSON.textNode("action1"), JSON.textNode("resource"))
+                .addAuthorizationSubscription("id2", JSON.textNode("subject"), JSON.textNode("action2"),
+                        JSON.textNode("other resource"));
+
+        final var result = requester.route("multi-decide-all-delta").data(multiAuthzSubscription)
+                .retrieveFlux(MultiAuthorizationDecisionDelta.class);
+
+        StepVerifier.create(result)
+                .expectNextMatches(delta -> delta.isSnapshot() && delta.getSequenceNumber() == 0L
+                        && delta.getAuthorizationDecisions().size() == 2)
+                .expectNextMatches(delta -> !delta.isSnapshot() && delta.getSequenceNumber() == 1L
+                        && delta.getAuthorizationDecisions().equals(List.of(
+                                new IdentifiableAuthorizationDecision("id2", AuthorizationDecision.PERMIT))))
+                .verifyComplete();
+
+        verify(pdp, times(1)).decideAll(multiAuthzSubscription);
+    }
+
     @Test
     void oneMultiAllDecisions() {
         when(pdp.decideAll(any(MultiAuthorizationSubscription.class)))
@@ -238,6 +295,26 @@ void oneMultiAllDecisions() {
         verify(pdp, times(1)).decideAll(multiAuthzSubscription);
     }
 
+    @Test
+    void decideOnceBatchValidPayload() {
+        when(pdp.decideOnce(any(AuthorizationSubscription.class))).thenReturn(Mono.just(AuthorizationDecision.PERMIT));
+
+        final var multiAuthzSubscription = new MultiAuthorizationSubscription()
+                .addAuthorizationSubscription("id1", AuthorizationSubscription.of("subject", "read", "resource"))
+                .addAuthorizationSubscription("id2", AuthorizationSubscription.of("subject", "write", "resource"));
+
+        final var expected = new MultiAuthorizationDecision();
+        expected.setAuthorizationDecisionForSubscriptionWithId("id1", AuthorizationDecision.PERMIT);
+        expected.setAuthorizationDecisionForSubscriptionWithId("id2", AuthorizationDecision.PERMIT);
+
+        final var result = requester.route("decide-once-batch").data(multiAuthzSubscription)
+                .retrieveMono(MultiAuthorizationDecision.class);
+
+        StepVerifier.create(result).expectNext(expected).verifyComplete();
+
+        verify(pdp, times(2)).decideOnce(any(AuthorizationSubscription.class));
+    }
+
     @Test
     void subscribeToMultiAllDecisionsProcessingError() {
         when(pdp.decideAll(any(MultiAuthorizationSubscription.class))).thenReturn(Flux.error(new RuntimeException()));
@@ -23,6 +23,7 @@
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Role;
@@ -33,24 +34,29 @@
 import io.sapl.interpreter.InitializationException;
 import io.sapl.interpreter.pip.AnnotationAttributeContext;
 import io.sapl.interpreter.pip.AttributeContext;
+import io.sapl.interpreter.pip.AttributeStreamBroker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @AutoConfiguration
 @RequiredArgsConstructor
+@EnableConfigurationProperties(EmbeddedPDPProperties.class)
 @AutoConfigureAfter(PolicyInformationPointsAutoConfiguration.class)
 public class AttributeContextAutoConfiguration {
 
     private final Collection<PolicyInformationPointSupplier>       pipSuppliers;
     private final Collection<StaticPolicyInformationPointSupplier> staticPipSuppliers;
     private final ConfigurableApplicationContext                   applicationContext;
+    private final EmbeddedPDPProperties                            properties;
 
     @Bean
     @ConditionalOnMissingBean
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
     AttributeContext attributeContext() throws InitializationException {
-        final var ctx = new AnnotationAttributeContext();
+        final var ctx = properties.isSharedAttributeStreams()
+                ? new AnnotationAttributeContext(new AttributeStreamBroker(properties.getAttributeStreamGracePeriod()))
+                : new AnnotationAttributeContext();
         for (var supplier : pipSuppliers) {
             for (var pip : supplier.get()) {
                 log.trace("loading Policy Information Point: {}", pip.getClass().getSimpleName());
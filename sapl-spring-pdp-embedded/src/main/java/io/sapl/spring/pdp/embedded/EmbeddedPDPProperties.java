@@ -17,9 +17,16 @@
  */
 package io.sapl.spring.pdp.embedded;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import io.sapl.grammar.sapl.impl.util.RegexPatternCache;
+import io.sapl.interpreter.combinators.ParallelDocumentEvaluation;
+import io.sapl.interpreter.pip.AttributeStreamBroker;
+import io.sapl.pdp.DecisionCache;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -64,6 +71,14 @@ public class EmbeddedPDPProperties {
     @NotNull
     private IndexType index = IndexType.NAIVE;
 
+    /**
+     * If this property is set to true, the CANONICAL index measures the
+     * evaluation time and selectivity of its predicates during lookups and
+     * periodically re-orders them to evaluate cheap and selective predicates
+     * first. Only applies if the index is set to CANONICAL.
+     */
+    private boolean adaptivePredicateOrder = false;
+
     /**
      * This property sets the path to the folder where the pdp.json configuration
      * file is located.
@@ -117,6 +132,101 @@ public enum IndexType {
 
     }
 
+    /**
+     * If this property is set to false, the PDP runs in a trace-free production
+     * mode. The hot paths of policy evaluation, i.e., compiled expressions, steps,
+     * object construction, function calls, and attribute finders, construct no
+     * evaluation traces, which significantly reduces the allocations per
+     * decision. Traces and reports then are incomplete and do not fully explain
+     * how a decision was derived. The setting only applies to the PDP of this
+     * application context.
+     */
+    private boolean tracingEnabled = true;
+
+    /**
+     * If this property is set to true, the overrides and unless combining
+     * algorithms evaluate documents with attributes which cannot yield the
+     * overriding decision only while no other document yields it. The decision
+     * is the same as with eager combination, but combined decisions and reports
+     * only list the documents which were evaluated. Set it to false, if reports
+     * must list all matching documents.
+     */
+    private boolean lazyDocumentCombining = true;
+
+    /**
+     * If this property is set to true, identical attribute streams, i.e., the
+     * same attribute with the same left-hand value and arguments, are shared
+     * between all concurrent subscriptions instead of invoking the policy
+     * information point for each subscription individually.
+     */
+    private boolean sharedAttributeStreams = false;
+
+    /**
+     * The time a shared attribute stream is kept alive after its last subscriber
+     * left. Only applies if sharedAttributeStreams is set to true.
+     */
+    @NotNull
+    private Duration attributeStreamGracePeriod = AttributeStreamBroker.DEFAULT_GRACE_PERIOD;
+
+    /**
+     * If this property is set to true, callers sending identical authorization
+     * subscriptions share one evaluation pipeline and receive the same decisions.
+     * Hit and miss counters are available on the SubscriptionMultiplexer bean.
+     */
+    private boolean deduplicateSubscriptions = false;
+
+    /**
+     * If this property is set to true, the matching documents of a decision are
+     * evaluated in parallel on a scheduler bounded by the number of CPU cores,
+     * once at least parallelDocumentEvaluationThreshold documents match. The
+     * combined decision does not depend on the evaluation order.
+     */
+    private boolean parallelDocumentEvaluation = false;
+
+    /**
+     * The minimal number of matching documents for a parallel evaluation. Only
+     * applies if parallelDocumentEvaluation is set to true.
+     */
+    @Min(1)
+    private int parallelDocumentEvaluationThreshold = ParallelDocumentEvaluation.DEFAULT_THRESHOLD;
+
+    /**
+     * If this property is set to true, decisions of one-shot subscriptions
+     * (decideOnce) are cached as long as the policies, variables, and libraries
+     * remain unchanged. Subscriptions matching documents which access attributes
+     * or call functions of libraries not declared pure are always evaluated. Hit,
+     * miss, and eviction counters are available on the DecisionCache bean.
+     */
+    private boolean decisionCache = false;
+
+    /**
+     * The maximal number of cached decisions. Only applies if decisionCache is
+     * set to true.
+     */
+    @Min(1)
+    private long decisionCacheSize = DecisionCache.DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * The maximal number of compiled regular expressions of the =~ operator
+     * cached by the PDP. The least recently used expressions are evicted first.
+     */
+    @Min(1)
+    private long regexCacheSize = RegexPatternCache.DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * The maximal length of a regular expression in characters. Matching a
+     * longer expression with the =~ operator evaluates to an error.
+     */
+    @Min(1)
+    private int regexMaximumPatternLength = RegexPatternCache.DEFAULT_MAXIMUM_PATTERN_LENGTH;
+
+    /**
+     * The maximal duration of a single match of the =~ operator. A match taking
+     * longer is aborted and evaluates to an error.
+     */
+    @NotNull
+    private Duration regexMatchTimeBudget = RegexPatternCache.DEFAULT_MATCH_TIME_BUDGET;
+
     /**
      * If this property is set to true, JSON in logged traces and reports is pretty
      * printed.
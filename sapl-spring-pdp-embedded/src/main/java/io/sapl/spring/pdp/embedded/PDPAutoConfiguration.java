@@ -17,26 +17,77 @@
  */
 package io.sapl.spring.pdp.embedded;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Role;
 
 import io.sapl.api.pdp.PolicyDecisionPoint;
+import io.sapl.grammar.sapl.impl.util.RegexPatternCache;
+import io.sapl.interpreter.combinators.ParallelDocumentEvaluation;
+import io.sapl.pdp.DecisionCache;
 import io.sapl.pdp.EmbeddedPolicyDecisionPoint;
+import io.sapl.pdp.SubscriptionMultiplexer;
 import io.sapl.pdp.config.PDPConfigurationProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Schedulers;
 
 @Slf4j
 @AutoConfiguration
 @RequiredArgsConstructor
+@EnableConfigurationProperties(EmbeddedPDPProperties.class)
 @AutoConfigureAfter({ FunctionLibrariesAutoConfiguration.class, PolicyInformationPointsAutoConfiguration.class })
 public class PDPAutoConfiguration {
 
-    private final PDPConfigurationProvider configurationProvider;
+    private final PDPConfigurationProvider                   configurationProvider;
+    private final EmbeddedPDPProperties                      properties;
+    private final ObjectProvider<SubscriptionMultiplexer>    subscriptionMultiplexer;
+    private final ObjectProvider<ParallelDocumentEvaluation> parallelDocumentEvaluation;
+    private final ObjectProvider<DecisionCache>              decisionCache;
+    private final ObjectProvider<RegexPatternCache>          regexPatternCache;
+
+    @Bean
+    @ConditionalOnMissingBean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(prefix = "io.sapl.pdp.embedded", name = "deduplicate-subscriptions", havingValue = "true")
+    SubscriptionMultiplexer subscriptionMultiplexer() {
+        log.info("Deduplication of identical authorization subscriptions enabled.");
+        return new SubscriptionMultiplexer();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(prefix = "io.sapl.pdp.embedded", name = "parallel-document-evaluation", havingValue = "true")
+    ParallelDocumentEvaluation parallelDocumentEvaluation() {
+        log.info("Parallel evaluation of matching documents enabled. Threshold: {}",
+                properties.getParallelDocumentEvaluationThreshold());
+        return new ParallelDocumentEvaluation(properties.getParallelDocumentEvaluationThreshold(),
+                Schedulers.parallel());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(prefix = "io.sapl.pdp.embedded", name = "decision-cache", havingValue = "true")
+    DecisionCache decisionCache() {
+        log.info("Caching of one-shot decisions enabled. Maximum size: {}", properties.getDecisionCacheSize());
+        return new DecisionCache(properties.getDecisionCacheSize());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    RegexPatternCache regexPatternCache() {
+        return new RegexPatternCache(properties.getRegexCacheSize(), properties.getRegexMaximumPatternLength(),
+                properties.getRegexMatchTimeBudget());
+    }
 
     @Bean
     @ConditionalOnMissingBean
@@ -44,7 +95,15 @@ public class PDPAutoConfiguration {
     PolicyDecisionPoint policyDecisionPoint() {
         log.info("Deploying embedded Policy Decision Point. ConfigProvider: {} ",
                 configurationProvider.getClass().getSimpleName());
-        return new EmbeddedPolicyDecisionPoint(configurationProvider);
+        if (!properties.isTracingEnabled()) {
+            log.info("Evaluation tracing is disabled. Decision traces and reports will not explain decisions.");
+        }
+        return EmbeddedPolicyDecisionPoint.builder(configurationProvider)
+                .subscriptionMultiplexer(subscriptionMultiplexer.getIfAvailable())
+                .parallelDocumentEvaluation(parallelDocumentEvaluation.getIfAvailable())
+                .decisionCache(decisionCache.getIfAvailable()).tracingEnabled(properties.isTracingEnabled())
+                .lazyDocumentCombining(properties.isLazyDocumentCombining())
+                .regexPatternCache(regexPatternCache.getIfAvailable()).build();
     }
 
 }
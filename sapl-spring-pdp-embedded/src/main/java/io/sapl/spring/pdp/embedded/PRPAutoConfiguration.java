@@ -32,6 +32,7 @@
 import io.sapl.prp.PrpUpdateEventSource;
 import io.sapl.prp.index.UpdateEventDrivenPolicyRetrievalPoint;
 import io.sapl.prp.index.canonical.CanonicalImmutableParsedDocumentIndex;
+import io.sapl.prp.index.canonical.ordering.AdaptivePredicateOrderStrategy;
 import io.sapl.prp.index.naive.NaiveImmutableParsedDocumentIndex;
 import io.sapl.spring.pdp.embedded.EmbeddedPDPProperties.IndexType;
 import lombok.RequiredArgsConstructor;
@@ -62,7 +63,10 @@ PolicyRetrievalPointSource policyRetrievalPoint() throws PolicyEvaluationExcepti
             // scoped
             // evaluation context is sufficient. Variables will be bound later in the
             // subscription scoped EvaluationContext handed over for lookup.
-            seedIndex = new CanonicalImmutableParsedDocumentIndex(attributeContext, functionContext);
+            seedIndex = pdpProperties.isAdaptivePredicateOrder()
+                    ? new CanonicalImmutableParsedDocumentIndex(new AdaptivePredicateOrderStrategy(),
+                            attributeContext, functionContext)
+                    : new CanonicalImmutableParsedDocumentIndex(attributeContext, functionContext);
         }
         return new GenericInMemoryIndexedPolicyRetrievalPointSource(seedIndex, eventSource);
     }
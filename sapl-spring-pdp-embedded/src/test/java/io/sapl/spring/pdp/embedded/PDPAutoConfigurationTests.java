@@ -25,6 +25,7 @@
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 
 import io.sapl.api.pdp.PolicyDecisionPoint;
+import io.sapl.grammar.sapl.impl.util.RegexPatternCache;
 import io.sapl.pdp.EmbeddedPolicyDecisionPoint;
 import io.sapl.pdp.config.PDPConfigurationProvider;
 import io.sapl.prp.PolicyRetrievalPoint;
@@ -45,6 +46,33 @@ void whenContextLoads_thenOneIsCreated() {
         });
     }
 
+    @Test
+    void whenTracingIsDisabled_thenPdpIsCreatedInTraceFreeMode() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.tracing-enabled=false").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).hasSingleBean(PolicyDecisionPoint.class);
+            assertThat(context.getBean(EmbeddedPolicyDecisionPoint.class)).extracting("tracingEnabled")
+                    .isEqualTo(false);
+        });
+    }
+
+    @Test
+    void whenLazyDocumentCombiningIsNotConfigured_thenPdpCombinesLazily() {
+        contextRunner.run(context -> assertThat(context.getBean(EmbeddedPolicyDecisionPoint.class))
+                .extracting("lazyDocumentCombining").isEqualTo(true));
+    }
+
+    @Test
+    void whenRegexLimitsAreConfigured_thenPdpUsesThem() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.regex-maximum-pattern-length=10").run(context -> {
+            assertThat(context).hasNotFailed();
+            final var regexPatternCache = context.getBean(RegexPatternCache.class);
+            assertThat(regexPatternCache.getMaximumPatternLength()).isEqualTo(10);
+            assertThat(context.getBean(EmbeddedPolicyDecisionPoint.class)).extracting("regexPatternCache")
+                    .isSameAs(regexPatternCache);
+        });
+    }
+
     @Test
     void whenAnotherPDPIsAlreadyPresent_thenDoNotLoadANewOne() {
         contextRunner.withBean(PolicyDecisionPoint.class, () -> mock(PolicyDecisionPoint.class)).run(context -> {
@@ -25,6 +25,7 @@
 import org.springframework.context.annotation.Configuration;
 
 import io.sapl.api.pdp.PolicyDecisionPoint;
+import io.sapl.pdp.remote.RemoteDecisionCache;
 import io.sapl.pdp.remote.RemotePolicyDecisionPoint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -55,6 +56,18 @@ PolicyDecisionPoint policyDecisionPoint() throws SSLException {
             if (configuration.isIgnoreCertificates()) {
                 builder.withUnsecureSSL();
             }
+            if (configuration.isCbor()) {
+                log.info("Using CBOR encoding");
+                builder.cbor();
+            }
+            if (configuration.isDeltaEncoding()) {
+                log.info("Using delta-encoded multi-decisions");
+                builder.deltaEncodedDecideAll();
+            }
+            if (configuration.isDecisionCache()) {
+                log.info("Caching decideOnce decisions");
+                builder.decisionCache(new RemoteDecisionCache());
+            }
             return builder.build();
 
         } else {
@@ -70,6 +83,18 @@ PolicyDecisionPoint policyDecisionPoint() throws SSLException {
             if (configuration.isIgnoreCertificates()) {
                 builder.withUnsecureSSL();
             }
+            if (configuration.isCbor()) {
+                log.info("Using CBOR encoding");
+                builder.cbor();
+            }
+            if (configuration.isDeltaEncoding()) {
+                log.info("Using delta-encoded multi-decisions");
+                builder.deltaEncodedDecideAll();
+            }
+            if (configuration.isMultiplexedSubscriptions()) {
+                log.info("Multiplexing decision streams over one WebSocket connection");
+                builder.multiplexedSubscriptions();
+            }
             return builder.build();
         }
     }
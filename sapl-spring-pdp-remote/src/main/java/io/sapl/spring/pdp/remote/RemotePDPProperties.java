@@ -36,14 +36,18 @@ public class RemotePDPProperties implements Validator {
     @NotEmpty
     private String  type               = "rsocket"; // rsocket or http
     private boolean ignoreCertificates = false;
+    private boolean cbor               = false; // binary encoding instead of JSON
+    private boolean deltaEncoding      = false; // only changed decisions for decideAll
 
     // http
     @URL
-    private String host = "";
+    private String  host                     = "";
+    private boolean multiplexedSubscriptions = false; // one WebSocket connection for all decision streams
 
     // rsocket
-    private String  rsocketHost = "";
-    private Integer rsocketPort = 7000;
+    private String  rsocketHost   = "";
+    private Integer rsocketPort   = 7000;
+    private boolean decisionCache = false; // cache decideOnce decisions kept current by the server
 
     // basic authentication
     private String key    = "";
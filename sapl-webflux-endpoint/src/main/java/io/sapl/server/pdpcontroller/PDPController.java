@@ -31,6 +31,7 @@
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationDecisionDelta;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import jakarta.validation.Valid;
@@ -41,6 +42,10 @@
 /**
  * REST controller providing endpoints for a policy decision point. The
  * endpoints can be connected using the client in the module sapl-pdp-client.
+ * <p>
+ * All endpoints accept authorization subscriptions encoded as JSON or CBOR.
+ * Endpoints returning a single decision answer in the encoding requested by the
+ * accept header.
  */
 
 @RestController
@@ -77,7 +82,7 @@ private <T> Flux<ServerSentEvent<T>> wrapWithKeepAlive(Flux<T> flux) {
      * @return a flux emitting the current authorization decisions.
      * @see PolicyDecisionPoint#decide(AuthorizationSubscription)
      */
-    @PostMapping(value = "/decide", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/decide", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
     public Flux<ServerSentEvent<AuthorizationDecision>> decide(
             @Valid @RequestBody AuthorizationSubscription authzSubscription) {
         return wrapWithKeepAlive(
@@ -92,12 +97,38 @@ public Flux<ServerSentEvent<AuthorizationDecision>> decide(
      * @return a Mono for the initial decision.
      * @see PolicyDecisionPoint#decide(AuthorizationSubscription)
      */
-    @PostMapping(value = "/decide-once", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/decide-once", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE }, consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
     public Mono<AuthorizationDecision> decideOnce(@Valid @RequestBody AuthorizationSubscription authzSubscription) {
         return pdp.decide(authzSubscription).onErrorResume(error -> Flux.just(AuthorizationDecision.INDETERMINATE))
                 .next();
     }
 
+    /**
+     * Delegates to {@link PolicyDecisionPoint#decideOnce(AuthorizationSubscription)}
+     * for each of the authorization subscriptions contained in the given
+     * multi-subscription. Clients use this endpoint to transmit a batch of
+     * independent decideOnce calls in a single request.
+     *
+     * @param multiAuthzSubscription the batch of authorization subscriptions to be
+     * processed by the PDP.
+     * @return a Mono emitting a multi-decision containing the initial decision for
+     * each of the individual authorization subscriptions.
+     * @see PolicyDecisionPoint#decideOnce(AuthorizationSubscription)
+     */
+    @PostMapping(value = "/decide-once-batch", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE }, consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public Mono<MultiAuthorizationDecision> decideOnceBatch(
+            @Valid @RequestBody MultiAuthorizationSubscription multiAuthzSubscription) {
+        return Flux.fromIterable(multiAuthzSubscription)
+                .flatMap(subscription -> pdp.decideOnce(subscription.authorizationSubscription())
+                        .onErrorResume(error -> Mono.just(AuthorizationDecision.INDETERMINATE))
+                        .defaultIfEmpty(AuthorizationDecision.INDETERMINATE)
+                        .map(decision -> new IdentifiableAuthorizationDecision(
+                                subscription.authorizationSubscriptionId(), decision)))
+                .collect(MultiAuthorizationDecision::new,
+                        (multiDecision, decision) -> multiDecision.setAuthorizationDecisionForSubscriptionWithId(
+                                decision.getAuthorizationSubscriptionId(), decision.getAuthorizationDecision()));
+    }
+
     /**
      * Delegates to
      * {@link PolicyDecisionPoint#decide(MultiAuthorizationSubscription)}.
@@ -109,7 +140,7 @@ public Mono<AuthorizationDecision> decideOnce(@Valid @RequestBody AuthorizationS
      * as they are available.
      * @see PolicyDecisionPoint#decide(MultiAuthorizationSubscription)
      */
-    @PostMapping(value = "/multi-decide", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/multi-decide", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
     public Flux<ServerSentEvent<IdentifiableAuthorizationDecision>> decide(
             @Valid @RequestBody MultiAuthorizationSubscription multiAuthzSubscription) {
         return wrapWithKeepAlive(pdp.decide(multiAuthzSubscription)
@@ -127,13 +158,31 @@ public Flux<ServerSentEvent<IdentifiableAuthorizationDecision>> decide(
      * {@code multiAuthzSubscription}.
      * @see PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)
      */
-    @PostMapping(value = "/multi-decide-all", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/multi-decide-all", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
     public Flux<ServerSentEvent<MultiAuthorizationDecision>> decideAll(
             @Valid @RequestBody MultiAuthorizationSubscription multiAuthzSubscription) {
         return wrapWithKeepAlive(pdp.decideAll(multiAuthzSubscription)
                 .onErrorResume(error -> Flux.just(MultiAuthorizationDecision.indeterminate())));
     }
 
+    /**
+     * Delegates to
+     * {@link PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)} and
+     * delta-encodes the resulting multi-decisions.
+     *
+     * @param multiAuthzSubscription the authorization multi-subscription to be
+     * processed by the PDP.
+     * @return a flux emitting a snapshot of all authorization decisions followed
+     * by deltas only containing the changed decisions.
+     * @see MultiAuthorizationDecisionDelta#deltasOf(Flux)
+     */
+    @PostMapping(value = "/multi-decide-all-delta", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public Flux<ServerSentEvent<MultiAuthorizationDecisionDelta>> decideAllDelta(
+            @Valid @RequestBody MultiAuthorizationSubscription multiAuthzSubscription) {
+        return wrapWithKeepAlive(MultiAuthorizationDecisionDelta.deltasOf(pdp.decideAll(multiAuthzSubscription)
+                .onErrorResume(error -> Flux.just(MultiAuthorizationDecision.indeterminate()))));
+    }
+
     /**
      * Delegates to
      * {@link PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)}.
@@ -145,7 +194,7 @@ public Flux<ServerSentEvent<MultiAuthorizationDecision>> decideAll(
      * given {@code multiAuthzSubscription}.
      * @see PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)
      */
-    @PostMapping(value = "/multi-decide-all-once", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/multi-decide-all-once", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE }, consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
     public Mono<MultiAuthorizationDecision> decideAllOnce(
             @Valid @RequestBody MultiAuthorizationSubscription multiAuthzSubscription) {
         return pdp.decideAll(multiAuthzSubscription)
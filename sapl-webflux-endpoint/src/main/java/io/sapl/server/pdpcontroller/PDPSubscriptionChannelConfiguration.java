@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.server.pdpcontroller;
+
+import java.util.Map;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+/**
+ * Exposes the {@link PDPSubscriptionChannelHandler} as a WebSocket endpoint.
+ */
+@Configuration
+public class PDPSubscriptionChannelConfiguration {
+
+    @Bean
+    HandlerMapping pdpSubscriptionChannelHandlerMapping(PDPSubscriptionChannelHandler handler) {
+        return new SimpleUrlHandlerMapping(Map.of(PDPSubscriptionChannelHandler.PATH, handler), -1);
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.server.pdpcontroller;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
+import io.sapl.api.pdp.PolicyDecisionPoint;
+import io.sapl.api.pdp.SubscriptionChannelCommand;
+import io.sapl.api.pdp.SubscriptionChannelRejection;
+import io.sapl.api.pdp.SubscriptionChannelRejection.Reason;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * WebSocket endpoint multiplexing many streaming authorization subscriptions
+ * of one client over a single connection.
+ * <p>
+ * The client adds and removes subscriptions at any time by sending
+ * {@link SubscriptionChannelCommand commands} as JSON text messages. Each
+ * subscription is delegated to
+ * {@link PolicyDecisionPoint#decide(io.sapl.api.pdp.AuthorizationSubscription)}
+ * and its decisions are merged into the outbound stream of the connection as
+ * {@link IdentifiableAuthorizationDecision identifiable decisions}. Instead of
+ * one keep-alive timer per subscription, a single heartbeat timer shared by all
+ * connections sends ping frames.
+ * <p>
+ * Commands are validated one by one. Unreadable commands and commands without
+ * a type or subscription id are logged and dropped. A subscribe command
+ * without a subscription, or one exceeding the number of subscriptions a
+ * single connection may hold, is answered with a
+ * {@link SubscriptionChannelRejection rejection} stating the reason, which
+ * tells the client whether retrying the subscription may succeed. In both
+ * cases the connection and its other subscriptions stay open.
+ */
+@Slf4j
+@Component
+public class PDPSubscriptionChannelHandler implements WebSocketHandler {
+
+    /**
+     * The path the subscription channel is exposed on.
+     */
+    public static final String PATH = "/api/pdp/subscription-channel";
+
+    /**
+     * The maximal number of subscriptions a single connection may hold, unless
+     * configured otherwise.
+     */
+    public static final int DEFAULT_MAX_SUBSCRIPTIONS = 10_000;
+
+    private final PolicyDecisionPoint pdp;
+    private final ObjectMapper        mapper;
+    private final Flux<Long>          heartbeat;
+    private final int                 maxSubscriptions;
+
+    /**
+     * Creates the handler.
+     *
+     * @param pdp the policy decision point
+     * @param mapper the mapper used to read commands and write decisions
+     * @param keepAliveSeconds the interval of the heartbeat in seconds. No
+     * heartbeat is sent if the value is not positive.
+     * @param maxSubscriptions the maximal number of subscriptions a single
+     * connection may hold at the same time
+     */
+    public PDPSubscriptionChannelHandler(PolicyDecisionPoint pdp, ObjectMapper mapper,
+            @Value("#{'${io.sapl.server.keep-alive:${io.sapl.server-lt.keep-alive:0}}'}") long keepAliveSeconds,
+            @Value("${io.sapl.server.subscription-channel.max-subscriptions:" + DEFAULT_MAX_SUBSCRIPTIONS
+                    + "}") int maxSubscriptions) {
+        this.pdp              = pdp;
+        this.mapper           = mapper;
+        this.maxSubscriptions = maxSubscriptions;
+        if (keepAliveSeconds > 0) {
+            this.heartbeat = Flux.interval(Duration.ofSeconds(keepAliveSeconds)).share();
+        } else {
+            this.heartbeat = Flux.never();
+        }
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        final var subscriptions = new ConcurrentHashMap<String, Sinks.Empty<Void>>();
+        final var closed        = Sinks.empty();
+        // one slot beyond the limit keeps commands flowing while the connection is full
+        final var decisions     = session.receive().map(WebSocketMessage::getPayloadAsText)
+                .flatMap(command -> handleCommand(command, subscriptions), maxSubscriptions + 1)
+                .map(frame -> session.textMessage(writeFrame(frame)))
+                .doFinally(signal -> closed.tryEmitEmpty());
+        final var pings         = heartbeat.map(tick -> session.pingMessage(factory -> factory.allocateBuffer(0)))
+                .takeUntilOther(closed.asMono());
+        return session.send(Flux.merge(decisions, pings));
+    }
+
+    private Flux<Object> handleCommand(String json, Map<String, Sinks.Empty<Void>> subscriptions) {
+        final SubscriptionChannelCommand command;
+        try {
+            command = mapper.readValue(json, SubscriptionChannelCommand.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping unreadable subscription channel command: {}", e.getOriginalMessage());
+            return Flux.empty();
+        }
+        final var id = command.getAuthorizationSubscriptionId();
+        if (null == command.getType() || null == id || id.isBlank()) {
+            log.warn("Dropping subscription channel command without type or subscription id.");
+            return Flux.empty();
+        }
+        final var previous = subscriptions.remove(id);
+        if (null != previous) {
+            previous.tryEmitEmpty();
+        }
+        if (command.getType() == SubscriptionChannelCommand.Type.UNSUBSCRIBE) {
+            return Flux.empty();
+        }
+        if (null == command.getAuthorizationSubscription()) {
+            log.warn("Rejecting subscribe command without authorization subscription for id '{}'.", id);
+            return Flux.just(new SubscriptionChannelRejection(id, Reason.MISSING_AUTHORIZATION_SUBSCRIPTION));
+        }
+        if (subscriptions.size() >= maxSubscriptions) {
+            log.warn("Rejecting subscription '{}'. The connection already holds {} subscriptions.", id,
+                    maxSubscriptions);
+            return Flux.just(new SubscriptionChannelRejection(id, Reason.SUBSCRIPTION_LIMIT_EXCEEDED));
+        }
+        final var cancel = Sinks.<Void>empty();
+        subscriptions.put(id, cancel);
+        return pdp.decide(command.getAuthorizationSubscription())
+                .onErrorResume(error -> Flux.just(AuthorizationDecision.INDETERMINATE))
+                .<Object>map(decision -> new IdentifiableAuthorizationDecision(id, decision))
+                .takeUntilOther(cancel.asMono())
+                .doFinally(signal -> subscriptions.remove(id, cancel));
+    }
+
+    private String writeFrame(Object frame) {
+        try {
+            return mapper.writeValueAsString(frame);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize subscription channel frame.", e);
+        }
+    }
+
+}
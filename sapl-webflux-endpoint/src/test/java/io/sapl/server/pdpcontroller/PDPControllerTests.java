@@ -18,16 +18,22 @@
 package io.sapl.server.pdpcontroller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ClientCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -39,14 +45,16 @@
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationDecisionDelta;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 @Import(PolicyDecisionPoint.class)
 @WebFluxTest(controllers = PDPController.class)
-@ContextConfiguration(classes = { PDPController.class })
+@ContextConfiguration(classes = { PDPController.class, PDPCodecConfiguration.class })
 class PDPControllerTests {
 
     private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
@@ -92,6 +100,51 @@ void decideOnceValidBody() {
         verify(pdp, times(1)).decide(subscription);
     }
 
+    @Test
+    void decideOnceWithCborBody() {
+        final var obligations = JSON.arrayNode().add(JSON.objectNode().put("type", "log").put("level", 3));
+        final var decision    = AuthorizationDecision.PERMIT.withObligations(obligations)
+                .withResource(JSON.objectNode().set("items", JSON.arrayNode().add(1.5D).add("two")));
+        when(pdp.decide((AuthorizationSubscription) any(AuthorizationSubscription.class)))
+                .thenReturn(Flux.just(decision));
+
+        final var subscription = AuthorizationSubscription.of(JSON.objectNode().put("name", "alice"), "read",
+                JSON.objectNode().put("id", 42));
+        final var cborClient   = webClient.mutate().codecs(PDPControllerTests::registerCborCodecs).build();
+
+        final var result = cborClient.post().uri("/api/pdp/decide-once").contentType(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+                .body(BodyInserters.fromValue(subscription)).exchange().expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR).returnResult(AuthorizationDecision.class);
+
+        StepVerifier.create(result.getResponseBody()).expectNext(decision).verifyComplete();
+
+        verify(pdp, times(1)).decide(subscription);
+    }
+
+    @Test
+    void decideOnceBatchValidBody() {
+        when(pdp.decideOnce(withAction("read"))).thenReturn(Mono.just(AuthorizationDecision.PERMIT));
+        when(pdp.decideOnce(withAction("write"))).thenReturn(Mono.error(new RuntimeException()));
+
+        final var multiAuthzSubscription = new MultiAuthorizationSubscription()
+                .addAuthorizationSubscription("id1", AuthorizationSubscription.of("subject", "read", "resource"))
+                .addAuthorizationSubscription("id2", AuthorizationSubscription.of("subject", "write", "resource"));
+
+        final var expected = new MultiAuthorizationDecision();
+        expected.setAuthorizationDecisionForSubscriptionWithId("id1", AuthorizationDecision.PERMIT);
+        expected.setAuthorizationDecisionForSubscriptionWithId("id2", AuthorizationDecision.INDETERMINATE);
+
+        final var result = webClient.post().uri("/api/pdp/decide-once-batch").contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .body(BodyInserters.fromValue(multiAuthzSubscription)).exchange().expectStatus().isOk()
+                .returnResult(MultiAuthorizationDecision.class);
+
+        StepVerifier.create(result.getResponseBody()).expectNext(expected).verifyComplete();
+
+        verify(pdp, times(2)).decideOnce(any(AuthorizationSubscription.class));
+    }
+
     @Test
     void decideWithValidProcessingError() {
         when(pdp.decide((AuthorizationSubscription) any(AuthorizationSubscription.class)))
@@ -232,6 +285,37 @@ void oneMultiAllDecisions() {
         verify(pdp, times(1)).decideAll(multiAuthzSubscription);
     }
 
+    @Test
+    void multiAllDecisionsDeltaEncoded() {
+        final var first  = new MultiAuthorizationDecision();
+        first.setAuthorizationDecisionForSubscriptionWithId("id1", AuthorizationDecision.PERMIT);
+        first.setAuthorizationDecisionForSubscriptionWithId("id2", AuthorizationDecision.DENY);
+        final var second = new MultiAuthorizationDecision();
+        second.setAuthorizationDecisionForSubscriptionWithId("id1", AuthorizationDecision.PERMIT);
+        second.setAuthorizationDecisionForSubscriptionWithId("id2", AuthorizationDecision.PERMIT);
+        when(pdp.decideAll((MultiAuthorizationSubscription) any(MultiAuthorizationSubscription.class)))
+                .thenReturn(Flux.just(first, second));
+
+        final var multiAuthzSubscription = new MultiAuthorizationSubscription().addAuthorizationSubscription("id1",
+                JSON.textNode("subject"), JSON.textNode("action1"), JSON.textNode("resource"))
+                .addAuthorizationSubscription("id2", JSON.textNode("subject"), JSON.textNode("action2"),
+                        JSON.textNode("other resource"));
+
+        final var result = webClient.post().uri("/api/pdp/multi-decide-all-delta")
+                .contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE)
+                .body(BodyInserters.fromValue(multiAuthzSubscription)).exchange().expectStatus().isOk()
+                .returnResult(MultiAuthorizationDecisionDelta.class);
+
+        StepVerifier.create(result.getResponseBody())
+                .expectNextMatches(delta -> delta.isSnapshot() && delta.getAuthorizationDecisions().size() == 2)
+                .expectNextMatches(delta -> !delta.isSnapshot() && delta.getSequenceNumber() == 1L
+                        && delta.getAuthorizationDecisions().equals(List.of(
+                                new IdentifiableAuthorizationDecision("id2", AuthorizationDecision.PERMIT))))
+                .verifyComplete();
+
+        verify(pdp, times(1)).decideAll(multiAuthzSubscription);
+    }
+
     @Test
     void subscribeToMultiAllDecisionsProcessingError() {
         when(pdp.decideAll((MultiAuthorizationSubscription) any(MultiAuthorizationSubscription.class)))
@@ -283,4 +367,13 @@ void subscribeToMultiDecisionsAllInvalidBody() {
                 .returnResult(IdentifiableAuthorizationDecision.class);
     }
 
+    private static void registerCborCodecs(ClientCodecConfigurer configurer) {
+        configurer.customCodecs().register(new Jackson2CborEncoder());
+        configurer.customCodecs().register(new Jackson2CborDecoder());
+    }
+
+    private static AuthorizationSubscription withAction(String action) {
+        return argThat(subscription -> subscription != null && action.equals(subscription.getAction().asText()));
+    }
+
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2017-2025 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.server.pdpcontroller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.socket.HandshakeInfo;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.reactive.socket.adapter.ReactorNettyWebSocketSession;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
+import io.sapl.api.pdp.PolicyDecisionPoint;
+import io.sapl.api.pdp.SubscriptionChannelCommand;
+import io.sapl.api.pdp.SubscriptionChannelRejection;
+import io.sapl.api.pdp.SubscriptionChannelRejection.Reason;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.WebsocketClientSpec;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+class PDPSubscriptionChannelHandlerTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new Jdk8Module());
+
+    private static final AuthorizationSubscription READ = AuthorizationSubscription.of("subject", "read", "resource");
+
+    private static final AuthorizationSubscription FAIL = AuthorizationSubscription.of("subject", "fail", "resource");
+
+    private static final int SOAK_SUBSCRIPTIONS = 2_500;
+
+    private final PolicyDecisionPoint pdp       = mock(PolicyDecisionPoint.class);
+    private final AtomicInteger       cancelled = new AtomicInteger();
+
+    private DisposableServer server;
+
+    @AfterEach
+    void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void whenSubscriptionsAreAdded_thenDecisionsAreMultiplexedWithTheirIds() {
+        startServer(0L);
+        final var received = new CopyOnWriteArrayList<>();
+
+        final var channel = connect(ReactorNettyWebSocketClient::new,
+                session -> session
+                        .send(Flux.just(SubscriptionChannelCommand.subscribe("1", READ),
+                                SubscriptionChannelCommand.subscribe("2", FAIL)).map(command -> text(session, command)))
+                        .and(session.receive().take(2).map(WebSocketMessage::getPayloadAsText)
+                                .map(PDPSubscriptionChannelHandlerTests::readFrame).doOnNext(received::add)));
+
+        StepVerifier.create(channel).expectComplete().verify(Duration.ofSeconds(10L));
+        assertThat(received).containsExactlyInAnyOrder(
+                new IdentifiableAuthorizationDecision("1", AuthorizationDecision.PERMIT),
+                new IdentifiableAuthorizationDecision("2", AuthorizationDecision.INDETERMINATE));
+        awaitCancelled(1);
+    }
+
+    @Test
+    void whenSubscriptionIsRemoved_thenPdpStreamIsCancelledWhileConnectionStaysOpen() {
+        startServer(0L);
+        final var commands = Sinks.many().unicast().<SubscriptionChannelCommand>onBackpressureBuffer();
+
+        final var channel = connect(ReactorNettyWebSocketClient::new,
+                session -> session.send(commands.asFlux().map(command -> text(session, command)))
+                        .and(session.receive().take(1)
+                                .doOnNext(message -> commands
+                                        .tryEmitNext(SubscriptionChannelCommand.unsubscribe("1")))
+                                .then(Flux.interval(Duration.ofMillis(10L)).takeUntil(i -> cancelled.get() == 1)
+                                        .then())
+                                .doFinally(signal -> commands.tryEmitComplete())));
+
+        commands.tryEmitNext(SubscriptionChannelCommand.subscribe("1", READ));
+        StepVerifier.create(channel).expectComplete().verify(Duration.ofSeconds(10L));
+        assertThat(cancelled.get()).isEqualTo(1);
+    }
+
+    @Test
+    void whenKeepAliveIsConfigured_thenHeartbeatPingsAreSent() {
+        startServer(1L);
+
+        final var channel = connect(
+                httpClient -> new ReactorNettyWebSocketClient(httpClient,
+                        () -> WebsocketClientSpec.builder().handlePing(true)),
+                session -> session.receive().filter(message -> message.getType() == WebSocketMessage.Type.PING)
+                        .take(1).then());
+
+        StepVerifier.create(channel).expectComplete().verify(Duration.ofSeconds(10L));
+    }
+
+    @Test
+    void whenCommandsAreInvalid_thenOnlyTheseCommandsAreRejected() {
+        startServer(0L);
+        final var received = new CopyOnWriteArrayList<>();
+
+        final var channel = connect(ReactorNettyWebSocketClient::new,
+                session -> session
+                        .send(Flux.just(session.textMessage("not a command"),
+                                session.textMessage("{\"type\":\"SUBSCRIBE\"}"),
+                                text(session, new SubscriptionChannelCommand(SubscriptionChannelCommand.Type.SUBSCRIBE,
+                                        "2", null)),
+                                text(session, SubscriptionChannelCommand.subscribe("1", READ))))
+                        .and(session.receive().take(2).map(WebSocketMessage::getPayloadAsText)
+                                .map(PDPSubscriptionChannelHandlerTests::readFrame).doOnNext(received::add)));
+
+        StepVerifier.create(channel).expectComplete().verify(Duration.ofSeconds(10L));
+        assertThat(received).containsExactlyInAnyOrder(
+                new IdentifiableAuthorizationDecision("1", AuthorizationDecision.PERMIT),
+                new SubscriptionChannelRejection("2", Reason.MISSING_AUTHORIZATION_SUBSCRIPTION));
+    }
+
+    @Test
+    void whenSubscriptionLimitIsReached_thenFurtherSubscriptionsAreRejected() {
+        startServer(0L, 2);
+        final var received = new CopyOnWriteArrayList<>();
+
+        final var channel = connect(ReactorNettyWebSocketClient::new,
+                session -> session
+                        .send(Flux.just(SubscriptionChannelCommand.subscribe("1", READ),
+                                SubscriptionChannelCommand.subscribe("2", READ),
+                                SubscriptionChannelCommand.subscribe("3", READ)).map(command -> text(session, command)))
+                        .and(session.receive().take(3).map(WebSocketMessage::getPayloadAsText)
+                                .map(PDPSubscriptionChannelHandlerTests::readFrame).doOnNext(received::add)));
+
+        StepVerifier.create(channel).expectComplete().verify(Duration.ofSeconds(10L));
+        assertThat(received).containsExactlyInAnyOrder(
+                new IdentifiableAuthorizationDecision("1", AuthorizationDecision.PERMIT),
+                new IdentifiableAuthorizationDecision("2", AuthorizationDecision.PERMIT),
+                new SubscriptionChannelRejection("3", Reason.SUBSCRIPTION_LIMIT_EXCEEDED));
+        awaitCancelled(2);
+    }
+
+    @Test
+    void whenThousandsOfSubscriptionsShareOneConnection_thenAllAreServedAndReleasedOnClose() {
+        startServer(0L);
+        final var received = new CopyOnWriteArrayList<>();
+
+        final var channel = connect(ReactorNettyWebSocketClient::new,
+                session -> session
+                        .send(Flux.range(0, SOAK_SUBSCRIPTIONS)
+                                .map(i -> SubscriptionChannelCommand.subscribe(Integer.toString(i), READ))
+                                .map(command -> text(session, command)))
+                        .and(session.receive().take(SOAK_SUBSCRIPTIONS).map(WebSocketMessage::getPayloadAsText)
+                                .map(PDPSubscriptionChannelHandlerTests::readFrame).doOnNext(received::add)));
+
+        StepVerifier.create(channel).expectComplete().verify(Duration.ofSeconds(30L));
+        assertThat(received).hasSize(SOAK_SUBSCRIPTIONS).allSatisfy(frame -> assertThat(frame)
+                .isInstanceOfSatisfying(IdentifiableAuthorizationDecision.class,
+                        decision -> assertThat(decision.getAuthorizationDecision())
+                                .isEqualTo(AuthorizationDecision.PERMIT)));
+        awaitCancelled(SOAK_SUBSCRIPTIONS);
+    }
+
+    private void startServer(long keepAliveSeconds) {
+        startServer(keepAliveSeconds, PDPSubscriptionChannelHandler.DEFAULT_MAX_SUBSCRIPTIONS);
+    }
+
+    private void startServer(long keepAliveSeconds, int maxSubscriptions) {
+        when(pdp.decide(argThat((AuthorizationSubscription subscription) -> null != subscription
+                && "read".equals(subscription.getAction().asText()))))
+                .thenReturn(Flux.concat(Flux.just(AuthorizationDecision.PERMIT), Flux.<AuthorizationDecision>never())
+                        .doOnCancel(cancelled::incrementAndGet));
+        when(pdp.decide(argThat((AuthorizationSubscription subscription) -> null != subscription
+                && "fail".equals(subscription.getAction().asText()))))
+                .thenReturn(Flux.error(new IllegalStateException("PDP failure")));
+
+        final var handler       = new PDPSubscriptionChannelHandler(pdp, MAPPER, keepAliveSeconds, maxSubscriptions);
+        final var bufferFactory = new NettyDataBufferFactory(ByteBufAllocator.DEFAULT);
+        server = HttpServer.create().host("localhost").port(0)
+                .route(routes -> routes.ws(PDPSubscriptionChannelHandler.PATH,
+                        (in, out) -> handler.handle(new ReactorNettyWebSocketSession(in, out,
+                                new HandshakeInfo(URI.create(PDPSubscriptionChannelHandler.PATH), new HttpHeaders(),
+                                        Mono.empty(), null),
+                                bufferFactory))))
+                .bindNow();
+    }
+
+    private Mono<Void> connect(Function<HttpClient, ReactorNettyWebSocketClient> clientFactory,
+            WebSocketHandler handler) {
+        final var uri = URI.create("ws://localhost:" + server.port() + PDPSubscriptionChannelHandler.PATH);
+        return clientFactory.apply(HttpClient.create()).execute(uri, handler);
+    }
+
+    private void awaitCancelled(int expected) {
+        StepVerifier.create(Flux.interval(Duration.ofMillis(10L)).takeUntil(i -> cancelled.get() == expected)
+                .timeout(Duration.ofSeconds(5L)).then()).verifyComplete();
+    }
+
+    private static WebSocketMessage text(WebSocketSession session, SubscriptionChannelCommand command) {
+        try {
+            return session.textMessage(MAPPER.writeValueAsString(command));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object readFrame(String json) {
+        try {
+            final var frame = MAPPER.readTree(json);
+            if (frame.has(SubscriptionChannelRejection.REJECTION)) {
+                return MAPPER.treeToValue(frame, SubscriptionChannelRejection.class);
+            }
+            return MAPPER.treeToValue(frame, IdentifiableAuthorizationDecision.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}